@@ -3,21 +3,44 @@ package com.enterprise.dependency.adapter;
 import com.enterprise.dependency.model.core.Claim;
 import com.enterprise.dependency.model.core.ConfidenceScore;
 import com.enterprise.dependency.model.sources.ApiGatewayCall;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.enterprise.dependency.resolver.GatewayRouteTable;
+import com.enterprise.dependency.resolver.SourceServiceResolver;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * ApiGatewayAdapter processes API Gateway logs to extract service-to-service 
@@ -27,7 +50,7 @@ import java.util.regex.Pattern;
  * <ul>
  *   <li>JSON formatted API Gateway logs</li>
  *   <li>Common log format (CLF) entries</li>
- *   <li>AWS API Gateway CloudWatch logs</li>
+ *   <li>AWS API Gateway CloudWatch logs, as JSON lines or as CloudWatch Logs exports</li>
  * </ul>
  * 
  * <p>Example usage:
@@ -35,6 +58,17 @@ import java.util.regex.Pattern;
  *   ApiGatewayAdapter adapter = new ApiGatewayAdapter();
  *   String logData = readApiGatewayLogs();
  *   List&lt;Claim&gt; claims = adapter.parseApiCalls(logData, "json");
+ *
+ *   // Large exports: read record by record in constant memory
+ *   try (Stream&lt;Claim&gt; exported = adapter.streamApiCalls(Path.of("gateway-export.log.gz"), "json")) {
+ *       exported.forEach(sink);
+ *   }
+ *
+ *   // CloudWatch Logs exports: logEvents envelopes with JSON-encoded messages
+ *   List&lt;Claim&gt; exportClaims = adapter.parseCloudWatchExport(Path.of("cloudwatch-export.json.gz"));
+ *
+ *   // Large nginx-style access logs: parse line-aligned chunks on all cores
+ *   List&lt;Claim&gt; accessClaims = adapter.parseClfFileParallel(Path.of("access.log"));
  * </pre>
  */
 @Component
@@ -42,6 +76,9 @@ public class ApiGatewayAdapter {
     private static final Logger logger = LoggerFactory.getLogger(ApiGatewayAdapter.class);
     
     private final ObjectMapper objectMapper;
+    private final GatewayJsonExtractor jsonExtractor;
+    private final GatewayRouteTable routeTable;
+    private final SourceServiceResolver sourceResolver;
     
     // Common Log Format pattern for API Gateway
     private static final Pattern CLF_PATTERN = Pattern.compile(
@@ -53,8 +90,48 @@ public class ApiGatewayAdapter {
         "^/(?:api/)?(?:v\\d+/)?([a-zA-Z][a-zA-Z0-9-]*)"
     );
     
+    // Common Log Format timestamps: [dd/MMM/yyyy:HH:mm:ss Z], always with English month names
+    private static final DateTimeFormatter CLF_TIMESTAMP = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+    
+    // Chunks smaller than this are not worth a separate task
+    private static final long MIN_PARALLEL_CHUNK_BYTES = 4L * 1024 * 1024;
+    // Several chunks per worker so that uneven line density still balances out
+    private static final int CHUNKS_PER_WORKER = 4;
+    
+    private static final Pattern VERSION_SEGMENT = Pattern.compile("v\\d+");
+    
+    // Handles both single JSON object and newline-delimited JSON
+    private static final Pattern LINE_SPLITTER = Pattern.compile("\\r?\\n");
+    
+    /**
+     * Creates an adapter that derives target services from endpoint paths heuristically.
+     */
     public ApiGatewayAdapter() {
+        this(GatewayRouteTable.empty());
+    }
+    
+    /**
+     * Creates an adapter that resolves endpoints to target services through the given
+     * route table, falling back to path heuristics for endpoints without a route.
+     * 
+     * @param routeTable Gateway route table
+     */
+    public ApiGatewayAdapter(GatewayRouteTable routeTable) {
+        this(routeTable, SourceServiceResolver.defaults());
+    }
+    
+    /**
+     * Creates an adapter with the given endpoint route table and source classification.
+     * 
+     * @param routeTable Gateway route table
+     * @param sourceResolver Resolves callers to source services
+     */
+    @Autowired
+    public ApiGatewayAdapter(GatewayRouteTable routeTable, SourceServiceResolver sourceResolver) {
         this.objectMapper = new ObjectMapper();
+        this.jsonExtractor = new GatewayJsonExtractor(objectMapper.getFactory());
+        this.routeTable = Objects.requireNonNull(routeTable, "Route table cannot be null");
+        this.sourceResolver = Objects.requireNonNull(sourceResolver, "Source resolver cannot be null");
     }
     
     /**
@@ -72,99 +149,506 @@ public class ApiGatewayAdapter {
         
         logger.info("Parsing API Gateway logs in {} format", format);
         
-        List<Claim> claims = new ArrayList<>();
+        List<Claim> claims = streamApiCalls(LINE_SPLITTER.splitAsStream(logData), format)
+            .collect(Collectors.toList());
         
-        switch (format.toLowerCase()) {
-            case "json":
-                claims.addAll(parseJsonLogs(logData));
-                break;
-            case "clf":
-                claims.addAll(parseClfLogs(logData));
-                break;
-            case "aws-cloudwatch":
-                claims.addAll(parseAwsCloudWatchLogs(logData));
-                break;
-            default:
-                logger.warn("Unsupported API Gateway log format: {}", format);
+        logger.info("Extracted {} API call claims from {} format logs", claims.size(), format);
+        
+        return claims;
+    }
+    
+    /**
+     * Parses API Gateway log entries that are already split, e.g. one per list element.
+     * Entries may still contain several newline-separated records.
+     * 
+     * @param logEntries Raw log entries
+     * @param format The format of the log data ("json", "clf", "aws-cloudwatch")
+     * @return List of dependency claims
+     */
+    public List<Claim> parseApiCallEntries(List<String> logEntries, String format) {
+        if (logEntries == null || logEntries.isEmpty()) {
+            logger.warn("Empty log data provided for API Gateway parsing");
+            return new ArrayList<>();
         }
         
-        logger.info("Extracted {} API call claims from {} format logs", claims.size(), format);
+        List<Claim> claims = streamApiCalls(logEntries.stream().flatMap(LINE_SPLITTER::splitAsStream), format)
+            .collect(Collectors.toList());
         
+        logger.info("Extracted {} API call claims from {} format logs", claims.size(), format);
         return claims;
     }
     
     /**
-     * Parses JSON formatted API Gateway logs.
+     * Parses an API Gateway log file, reading it record by record; gzip files are
+     * decompressed on the fly. Only the resulting claims are held in memory; use
+     * {@link #streamApiCalls(Path, String)} to process arbitrarily large exports.
+     * 
+     * @param logFile Log file, plain or gzip
+     * @param format The format of the log data ("json", "clf", "aws-cloudwatch")
+     * @return List of dependency claims, or an empty list if the file cannot be read
+     */
+    public List<Claim> parseApiCallsFrom(Path logFile, String format) {
+        try (Stream<Claim> claims = streamApiCalls(logFile, format)) {
+            return collect(claims, format);
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Error reading API Gateway log file: {}", logFile, e);
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Parses API Gateway logs from a reader, record by record. The reader is consumed
+     * but not closed.
+     * 
+     * @param reader Source of the log data
+     * @param format The format of the log data ("json", "clf", "aws-cloudwatch")
+     * @return List of dependency claims read before the end of input or a read error
      */
-    private List<Claim> parseJsonLogs(String jsonData) {
+    public List<Claim> parseApiCallsFrom(Reader reader, String format) {
         List<Claim> claims = new ArrayList<>();
-        
         try {
-            // Handle both single JSON object and newline-delimited JSON
-            String[] jsonLines = jsonData.split("\\r?\\n");
-            
-            for (String line : jsonLines) {
-                line = line.trim();
-                if (line.isEmpty() || !line.startsWith("{")) continue;
-                
-                processJsonLine(line, claims);
+            logger.info("Parsing API Gateway logs in {} format", format);
+            streamApiCalls(reader, format).forEachOrdered(claims::add);
+            logger.info("Extracted {} API call claims from {} format logs", claims.size(), format);
+        } catch (UncheckedIOException e) {
+            logger.error("Error reading API Gateway logs after {} claims", claims.size(), e);
+        }
+        return claims;
+    }
+    
+    /**
+     * Parses UTF-8 encoded API Gateway logs from a byte stream, record by record. The
+     * stream is consumed but not closed.
+     * 
+     * @param in Source of the log data
+     * @param format The format of the log data ("json", "clf", "aws-cloudwatch")
+     * @return List of dependency claims read before the end of input or a read error
+     */
+    public List<Claim> parseApiCallsFrom(InputStream in, String format) {
+        return parseApiCallsFrom(new InputStreamReader(in, StandardCharsets.UTF_8), format);
+    }
+    
+    /**
+     * Parses a Common Log Format API Gateway log file by memory-mapping it and parsing
+     * line-aligned chunks in parallel on the common ForkJoinPool.
+     * 
+     * @param logFile Log file, plain or gzip
+     * @return List of dependency claims, in file order
+     * @see #parseClfFileParallel(Path, ForkJoinPool)
+     */
+    public List<Claim> parseClfFileParallel(Path logFile) {
+        return parseClfFileParallel(logFile, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Parses a Common Log Format API Gateway log file by memory-mapping it and parsing
+     * line-aligned chunks in parallel on the given pool.
+     * <p>
+     * Produces the same claims in the same order as {@code parseApiCallsFrom(logFile, "clf")},
+     * except that a lone {@code '\r'} is not treated as a line terminator and malformed
+     * UTF-8 is replaced instead of ending the read early. Gzip files cannot be split at
+     * line boundaries before decompression and are parsed sequentially.
+     * 
+     * @param logFile Log file, plain or gzip
+     * @param pool Pool used to parse the chunks
+     * @return List of dependency claims, in file order, or an empty list if the file cannot be read
+     */
+    public List<Claim> parseClfFileParallel(Path logFile, ForkJoinPool pool) {
+        try {
+            if (LogFiles.isGzip(logFile)) {
+                return parseApiCallsFrom(logFile, "clf");
             }
-        } catch (Exception e) {
-            logger.error("Error parsing JSON API Gateway logs", e);
+        } catch (IOException e) {
+            logger.error("Error reading API Gateway log file: {}", logFile, e);
+            return new ArrayList<>();
+        }
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            long chunkBytes = Math.max(MIN_PARALLEL_CHUNK_BYTES,
+                    channel.size() / ((long) pool.getParallelism() * CHUNKS_PER_WORKER));
+            List<Claim> claims = parseClfChunks(channel, pool, chunkBytes);
+            logger.info("Extracted {} API call claims from clf format logs", claims.size());
+            return claims;
+        } catch (IOException e) {
+            logger.error("Error reading API Gateway log file: {}", logFile, e);
+            return new ArrayList<>();
         }
+    }
+    
+    /**
+     * Parses the channel in chunks of roughly {@code chunkBytes}; exposed for tests that
+     * need many chunks from a small file.
+     */
+    List<Claim> parseClfChunks(FileChannel channel, ForkJoinPool pool, long chunkBytes) throws IOException {
+        List<ForkJoinTask<List<Claim>>> tasks = new ArrayList<>();
+        for (MappedByteBuffer chunk : LineChunker.split(channel, chunkBytes)) {
+            tasks.add(pool.submit(() -> parseClfChunk(chunk)));
+        }
+        logger.debug("Parsing {} bytes of CLF gateway log in {} chunks", channel.size(), tasks.size());
         
+        List<Claim> claims = new ArrayList<>();
+        for (ForkJoinTask<List<Claim>> task : tasks) {
+            claims.addAll(task.join());
+        }
+        return claims;
+    }
+    
+    private List<Claim> parseClfChunk(ByteBuffer chunk) {
+        List<Claim> claims = new ArrayList<>();
+        LineChunker.forEachLine(chunk, (line, offset) -> {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) {
+                return;
+            }
+            ApiGatewayCall call = parseClfLine(trimmed);
+            if (call != null) {
+                claims.add(createClaimFromApiCall(call, 1));
+            }
+        });
         return claims;
     }
     
     /**
-     * Processes a single JSON log line and adds claims if valid.
+     * Lazily parses an API Gateway log file in constant memory. The stream holds the
+     * file open and must be closed; read errors surface as {@link UncheckedIOException}.
+     * 
+     * @param logFile Log file, plain or gzip
+     * @param format The format of the log data ("json", "clf", "aws-cloudwatch")
+     * @return Stream of dependency claims in file order
+     * @throws IOException if the file cannot be opened
      */
-    private void processJsonLine(String line, List<Claim> claims) {
+    public Stream<Claim> streamApiCalls(Path logFile, String format) throws IOException {
+        return streamApiCalls(LogFiles.lines(logFile), format);
+    }
+    
+    /**
+     * Lazily parses API Gateway logs from a reader in constant memory. Read errors
+     * surface as {@link UncheckedIOException}; closing the stream closes the reader.
+     * 
+     * @param reader Source of the log data
+     * @param format The format of the log data ("json", "clf", "aws-cloudwatch")
+     * @return Stream of dependency claims in input order
+     */
+    public Stream<Claim> streamApiCalls(Reader reader, String format) {
+        BufferedReader buffered = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        return streamApiCalls(buffered.lines().onClose(() -> {
+            try {
+                buffered.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }), format);
+    }
+    
+    /**
+     * Parses a CloudWatch Logs export file, event by event; gzip files are decompressed
+     * on the fly. Only the resulting claims are held in memory; use
+     * {@link #streamCloudWatchExport(Path)} to process arbitrarily large exports.
+     * 
+     * @param exportFile Export holding {@code logEvents} or {@code events} arrays, plain or gzip
+     * @return List of dependency claims, or an empty list if the file cannot be read
+     * @see CloudWatchExportReader
+     */
+    public List<Claim> parseCloudWatchExport(Path exportFile) {
+        try (Stream<Claim> claims = streamCloudWatchExport(exportFile)) {
+            return collect(claims, "aws-cloudwatch export");
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Error reading CloudWatch export file: {}", exportFile, e);
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Lazily parses a CloudWatch Logs export file in bounded memory. The stream holds
+     * the file open and must be closed; read errors and malformed JSON surface as
+     * {@link UncheckedIOException}.
+     * 
+     * @param exportFile Export holding {@code logEvents} or {@code events} arrays, plain or gzip
+     * @return Stream of dependency claims in event order
+     * @throws IOException if the file cannot be opened
+     */
+    public Stream<Claim> streamCloudWatchExport(Path exportFile) throws IOException {
+        return streamCloudWatchExport(LogFiles.newReader(exportFile));
+    }
+    
+    /**
+     * Lazily parses a CloudWatch Logs export from a reader in bounded memory. Read
+     * errors and malformed JSON surface as {@link UncheckedIOException}; closing the
+     * stream closes the reader.
+     * 
+     * @param reader Source of the export document(s)
+     * @return Stream of dependency claims in event order
+     */
+    public Stream<Claim> streamCloudWatchExport(Reader reader) {
+        CloudWatchExportReader events;
         try {
-            JsonNode logEntry = objectMapper.readTree(line);
-            ApiGatewayCall call = parseJsonLogEntry(logEntry);
-            if (call != null) {
-                Claim claim = createClaimFromApiCall(call);
-                claims.add(claim);
+            events = new CloudWatchExportReader(objectMapper.getFactory().createParser(reader));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Spliterator<CloudWatchExportReader.Event> spliterator = new Spliterators.AbstractSpliterator<CloudWatchExportReader.Event>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super CloudWatchExportReader.Event> action) {
+                try {
+                    CloudWatchExportReader.Event event = events.next();
+                    if (event == null) {
+                        return false;
+                    }
+                    action.accept(event);
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
             }
-        } catch (JsonProcessingException e) {
+        };
+        return StreamSupport.stream(spliterator, false)
+            .onClose(() -> {
+                try {
+                    events.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })
+            .map(this::parseCloudWatchEvent)
+            .filter(Objects::nonNull)
+            .map(call -> createClaimFromApiCall(call, 1));
+    }
+    
+    private List<Claim> collect(Stream<Claim> claims, String format) {
+        logger.info("Parsing API Gateway logs in {} format", format);
+        List<Claim> result = claims.collect(Collectors.toList());
+        logger.info("Extracted {} API call claims from {} format logs", result.size(), format);
+        return result;
+    }
+    
+    /**
+     * Lazily parses API Gateway log lines, producing claims as lines are consumed so
+     * that large logs never need to be held in memory.
+     * 
+     * @param lines Log lines, e.g. from {@link java.nio.file.Files#lines}; closing the
+     *              returned stream closes this one
+     * @param format The format of the log data ("json", "clf", "aws-cloudwatch")
+     * @return Stream of dependency claims in input order
+     */
+    public Stream<Claim> streamApiCalls(Stream<String> lines, String format) {
+        return streamCalls(lines, format).map(call -> createClaimFromApiCall(call, 1));
+    }
+    
+    /**
+     * Parses API Gateway logs in sampling mode, for exploratory runs over very large
+     * logs. Calls are sampled per source/target service pair by the given sampler;
+     * only kept calls become claims, each carrying the number of calls it stands for
+     * as its observation count.
+     * <p>
+     * CLF lines are keyed on the client address, endpoint and user agent alone, found
+     * with a cheap scan, so dropped lines are never fully parsed. A line whose edge
+     * scans but which does not parse still takes its turn in the edge's stride. JSON
+     * records are keyed after extraction, which is already a single token pass.
+     * 
+     * @param logData The raw log data from API Gateway
+     * @param format The format of the log data ("json", "clf", "aws-cloudwatch")
+     * @param sampler Sampler deciding which calls to keep; holds per-edge state, so
+     *                pass the same one for all logs of a run
+     * @return Claims for the sampled calls, in input order
+     * @see EdgeSampler
+     */
+    public List<Claim> parseApiCallsSampled(String logData, String format, EdgeSampler sampler) {
+        Objects.requireNonNull(sampler, "Sampler cannot be null");
+        if (logData == null || logData.trim().isEmpty()) {
+            logger.warn("Empty log data provided for API Gateway parsing");
+            return new ArrayList<>();
+        }
+        return parseApiCallsSampled(LINE_SPLITTER.splitAsStream(logData), format, sampler);
+    }
+    
+    /**
+     * Parses an API Gateway log file in sampling mode, reading it line by line; gzip
+     * files are decompressed on the fly.
+     * 
+     * @param logFile Log file, plain or gzip
+     * @param format The format of the log data ("json", "clf", "aws-cloudwatch")
+     * @param sampler Sampler deciding which calls to keep
+     * @return Claims for the sampled calls, in file order, or an empty list if the file cannot be read
+     * @see #parseApiCallsSampled(String, String, EdgeSampler)
+     */
+    public List<Claim> parseApiCallsSampled(Path logFile, String format, EdgeSampler sampler) {
+        Objects.requireNonNull(sampler, "Sampler cannot be null");
+        try (Stream<String> lines = LogFiles.lines(logFile)) {
+            return parseApiCallsSampled(lines, format, sampler);
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Error reading API Gateway log file: {}", logFile, e);
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Parses API Gateway log lines in sampling mode. The stream is consumed but not closed.
+     * 
+     * @param lines Log lines
+     * @param format The format of the log data ("json", "clf", "aws-cloudwatch")
+     * @param sampler Sampler deciding which calls to keep
+     * @return Claims for the sampled calls, in input order
+     * @see #parseApiCallsSampled(String, String, EdgeSampler)
+     */
+    public List<Claim> parseApiCallsSampled(Stream<String> lines, String format, EdgeSampler sampler) {
+        Objects.requireNonNull(sampler, "Sampler cannot be null");
+        Function<String, ApiGatewayCall> lineParser = lineParser(format);
+        if (lineParser == null) {
+            return new ArrayList<>();
+        }
+        boolean clf = format.equalsIgnoreCase("clf");
+        
+        long seenBefore = sampler.getSeenCount();
+        List<Claim> claims = lines
+            .map(String::trim)
+            .filter(line -> !line.isEmpty())
+            .map(line -> sampleLine(line, lineParser, clf ? clfEdgeKey(line) : null, sampler))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+        
+        logger.info("Sampled {} of {} API calls in {} format logs", claims.size(), sampler.getSeenCount() - seenBefore, format);
+        return claims;
+    }
+    
+    /**
+     * Samples one line on its edge key, parsing it in full only if it is kept.
+     * 
+     * @param edgeKey Key found by a cheap scan, or null to parse first and key from the call
+     * @return Claim weighted by the sampler, or null if the line is dropped or does not parse
+     */
+    private Claim sampleLine(String line, Function<String, ApiGatewayCall> lineParser, String edgeKey, EdgeSampler sampler) {
+        ApiGatewayCall call = null;
+        if (edgeKey == null) {
+            call = lineParser.apply(line);
+            if (call == null) {
+                return null;
+            }
+            edgeKey = edgeKey(call.getSourceService(), call.getTargetService());
+        }
+        long weight = sampler.sample(edgeKey);
+        if (weight == 0) {
+            return null;
+        }
+        if (call == null) {
+            call = lineParser.apply(line);
+        }
+        return call != null ? createClaimFromApiCall(call, weight) : null;
+    }
+    
+    /**
+     * @return Key of the edge a CLF line resolves to, or null if its edge fields do not scan
+     */
+    private String clfEdgeKey(String line) {
+        ClfLineScanner.EdgeFields fields = ClfLineScanner.scanEdge(line);
+        if (fields == null) {
+            return null;
+        }
+        return edgeKey(sourceResolver.resolve(fields.userAgent(), fields.clientIp()),
+            extractTargetServiceFromEndpoint(fields.endpoint()));
+    }
+    
+    private static String edgeKey(String sourceService, String targetService) {
+        return sourceService + " -> " + targetService;
+    }
+    
+    private Stream<ApiGatewayCall> streamCalls(Stream<String> lines, String format) {
+        Function<String, ApiGatewayCall> lineParser = lineParser(format);
+        if (lineParser == null) {
+            return Stream.<ApiGatewayCall>empty().onClose(lines::close);
+        }
+        return lines
+            .map(String::trim)
+            .filter(line -> !line.isEmpty())
+            .map(lineParser)
+            .filter(Objects::nonNull);
+    }
+    
+    /**
+     * @return Parser for single trimmed lines of the given format, or null if the format is not supported
+     */
+    private Function<String, ApiGatewayCall> lineParser(String format) {
+        switch (format.toLowerCase()) {
+            case "json":
+            case "aws-cloudwatch":
+                // AWS CloudWatch records one JSON object per line; exports wrapped in
+                // logEvents envelopes go through streamCloudWatchExport instead
+                return this::parseJsonLine;
+            case "clf":
+                return this::parseClfLine;
+            default:
+                logger.warn("Unsupported API Gateway log format: {}", format);
+                return null;
+        }
+    }
+    
+    /**
+     * Parses one CloudWatch log event. Messages are JSON access log records, or CLF
+     * lines for stages whose access logging uses that format; the event time stands in
+     * for a record without a timestamp of its own.
+     * @return Parsed call, or null if the message is not a usable log entry
+     */
+    private ApiGatewayCall parseCloudWatchEvent(CloudWatchExportReader.Event event) {
+        String message = event.message().trim();
+        if (!message.startsWith("{")) {
+            return message.isEmpty() ? null : parseClfLine(message);
+        }
+        try {
+            GatewayJsonExtractor.Record record = jsonExtractor.extract(message);
+            Instant eventTime = event.timestamp() != null ? Instant.ofEpochMilli(event.timestamp()) : null;
+            return record != null ? toApiCall(record, message, eventTime) : null;
+        } catch (IOException e) {
+            logger.warn("Failed to parse CloudWatch log event message: {}", message, e);
+        }
+        return null;
+    }
+    
+    /**
+     * Parses a single newline-delimited JSON log line.
+     * @return Parsed call, or null if the line is not a usable JSON log entry
+     */
+    private ApiGatewayCall parseJsonLine(String line) {
+        if (!line.startsWith("{")) {
+            return null;
+        }
+        try {
+            GatewayJsonExtractor.Record record = jsonExtractor.extract(line);
+            return record != null ? toApiCall(record, line, null) : null;
+        } catch (IOException e) {
             logger.warn("Failed to parse JSON log entry: {}", line, e);
         }
+        return null;
     }
     
     /**
-     * Parses a single JSON log entry into an ApiGatewayCall.
+     * Builds an ApiGatewayCall from the fields of one JSON log record.
+     * 
+     * @param fallbackTimestamp Used if the record has no timestamp of its own, may be null
      */
-    private ApiGatewayCall parseJsonLogEntry(JsonNode logEntry) {
+    private ApiGatewayCall toApiCall(GatewayJsonExtractor.Record record, String line, Instant fallbackTimestamp) {
         try {
             // Extract common fields from different JSON log formats
-            Instant timestamp = parseTimestamp(logEntry);
-            String method = extractJsonField(logEntry, "method", "httpMethod", "requestMethod");
-            String endpoint = extractJsonField(logEntry, "path", "resource", "endpoint");
-            String sourceService = extractJsonField(logEntry, "sourceService", "clientId", "userAgent");
-            Integer responseTime = extractResponseTime(logEntry);
-            
-            // Check if timestamp was actually found in the log entry (not just defaulted)
-            boolean hasTimestamp = hasAnyField(logEntry, "timestamp", "@timestamp", "time", "eventTime");
+            String method = record.method();
+            String endpoint = record.endpoint();
             
             // Require at minimum: method, endpoint, and timestamp for high-quality claims
-            if (method == null || endpoint == null || !hasTimestamp) {
-                logger.debug("Incomplete log entry (missing method, endpoint, or timestamp), skipping: {}", logEntry);
+            if (method == null || endpoint == null || (!record.hasTimestamp() && fallbackTimestamp == null)) {
+                logger.debug("Incomplete log entry (missing method, endpoint, or timestamp), skipping: {}", line);
                 return null;
             }
             
             String targetService = extractTargetServiceFromEndpoint(endpoint);
+            String sourceService = record.sourceService();
             if (sourceService == null) {
                 sourceService = "unknown-client";
             }
             
             return ApiGatewayCall.builder()
-                .timestamp(timestamp)
+                .timestamp(record.hasTimestamp() ? record.timestamp() : fallbackTimestamp)
                 .sourceService(sourceService)
                 .targetService(targetService)
                 .endpoint(endpoint)
                 .method(method.toUpperCase())
-                .responseTime(responseTime)
+                .responseTime(record.responseTime())
                 .build();
                 
         } catch (Exception e) {
@@ -174,66 +658,72 @@ public class ApiGatewayAdapter {
     }
     
     /**
-     * Parses Common Log Format (CLF) API Gateway logs.
+     * Parses a single Common Log Format (CLF) API Gateway log line.
+     * <p>
+     * Well-formed lines go through the regex-free {@link ClfLineScanner}; anything it
+     * does not handle falls back to the regex path.
+     * @return Parsed call, or null if the line does not match
      */
-    private List<Claim> parseClfLogs(String clfData) {
-        List<Claim> claims = new ArrayList<>();
-        
-        String[] lines = clfData.split("\\r?\\n");
-        for (String line : lines) {
-            line = line.trim();
-            if (line.isEmpty()) continue;
-            
-            Matcher matcher = CLF_PATTERN.matcher(line);
-            if (matcher.matches()) {
-                try {
-                    String clientIp = matcher.group(1);
-                    String timestampStr = matcher.group(2);
-                    String method = matcher.group(3);
-                    String endpoint = matcher.group(4);
-                    String userAgent = matcher.group(5);
-                    String responseTimeStr = matcher.group(6);
-                    
-                    Instant timestamp = parseClfTimestamp(timestampStr);
-                    String targetService = extractTargetServiceFromEndpoint(endpoint);
-                    String sourceService = deriveSourceFromUserAgent(userAgent, clientIp);
-                    Integer responseTime = Integer.parseInt(responseTimeStr);
-                    
-                    ApiGatewayCall call = ApiGatewayCall.builder()
-                        .timestamp(timestamp)
-                        .sourceService(sourceService)
-                        .targetService(targetService)
-                        .endpoint(endpoint)
-                        .method(method.toUpperCase())
-                        .responseTime(responseTime)
-                        .build();
-                    
-                    Claim claim = createClaimFromApiCall(call);
-                    claims.add(claim);
-                    
-                } catch (Exception e) {
-                    logger.warn("Error parsing CLF log line: {}", line, e);
-                }
-            }
+    private ApiGatewayCall parseClfLine(String line) {
+        ClfLineScanner.Record record = ClfLineScanner.scan(line);
+        if (record == null) {
+            return parseClfLineWithPattern(line);
         }
-        
-        return claims;
+        return ApiGatewayCall.builder()
+            .timestamp(record.timestamp())
+            .sourceService(sourceResolver.resolve(record.userAgent(), record.clientIp()))
+            .targetService(extractTargetServiceFromEndpoint(record.endpoint()))
+            .endpoint(record.endpoint())
+            .method(record.method().toUpperCase())
+            .responseTime(record.responseTime())
+            .build();
     }
     
-    /**
-     * Parses AWS CloudWatch API Gateway logs.
-     */
-    private List<Claim> parseAwsCloudWatchLogs(String cloudWatchData) {
-        // AWS CloudWatch logs are typically JSON format but with specific fields
-        return parseJsonLogs(cloudWatchData);
+    private ApiGatewayCall parseClfLineWithPattern(String line) {
+        Matcher matcher = CLF_PATTERN.matcher(line);
+        if (!matcher.matches()) {
+            return null;
+        }
+        try {
+            String clientIp = matcher.group(1);
+            String timestampStr = matcher.group(2);
+            String method = matcher.group(3);
+            String endpoint = matcher.group(4);
+            String userAgent = matcher.group(5);
+            String responseTimeStr = matcher.group(6);
+            
+            Instant timestamp = parseClfTimestamp(timestampStr);
+            String targetService = extractTargetServiceFromEndpoint(endpoint);
+            String sourceService = sourceResolver.resolve(userAgent, clientIp);
+            Integer responseTime = Integer.parseInt(responseTimeStr);
+            
+            return ApiGatewayCall.builder()
+                .timestamp(timestamp)
+                .sourceService(sourceService)
+                .targetService(targetService)
+                .endpoint(endpoint)
+                .method(method.toUpperCase())
+                .responseTime(responseTime)
+                .build();
+            
+        } catch (Exception e) {
+            logger.warn("Error parsing CLF log line: {}", line, e);
+            return null;
+        }
     }
     
     /**
-     * Extracts target service name from API endpoint.
+     * Extracts target service name from API endpoint: the route table decides where a
+     * route exists, path heuristics otherwise.
      */
     private String extractTargetServiceFromEndpoint(String endpoint) {
         if (endpoint == null) return "unknown-service";
         
+        String routedService = routeTable.resolve(endpoint);
+        if (routedService != null) {
+            return routedService;
+        }
+        
         Matcher matcher = SERVICE_ENDPOINT_PATTERN.matcher(endpoint);
         if (matcher.find()) {
             return matcher.group(1) + "-service";
@@ -242,7 +732,7 @@ public class ApiGatewayAdapter {
         // Fallback: use first path segment
         String[] segments = endpoint.split("/");
         for (String segment : segments) {
-            if (!segment.isEmpty() && !segment.equals("api") && !segment.matches("v\\d+")) {
+            if (!segment.isEmpty() && !segment.equals("api") && !VERSION_SEGMENT.matcher(segment).matches()) {
                 return segment + "-service";
             }
         }
@@ -251,9 +741,9 @@ public class ApiGatewayAdapter {
     }
     
     /**
-     * Creates a Claim from an ApiGatewayCall.
+     * Creates a Claim from an ApiGatewayCall that stands for the given number of calls.
      */
-    private Claim createClaimFromApiCall(ApiGatewayCall call) {
+    private Claim createClaimFromApiCall(ApiGatewayCall call, long observationCount) {
         String processedData = String.format("%s -> %s", 
             call.getSourceService(), 
             call.getTargetService());
@@ -268,12 +758,13 @@ public class ApiGatewayAdapter {
         double confidence = calculateApiCallConfidence(call);
         
         return Claim.builder()
-            .id("apigateway_" + UUID.randomUUID().toString())
+            .id(ClaimIds.contentId("apigateway_", "API_GATEWAY", rawData, processedData))
             .sourceType("API_GATEWAY")
             .rawData(rawData)
             .processedData(processedData)
             .timestamp(call.getTimestamp())
             .confidenceScore(ConfidenceScore.of(confidence))
+            .observationCount(observationCount)
             .build();
     }
     
@@ -313,96 +804,13 @@ public class ApiGatewayAdapter {
     
     // Helper methods for parsing various timestamp and field formats
     
-    private Instant parseTimestamp(JsonNode logEntry) {
-        String[] timestampFields = {"timestamp", "@timestamp", "time", "eventTime"};
-        
-        for (String field : timestampFields) {
-            JsonNode timestampNode = logEntry.get(field);
-            if (timestampNode != null) {
-                try {
-                    if (timestampNode.isNumber()) {
-                        return Instant.ofEpochMilli(timestampNode.asLong());
-                    } else {
-                        return Instant.parse(timestampNode.asText());
-                    }
-                } catch (DateTimeParseException e) {
-                    logger.debug("Could not parse timestamp field {}: {}", field, timestampNode.asText());
-                }
-            }
-        }
-        
-        return Instant.now(); // Fallback to current time
-    }
-    
-    private boolean hasAnyField(JsonNode logEntry, String... fieldNames) {
-        for (String fieldName : fieldNames) {
-            JsonNode field = logEntry.get(fieldName);
-            if (field != null && !field.isNull()) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
-    private String extractJsonField(JsonNode logEntry, String... fieldNames) {
-        for (String fieldName : fieldNames) {
-            JsonNode field = logEntry.get(fieldName);
-            if (field != null && !field.isNull()) {
-                return field.asText();
-            }
-        }
-        return null;
-    }
-    
-    private Integer extractResponseTime(JsonNode logEntry) {
-        String[] responseTimeFields = {"responseTime", "duration", "latency", "processingTime"};
-        
-        for (String field : responseTimeFields) {
-            JsonNode timeNode = logEntry.get(field);
-            if (timeNode != null && timeNode.isNumber()) {
-                return timeNode.asInt();
-            }
-        }
-        return null;
-    }
-    
     private Instant parseClfTimestamp(String timestampStr) {
         try {
-            // Common Log Format: [dd/MMM/yyyy:HH:mm:ss Z]
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z");
-            return Instant.from(formatter.parse(timestampStr));
+            return Instant.from(CLF_TIMESTAMP.parse(timestampStr));
         } catch (DateTimeParseException e) {
             logger.debug("Could not parse CLF timestamp: {}", timestampStr);
             return Instant.now();
         }
     }
     
-    private String deriveSourceFromUserAgent(String userAgent, String clientIp) {
-        if (userAgent != null && !userAgent.equals("-")) {
-            // First try to extract full service names with dashes/underscores
-            Pattern servicePattern = Pattern.compile("([a-zA-Z][a-zA-Z0-9-_]*(?:client|service)[a-zA-Z0-9-_]*)");
-            Matcher matcher = servicePattern.matcher(userAgent);
-            if (matcher.find()) {
-                return matcher.group(1);
-            }
-            
-            // Then try to extract any word ending with 'service' or 'client'
-            Pattern wordPattern = Pattern.compile("([a-zA-Z][a-zA-Z0-9-_]*(?:service|client))");
-            matcher = wordPattern.matcher(userAgent);
-            if (matcher.find()) {
-                return matcher.group(1);
-            }
-            
-            // Extract service name from patterns like "order-service-proxy/2.0"
-            String[] parts = userAgent.split("[\\s/]");
-            for (String part : parts) {
-                if (part.contains("service") || part.contains("client")) {
-                    return part;
-                }
-            }
-        }
-        
-        // Fallback to client IP
-        return "client-" + (clientIp != null ? clientIp.replace(".", "-") : "unknown");
-    }
 }
@@ -0,0 +1,276 @@
+package com.enterprise.dependency.adapter;
+
+import com.enterprise.dependency.model.core.Claim;
+import com.enterprise.dependency.model.core.ConfidenceScore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Discovers dependencies between applications from their compiled artifacts.
+ * <p>
+ * Every artifact, a JAR or a directory of class files, belongs to one application.
+ * Class files are read with {@link ClassFileReader}, which collects the classes each
+ * one refers to from its constant pool, so references that source regexes miss
+ * (inherited types, field and method signatures, fully qualified names) are found
+ * without compiling or parsing source. JARs are read through {@link ZipFile}, which
+ * seeks to each entry through the central directory; artifacts are scanned in
+ * parallel, one task per artifact.
+ * <p>
+ * Referenced classes are mapped to applications by package: explicitly configured
+ * package prefixes first, then the packages defined by the scanned artifacts
+ * themselves. References to packages no application owns (the JDK, third-party
+ * libraries) are ignored. Every pair of applications with at least one reference
+ * yields one claim.
+ * <p>
+ * Nested libraries of Spring Boot and web archives ({@code BOOT-INF/lib/},
+ * {@code WEB-INF/lib/}) are skipped; the classes of the application itself are read
+ * wherever they are in the archive.
+ * <p>
+ * Example:
+ * <pre>
+ *   BytecodeDependencyScanner scanner = new BytecodeDependencyScanner();
+ *   List&lt;Claim&gt; claims = scanner.scanRepository(Path.of("/srv/artifacts"));
+ * </pre>
+ */
+public class BytecodeDependencyScanner {
+    private static final Logger logger = LoggerFactory.getLogger(BytecodeDependencyScanner.class);
+    // order-service-2.1.0-SNAPSHOT.jar -> order-service
+    private static final Pattern ARTIFACT_VERSION = Pattern.compile("-\\d[\\w.\\-]*$");
+
+    private final Map<String, String> packageOwners;
+
+    /**
+     * Creates a scanner that maps packages only to the applications defining them.
+     */
+    public BytecodeDependencyScanner() {
+        this(Collections.emptyMap());
+    }
+
+    /**
+     * @param packageOwners Package prefix (for example {@code com.enterprise.payments}) to
+     *                      owning application; the longest matching prefix wins
+     */
+    public BytecodeDependencyScanner(Map<String, String> packageOwners) {
+        this.packageOwners = new HashMap<>(Objects.requireNonNull(packageOwners, "Package owners cannot be null"));
+    }
+
+    /**
+     * Scans every JAR and WAR below a directory on the common ForkJoinPool. Each
+     * archive belongs to the application named by its file name without the version.
+     * @param artifactRepository Directory holding built artifacts
+     * @return Dependency claims between the applications
+     * @throws IOException if the directory or an archive cannot be read
+     */
+    public List<Claim> scanRepository(Path artifactRepository) throws IOException {
+        Map<String, Path> artifacts = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(artifactRepository)) {
+            for (Path archive : paths.filter(BytecodeDependencyScanner::isArchive).sorted().collect(Collectors.toList())) {
+                Path previous = artifacts.putIfAbsent(applicationName(archive), archive);
+                if (previous != null) {
+                    logger.debug("Skipping {}: application already provided by {}", archive, previous);
+                }
+            }
+        }
+        return scan(artifacts, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Scans artifacts, one task per artifact.
+     * @param artifactsByApplication Application to its JAR or class directory
+     * @param pool Pool the artifacts are scanned on
+     * @return Dependency claims between the applications, ordered by source and target
+     * @throws IOException if an artifact cannot be read
+     */
+    public List<Claim> scan(Map<String, Path> artifactsByApplication, ForkJoinPool pool) throws IOException {
+        Map<String, ForkJoinTask<ArtifactScan>> tasks = new TreeMap<>();
+        for (Map.Entry<String, Path> artifact : artifactsByApplication.entrySet()) {
+            tasks.put(artifact.getKey(), pool.submit(() -> scanArtifact(artifact.getValue())));
+        }
+        Map<String, ArtifactScan> scans = new LinkedHashMap<>();
+        for (Map.Entry<String, ForkJoinTask<ArtifactScan>> task : tasks.entrySet()) {
+            try {
+                scans.put(task.getKey(), task.getValue().join());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        // Packages defined by an artifact belong to its application
+        Map<String, String> definedPackages = new HashMap<>();
+        for (Map.Entry<String, ArtifactScan> scan : scans.entrySet()) {
+            for (String definedPackage : scan.getValue().packages) {
+                String owner = definedPackages.putIfAbsent(definedPackage, scan.getKey());
+                if (owner != null && !owner.equals(scan.getKey())) {
+                    logger.debug("Package {} is defined by both {} and {}", definedPackage, owner, scan.getKey());
+                }
+            }
+        }
+
+        List<Claim> claims = new ArrayList<>();
+        Instant now = Instant.now();
+        for (Map.Entry<String, ArtifactScan> scan : scans.entrySet()) {
+            String sourceApplication = scan.getKey();
+            Map<String, List<String>> referencesByTarget = new TreeMap<>();
+            for (Map.Entry<String, String> reference : scan.getValue().references.entrySet()) {
+                String target = owner(packageOf(reference.getKey()), definedPackages);
+                if (target != null && !target.equals(sourceApplication)) {
+                    referencesByTarget.computeIfAbsent(target, t -> new ArrayList<>())
+                        .add(reference.getValue() + " -> " + reference.getKey());
+                }
+            }
+            for (Map.Entry<String, List<String>> target : referencesByTarget.entrySet()) {
+                claims.add(createClaim(sourceApplication, target.getKey(), target.getValue(), now));
+            }
+        }
+
+        logger.info("Scanned {} artifacts: {} classes, {} dependency claims",
+            scans.size(), scans.values().stream().mapToInt(s -> s.classCount).sum(), claims.size());
+        return claims;
+    }
+
+    private String owner(String packageName, Map<String, String> definedPackages) {
+        // Longest configured prefix, walking up the package hierarchy
+        for (String prefix = packageName; !prefix.isEmpty(); ) {
+            String owner = packageOwners.get(prefix);
+            if (owner != null) {
+                return owner;
+            }
+            int parent = prefix.lastIndexOf('.');
+            prefix = parent < 0 ? "" : prefix.substring(0, parent);
+        }
+        return definedPackages.get(packageName);
+    }
+
+    private static Claim createClaim(String sourceApplication, String targetApplication, List<String> references, Instant timestamp) {
+        // The first references are enough to show why the dependency exists
+        String examples = references.stream().limit(3).collect(Collectors.joining(", "));
+        return Claim.builder()
+            .id("codebase_" + ClaimIds.contentHash("bytecode", sourceApplication, targetApplication))
+            .sourceType("CODEBASE")
+            .rawData(String.format("%d class references (bytecode): %s", references.size(), examples))
+            .processedData(String.format("%s -> %s", sourceApplication, targetApplication))
+            .timestamp(timestamp)
+            .confidenceScore(ConfidenceScore.of(0.95)) // Compiled references are as reliable as declared dependencies
+            .build();
+    }
+
+    private static ArtifactScan scanArtifact(Path artifact) {
+        ArtifactScan scan = new ArtifactScan();
+        try {
+            if (Files.isDirectory(artifact)) {
+                try (Stream<Path> paths = Files.walk(artifact)) {
+                    for (Path classFile : paths.filter(p -> isClassFile(p.toString())).collect(Collectors.toList())) {
+                        scan.add(classFile.toString(), Files.readAllBytes(classFile));
+                    }
+                }
+            } else {
+                try (ZipFile archive = new ZipFile(artifact.toFile())) {
+                    Enumeration<? extends ZipEntry> entries = archive.entries();
+                    while (entries.hasMoreElements()) {
+                        ZipEntry entry = entries.nextElement();
+                        if (entry.isDirectory() || !isClassFile(entry.getName()) || isNestedLibrary(entry.getName())) {
+                            continue;
+                        }
+                        try (InputStream in = archive.getInputStream(entry)) {
+                            scan.add(artifact + "!" + entry.getName(), readEntry(in, entry.getSize()));
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read artifact " + artifact, e);
+        }
+        // Classes of the artifact itself are not outgoing references
+        scan.references.keySet().removeAll(scan.classes);
+        logger.debug("Scanned {}: {} classes in {} packages", artifact, scan.classCount, scan.packages.size());
+        return scan;
+    }
+
+    private static byte[] readEntry(InputStream in, long size) throws IOException {
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            return in.readAllBytes();
+        }
+        byte[] bytes = new byte[(int) size];
+        int read = in.readNBytes(bytes, 0, bytes.length);
+        if (read != bytes.length) {
+            throw new IOException("Unexpected end of entry after " + read + " of " + size + " bytes");
+        }
+        return bytes;
+    }
+
+    private static boolean isArchive(Path path) {
+        String name = path.getFileName().toString();
+        return (name.endsWith(".jar") || name.endsWith(".war")) && Files.isRegularFile(path);
+    }
+
+    private static boolean isClassFile(String name) {
+        return name.endsWith(".class") && !name.endsWith("module-info.class") && !name.endsWith("package-info.class");
+    }
+
+    private static boolean isNestedLibrary(String entryName) {
+        return entryName.startsWith("BOOT-INF/lib/") || entryName.startsWith("WEB-INF/lib/");
+    }
+
+    static String applicationName(Path archive) {
+        String name = archive.getFileName().toString();
+        name = name.substring(0, name.lastIndexOf('.'));
+        return ARTIFACT_VERSION.matcher(name).replaceFirst("");
+    }
+
+    private static String packageOf(String className) {
+        int end = className.lastIndexOf('.');
+        return end < 0 ? "" : className.substring(0, end);
+    }
+
+    /**
+     * Classes, packages and outgoing references of one artifact.
+     */
+    private static final class ArtifactScan {
+        private final Set<String> packages = new HashSet<>();
+        private final Set<String> classes = new HashSet<>();
+        // Referenced class to the first class referencing it
+        private final Map<String, String> references = new TreeMap<>();
+        private int classCount;
+
+        void add(String location, byte[] classFile) {
+            ClassFileReader.ClassReferences read;
+            try {
+                read = ClassFileReader.read(classFile);
+            } catch (IOException e) {
+                logger.warn("Skipping unreadable class file {}: {}", location, e.getMessage());
+                return;
+            }
+            classCount++;
+            classes.add(read.className());
+            packages.add(packageOf(read.className()));
+            for (String reference : read.references()) {
+                references.putIfAbsent(reference, read.className());
+            }
+        }
+    }
+}
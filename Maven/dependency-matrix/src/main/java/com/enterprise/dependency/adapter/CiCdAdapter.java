@@ -11,9 +11,12 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * CiCdAdapter processes CI/CD pipeline logs to extract dependency information.
@@ -36,11 +39,14 @@ public class CiCdAdapter {
         "(\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\d{3}Z?).*?stage:\\s*([\\w-]+).*?needs:\\s*\\[([^\\]]+)\\]"
     );
     
+    private static final Pattern LINE_SPLITTER = Pattern.compile("\\n");
+    
     /**
      * Parse CI/CD logs to extract deployment and build dependencies.
      * 
      * @param ciCdLogs Raw CI/CD log data
-     * @param format CI/CD platform format (jenkins, github-actions, gitlab-ci, etc.)
+     * @param format CI/CD platform format (jenkins, github-actions, gitlab-ci, json, or
+     *               generic to detect the format of each line)
      * @return List of claims representing CI/CD dependencies
      */
     public List<Claim> parseCiCdLogs(String ciCdLogs, String format) {
@@ -50,47 +56,56 @@ public class CiCdAdapter {
         }
         
         logger.info("Parsing CI/CD logs in {} format", format);
-        List<Claim> claims = new ArrayList<>();
-        
-        String[] lines = ciCdLogs.split("\\n");
-        for (String line : lines) {
-            try {
-                CiCdEvent event = parseLogLine(line.trim(), format);
-                if (event != null) {
-                    Claim claim = convertToClaim(event);
-                    claims.add(claim);
-                    logger.debug("Parsed CI/CD event: {}", event);
-                }
-            } catch (Exception e) {
-                logger.debug("Failed to parse CI/CD log line: {}", line, e);
-            }
-        }
+        List<Claim> claims = streamCiCdLogs(LINE_SPLITTER.splitAsStream(ciCdLogs), format)
+            .collect(Collectors.toList());
         
         logger.info("Extracted {} CI/CD dependency claims from {} format logs", claims.size(), format);
         return claims;
     }
     
     /**
-     * Parse a single log line based on the specified format.
+     * Lazily parse CI/CD log lines in a known format, producing claims as lines are
+     * consumed so that large logs never need to be held in memory.
+     * 
+     * @param lines CI/CD log lines, e.g. from {@link java.nio.file.Files#lines}; closing
+     *              the returned stream closes this one
+     * @param format CI/CD platform format (jenkins, github-actions, gitlab-ci, json, or generic)
+     * @return Stream of claims in input order
      */
-    private CiCdEvent parseLogLine(String line, String format) {
-        if (line.isEmpty()) return null;
-        
+    public Stream<Claim> streamCiCdLogs(Stream<String> lines, String format) {
+        Function<String, CiCdEvent> parser = lineParser(format);
+        return lines
+            .map(line -> toClaimOrNull(line, parser))
+            .filter(Objects::nonNull);
+    }
+    
+    /**
+     * Resolve the parser for a format once, rather than for every line. Lines that
+     * are no candidate for the format skip its regex entirely.
+     */
+    private Function<String, CiCdEvent> lineParser(String format) {
         switch (format.toLowerCase()) {
             case "jenkins":
-                return parseJenkinsLog(line);
+                return line -> isCandidate(line, CiCdLineClassifier.JENKINS) ? parseJenkinsLog(line) : null;
             case "github-actions":
-                return parseGitHubActionsLog(line);
+                return line -> isCandidate(line, CiCdLineClassifier.GITHUB_ACTIONS) ? parseGitHubActionsLog(line) : null;
             case "gitlab-ci":
-                return parseGitLabCILog(line);
+                return line -> isCandidate(line, CiCdLineClassifier.GITLAB_CI) ? parseGitLabCILog(line) : null;
             case "json":
-                return parseJsonLog(line);
+                return line -> line.isEmpty() ? null : parseJsonLog(line);
+            case "generic":
+            case "auto":
+                return this::parseLogLineAuto;
             default:
                 logger.warn("Unsupported CI/CD log format: {}", format);
-                return null;
+                return line -> null;
         }
     }
     
+    private static boolean isCandidate(String line, int format) {
+        return (CiCdLineClassifier.candidates(line) & format) != 0;
+    }
+    
     private CiCdEvent parseJenkinsLog(String line) {
         Matcher matcher = JENKINS_PATTERN.matcher(line);
         if (matcher.find()) {
@@ -180,7 +195,7 @@ public class CiCdAdapter {
         String processedData = String.format("%s -> %s", event.getSourceStage(), event.getTargetStage());
         
         return Claim.builder()
-            .id("cicd_" + UUID.randomUUID().toString())
+            .id(ClaimIds.contentId("cicd_", "CI_CD", event.getRawLine(), processedData))
             .sourceType("CI_CD")
             .rawData(event.getRawLine())
             .processedData(processedData)
@@ -231,43 +246,64 @@ public class CiCdAdapter {
         }
         
         logger.info("Parsing {} CI/CD log entries", ciCdLogs.size());
-        List<Claim> claims = new ArrayList<>();
-        
-        for (String line : ciCdLogs) {
-            try {
-                // Try different formats to parse the line
-                CiCdEvent event = parseLogLineAuto(line.trim());
-                if (event != null) {
-                    Claim claim = convertToClaim(event);
-                    claims.add(claim);
-                    logger.debug("Parsed CI/CD event: {}", event);
-                }
-            } catch (Exception e) {
-                logger.debug("Failed to parse CI/CD log line: {}", line, e);
-            }
-        }
+        List<Claim> claims = streamLogData(ciCdLogs.stream()).collect(Collectors.toList());
         
         logger.info("Extracted {} CI/CD dependency claims", claims.size());
         return claims;
     }
     
     /**
-     * Auto-detect format and parse a log line.
+     * Lazily parse CI/CD log lines of mixed or unknown format, auto-detecting the
+     * format of each line.
+     * 
+     * @param lines CI/CD log lines; closing the returned stream closes this one
+     * @return Stream of claims in input order
+     */
+    public Stream<Claim> streamLogData(Stream<String> lines) {
+        return lines
+            .map(line -> toClaimOrNull(line, this::parseLogLineAuto))
+            .filter(Objects::nonNull);
+    }
+    
+    /**
+     * Parse one line with the given parser and convert the event, logging and
+     * swallowing per-line failures.
+     */
+    private Claim toClaimOrNull(String line, Function<String, CiCdEvent> parser) {
+        try {
+            CiCdEvent event = parser.apply(line.trim());
+            if (event != null) {
+                logger.debug("Parsed CI/CD event: {}", event);
+                return convertToClaim(event);
+            }
+        } catch (Exception e) {
+            logger.debug("Failed to parse CI/CD log line: {}", line, e);
+        }
+        return null;
+    }
+    
+    /**
+     * Auto-detect format and parse a log line. One keyword pass decides which format
+     * patterns could match; only those are run, in the order Jenkins, GitHub Actions,
+     * GitLab CI.
      */
     private CiCdEvent parseLogLineAuto(String line) {
         if (line.isEmpty()) return null;
         
-        // Try Jenkins format first
-        CiCdEvent event = parseJenkinsLog(line);
-        if (event != null) return event;
-        
-        // Try GitHub Actions format
-        event = parseGitHubActionsLog(line);
-        if (event != null) return event;
-        
-        // Try GitLab CI format
-        event = parseGitLabCILog(line);
-        if (event != null) return event;
+        int candidates = CiCdLineClassifier.candidates(line);
+        CiCdEvent event;
+        if ((candidates & CiCdLineClassifier.JENKINS) != 0) {
+            event = parseJenkinsLog(line);
+            if (event != null) return event;
+        }
+        if ((candidates & CiCdLineClassifier.GITHUB_ACTIONS) != 0) {
+            event = parseGitHubActionsLog(line);
+            if (event != null) return event;
+        }
+        if ((candidates & CiCdLineClassifier.GITLAB_CI) != 0) {
+            event = parseGitLabCILog(line);
+            if (event != null) return event;
+        }
         
         // Try JSON format
         event = parseJsonLog(line);
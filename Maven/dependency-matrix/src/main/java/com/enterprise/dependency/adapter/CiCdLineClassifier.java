@@ -0,0 +1,68 @@
+package com.enterprise.dependency.adapter;
+
+/**
+ * Decides in one pass over a CI/CD log line which of {@link CiCdAdapter}'s format
+ * patterns could possibly match it, so that non-matching lines never reach the
+ * backtracking regexes.
+ * <p>
+ * Each format is recognised by keywords its pattern requires:
+ * <ul>
+ *   <li>Jenkins: a {@code [} and an {@code ->} arrow</li>
+ *   <li>GitHub Actions: {@code workflow:} and {@code depends_on:}</li>
+ *   <li>GitLab CI: {@code stage:} and {@code needs:}</li>
+ * </ul>
+ * The keywords are necessary, not sufficient: a candidate line still has to match
+ * the format's pattern, but a line that is no candidate cannot match it. Ordinary
+ * log lines are candidates for no format, and structured ones for exactly one.
+ */
+final class CiCdLineClassifier {
+    static final int JENKINS = 1;
+    static final int GITHUB_ACTIONS = 1 << 1;
+    static final int GITLAB_CI = 1 << 2;
+
+    private CiCdLineClassifier() {
+    }
+
+    /**
+     * @param line Log line
+     * @return Bit set of {@link #JENKINS}, {@link #GITHUB_ACTIONS} and {@link #GITLAB_CI}
+     */
+    static int candidates(String line) {
+        boolean bracket = false;
+        boolean arrow = false;
+        boolean workflow = false;
+        boolean dependsOn = false;
+        boolean stage = false;
+        boolean needs = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '[') {
+                bracket = true;
+            } else if (c == '>') {
+                arrow |= i > 0 && line.charAt(i - 1) == '-';
+            } else if (c == ':') {
+                // Keywords are checked only where they could end, right before a colon
+                workflow |= endsWith(line, i, "workflow");
+                dependsOn |= endsWith(line, i, "depends_on");
+                stage |= endsWith(line, i, "stage");
+                needs |= endsWith(line, i, "needs");
+            }
+        }
+        int candidates = 0;
+        if (bracket && arrow) {
+            candidates |= JENKINS;
+        }
+        if (workflow && dependsOn) {
+            candidates |= GITHUB_ACTIONS;
+        }
+        if (stage && needs) {
+            candidates |= GITLAB_CI;
+        }
+        return candidates;
+    }
+
+    private static boolean endsWith(String line, int end, String keyword) {
+        int start = end - keyword.length();
+        return start >= 0 && line.regionMatches(start, keyword, 0, keyword.length());
+    }
+}
@@ -0,0 +1,67 @@
+package com.enterprise.dependency.adapter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Derives deterministic claim IDs from claim content.
+ * <p>
+ * The same observation always gets the same ID, whichever adapter instance or run
+ * produces it, so re-ingesting an overlapping log window yields claims that can be
+ * recognised as duplicates (see {@code ClaimDeduplicator}). IDs are the first 128
+ * bits of a SHA-256 over the given parts, hex-encoded behind the adapter's prefix.
+ * <p>
+ * Example:
+ * <pre>
+ *   String id = ClaimIds.contentId("router-claim-", "ROUTER_LOG", rawLine);
+ * </pre>
+ */
+public final class ClaimIds {
+    private static final int HASH_BYTES = 16;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private ClaimIds() {
+    }
+
+    /**
+     * @param prefix Adapter-specific ID prefix, e.g. {@code "cicd_"}
+     * @param parts Content identifying the observation; nulls are allowed
+     * @return {@code prefix} followed by the content hash
+     */
+    public static String contentId(String prefix, String... parts) {
+        return prefix + contentHash(parts);
+    }
+
+    /**
+     * @param parts Content to hash; nulls are allowed and differ from empty strings
+     * @return 32 lowercase hex characters
+     */
+    public static String contentHash(String... parts) {
+        MessageDigest digest = SHA_256.get();
+        digest.reset();
+        for (String part : parts) {
+            // Separators keep ("ab", "c") and ("a", "bc") apart
+            if (part == null) {
+                digest.update((byte) 1);
+            } else {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0);
+        }
+        byte[] hash = digest.digest();
+        char[] hex = new char[HASH_BYTES * 2];
+        for (int i = 0; i < HASH_BYTES; i++) {
+            hex[2 * i] = HEX[(hash[i] >> 4) & 0xf];
+            hex[2 * i + 1] = HEX[hash[i] & 0xf];
+        }
+        return new String(hex);
+    }
+}
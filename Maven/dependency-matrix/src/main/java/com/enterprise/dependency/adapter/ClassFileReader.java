@@ -0,0 +1,238 @@
+package com.enterprise.dependency.adapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Reads the classes a compiled class file refers to, straight from its bytes.
+ * <p>
+ * References are taken from the constant pool ({@code CONSTANT_Class} entries and the
+ * descriptors of {@code NameAndType} and {@code MethodType} entries) and from the
+ * descriptors of the declared fields and methods, which covers every type the class
+ * instantiates, calls, extends, implements or declares, including those only named in
+ * signatures. Only the constant pool entries that are used are decoded; attributes,
+ * bytecode and everything else are skipped.
+ * <p>
+ * Class names are reported in dotted form with nested class suffixes removed
+ * ({@code com.enterprise.orders.OrderService}); array and primitive types are reduced
+ * to their element class or dropped.
+ */
+final class ClassFileReader {
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private ClassFileReader() {
+    }
+
+    /**
+     * @param classFile Bytes of a class file
+     * @return The class and the classes it refers to, excluding itself
+     * @throws IOException if the bytes are not a well-formed class file
+     */
+    static ClassReferences read(byte[] classFile) throws IOException {
+        try {
+            return readUnchecked(classFile);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Truncated or malformed class file", e);
+        }
+    }
+
+    private static ClassReferences readUnchecked(byte[] classFile) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(classFile);
+        if (in.getInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        in.getInt(); // minor and major version
+
+        // Record where each entry starts; Utf8 entries are only decoded when referenced
+        int count = in.getShort() & 0xFFFF;
+        byte[] tags = new byte[count];
+        int[] offsets = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.get() & 0xFF;
+            tags[i] = (byte) tag;
+            offsets[i] = in.position();
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    in.position(in.position() + 2 + (in.getShort(in.position()) & 0xFFFF));
+                    break;
+                case CONSTANT_CLASS:
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    in.position(in.position() + 2);
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    in.position(in.position() + 3);
+                    break;
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                case CONSTANT_FIELDREF:
+                case CONSTANT_METHODREF:
+                case CONSTANT_INTERFACE_METHODREF:
+                case CONSTANT_NAME_AND_TYPE:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    in.position(in.position() + 4);
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    in.position(in.position() + 8);
+                    i++; // Takes two slots
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag + " at entry " + i);
+            }
+        }
+        ConstantPool pool = new ConstantPool(classFile, tags, offsets);
+
+        Set<String> references = new LinkedHashSet<>();
+        for (int i = 1; i < count; i++) {
+            switch (tags[i]) {
+                case CONSTANT_CLASS:
+                    addClassName(references, pool.utf8(pool.u2(i)));
+                    break;
+                case CONSTANT_NAME_AND_TYPE:
+                    addDescriptor(references, pool.utf8(pool.u2(i, 2)));
+                    break;
+                case CONSTANT_METHOD_TYPE:
+                    addDescriptor(references, pool.utf8(pool.u2(i)));
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        in.getShort(); // access flags
+        String className = toClassName(pool.utf8(pool.u2(in.getShort() & 0xFFFF)));
+        in.getShort(); // super class, already a Class entry
+        in.position(in.position() + 2 * (in.getShort() & 0xFFFF)); // interfaces, likewise
+
+        // Fields, then methods: their descriptors are not always in a NameAndType entry
+        for (int member = 0; member < 2; member++) {
+            int memberCount = in.getShort() & 0xFFFF;
+            for (int m = 0; m < memberCount; m++) {
+                in.getShort(); // access flags
+                in.getShort(); // name
+                addDescriptor(references, pool.utf8(in.getShort() & 0xFFFF));
+                int attributeCount = in.getShort() & 0xFFFF;
+                for (int a = 0; a < attributeCount; a++) {
+                    in.getShort(); // attribute name
+                    in.position(in.position() + in.getInt());
+                }
+            }
+        }
+
+        references.remove(className);
+        return new ClassReferences(className, references);
+    }
+
+    /** Adds a Class entry name: an internal name, or an array descriptor. */
+    private static void addClassName(Set<String> references, String name) {
+        if (name.startsWith("[")) {
+            addDescriptor(references, name);
+        } else {
+            references.add(toClassName(name));
+        }
+    }
+
+    /** Adds every class named in a field or method descriptor. */
+    private static void addDescriptor(Set<String> references, String descriptor) {
+        int start = descriptor.indexOf('L');
+        while (start >= 0) {
+            int end = descriptor.indexOf(';', start);
+            if (end < 0) {
+                return;
+            }
+            references.add(toClassName(descriptor.substring(start + 1, end)));
+            start = descriptor.indexOf('L', end);
+        }
+    }
+
+    private static String toClassName(String internalName) {
+        int nested = internalName.indexOf('$');
+        String outer = nested > 0 ? internalName.substring(0, nested) : internalName;
+        return outer.replace('/', '.');
+    }
+
+    private static final class ConstantPool {
+        private final byte[] bytes;
+        private final byte[] tags;
+        private final int[] offsets;
+
+        private ConstantPool(byte[] bytes, byte[] tags, int[] offsets) {
+            this.bytes = bytes;
+            this.tags = tags;
+            this.offsets = offsets;
+        }
+
+        int u2(int entry) {
+            return u2(entry, 0);
+        }
+
+        int u2(int entry, int delta) {
+            int offset = offsets[entry] + delta;
+            return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+        }
+
+        String utf8(int entry) throws IOException {
+            if (entry <= 0 || entry >= tags.length || tags[entry] != CONSTANT_UTF8) {
+                throw new IOException("Constant pool entry " + entry + " is not a Utf8 entry");
+            }
+            int offset = offsets[entry];
+            int length = u2(entry);
+            for (int i = offset + 2; i < offset + 2 + length; i++) {
+                if (bytes[i] <= 0) {
+                    // Modified UTF-8 beyond ASCII
+                    return new DataInputStream(new ByteArrayInputStream(bytes, offset, length + 2)).readUTF();
+                }
+            }
+            return new String(bytes, offset + 2, length, StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    /**
+     * A class and the classes it refers to.
+     */
+    static final class ClassReferences {
+        private final String className;
+        private final Set<String> references;
+
+        private ClassReferences(String className, Set<String> references) {
+            this.className = className;
+            this.references = references;
+        }
+
+        String className() {
+            return className;
+        }
+
+        Set<String> references() {
+            return references;
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.enterprise.dependency.adapter;
+
+import java.time.Instant;
+
+/**
+ * Single-pass, regex-free scanner for API gateway access log lines in Common Log
+ * Format with a trailing response time:
+ * <pre>
+ *   ip ident user [dd/MMM/yyyy:HH:mm:ss Z] "METHOD endpoint PROTO" status bytes "referer" "user-agent" NNNms
+ * </pre>
+ * Whitespace-separated fields are delimited by index arithmetic; the bracketed
+ * timestamp and the quoted fields are taken up to their closing bracket or quote, so
+ * they may contain spaces. The timestamp is converted to epoch seconds directly from
+ * its digits, without a formatter or intermediate date objects.
+ * <p>
+ * The scanner accepts a strict subset of what {@link ApiGatewayAdapter}'s
+ * {@code CLF_PATTERN} accepts and, for every line it accepts, yields the fields the
+ * regex path would. Anything unusual (timestamps the formatter would adjust or
+ * reject, response times that overflow an {@code int}) is rejected with
+ * {@code null} so the caller falls back to the regex path, which remains the
+ * reference behaviour.
+ */
+final class ClfLineScanner {
+    private static final String[] MONTHS = {
+        "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"
+    };
+    // dd/MMM/yyyy:HH:mm:ss +hhmm
+    private static final int TIMESTAMP_LENGTH = 26;
+    private static final int MAX_OFFSET_SECONDS = 18 * 3600;
+    private static final int MAX_RESPONSE_TIME_DIGITS = 9;
+
+    private ClfLineScanner() {
+    }
+
+    /**
+     * Scans a trimmed CLF line.
+     * @param line Log line without surrounding whitespace
+     * @return Scanned fields, or null if the fast path does not handle this line
+     */
+    static Record scan(String line) {
+        int length = line.length();
+
+        // ip ident user
+        int clientIpEnd = skipNonSpace(line, 0);
+        int pos = skipSpace(line, clientIpEnd);
+        if (clientIpEnd == 0 || pos == clientIpEnd) {
+            return null;
+        }
+        for (int field = 0; field < 2; field++) {
+            int fieldEnd = skipNonSpace(line, pos);
+            int next = skipSpace(line, fieldEnd);
+            if (fieldEnd == pos || next == fieldEnd) {
+                return null;
+            }
+            pos = next;
+        }
+
+        // [timestamp]
+        if (pos >= length || line.charAt(pos) != '[') {
+            return null;
+        }
+        int timestampStart = pos + 1;
+        int timestampEnd = line.indexOf(']', timestampStart);
+        if (timestampEnd <= timestampStart) {
+            return null;
+        }
+        long epochSecond = parseTimestamp(line, timestampStart, timestampEnd);
+        if (epochSecond == Long.MIN_VALUE) {
+            return null;
+        }
+        pos = skipSpace(line, timestampEnd + 1);
+        if (pos == timestampEnd + 1) {
+            return null;
+        }
+
+        // "METHOD endpoint PROTO"
+        if (pos >= length || line.charAt(pos) != '"') {
+            return null;
+        }
+        int methodStart = pos + 1;
+        int methodEnd = skipNonSpace(line, methodStart);
+        int endpointStart = skipSpace(line, methodEnd);
+        if (methodEnd == methodStart || endpointStart == methodEnd) {
+            return null;
+        }
+        int endpointEnd = skipNonSpace(line, endpointStart);
+        int protocolStart = skipSpace(line, endpointEnd);
+        if (endpointEnd == endpointStart || protocolStart == endpointEnd) {
+            return null;
+        }
+        int protocolEnd = skipNonSpace(line, protocolStart);
+        // The protocol needs at least one character before the closing quote
+        if (protocolEnd - protocolStart < 2 || line.charAt(protocolEnd - 1) != '"') {
+            return null;
+        }
+        pos = skipSpace(line, protocolEnd);
+        if (pos == protocolEnd) {
+            return null;
+        }
+
+        // status bytes
+        for (int field = 0; field < 2; field++) {
+            int fieldEnd = skipDigits(line, pos);
+            int next = skipSpace(line, fieldEnd);
+            if (fieldEnd == pos || next == fieldEnd) {
+                return null;
+            }
+            pos = next;
+        }
+
+        // "referer" "user-agent"
+        int refererEnd = quotedEnd(line, pos);
+        if (refererEnd < 0) {
+            return null;
+        }
+        pos = skipSpace(line, refererEnd + 1);
+        if (pos == refererEnd + 1) {
+            return null;
+        }
+        int userAgentEnd = quotedEnd(line, pos);
+        if (userAgentEnd < 0) {
+            return null;
+        }
+        int userAgentStart = pos + 1;
+        pos = skipSpace(line, userAgentEnd + 1);
+        if (pos == userAgentEnd + 1) {
+            return null;
+        }
+
+        // NNNms, ending the line
+        int responseTimeStart = pos;
+        int responseTimeEnd = skipDigits(line, pos);
+        int digitCount = responseTimeEnd - responseTimeStart;
+        if (digitCount == 0 || digitCount > MAX_RESPONSE_TIME_DIGITS
+                || responseTimeEnd + 2 != length || !line.startsWith("ms", responseTimeEnd)) {
+            return null;
+        }
+        int responseTime = 0;
+        for (int i = responseTimeStart; i < responseTimeEnd; i++) {
+            responseTime = responseTime * 10 + (line.charAt(i) - '0');
+        }
+
+        return new Record(
+                line.substring(0, clientIpEnd),
+                epochSecond,
+                line.substring(methodStart, methodEnd),
+                line.substring(endpointStart, endpointEnd),
+                line.substring(userAgentStart, userAgentEnd),
+                responseTime);
+    }
+
+    /**
+     * Finds only the fields that decide a line's edge: the client address, the
+     * endpoint and the user agent. The timestamp, status, sizes and response time are
+     * located by their delimiters but not read or checked, so this is much cheaper
+     * than {@link #scan(String)}; for every line both accept, the fields agree.
+     * @param line Log line without surrounding whitespace
+     * @return Edge fields, or null if the line is not laid out as expected
+     */
+    static EdgeFields scanEdge(String line) {
+        int clientIpEnd = skipNonSpace(line, 0);
+        if (clientIpEnd == 0) {
+            return null;
+        }
+        int timestampEnd = line.indexOf(']', line.indexOf('[', clientIpEnd) + 1);
+        if (timestampEnd < 0) {
+            return null;
+        }
+        int requestStart = skipSpace(line, timestampEnd + 1);
+        if (requestStart >= line.length() || line.charAt(requestStart) != '"') {
+            return null;
+        }
+        int methodEnd = skipNonSpace(line, requestStart + 1);
+        int endpointStart = skipSpace(line, methodEnd);
+        int endpointEnd = skipNonSpace(line, endpointStart);
+        int protocolStart = skipSpace(line, endpointEnd);
+        int protocolEnd = skipNonSpace(line, protocolStart);
+        if (methodEnd == requestStart + 1 || endpointEnd == endpointStart
+                || protocolEnd - protocolStart < 2 || line.charAt(protocolEnd - 1) != '"') {
+            return null;
+        }
+
+        // "user-agent" NNNms, ending the line
+        int userAgentEnd = line.lastIndexOf('"');
+        int userAgentStart = userAgentEnd > protocolEnd ? line.lastIndexOf('"', userAgentEnd - 1) + 1 : 0;
+        if (userAgentStart <= protocolEnd || !line.endsWith("ms")) {
+            return null;
+        }
+        return new EdgeFields(
+                line.substring(0, clientIpEnd),
+                line.substring(endpointStart, endpointEnd),
+                line.substring(userAgentStart, userAgentEnd));
+    }
+
+    /**
+     * Parses {@code dd/MMM/yyyy:HH:mm:ss +hhmm} to epoch seconds.
+     * @return Epoch seconds, or {@link Long#MIN_VALUE} if the text is not in exactly
+     *         this shape or holds values the formatter would adjust or reject
+     */
+    static long parseTimestamp(CharSequence text, int start, int end) {
+        if (end - start != TIMESTAMP_LENGTH
+                || text.charAt(start + 2) != '/' || text.charAt(start + 6) != '/'
+                || text.charAt(start + 11) != ':' || text.charAt(start + 14) != ':'
+                || text.charAt(start + 17) != ':' || text.charAt(start + 20) != ' ') {
+            return Long.MIN_VALUE;
+        }
+        int day = digits(text, start, 2);
+        int month = month(text, start + 3);
+        int year = digits(text, start + 7, 4);
+        int hour = digits(text, start + 12, 2);
+        int minute = digits(text, start + 15, 2);
+        int second = digits(text, start + 18, 2);
+        char sign = text.charAt(start + 21);
+        int offsetHours = digits(text, start + 22, 2);
+        int offsetMinutes = digits(text, start + 24, 2);
+        if (year < 1 || month < 1 || day < 1 || day > monthLength(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59
+                || (sign != '+' && sign != '-') || offsetHours < 0 || offsetMinutes < 0 || offsetMinutes > 59) {
+            return Long.MIN_VALUE;
+        }
+        int offsetSeconds = offsetHours * 3600 + offsetMinutes * 60;
+        if (offsetSeconds > MAX_OFFSET_SECONDS) {
+            return Long.MIN_VALUE;
+        }
+        if (sign == '-') {
+            offsetSeconds = -offsetSeconds;
+        }
+        return epochDay(year, month, day) * 86_400L + hour * 3600 + minute * 60 + second - offsetSeconds;
+    }
+
+    /** Days since 1970-01-01 in the proleptic Gregorian calendar. */
+    private static long epochDay(long year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+
+    private static int month(CharSequence text, int start) {
+        for (int i = 0; i < MONTHS.length; i++) {
+            String name = MONTHS[i];
+            if (text.charAt(start) == name.charAt(0) && text.charAt(start + 1) == name.charAt(1)
+                    && text.charAt(start + 2) == name.charAt(2)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static int monthLength(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /** @return Value of {@code count} ASCII digits, or -1 if any character is not one */
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /** @return Index of the closing quote of the quoted field at {@code pos}, or -1 */
+    private static int quotedEnd(String line, int pos) {
+        if (pos >= line.length() || line.charAt(pos) != '"') {
+            return -1;
+        }
+        return line.indexOf('"', pos + 1);
+    }
+
+    private static int skipDigits(String line, int pos) {
+        while (pos < line.length() && line.charAt(pos) >= '0' && line.charAt(pos) <= '9') {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int skipNonSpace(String line, int pos) {
+        while (pos < line.length() && !isSpace(line.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int skipSpace(String line, int pos) {
+        while (pos < line.length() && isSpace(line.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /** Same set as the regex {@code \s}. */
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Fields of one line that decide its edge.
+     */
+    static final class EdgeFields {
+        private final String clientIp;
+        private final String endpoint;
+        private final String userAgent;
+
+        private EdgeFields(String clientIp, String endpoint, String userAgent) {
+            this.clientIp = clientIp;
+            this.endpoint = endpoint;
+            this.userAgent = userAgent;
+        }
+
+        String clientIp() {
+            return clientIp;
+        }
+
+        String endpoint() {
+            return endpoint;
+        }
+
+        String userAgent() {
+            return userAgent;
+        }
+    }
+
+    /**
+     * Fields of one scanned line.
+     */
+    static final class Record {
+        private final String clientIp;
+        private final long epochSecond;
+        private final String method;
+        private final String endpoint;
+        private final String userAgent;
+        private final int responseTime;
+
+        private Record(String clientIp, long epochSecond, String method, String endpoint,
+                       String userAgent, int responseTime) {
+            this.clientIp = clientIp;
+            this.epochSecond = epochSecond;
+            this.method = method;
+            this.endpoint = endpoint;
+            this.userAgent = userAgent;
+            this.responseTime = responseTime;
+        }
+
+        String clientIp() {
+            return clientIp;
+        }
+
+        Instant timestamp() {
+            return Instant.ofEpochSecond(epochSecond);
+        }
+
+        String method() {
+            return method;
+        }
+
+        String endpoint() {
+            return endpoint;
+        }
+
+        String userAgent() {
+            return userAgent;
+        }
+
+        int responseTime() {
+            return responseTime;
+        }
+    }
+}
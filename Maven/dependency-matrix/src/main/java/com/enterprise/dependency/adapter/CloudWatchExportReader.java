@@ -0,0 +1,118 @@
+package com.enterprise.dependency.adapter;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pulls log events out of CloudWatch Logs export documents one at a time, without
+ * building a tree of the document.
+ * <p>
+ * Events are the elements of {@code logEvents} arrays (subscription filter and
+ * Firehose deliveries) or {@code events} arrays ({@code get-log-events} and
+ * {@code filter-log-events} output):
+ * <pre>
+ *   {"messageType":"DATA_MESSAGE","logGroup":"API-Gateway-Execution-Logs","logEvents":[
+ *     {"id":"3778...","timestamp":1705314600000,"message":"{\"httpMethod\":\"GET\",...}"},
+ *     ...]}
+ * </pre>
+ * The input may hold several such documents back to back, with or without
+ * separators, or a top-level array of them, as produced by concatenated deliveries.
+ * Only the current event's {@code message} string is held in memory, so export files
+ * of any size are read in bounded memory. Everything else, including the other
+ * fields of each event, is skipped by the parser.
+ * <p>
+ * Not thread-safe.
+ */
+final class CloudWatchExportReader implements Closeable {
+    private final JsonParser parser;
+    private boolean inEvents;
+
+    /**
+     * @param parser Parser over the export; closed by {@link #close()}
+     */
+    CloudWatchExportReader(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * @return The next event with a string message, or null at the end of input
+     * @throws IOException if the input cannot be read or is not well-formed JSON
+     */
+    Event next() throws IOException {
+        while (true) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return null;
+            }
+            if (inEvents) {
+                if (token == JsonToken.END_ARRAY) {
+                    inEvents = false;
+                } else if (token == JsonToken.START_OBJECT) {
+                    Event event = readEvent();
+                    if (event != null) {
+                        return event;
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            } else if (token == JsonToken.FIELD_NAME && isEventArray(parser.getCurrentName())) {
+                inEvents = parser.nextToken() == JsonToken.START_ARRAY;
+                if (!inEvents) {
+                    parser.skipChildren();
+                }
+            }
+            // Any other token: keep descending through envelopes and their metadata
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private Event readEvent() throws IOException {
+        String message = null;
+        Long timestamp = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("message".equals(name) && value == JsonToken.VALUE_STRING) {
+                message = parser.getText();
+            } else if ("timestamp".equals(name) && value == JsonToken.VALUE_NUMBER_INT) {
+                timestamp = parser.getLongValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return message != null ? new Event(message, timestamp) : null;
+    }
+
+    private static boolean isEventArray(String name) {
+        return "logEvents".equals(name) || "events".equals(name);
+    }
+
+    /**
+     * One log event: the logged message and when CloudWatch recorded it.
+     */
+    static final class Event {
+        private final String message;
+        private final Long timestamp;
+
+        private Event(String message, Long timestamp) {
+            this.message = message;
+            this.timestamp = timestamp;
+        }
+
+        String message() {
+            return message;
+        }
+
+        /** @return Event time in epoch millis, or null if the event has none */
+        Long timestamp() {
+            return timestamp;
+        }
+    }
+}
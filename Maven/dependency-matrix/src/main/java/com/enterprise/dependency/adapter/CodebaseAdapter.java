@@ -3,14 +3,16 @@ package com.enterprise.dependency.adapter;
 import com.enterprise.dependency.model.core.Claim;
 import com.enterprise.dependency.model.core.ConfidenceScore;
 import com.enterprise.dependency.model.sources.CodebaseDependency;
+import com.fasterxml.jackson.core.JsonFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -20,9 +22,9 @@ import java.util.regex.Pattern;
  * 
  * <p>Supported formats:
  * <ul>
- *   <li>Maven dependencies from pom.xml</li>
+ *   <li>Maven dependencies from pom.xml, with properties, dependencyManagement and parents resolved</li>
  *   <li>Gradle dependencies from build.gradle</li>
- *   <li>Package.json dependencies</li>
+ *   <li>Dependencies and devDependencies from package.json, and installed packages from package-lock.json</li>
  * </ul>
  * 
  * <p>Example usage:
@@ -36,21 +38,16 @@ import java.util.regex.Pattern;
 public class CodebaseAdapter {
     private static final Logger logger = LoggerFactory.getLogger(CodebaseAdapter.class);
     
-    // Maven dependency pattern
-    private static final Pattern MAVEN_DEPENDENCY_PATTERN = Pattern.compile(
-        "<dependency>.*?<groupId>([^<]+)</groupId>.*?<artifactId>([^<]+)</artifactId>.*?<version>([^<]+)</version>.*?</dependency>",
-        Pattern.DOTALL | Pattern.CASE_INSENSITIVE
-    );
+    // Version reported for dependencies that are neither versioned nor managed
+    private static final String UNKNOWN_VERSION = "unknown";
+    
+    private final MavenPomParser pomParser = new MavenPomParser();
+    private final NpmDependencyExtractor npmExtractor = new NpmDependencyExtractor(new JsonFactory());
     
     // Gradle dependency pattern
     private static final Pattern GRADLE_DEPENDENCY_PATTERN = Pattern.compile(
         "implementation\\s+['\"]([^:]+):([^:]+):([^'\"]+)['\"]"
     );
-    
-    // Package.json dependency pattern
-    private static final Pattern NPM_DEPENDENCY_PATTERN = Pattern.compile(
-        "\"([^\"]+)\"\\s*:\\s*\"([^\"]+)\""
-    );
 
     /**
      * Parses codebase dependencies from various build files.
@@ -90,30 +87,77 @@ public class CodebaseAdapter {
         return claims;
     }
     
+    /**
+     * Parses the dependencies of a pom.xml file. Properties, dependencyManagement and
+     * parent poms reachable through relativePath are resolved.
+     * 
+     * @param pomFile pom.xml
+     * @param sourceApplication The application that owns this pom
+     * @return List of dependency claims, or an empty list if the pom cannot be read
+     */
+    public List<Claim> parsePomFile(Path pomFile, String sourceApplication) {
+        return parsePomFile(pomFile, sourceApplication, new ArrayList<>());
+    }
+
+    /**
+     * Parses the dependencies of a pom.xml file and reports which parent poms it was
+     * resolved against.
+     * @param pomFile pom.xml
+     * @param sourceApplication The application that owns this pom
+     * @param parentFiles Receives the files of the resolved parent chain, nearest first
+     * @return List of dependency claims, or an empty list if the pom cannot be read
+     */
+    List<Claim> parsePomFile(Path pomFile, String sourceApplication, List<Path> parentFiles) {
+        try {
+            MavenPomParser.Pom pom = pomParser.parse(pomFile);
+            parentFiles.addAll(pom.getParentFiles());
+            List<Claim> claims = toClaims(pom, sourceApplication);
+            logger.info("Extracted {} dependency claims from {} for {}", claims.size(), pomFile, sourceApplication);
+            return claims;
+        } catch (IOException e) {
+            logger.warn("Could not parse pom {}: {}", pomFile, e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Forgets the parent poms cached by earlier parses, so that changed parents are
+     * read again.
+     */
+    void clearPomCache() {
+        pomParser.clearCache();
+    }
+    
     /**
      * Parses Maven dependencies from pom.xml content.
      */
     private List<Claim> parseMavenDependencies(String pomContent, String sourceApplication) {
+        try {
+            return toClaims(pomParser.parse(pomContent), sourceApplication);
+        } catch (IOException e) {
+            logger.warn("Could not parse pom content for {}: {}", sourceApplication, e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    private List<Claim> toClaims(MavenPomParser.Pom pom, String sourceApplication) {
         List<Claim> claims = new ArrayList<>();
-        Matcher matcher = MAVEN_DEPENDENCY_PATTERN.matcher(pomContent);
-        
-        while (matcher.find()) {
-            String groupId = matcher.group(1).trim();
-            String artifactId = matcher.group(2).trim();
-            String version = matcher.group(3).trim();
-            String rawXml = matcher.group(0); // Full match as raw XML
+        for (MavenPomParser.PomDependency declared : pom.getDependencies()) {
+            String groupId = declared.getGroupId();
+            String artifactId = declared.getArtifactId();
+            String version = declared.getVersion() != null ? declared.getVersion() : UNKNOWN_VERSION;
             
             String targetApplication = deriveApplicationName(groupId, artifactId);
             
             CodebaseDependency dependency = CodebaseDependency.builder()
-                .id(UUID.randomUUID().toString())
+                .id(ClaimIds.contentHash("maven", sourceApplication, groupId, artifactId, version))
                 .groupId(groupId)
                 .artifactId(artifactId)
                 .version(version)
                 .dependencyType("maven")
                 .sourceApplication(sourceApplication)
                 .targetApplication(targetApplication)
-                .rawXml(rawXml)
+                .rawXml(declared.getDeclaration())
                 .timestamp(Instant.now())
                 .build();
             
@@ -142,7 +186,7 @@ public class CodebaseAdapter {
             String targetApplication = deriveApplicationName(groupId, artifactId);
             
             CodebaseDependency dependency = CodebaseDependency.builder()
-                .id(UUID.randomUUID().toString())
+                .id(ClaimIds.contentHash("gradle", sourceApplication, groupId, artifactId, version))
                 .groupId(groupId)
                 .artifactId(artifactId)
                 .version(version)
@@ -163,50 +207,44 @@ public class CodebaseAdapter {
     }
     
     /**
-     * Parses NPM dependencies from package.json content.
+     * Parses NPM dependencies from package.json or package-lock.json content.
      */
     private List<Claim> parseNpmDependencies(String packageJsonContent, String sourceApplication) {
         List<Claim> claims = new ArrayList<>();
         
-        // Extract dependencies section
-        int dependenciesStart = packageJsonContent.indexOf("\"dependencies\"");
-        if (dependenciesStart == -1) {
-            logger.debug("No dependencies section found in package.json");
+        List<NpmDependencyExtractor.NpmDependency> dependencies;
+        try {
+            dependencies = npmExtractor.extract(packageJsonContent);
+        } catch (IOException e) {
+            logger.warn("Could not parse package.json for {}: {}", sourceApplication, e.getMessage());
+            return claims;
+        }
+        if (dependencies.isEmpty()) {
+            logger.debug("No dependencies found in package.json");
             return claims;
         }
         
-        // Find the dependencies object
-        int braceStart = packageJsonContent.indexOf("{", dependenciesStart);
-        int braceEnd = findMatchingBrace(packageJsonContent, braceStart);
-        
-        if (braceStart != -1 && braceEnd != -1) {
-            String dependenciesSection = packageJsonContent.substring(braceStart + 1, braceEnd);
-            Matcher matcher = NPM_DEPENDENCY_PATTERN.matcher(dependenciesSection);
+        for (NpmDependencyExtractor.NpmDependency npmDependency : dependencies) {
+            String packageName = npmDependency.name();
+            String version = npmDependency.version();
+            String targetApplication = deriveApplicationName("npm", packageName);
             
-            while (matcher.find()) {
-                String packageName = matcher.group(1).trim();
-                String version = matcher.group(2).trim();
-                String rawJson = matcher.group(0); // Full match as raw JSON dependency
-                
-                String targetApplication = deriveApplicationName("npm", packageName);
-                
-                CodebaseDependency dependency = CodebaseDependency.builder()
-                    .id(UUID.randomUUID().toString())
-                    .groupId("npm")
-                    .artifactId(packageName)
-                    .version(version)
-                    .dependencyType("npm")
-                    .sourceApplication(sourceApplication)
-                    .targetApplication(targetApplication)
-                    .rawXml(rawJson) // Store JSON syntax in rawXml field
-                    .timestamp(Instant.now())
-                    .build();
-                
-                Claim claim = createClaimFromDependency(dependency);
-                claims.add(claim);
-                
-                logger.debug("Parsed NPM dependency: {} -> {}", sourceApplication, targetApplication);
-            }
+            CodebaseDependency dependency = CodebaseDependency.builder()
+                .id(ClaimIds.contentHash("npm", sourceApplication, "npm", packageName, version))
+                .groupId("npm")
+                .artifactId(packageName)
+                .version(version)
+                .dependencyType("npm")
+                .sourceApplication(sourceApplication)
+                .targetApplication(targetApplication)
+                .rawXml("\"" + packageName + "\": \"" + version + "\"") // Store JSON syntax in rawXml field
+                .timestamp(Instant.now())
+                .build();
+            
+            Claim claim = createClaimFromDependency(dependency);
+            claims.add(claim);
+            
+            logger.debug("Parsed NPM dependency: {} -> {}", sourceApplication, targetApplication);
         }
         
         return claims;
@@ -254,22 +292,6 @@ public class CodebaseAdapter {
             .build();
     }
     
-    /**
-     * Finds the matching closing brace for a given opening brace position.
-     */
-    private int findMatchingBrace(String content, int openBracePos) {
-        int braceCount = 1;
-        for (int i = openBracePos + 1; i < content.length(); i++) {
-            char c = content.charAt(i);
-            if (c == '{') braceCount++;
-            else if (c == '}') {
-                braceCount--;
-                if (braceCount == 0) return i;
-            }
-        }
-        return -1; // No matching brace found
-    }
-    
     /**
      * Parses codebase dependencies from string data.
      * Expected format: "buildType:groupId:artifactId:version" 
@@ -347,13 +369,15 @@ public class CodebaseAdapter {
      * Parse XML format dependency
      */
     private Claim parseXmlDependency(String xmlString) {
-        Matcher matcher = MAVEN_DEPENDENCY_PATTERN.matcher(xmlString);
-        if (matcher.find()) {
-            String groupId = matcher.group(1).trim();
-            String artifactId = matcher.group(2).trim();
-            String version = matcher.group(3).trim();
-            
-            return createClaimFromDependency("maven", groupId, artifactId, version, xmlString);
+        try {
+            List<MavenPomParser.PomDependency> dependencies = pomParser.parse(xmlString).getDependencies();
+            if (!dependencies.isEmpty()) {
+                MavenPomParser.PomDependency dependency = dependencies.get(0);
+                String version = dependency.getVersion() != null ? dependency.getVersion() : UNKNOWN_VERSION;
+                return createClaimFromDependency("maven", dependency.getGroupId(), dependency.getArtifactId(), version, xmlString);
+            }
+        } catch (IOException e) {
+            logger.debug("Malformed XML dependency: {}", e.getMessage());
         }
         
         logger.debug("Could not parse XML dependency: {}", xmlString);
@@ -370,7 +394,7 @@ public class CodebaseAdapter {
         
         // Create CodebaseDependency
         CodebaseDependency dependency = CodebaseDependency.builder()
-            .id(UUID.randomUUID().toString())
+            .id(ClaimIds.contentHash(buildType, sourceApp, groupId, artifactId, version))
             .groupId(groupId)
             .artifactId(artifactId)
             .version(version)
@@ -383,7 +407,7 @@ public class CodebaseAdapter {
         
         // Convert to claim
         return Claim.builder()
-            .id("codebase_" + UUID.randomUUID().toString())
+            .id("codebase_" + dependency.getId())
             .sourceType("CODEBASE")
             .rawData(rawData)
             .processedData(dependency.getSourceApplication() + " -> " + dependency.getTargetApplication())
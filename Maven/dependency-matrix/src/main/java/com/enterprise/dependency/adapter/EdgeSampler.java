@@ -0,0 +1,94 @@
+package com.enterprise.dependency.adapter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-edge stratified sampler for exploratory runs over very large traffic logs.
+ * <p>
+ * Every edge (e.g. {@code "user-service -> order-service:8080 HTTP"}) is its own
+ * stratum. The first {@code keepFirst} observations of an edge are always kept, so
+ * rare edges are never lost. After that only every {@code sampleEvery}-th observation
+ * is kept, and it stands for {@code sampleEvery} observations: adapters put the
+ * returned weight into {@link com.enterprise.dependency.model.core.Claim#getObservationCount()},
+ * so frequency-based confidence sees scaled-up counts.
+ * <p>
+ * Which observation of each stride is kept depends on an offset derived from a hash
+ * of the edge key, so it is fixed for a given edge: the same input always yields the
+ * same sample. The summed weight of one edge is off from its true count by less than
+ * {@code sampleEvery}, with a sign set by that fixed offset, so it is biased for
+ * that edge. Because the offsets are spread uniformly over the stride across edges,
+ * the errors average out when weights are summed over many edges.
+ * <p>
+ * Not thread-safe; use one sampler per ingestion run.
+ * <p>
+ * Example:
+ * <pre>
+ *   EdgeSampler sampler = new EdgeSampler(100, 20);
+ *   List&lt;Claim&gt; claims = routerLogAdapter.parseLogFileSampled(Path.of("router.log"), sampler);
+ * </pre>
+ */
+public class EdgeSampler {
+    private final long keepFirst;
+    private final int sampleEvery;
+    private final Map<String, long[]> seenPerEdge = new HashMap<>();
+    private long seenCount;
+    private long keptCount;
+
+    /**
+     * @param keepFirst Observations per edge always kept, with weight 1
+     * @param sampleEvery Stride for observations after the first {@code keepFirst}; 1 keeps everything
+     */
+    public EdgeSampler(long keepFirst, int sampleEvery) {
+        if (keepFirst < 0) {
+            throw new IllegalArgumentException("keepFirst cannot be negative");
+        }
+        if (sampleEvery < 1) {
+            throw new IllegalArgumentException("sampleEvery must be at least 1");
+        }
+        this.keepFirst = keepFirst;
+        this.sampleEvery = sampleEvery;
+    }
+
+    /**
+     * Records one observation of an edge and decides whether to keep it.
+     * @param edgeKey Identifies the edge; observations with equal keys share a stratum
+     * @return Number of observations the kept one stands for, or 0 to drop it
+     */
+    public long sample(String edgeKey) {
+        seenCount++;
+        long[] seen = seenPerEdge.computeIfAbsent(edgeKey, key -> new long[1]);
+        long index = seen[0]++;
+        long weight;
+        if (index < keepFirst) {
+            weight = 1;
+        } else {
+            long offset = Math.floorMod(mix(edgeKey.hashCode()), sampleEvery);
+            weight = (index - keepFirst) % sampleEvery == offset ? sampleEvery : 0;
+        }
+        if (weight > 0) {
+            keptCount++;
+        }
+        return weight;
+    }
+
+    /** @return Observations passed to {@link #sample(String)} so far */
+    public long getSeenCount() {
+        return seenCount;
+    }
+
+    /** @return Observations kept so far */
+    public long getKeptCount() {
+        return keptCount;
+    }
+
+    /** @return Distinct edges seen so far */
+    public int getEdgeCount() {
+        return seenPerEdge.size();
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,191 @@
+package com.enterprise.dependency.adapter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pulls the fields the API gateway adapter needs out of one JSON log record in a
+ * single token pass, without building a {@code JsonNode} tree.
+ * <p>
+ * Every accepted field name (including the alternative names different gateways
+ * use) maps to a slot through a lookup table built once. Values of other fields,
+ * and nested objects or arrays, are skipped by the parser without being
+ * materialised. Alternatives are resolved in the same priority order the tree-based
+ * extraction used, e.g. {@code method} before {@code httpMethod} before
+ * {@code requestMethod}.
+ * <p>
+ * Thread-safe; each call creates its own parser.
+ */
+final class GatewayJsonExtractor {
+    private static final Logger logger = LoggerFactory.getLogger(GatewayJsonExtractor.class);
+
+    static final String[] TIMESTAMP_FIELDS = {"timestamp", "@timestamp", "time", "eventTime"};
+    static final String[] METHOD_FIELDS = {"method", "httpMethod", "requestMethod"};
+    static final String[] ENDPOINT_FIELDS = {"path", "resource", "endpoint"};
+    static final String[] SOURCE_FIELDS = {"sourceService", "clientId", "userAgent"};
+    static final String[] RESPONSE_TIME_FIELDS = {"responseTime", "duration", "latency", "processingTime"};
+
+    private static final int TIMESTAMP_SLOT = 0;
+    private static final int METHOD_SLOT = TIMESTAMP_SLOT + TIMESTAMP_FIELDS.length;
+    private static final int ENDPOINT_SLOT = METHOD_SLOT + METHOD_FIELDS.length;
+    private static final int SOURCE_SLOT = ENDPOINT_SLOT + ENDPOINT_FIELDS.length;
+    private static final int RESPONSE_TIME_SLOT = SOURCE_SLOT + SOURCE_FIELDS.length;
+    private static final int SLOT_COUNT = RESPONSE_TIME_SLOT + RESPONSE_TIME_FIELDS.length;
+    private static final Map<String, Integer> SLOTS = new HashMap<>();
+
+    static {
+        register(TIMESTAMP_FIELDS, TIMESTAMP_SLOT);
+        register(METHOD_FIELDS, METHOD_SLOT);
+        register(ENDPOINT_FIELDS, ENDPOINT_SLOT);
+        register(SOURCE_FIELDS, SOURCE_SLOT);
+        register(RESPONSE_TIME_FIELDS, RESPONSE_TIME_SLOT);
+    }
+
+    private final JsonFactory jsonFactory;
+
+    GatewayJsonExtractor(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * @param json One JSON log record
+     * @return Extracted fields, or null if the record is not a JSON object
+     * @throws IOException if the record is not well-formed JSON
+     */
+    Record extract(String json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            Record record = new Record();
+            readObject(parser, record);
+            return record;
+        }
+    }
+
+    private static void readObject(JsonParser parser, Record record) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            Integer slot = SLOTS.get(parser.getCurrentName());
+            JsonToken value = parser.nextToken();
+            if (slot == null) {
+                parser.skipChildren();
+                continue;
+            }
+            // A repeated field replaces the earlier value, as in a tree
+            record.tokens[slot] = value;
+            record.texts[slot] = null;
+            record.numbers[slot] = null;
+            switch (value) {
+                case VALUE_NUMBER_INT:
+                case VALUE_NUMBER_FLOAT:
+                    record.numbers[slot] = parser.getNumberValue();
+                    record.texts[slot] = parser.getText();
+                    break;
+                case VALUE_STRING:
+                case VALUE_TRUE:
+                case VALUE_FALSE:
+                    record.texts[slot] = parser.getText();
+                    break;
+                case START_OBJECT:
+                case START_ARRAY:
+                    // Containers have no text value
+                    record.texts[slot] = "";
+                    parser.skipChildren();
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw new IOException("Unexpected token " + token + " in JSON log record");
+        }
+    }
+
+    private static void register(String[] names, int firstSlot) {
+        for (int i = 0; i < names.length; i++) {
+            SLOTS.put(names[i], firstSlot + i);
+        }
+    }
+
+    /**
+     * Fields of one record. Accessors apply the alternative-name priorities.
+     */
+    static final class Record {
+        private final JsonToken[] tokens = new JsonToken[SLOT_COUNT];
+        private final String[] texts = new String[SLOT_COUNT];
+        private final Number[] numbers = new Number[SLOT_COUNT];
+
+        /** @return Whether any timestamp field is present and not null */
+        boolean hasTimestamp() {
+            return firstPresent(TIMESTAMP_SLOT, TIMESTAMP_FIELDS.length) >= 0;
+        }
+
+        /**
+         * @return The first timestamp field that parses, as epoch millis if numeric or
+         *         ISO-8601 otherwise; the current time if none does
+         */
+        Instant timestamp() {
+            for (int slot = TIMESTAMP_SLOT; slot < TIMESTAMP_SLOT + TIMESTAMP_FIELDS.length; slot++) {
+                if (tokens[slot] == null) {
+                    continue;
+                }
+                if (numbers[slot] != null) {
+                    return Instant.ofEpochMilli(numbers[slot].longValue());
+                }
+                String text = texts[slot] != null ? texts[slot] : "null";
+                try {
+                    return Instant.parse(text);
+                } catch (DateTimeParseException e) {
+                    logger.debug("Could not parse timestamp field {}: {}", TIMESTAMP_FIELDS[slot - TIMESTAMP_SLOT], text);
+                }
+            }
+            return Instant.now(); // Fallback to current time
+        }
+
+        String method() {
+            return firstText(METHOD_SLOT, METHOD_FIELDS.length);
+        }
+
+        String endpoint() {
+            return firstText(ENDPOINT_SLOT, ENDPOINT_FIELDS.length);
+        }
+
+        String sourceService() {
+            return firstText(SOURCE_SLOT, SOURCE_FIELDS.length);
+        }
+
+        /** @return The first numeric response time field, or null */
+        Integer responseTime() {
+            for (int slot = RESPONSE_TIME_SLOT; slot < SLOT_COUNT; slot++) {
+                if (numbers[slot] != null) {
+                    return numbers[slot].intValue();
+                }
+            }
+            return null;
+        }
+
+        private String firstText(int firstSlot, int count) {
+            int slot = firstPresent(firstSlot, count);
+            return slot >= 0 ? texts[slot] : null;
+        }
+
+        private int firstPresent(int firstSlot, int count) {
+            for (int slot = firstSlot; slot < firstSlot + count; slot++) {
+                if (tokens[slot] != null && tokens[slot] != JsonToken.VALUE_NULL) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+    }
+}
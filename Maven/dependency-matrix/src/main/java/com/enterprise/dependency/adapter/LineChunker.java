@@ -0,0 +1,166 @@
+package com.enterprise.dependency.adapter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a file into newline-aligned, memory-mapped chunks so that independent
+ * workers can parse them without coordinating on line boundaries.
+ * <p>
+ * Every chunk except the last ends directly after a {@code '\n'}, so no line
+ * ever straddles two chunks. Lines are decoded as UTF-8 and a trailing
+ * {@code '\r'} is stripped, which gives the same lines as
+ * {@link java.io.BufferedReader#readLine()} for {@code \n} and {@code \r\n}
+ * terminated files. Malformed UTF-8 is replaced rather than rejected.
+ * <p>
+ * Example:
+ * <pre>
+ *   try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+ *       for (MappedByteBuffer chunk : LineChunker.split(channel, 64L * 1024 * 1024)) {
+ *           LineChunker.forEachLine(chunk, (line, offset) -&gt; handle(line));
+ *       }
+ *   }
+ * </pre>
+ */
+public final class LineChunker {
+    /** Upper bound of a single mapping; {@link FileChannel#map} cannot map more than 2 GB at once. */
+    static final long MAX_CHUNK_BYTES = 1L << 30;
+    private static final int SCAN_BUFFER_BYTES = 8192;
+
+    /**
+     * Callback receiving each decoded line of a chunk.
+     */
+    @FunctionalInterface
+    public interface LineHandler {
+        /**
+         * @param line Decoded line without its terminator
+         * @param offset Byte offset of the line start within the chunk
+         */
+        void onLine(String line, long offset);
+    }
+
+    private LineChunker() {
+    }
+
+    /**
+     * Maps the channel into chunks of roughly {@code targetChunkBytes}, each extended
+     * to the next line boundary.
+     *
+     * @param channel Readable file channel
+     * @param targetChunkBytes Desired chunk size; clamped to [1, 1 GB]
+     * @return Chunks in file order; empty for an empty file
+     * @throws IOException if the file cannot be read or contains a line longer than 1 GB
+     */
+    public static List<MappedByteBuffer> split(FileChannel channel, long targetChunkBytes) throws IOException {
+        long size = channel.size();
+        long chunkBytes = Math.max(1, Math.min(targetChunkBytes, MAX_CHUNK_BYTES));
+        List<MappedByteBuffer> chunks = new ArrayList<>();
+        long start = 0;
+        while (start < size) {
+            long tentativeEnd = start + chunkBytes;
+            long end = tentativeEnd >= size ? size : nextLineStart(channel, tentativeEnd - 1, size);
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("Line starting near offset " + start + " is too long to map");
+            }
+            chunks.add(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Decodes every line in the buffer, from its current position to its limit.
+     * The buffer itself is not modified.
+     *
+     * @param chunk Buffer holding whole lines
+     * @param handler Receives each line in order
+     */
+    public static void forEachLine(ByteBuffer chunk, LineHandler handler) {
+        ByteBuffer view = chunk.duplicate();
+        int base = view.position();
+        int limit = view.limit();
+        byte[] lineBytes = new byte[256];
+        int lineStart = base;
+        for (int i = base; i < limit; i++) {
+            if (view.get(i) == '\n') {
+                lineBytes = emit(view, lineStart, i, lineBytes, base, handler);
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < limit) {
+            emit(view, lineStart, limit, lineBytes, base, handler);
+        }
+    }
+
+    /**
+     * Decodes lines from the buffer's position until {@code nonBlankLines} lines that
+     * are not blank have been read or the limit is reached, e.g. to sample the head of
+     * a file. The buffer itself is not modified.
+     *
+     * @param chunk Buffer holding whole lines
+     * @param nonBlankLines Number of non-blank lines to read
+     * @return The lines read in order, blank ones included
+     */
+    public static List<String> headLines(ByteBuffer chunk, int nonBlankLines) {
+        ByteBuffer view = chunk.duplicate();
+        int base = view.position();
+        int limit = view.limit();
+        List<String> lines = new ArrayList<>();
+        LineHandler handler = (line, offset) -> lines.add(line);
+        byte[] lineBytes = new byte[256];
+        int nonBlank = 0;
+        int lineStart = base;
+        while (nonBlank < nonBlankLines && lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && view.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            lineBytes = emit(view, lineStart, lineEnd, lineBytes, base, handler);
+            if (!lines.get(lines.size() - 1).trim().isEmpty()) {
+                nonBlank++;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return lines;
+    }
+
+    private static byte[] emit(ByteBuffer view, int start, int end, byte[] lineBytes, int base, LineHandler handler) {
+        int length = end - start;
+        if (length > 0 && view.get(end - 1) == '\r') {
+            length--;
+        }
+        byte[] buffer = lineBytes.length >= length ? lineBytes : new byte[Math.max(length, lineBytes.length * 2)];
+        view.position(start);
+        view.get(buffer, 0, length);
+        handler.onLine(new String(buffer, 0, length, StandardCharsets.UTF_8), start - base);
+        return buffer;
+    }
+
+    /**
+     * Returns the offset just past the first {@code '\n'} at or after {@code from},
+     * or {@code size} if there is none.
+     */
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        long position = from;
+        while (position < size) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+}
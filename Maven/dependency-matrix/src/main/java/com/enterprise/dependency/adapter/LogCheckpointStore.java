@@ -0,0 +1,174 @@
+package com.enterprise.dependency.adapter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Persists how far each followed log file has been consumed, so a restarted
+ * {@link RouterLogFollower} resumes where the previous one stopped instead of
+ * re-reading the whole file.
+ * <p>
+ * Checkpoints are kept in a single properties file keyed by the absolute path of the
+ * log. Every update rewrites that file through a temporary file and an atomic move,
+ * so a crash leaves either the old or the new checkpoint, never a torn one.
+ * <p>
+ * Example:
+ * <pre>
+ *   LogCheckpointStore store = new LogCheckpointStore(Path.of("router.checkpoints"));
+ *   LogCheckpointStore.Checkpoint checkpoint = store.get(Path.of("/var/log/router.log"));
+ * </pre>
+ */
+public class LogCheckpointStore {
+    private static final Logger logger = LoggerFactory.getLogger(LogCheckpointStore.class);
+    private static final String OFFSET_SUFFIX = ".offset";
+    private static final String FILE_KEY_SUFFIX = ".fileKey";
+    private static final String HEAD_SUFFIX = ".head";
+
+    private final Path storeFile;
+    private final Properties properties = new Properties();
+
+    /**
+     * Byte offset reached in a log file, together with the identity of the file it
+     * refers to and a fingerprint of the file's first bytes.
+     */
+    public static final class Checkpoint {
+        private final long offset;
+        private final String fileKey;
+        private final int headLength;
+        private final long headChecksum;
+
+        /**
+         * @param offset Offset just past the last consumed line
+         * @param fileKey File identity (e.g. device and inode), or null if the file
+         *                system does not provide one
+         */
+        public Checkpoint(long offset, String fileKey) {
+            this(offset, fileKey, 0, 0);
+        }
+
+        /**
+         * @param offset Offset just past the last consumed line
+         * @param fileKey File identity (e.g. device and inode), or null if the file
+         *                system does not provide one
+         * @param headLength Number of leading bytes fingerprinted; 0 if none
+         * @param headChecksum CRC-32 of those bytes
+         */
+        public Checkpoint(long offset, String fileKey, int headLength, long headChecksum) {
+            if (offset < 0 || headLength < 0) {
+                throw new IllegalArgumentException("Checkpoint offset and head length cannot be negative");
+            }
+            this.offset = offset;
+            this.fileKey = fileKey;
+            this.headLength = headLength;
+            this.headChecksum = headChecksum;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public String getFileKey() {
+            return fileKey;
+        }
+
+        public int getHeadLength() {
+            return headLength;
+        }
+
+        public long getHeadChecksum() {
+            return headChecksum;
+        }
+
+        @Override
+        public String toString() {
+            return "Checkpoint{offset=" + offset + ", fileKey=" + fileKey + ", headLength=" + headLength + "}";
+        }
+    }
+
+    /**
+     * Opens the store, loading existing checkpoints if the file exists.
+     * @param storeFile Properties file holding the checkpoints
+     * @throws IOException if an existing store cannot be read
+     */
+    public LogCheckpointStore(Path storeFile) throws IOException {
+        this.storeFile = Objects.requireNonNull(storeFile, "Checkpoint store file cannot be null");
+        if (Files.exists(storeFile)) {
+            try (InputStream in = Files.newInputStream(storeFile)) {
+                properties.load(in);
+            }
+            logger.info("Loaded log checkpoints from {}", storeFile);
+        }
+    }
+
+    /**
+     * Returns the checkpoint of a log file.
+     * @param logFile Log file
+     * @return Checkpoint, or null if the file has never been checkpointed
+     */
+    public synchronized Checkpoint get(Path logFile) {
+        String key = key(logFile);
+        String offset = properties.getProperty(key + OFFSET_SUFFIX);
+        if (offset == null) {
+            return null;
+        }
+        try {
+            // Written as "<length>:<checksum>"; absent in checkpoints from older versions
+            String head = properties.getProperty(key + HEAD_SUFFIX, "0:0");
+            int colon = head.indexOf(':');
+            return new Checkpoint(Long.parseLong(offset), properties.getProperty(key + FILE_KEY_SUFFIX),
+                    Integer.parseInt(head.substring(0, colon)), Long.parseLong(head.substring(colon + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            logger.warn("Ignoring invalid checkpoint for {}: {}", logFile, offset);
+            return null;
+        }
+    }
+
+    /**
+     * Records and persists the checkpoint of a log file.
+     * @param logFile Log file
+     * @param checkpoint New checkpoint
+     * @throws IOException if the store cannot be written
+     */
+    public synchronized void put(Path logFile, Checkpoint checkpoint) throws IOException {
+        String key = key(logFile);
+        properties.setProperty(key + OFFSET_SUFFIX, Long.toString(checkpoint.getOffset()));
+        if (checkpoint.getFileKey() != null) {
+            properties.setProperty(key + FILE_KEY_SUFFIX, checkpoint.getFileKey());
+        } else {
+            properties.remove(key + FILE_KEY_SUFFIX);
+        }
+        properties.setProperty(key + HEAD_SUFFIX, checkpoint.getHeadLength() + ":" + checkpoint.getHeadChecksum());
+        save();
+    }
+
+    private void save() throws IOException {
+        Path directory = storeFile.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, storeFile.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "Router log follower checkpoints");
+            }
+            try {
+                Files.move(temp, storeFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, storeFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String key(Path logFile) {
+        return logFile.toAbsolutePath().normalize().toString();
+    }
+}
@@ -0,0 +1,126 @@
+package com.enterprise.dependency.adapter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Opens log files for reading, transparently decompressing gzip.
+ * <p>
+ * Rotated logs ({@code router.log.1.gz}) can be ingested directly without
+ * unpacking them to disk first. Gzip is recognised by its magic bytes rather than
+ * the file name, and multi-member gzip files are decoded with one worker per member
+ * (see {@link ParallelGzipInputStream}). Plain files are read exactly as
+ * {@link Files#newBufferedReader(Path)} reads them.
+ * <p>
+ * Example:
+ * <pre>
+ *   try (Stream&lt;String&gt; lines = LogFiles.lines(Path.of("router.log.1.gz"))) {
+ *       lines.forEach(...);
+ *   }
+ * </pre>
+ */
+public final class LogFiles {
+    private static final int DECODE_THREADS = Runtime.getRuntime().availableProcessors();
+    /** Members decoded ahead of each reader; enough to keep every core busy. */
+    private static final int DECODE_WINDOW = Math.max(2, 2 * DECODE_THREADS);
+    /** Decoded members up to this size are buffered; larger ones are streamed. */
+    private static final int MAX_BUFFERED_MEMBER_BYTES = 16 * 1024 * 1024;
+    /** Decoded bytes each reader holds at most. */
+    private static final long MAX_BUFFERED_BYTES = 64L * 1024 * 1024;
+    /**
+     * Speculative decodes do blocking file reads, so they run on their own daemon
+     * threads rather than the common pool. The queue is bounded; a reader whose decode
+     * is rejected streams that member itself.
+     */
+    private static final ThreadPoolExecutor DECODE_EXECUTOR = newDecodeExecutor();
+
+    private LogFiles() {
+    }
+
+    /**
+     * @param file File to check
+     * @return Whether the file starts with the gzip magic bytes
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isGzip(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(2);
+            while (magic.hasRemaining() && channel.read(magic) > 0) {
+                // Read both magic bytes
+            }
+            return magic.position() == 2 && magic.get(0) == (byte) 0x1f && magic.get(1) == (byte) 0x8b;
+        }
+    }
+
+    /**
+     * Opens a file as a byte stream, decompressing it if it is gzip.
+     * @param file Log file, plain or gzip
+     * @return Stream of the (decompressed) file content
+     * @throws IOException if the file cannot be opened
+     */
+    public static InputStream newInputStream(Path file) throws IOException {
+        if (isGzip(file)) {
+            return new ParallelGzipInputStream(file, DECODE_EXECUTOR, DECODE_WINDOW, MAX_BUFFERED_MEMBER_BYTES,
+                    MAX_BUFFERED_BYTES);
+        }
+        return Files.newInputStream(file);
+    }
+
+    /**
+     * Opens a file as UTF-8 text, decompressing it if it is gzip. Malformed input is
+     * reported as an error, as with {@link Files#newBufferedReader(Path)}.
+     * @param file Log file, plain or gzip
+     * @return Reader over the (decompressed) file content
+     * @throws IOException if the file cannot be opened
+     */
+    public static BufferedReader newReader(Path file) throws IOException {
+        if (isGzip(file)) {
+            return new BufferedReader(new InputStreamReader(newInputStream(file), StandardCharsets.UTF_8.newDecoder()));
+        }
+        return Files.newBufferedReader(file);
+    }
+
+    /**
+     * Lazily reads the lines of a file, decompressing it if it is gzip. The stream
+     * must be closed; read errors surface as {@link UncheckedIOException}.
+     * @param file Log file, plain or gzip
+     * @return Stream of lines in file order
+     * @throws IOException if the file cannot be opened
+     */
+    public static Stream<String> lines(Path file) throws IOException {
+        BufferedReader reader = newReader(file);
+        return reader.lines().onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static ThreadPoolExecutor newDecodeExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(DECODE_THREADS, DECODE_THREADS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(4 * DECODE_THREADS), runnable -> {
+                    Thread thread = new Thread(runnable, "gzip-member-decoder-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
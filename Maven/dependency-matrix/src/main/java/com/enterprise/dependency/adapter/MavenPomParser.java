@@ -0,0 +1,511 @@
+package com.enterprise.dependency.adapter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming Maven POM parser. Reads a pom in a single StAX pass and resolves what is
+ * needed to report its dependencies:
+ * <ul>
+ *   <li>{@code ${...}} references to {@code <properties>}, {@code project.*} /
+ *       {@code pom.*} coordinates and {@code project.parent.*}, recursively</li>
+ *   <li>missing dependency versions from {@code <dependencyManagement>}, including
+ *       imported BOMs this parser has already seen as parents</li>
+ *   <li>properties and managed versions inherited from the parent pom, found through
+ *       {@code <relativePath>} (default {@code ../pom.xml}) when parsing files</li>
+ * </ul>
+ * Only real dependencies are reported: those under {@code <dependencies>} of the
+ * project or one of its profiles. Managed entries, plugin dependencies and
+ * exclusions are not. A dependency whose version cannot be resolved is still
+ * reported, with a null version.
+ * <p>
+ * Resolved parent poms are cached by path and by coordinates, so the modules of a
+ * large multi-module repository parse each shared parent only once; parsing a
+ * pom from a string resolves its parent from this cache. DTDs and external entities
+ * are not processed.
+ * <p>
+ * Thread-safe.
+ * <p>
+ * Example:
+ * <pre>
+ *   MavenPomParser parser = new MavenPomParser();
+ *   for (MavenPomParser.PomDependency dependency : parser.parse(Path.of("order-service/pom.xml")).getDependencies()) {
+ *       System.out.println(dependency.getGroupId() + ":" + dependency.getArtifactId() + ":" + dependency.getVersion());
+ *   }
+ * </pre>
+ */
+public class MavenPomParser {
+    private static final Logger logger = LoggerFactory.getLogger(MavenPomParser.class);
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+    private static final int MAX_PARENT_DEPTH = 32;
+    private static final int MAX_INTERPOLATION_DEPTH = 16;
+
+    private static final String PROJECT = "project";
+    private static final String PARENT = "project/parent";
+    private static final String PROPERTIES = "project/properties";
+    private static final String MANAGED_DEPENDENCY = "project/dependencyManagement/dependencies/dependency";
+    private static final Set<String> DECLARED_DEPENDENCIES = new HashSet<>(Arrays.asList(
+        "project/dependencies/dependency",
+        "project/profiles/profile/dependencies/dependency",
+        // A bare <dependency> element, e.g. a snippet taken from a pom
+        "dependency"
+    ));
+
+    private final Map<Path, Pom> parentsByPath = new ConcurrentHashMap<>();
+    private final Map<String, Pom> parentsByCoordinates = new ConcurrentHashMap<>();
+
+    /**
+     * Parses a pom file, resolving its parent chain from disk and the cache.
+     * @param pomFile pom.xml
+     * @return Resolved pom
+     * @throws IOException if the file cannot be read or is not well-formed XML
+     */
+    public Pom parse(Path pomFile) throws IOException {
+        return parse(pomFile.toAbsolutePath().normalize(), 0);
+    }
+
+    /**
+     * Parses pom content without a location; a parent is only resolved if it is
+     * already cached.
+     * @param pomContent pom.xml content, or a single {@code <dependency>} element
+     * @return Resolved pom
+     * @throws IOException if the content is not well-formed XML
+     */
+    public Pom parse(String pomContent) throws IOException {
+        RawPom raw;
+        try {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(pomContent));
+            try {
+                raw = read(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed pom: " + e.getMessage(), e);
+        }
+        return resolve(raw, raw.parent != null ? parentsByCoordinates.get(raw.parent.key()) : null, null);
+    }
+
+    /** @return Number of parent poms currently cached */
+    public int getCachedParentCount() {
+        return parentsByPath.size();
+    }
+
+    /** Drops all cached parents, e.g. after the repository has changed. */
+    public void clearCache() {
+        parentsByPath.clear();
+        parentsByCoordinates.clear();
+    }
+
+    private Pom parse(Path pomFile, int depth) throws IOException {
+        RawPom raw;
+        try (InputStream in = Files.newInputStream(pomFile)) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                raw = read(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed pom " + pomFile + ": " + e.getMessage(), e);
+        }
+        return resolve(raw, findParent(raw.parent, pomFile, depth), pomFile);
+    }
+
+    /**
+     * Finds the parent by coordinates in the cache, then by relative path on disk.
+     * A file whose coordinates do not match the declared parent is ignored, as Maven does.
+     */
+    private Pom findParent(Coordinates parent, Path pomFile, int depth) {
+        if (parent == null) {
+            return null;
+        }
+        Pom cached = parentsByCoordinates.get(parent.key());
+        if (cached != null) {
+            return cached;
+        }
+        if (parent.relativePath != null && parent.relativePath.isEmpty()) {
+            return null;
+        }
+        if (depth >= MAX_PARENT_DEPTH) {
+            logger.warn("Parent chain of {} is deeper than {}, ignoring further parents", pomFile, MAX_PARENT_DEPTH);
+            return null;
+        }
+        Path parentFile = pomFile.resolveSibling(parent.relativePath != null ? parent.relativePath : "../pom.xml").normalize();
+        if (Files.isDirectory(parentFile)) {
+            parentFile = parentFile.resolve("pom.xml");
+        }
+        Pom resolved = parentsByPath.get(parentFile);
+        if (resolved == null) {
+            if (!Files.isRegularFile(parentFile)) {
+                logger.debug("Parent {} of {} not found at {}", parent.key(), pomFile, parentFile);
+                return null;
+            }
+            try {
+                resolved = parse(parentFile, depth + 1);
+            } catch (IOException e) {
+                logger.warn("Could not read parent pom {} of {}: {}", parentFile, pomFile, e.getMessage());
+                return null;
+            }
+            parentsByPath.put(parentFile, resolved);
+        }
+        if (!parent.groupId.equals(resolved.groupId) || !parent.artifactId.equals(resolved.artifactId)) {
+            logger.debug("Pom at {} is not the declared parent {} of {}", parentFile, parent.key(), pomFile);
+            return null;
+        }
+        parentsByCoordinates.putIfAbsent(parent.key(), resolved);
+        parentsByCoordinates.putIfAbsent(resolved.groupId + ":" + resolved.artifactId + ":" + resolved.version, resolved);
+        return resolved;
+    }
+
+    /**
+     * Reads the raw, uninterpolated values this parser needs in one pass.
+     */
+    private static RawPom read(XMLStreamReader reader) throws XMLStreamException {
+        RawPom raw = new RawPom();
+        Deque<String> path = new ArrayDeque<>();
+        Map<String, String> parentFields = null;
+        Map<String, String> dependency = null;
+        String dependencyPath = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                String parentPath = path.isEmpty() ? "" : path.peek();
+                String current = parentPath.isEmpty() ? name : parentPath + "/" + name;
+                if (dependency != null && parentPath.equals(dependencyPath) && isDependencyField(name)) {
+                    dependency.put(name, reader.getElementText().trim());
+                } else if (parentFields != null && parentPath.equals(PARENT)) {
+                    parentFields.put(name, reader.getElementText().trim());
+                } else if (parentPath.equals(PROPERTIES)) {
+                    raw.properties.put(name, reader.getElementText().trim());
+                } else if (parentPath.equals(PROJECT) && isCoordinateField(name)) {
+                    raw.project.put(name, reader.getElementText().trim());
+                } else {
+                    path.push(current);
+                    if (current.equals(PARENT)) {
+                        parentFields = new HashMap<>();
+                    } else if (current.equals(MANAGED_DEPENDENCY) || DECLARED_DEPENDENCIES.contains(current)) {
+                        dependency = new LinkedHashMap<>();
+                        dependencyPath = current;
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String closed = path.pop();
+                if (closed.equals(PARENT)) {
+                    raw.parent = Coordinates.of(parentFields);
+                    parentFields = null;
+                } else if (closed.equals(MANAGED_DEPENDENCY)) {
+                    raw.managed.add(dependency);
+                    dependency = null;
+                    dependencyPath = null;
+                } else if (DECLARED_DEPENDENCIES.contains(closed)) {
+                    raw.dependencies.add(dependency);
+                    dependency = null;
+                    dependencyPath = null;
+                }
+            }
+        }
+        return raw;
+    }
+
+    private Pom resolve(RawPom raw, Pom parent, Path file) {
+        Map<String, String> properties = new HashMap<>();
+        List<Map<String, String>> managed = new ArrayList<>();
+        if (parent != null) {
+            properties.putAll(parent.rawProperties);
+            managed.addAll(parent.rawManaged);
+        }
+        properties.putAll(raw.properties);
+        managed.addAll(raw.managed);
+
+        Map<String, String> builtIns = new HashMap<>();
+        if (raw.parent != null) {
+            builtIns.put("project.parent.groupId", raw.parent.groupId);
+            builtIns.put("project.parent.artifactId", raw.parent.artifactId);
+            builtIns.put("project.parent.version", raw.parent.version);
+        }
+        String groupId = firstNonNull(raw.project.get("groupId"), raw.parent != null ? raw.parent.groupId : null);
+        String version = firstNonNull(raw.project.get("version"), raw.parent != null ? raw.parent.version : null);
+        putCoordinate(builtIns, "groupId", groupId);
+        putCoordinate(builtIns, "artifactId", raw.project.get("artifactId"));
+        putCoordinate(builtIns, "version", version);
+        putCoordinate(builtIns, "packaging", firstNonNull(raw.project.get("packaging"), "jar"));
+        Interpolator interpolator = new Interpolator(properties, builtIns);
+
+        // Later entries (the child's own) override inherited ones; imported BOMs only fill gaps
+        Map<String, String> managedVersions = new HashMap<>();
+        Map<String, String> importedVersions = new HashMap<>();
+        for (Map<String, String> entry : managed) {
+            String key = interpolator.apply(entry.get("groupId")) + ":" + interpolator.apply(entry.get("artifactId"));
+            String managedVersion = interpolator.apply(entry.get("version"));
+            if ("import".equals(entry.get("scope")) && "pom".equals(entry.get("type"))) {
+                Pom bom = parentsByCoordinates.get(key + ":" + managedVersion);
+                if (bom != null) {
+                    importedVersions.putAll(bom.managedVersions);
+                } else {
+                    logger.debug("Imported BOM {}:{} is not cached, its versions stay unresolved", key, managedVersion);
+                }
+            } else if (managedVersion != null) {
+                managedVersions.put(key, managedVersion);
+            }
+        }
+        for (Map.Entry<String, String> imported : importedVersions.entrySet()) {
+            managedVersions.putIfAbsent(imported.getKey(), imported.getValue());
+        }
+
+        List<PomDependency> dependencies = new ArrayList<>(raw.dependencies.size());
+        for (Map<String, String> declared : raw.dependencies) {
+            String dependencyGroupId = interpolator.apply(declared.get("groupId"));
+            String artifactId = interpolator.apply(declared.get("artifactId"));
+            if (dependencyGroupId == null || artifactId == null) {
+                logger.debug("Skipping dependency without groupId or artifactId: {}", declared);
+                continue;
+            }
+            String dependencyVersion = interpolator.apply(declared.get("version"));
+            if (dependencyVersion == null) {
+                dependencyVersion = managedVersions.get(dependencyGroupId + ":" + artifactId);
+            }
+            dependencies.add(new PomDependency(dependencyGroupId, artifactId, dependencyVersion,
+                interpolator.apply(declared.get("scope")), "true".equals(declared.get("optional")), toXml(declared)));
+        }
+
+        List<Path> parentFiles = new ArrayList<>();
+        if (parent != null) {
+            if (parent.file != null) {
+                parentFiles.add(parent.file);
+            }
+            parentFiles.addAll(parent.parentFiles);
+        }
+        return new Pom(interpolator.apply(groupId), interpolator.apply(raw.project.get("artifactId")),
+            interpolator.apply(version), properties, managed, managedVersions, dependencies, file, parentFiles);
+    }
+
+    private static void putCoordinate(Map<String, String> builtIns, String field, String value) {
+        if (value != null) {
+            builtIns.put("project." + field, value);
+            builtIns.put("pom." + field, value);
+        }
+    }
+
+    private static boolean isDependencyField(String name) {
+        switch (name) {
+            case "groupId":
+            case "artifactId":
+            case "version":
+            case "scope":
+            case "type":
+            case "optional":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isCoordinateField(String name) {
+        return name.equals("groupId") || name.equals("artifactId") || name.equals("version") || name.equals("packaging");
+    }
+
+    private static String toXml(Map<String, String> fields) {
+        StringBuilder xml = new StringBuilder("<dependency>");
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            xml.append('<').append(field.getKey()).append('>')
+               .append(field.getValue().replace("&", "&amp;").replace("<", "&lt;"))
+               .append("</").append(field.getKey()).append('>');
+        }
+        return xml.append("</dependency>").toString();
+    }
+
+    private static String firstNonNull(String first, String second) {
+        return first != null ? first : second;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * Expands {@code ${name}} references; unknown references are left as they are.
+     */
+    private static final class Interpolator {
+        private final Map<String, String> properties;
+        private final Map<String, String> builtIns;
+
+        private Interpolator(Map<String, String> properties, Map<String, String> builtIns) {
+            this.properties = properties;
+            this.builtIns = builtIns;
+        }
+
+        String apply(String value) {
+            return value == null ? null : apply(value, 0);
+        }
+
+        private String apply(String value, int depth) {
+            int start = value.indexOf("${");
+            if (start < 0 || depth >= MAX_INTERPOLATION_DEPTH) {
+                return value;
+            }
+            StringBuilder result = new StringBuilder(value.length());
+            int copied = 0;
+            while (start >= 0) {
+                int end = value.indexOf('}', start + 2);
+                if (end < 0) {
+                    break;
+                }
+                String name = value.substring(start + 2, end);
+                String replacement = builtIns.get(name);
+                if (replacement == null) {
+                    replacement = properties.get(name);
+                }
+                if (replacement != null) {
+                    result.append(value, copied, start).append(apply(replacement, depth + 1));
+                    copied = end + 1;
+                }
+                start = value.indexOf("${", end + 1);
+            }
+            return result.append(value, copied, value.length()).toString();
+        }
+    }
+
+    private static final class RawPom {
+        private final Map<String, String> project = new HashMap<>();
+        private final Map<String, String> properties = new HashMap<>();
+        private final List<Map<String, String>> managed = new ArrayList<>();
+        private final List<Map<String, String>> dependencies = new ArrayList<>();
+        private Coordinates parent;
+    }
+
+    private static final class Coordinates {
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final String relativePath;
+
+        private Coordinates(String groupId, String artifactId, String version, String relativePath) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.relativePath = relativePath;
+        }
+
+        static Coordinates of(Map<String, String> fields) {
+            String groupId = fields.get("groupId");
+            String artifactId = fields.get("artifactId");
+            if (groupId == null || artifactId == null) {
+                return null;
+            }
+            return new Coordinates(groupId, artifactId, fields.get("version"), fields.get("relativePath"));
+        }
+
+        String key() {
+            return groupId + ":" + artifactId + ":" + version;
+        }
+    }
+
+    /**
+     * A parsed pom with its inheritance and interpolation applied.
+     */
+    public static final class Pom {
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        // Uninterpolated, as inherited: a child interpolates them in its own context
+        private final Map<String, String> rawProperties;
+        private final List<Map<String, String>> rawManaged;
+        private final Map<String, String> managedVersions;
+        private final List<PomDependency> dependencies;
+        private final Path file;
+        private final List<Path> parentFiles;
+
+        private Pom(String groupId, String artifactId, String version, Map<String, String> rawProperties,
+                    List<Map<String, String>> rawManaged, Map<String, String> managedVersions,
+                    List<PomDependency> dependencies, Path file, List<Path> parentFiles) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.rawProperties = rawProperties;
+            this.rawManaged = rawManaged;
+            this.managedVersions = managedVersions;
+            this.dependencies = Collections.unmodifiableList(dependencies);
+            this.file = file;
+            this.parentFiles = Collections.unmodifiableList(parentFiles);
+        }
+
+        /** @return Group ID, inherited from the parent if not declared; null for a bare dependency */
+        public String getGroupId() { return groupId; }
+        public String getArtifactId() { return artifactId; }
+        public String getVersion() { return version; }
+        public List<PomDependency> getDependencies() { return dependencies; }
+        /** @return Normalised path the pom was read from, or null if parsed from content */
+        public Path getFile() { return file; }
+        /** @return Files of the resolved parent chain, nearest first; parents known only from content are left out */
+        public List<Path> getParentFiles() { return parentFiles; }
+
+        /**
+         * @param groupId Group ID
+         * @param artifactId Artifact ID
+         * @return Version managed by this pom or its ancestors, or null
+         */
+        public String getManagedVersion(String groupId, String artifactId) {
+            return managedVersions.get(groupId + ":" + artifactId);
+        }
+    }
+
+    /**
+     * One declared dependency, with properties and managed versions resolved.
+     */
+    public static final class PomDependency {
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final String scope;
+        private final boolean optional;
+        private final String declaration;
+
+        private PomDependency(String groupId, String artifactId, String version, String scope,
+                              boolean optional, String declaration) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.scope = scope;
+            this.optional = optional;
+            this.declaration = declaration;
+        }
+
+        public String getGroupId() { return groupId; }
+        public String getArtifactId() { return artifactId; }
+        /** @return Resolved version, or null if neither declared nor managed */
+        public String getVersion() { return version; }
+        /** @return Declared scope, or null for the default compile scope */
+        public String getScope() { return scope; }
+        public boolean isOptional() { return optional; }
+        /** @return The declaration as written in the pom, before interpolation */
+        public String getDeclaration() { return declaration; }
+    }
+}
@@ -0,0 +1,234 @@
+package com.enterprise.dependency.adapter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Extracts npm dependencies from {@code package.json} and {@code package-lock.json}
+ * content in a single streaming pass.
+ * <p>
+ * Read are the top-level {@code dependencies} and {@code devDependencies} objects
+ * (name to version range in a manifest, name to an entry with a {@code version} in a
+ * lockfile v1) and the lockfile v2/v3 {@code packages} object, whose keys are install
+ * paths such as {@code node_modules/a/node_modules/b}. When a lockfile has both
+ * {@code packages} and the legacy {@code dependencies} tree, only {@code packages} is
+ * used. All other subtrees, such as {@code requires}, {@code integrity} or nested
+ * {@code dependencies}, are skipped by the parser without being materialised.
+ * <p>
+ * Both lockfile layouts report the same scope: the packages installed at the top
+ * level of {@code node_modules}, i.e. the direct dependencies and those npm hoisted
+ * next to them. Copies nested under another package ({@code node_modules/a/node_modules/b})
+ * are left out, as the nested v1 {@code dependencies} trees are.
+ * <p>
+ * Services built from the same lockfile are common, so results are memoised in a
+ * small LRU cache. It is keyed on the length and a sample of the content, so a lookup
+ * does not hash the whole lockfile; a hit is confirmed by comparing the content.
+ * <p>
+ * Thread-safe.
+ */
+final class NpmDependencyExtractor {
+    private static final String NODE_MODULES = "node_modules/";
+    private static final int MEMO_ENTRIES = 256;
+    /** Characters of content the memo holds at most, to confirm hits. */
+    private static final long MAX_MEMO_CHARS = 32L * 1024 * 1024;
+    // Content up to SAMPLE_WINDOWS * SAMPLE_WINDOW_CHARS is hashed in full
+    private static final int SAMPLE_WINDOWS = 16;
+    private static final int SAMPLE_WINDOW_CHARS = 64;
+
+    private final JsonFactory jsonFactory;
+    private final LinkedHashMap<Long, Memo> memo = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoChars;
+    private long memoHits;
+
+    NpmDependencyExtractor(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * @param content package.json or package-lock.json content
+     * @return Distinct dependencies in document order; empty if the content is not a JSON object
+     * @throws IOException if the content is not well-formed JSON
+     */
+    List<NpmDependency> extract(String content) throws IOException {
+        Long key = sampleKey(content);
+        synchronized (memo) {
+            Memo known = memo.get(key);
+            if (known != null && known.content.equals(content)) {
+                memoHits++;
+                return known.dependencies;
+            }
+        }
+        List<NpmDependency> dependencies = Collections.unmodifiableList(read(content));
+        synchronized (memo) {
+            Memo replaced = memo.put(key, new Memo(content, dependencies));
+            memoChars += content.length() - (replaced != null ? replaced.content.length() : 0);
+            Iterator<Memo> eldest = memo.values().iterator();
+            while (memo.size() > 1 && (memo.size() > MEMO_ENTRIES || memoChars > MAX_MEMO_CHARS)) {
+                memoChars -= eldest.next().content.length();
+                eldest.remove();
+            }
+        }
+        return dependencies;
+    }
+
+    /** @return Extractions answered from the memo */
+    long getMemoHitCount() {
+        synchronized (memo) {
+            return memoHits;
+        }
+    }
+
+    /**
+     * Hashes the length and evenly spaced windows of the content, including its start
+     * and end; short content is hashed in full.
+     */
+    private static long sampleKey(String content) {
+        int length = content.length();
+        long hash = length;
+        if (length <= SAMPLE_WINDOWS * SAMPLE_WINDOW_CHARS) {
+            return hash * 31 + content.hashCode();
+        }
+        for (int window = 0; window < SAMPLE_WINDOWS; window++) {
+            int start = (int) ((long) (length - SAMPLE_WINDOW_CHARS) * window / (SAMPLE_WINDOWS - 1));
+            for (int i = start; i < start + SAMPLE_WINDOW_CHARS; i++) {
+                hash = hash * 31 + content.charAt(i);
+            }
+        }
+        return hash;
+    }
+
+    private List<NpmDependency> read(String content) throws IOException {
+        Set<NpmDependency> declared = new LinkedHashSet<>();
+        Set<NpmDependency> legacyLocked = new LinkedHashSet<>();
+        Set<NpmDependency> packages = new LinkedHashSet<>();
+        try (JsonParser parser = jsonFactory.createParser(content)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return new ArrayList<>();
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                } else if (field.equals("dependencies") || field.equals("devDependencies")) {
+                    readDependencies(parser, declared, legacyLocked);
+                } else if (field.equals("packages")) {
+                    readPackages(parser, packages);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        List<NpmDependency> dependencies = new ArrayList<>(declared);
+        dependencies.addAll(packages.isEmpty() ? legacyLocked : packages);
+        return dependencies;
+    }
+
+    /**
+     * Reads a name-to-version object; entries that are objects are lockfile v1 entries.
+     */
+    private static void readDependencies(JsonParser parser, Set<NpmDependency> declared, Set<NpmDependency> locked) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_STRING) {
+                declared.add(new NpmDependency(name, parser.getText()));
+            } else if (value == JsonToken.START_OBJECT) {
+                String version = readVersion(parser);
+                if (version != null) {
+                    locked.add(new NpmDependency(name, version));
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readPackages(JsonParser parser, Set<NpmDependency> packages) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String path = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value != JsonToken.START_OBJECT || !path.startsWith(NODE_MODULES)
+                    || path.indexOf(NODE_MODULES, NODE_MODULES.length()) >= 0) {
+                // The root project (""), workspace folders and nested installs are not read
+                parser.skipChildren();
+                continue;
+            }
+            String version = readVersion(parser);
+            if (version != null) {
+                packages.add(new NpmDependency(path.substring(NODE_MODULES.length()), version));
+            }
+        }
+    }
+
+    /** Reads the {@code version} of an entry object, skipping everything else in it. */
+    private static String readVersion(JsonParser parser) throws IOException {
+        String version = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals("version") && value == JsonToken.VALUE_STRING) {
+                version = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return version;
+    }
+
+    /** Memoised result, with the content it was read from. */
+    private static final class Memo {
+        private final String content;
+        private final List<NpmDependency> dependencies;
+
+        private Memo(String content, List<NpmDependency> dependencies) {
+            this.content = content;
+            this.dependencies = dependencies;
+        }
+    }
+
+    /**
+     * One npm dependency: package name and declared range or locked version.
+     */
+    static final class NpmDependency {
+        private final String name;
+        private final String version;
+
+        NpmDependency(String name, String version) {
+            this.name = name;
+            this.version = version;
+        }
+
+        String name() {
+            return name;
+        }
+
+        String version() {
+            return version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof NpmDependency)) return false;
+            NpmDependency that = (NpmDependency) o;
+            return name.equals(that.name) && version.equals(that.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + version.hashCode();
+        }
+    }
+}
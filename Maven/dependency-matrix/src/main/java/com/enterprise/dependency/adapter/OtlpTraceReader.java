@@ -0,0 +1,355 @@
+package com.enterprise.dependency.adapter;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams spans out of OTLP/JSON trace exports ({@code ExportTraceServiceRequest}),
+ * without building a tree of the document:
+ * <pre>
+ *   {"resourceSpans":[{
+ *     "resource":{"attributes":[{"key":"service.name","value":{"stringValue":"orders"}}]},
+ *     "scopeSpans":[{"scope":{"name":"io.opentelemetry.okhttp"},"spans":[
+ *       {"traceId":"5b8e...","spanId":"eee1...","parentSpanId":"aaa2...","name":"GET","kind":3,
+ *        "startTimeUnixNano":"1705314600000000000","endTimeUnixNano":"1705314600125000000",
+ *        "attributes":[{"key":"peer.service","value":{"stringValue":"payments"}}],"status":{"code":2}},
+ *       ...]}]},
+ *     ...]}
+ * </pre>
+ * The input may hold several requests back to back, as written by the collector's
+ * file exporter, or a top-level array of them. Both {@code scopeSpans} and the older
+ * {@code instrumentationLibrarySpans} are read. Enum fields may be numbers or names,
+ * and 64-bit times may be strings or numbers.
+ * <p>
+ * Spans are handed over one at a time as they are read. Only spans whose resource
+ * comes after them in their {@code resourceSpans} element are held back until the
+ * resource has been read.
+ * <p>
+ * Not thread-safe.
+ */
+final class OtlpTraceReader implements Closeable {
+    static final int KIND_CLIENT = 3;
+    static final int KIND_PRODUCER = 4;
+    private static final String UNKNOWN_SERVICE = "unknown_service";
+    private static final String[] SPAN_KINDS = {
+        "SPAN_KIND_UNSPECIFIED", "SPAN_KIND_INTERNAL", "SPAN_KIND_SERVER",
+        "SPAN_KIND_CLIENT", "SPAN_KIND_PRODUCER", "SPAN_KIND_CONSUMER"
+    };
+    // Attributes naming the remote side of a client span, in order of preference
+    private static final String[] PEER_ATTRIBUTES = {"peer.service", "server.address", "net.peer.name"};
+
+    private final JsonParser parser;
+
+    /**
+     * @param parser Parser over the export; closed by {@link #close()}
+     */
+    OtlpTraceReader(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Reads the whole input.
+     * @param sink Receives every span, in input order except for spans held back
+     *             for their resource
+     * @return Number of spans read
+     * @throws IOException if the input cannot be read or is not well-formed JSON
+     */
+    long read(Consumer<Span> sink) throws IOException {
+        long spans = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (token == JsonToken.START_OBJECT) {
+                spans += readRequest(sink);
+            } else if (token != JsonToken.START_ARRAY && token != JsonToken.END_ARRAY) {
+                parser.skipChildren();
+            }
+        }
+        return spans;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private long readRequest(Consumer<Span> sink) throws IOException {
+        long spans = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            if (parser.nextToken() == JsonToken.START_ARRAY && "resourceSpans".equals(name)) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    spans += readResourceSpans(sink);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return spans;
+    }
+
+    private long readResourceSpans(Consumer<Span> sink) throws IOException {
+        String service = null;
+        List<Span> held = new ArrayList<>();
+        long spans = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("resource".equals(name) && value == JsonToken.START_OBJECT) {
+                service = readServiceName();
+                for (Span span : held) {
+                    span.service = service;
+                    sink.accept(span);
+                }
+                held.clear();
+            } else if (("scopeSpans".equals(name) || "instrumentationLibrarySpans".equals(name))
+                    && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        boolean isSpans = "spans".equals(parser.getCurrentName());
+                        if (parser.nextToken() != JsonToken.START_ARRAY || !isSpans) {
+                            parser.skipChildren();
+                            continue;
+                        }
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            Span span = readSpan();
+                            if (span == null) {
+                                continue;
+                            }
+                            spans++;
+                            if (service != null) {
+                                span.service = service;
+                                sink.accept(span);
+                            } else {
+                                held.add(span);
+                            }
+                        }
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        for (Span span : held) {
+            span.service = UNKNOWN_SERVICE;
+            sink.accept(span);
+        }
+        return spans;
+    }
+
+    /**
+     * @return The {@code service.name} resource attribute, or {@code unknown_service}
+     */
+    private String readServiceName() throws IOException {
+        String service = UNKNOWN_SERVICE;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            boolean isAttributes = "attributes".equals(parser.getCurrentName());
+            if (parser.nextToken() != JsonToken.START_ARRAY || !isAttributes) {
+                parser.skipChildren();
+                continue;
+            }
+            String[] names = {"service.name"};
+            String[] values = new String[1];
+            readAttributes(names, values);
+            if (values[0] != null && !values[0].isEmpty()) {
+                service = values[0];
+            }
+        }
+        return service;
+    }
+
+    /**
+     * @return The span, or null if it has no span ID
+     */
+    private Span readSpan() throws IOException {
+        Span span = new Span();
+        String[] peers = new String[PEER_ATTRIBUTES.length];
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case "traceId":
+                    span.traceId = emptyToNull(parser.getValueAsString());
+                    break;
+                case "spanId":
+                    span.spanId = emptyToNull(parser.getValueAsString());
+                    break;
+                case "parentSpanId":
+                    span.parentSpanId = emptyToNull(parser.getValueAsString());
+                    break;
+                case "kind":
+                    span.kind = enumValue(value, SPAN_KINDS);
+                    break;
+                case "startTimeUnixNano":
+                    span.startNanos = longValue(value);
+                    break;
+                case "endTimeUnixNano":
+                    span.endNanos = longValue(value);
+                    break;
+                case "attributes":
+                    if (value == JsonToken.START_ARRAY) {
+                        readAttributes(PEER_ATTRIBUTES, peers);
+                    } else {
+                        parser.skipChildren();
+                    }
+                    break;
+                case "status":
+                    span.error = value == JsonToken.START_OBJECT && readErrorStatus();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        for (String peer : peers) {
+            if (peer != null && !peer.isEmpty()) {
+                span.peer = peer;
+                break;
+            }
+        }
+        return span.spanId != null ? span : null;
+    }
+
+    /**
+     * Reads a key/value list, storing the values of the wanted keys as strings.
+     */
+    private void readAttributes(String[] keys, String[] values) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String key = null;
+            String value = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("key".equals(name)) {
+                    key = parser.getValueAsString();
+                } else if ("value".equals(name) && token == JsonToken.START_OBJECT) {
+                    // {"stringValue":"x"}, {"intValue":"42"}, {"boolValue":true}, ...
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        JsonToken scalar = parser.nextToken();
+                        if (scalar.isScalarValue()) {
+                            value = parser.getValueAsString();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) {
+                    values[i] = value;
+                }
+            }
+        }
+    }
+
+    private boolean readErrorStatus() throws IOException {
+        boolean error = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            boolean isCode = "code".equals(parser.getCurrentName());
+            JsonToken value = parser.nextToken();
+            if (isCode) {
+                error = value == JsonToken.VALUE_NUMBER_INT
+                        ? parser.getIntValue() == 2
+                        : "STATUS_CODE_ERROR".equals(parser.getValueAsString());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return error;
+    }
+
+    private int enumValue(JsonToken value, String[] names) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        String text = parser.getValueAsString();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(text)) {
+                return i;
+            }
+        }
+        parser.skipChildren();
+        return 0;
+    }
+
+    private long longValue(JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        if (value == JsonToken.VALUE_STRING) {
+            try {
+                return Long.parseUnsignedLong(parser.getText());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        parser.skipChildren();
+        return 0;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    /**
+     * The fields of a span needed to link services: its service, IDs, kind, times,
+     * remote peer and whether it failed.
+     */
+    static final class Span {
+        private String service;
+        private String traceId;
+        private String spanId;
+        private String parentSpanId;
+        private int kind;
+        private long startNanos;
+        private long endNanos;
+        private String peer;
+        private boolean error;
+
+        String service() {
+            return service;
+        }
+
+        /** @return Trace ID, or null if the span has none */
+        String traceId() {
+            return traceId;
+        }
+
+        String spanId() {
+            return spanId;
+        }
+
+        /** @return Parent span ID, or null for a root span */
+        String parentSpanId() {
+            return parentSpanId;
+        }
+
+        /** @return OTLP span kind, e.g. {@link #KIND_CLIENT} */
+        int kind() {
+            return kind;
+        }
+
+        long startNanos() {
+            return startNanos;
+        }
+
+        double durationMs() {
+            return endNanos > startNanos ? (endNanos - startNanos) / 1_000_000.0 : 0;
+        }
+
+        /** @return Remote service named by the span's attributes, or null */
+        String peer() {
+            return peer;
+        }
+
+        boolean error() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,482 @@
+package com.enterprise.dependency.adapter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Decompresses a gzip file whose members are decoded in parallel.
+ * <p>
+ * Rotated logs are often multi-member gzip files (one member per flush, or files
+ * joined with {@code cat}). Every member is an independent deflate stream, but
+ * member boundaries are only known after decoding the previous member. This stream
+ * therefore decodes speculatively: it scans ahead for byte positions that look like
+ * a member header ({@code 1f 8b 08}) and decodes up to {@code window} of those
+ * candidates on the executor. A candidate only counts if it decodes completely and
+ * its CRC-32 and length trailer match, and it is only used if it starts exactly
+ * where the previous member ended, so false candidates inside compressed data are
+ * discarded. Members are returned strictly in file order.
+ * <p>
+ * Decoded bytes held by speculative decodes and by the member being read are capped
+ * at {@code maxBufferedBytes} in total. A decode that would go over the cap gives up
+ * and its member is streamed instead. Members larger than
+ * {@code maxBufferedMemberBytes} are streamed on the calling thread too. A candidate
+ * further than that from the next candidate or the end of the file is never decoded
+ * ahead, because its compressed size alone exceeds the cap. The executor may reject
+ * decodes when it is busy; those members are streamed as well. A single-member file
+ * is decoded like {@link java.util.zip.GZIPInputStream} would, without any
+ * speculation. Bytes after the last member that do not start a new member are
+ * ignored.
+ */
+class ParallelGzipInputStream extends InputStream {
+    private static final Logger logger = LoggerFactory.getLogger(ParallelGzipInputStream.class);
+    private static final int READ_BLOCK_BYTES = 64 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final Executor executor;
+    private final int window;
+    private final int maxBufferedMemberBytes;
+    private final long maxBufferedBytes;
+    /** Decoded bytes held by speculative decodes and by {@link #current}. */
+    private final AtomicLong bufferedBytes = new AtomicLong();
+    /** Speculative decodes by candidate offset, all at or after {@link #position}. */
+    private final TreeMap<Long, Speculation> speculative = new TreeMap<>();
+
+    private long position;
+    private long scanPosition = 1;
+    private byte[] current = new byte[0];
+    private int currentOffset;
+    private MemberReader streaming;
+    private boolean finished;
+    // Last candidate search, which the next one usually repeats
+    private long candidateSearchFrom = -1;
+    private long candidateFound;
+
+    /**
+     * @param file Gzip file
+     * @param executor Executor for speculative member decodes
+     * @param window Maximum number of members decoded ahead
+     * @param maxBufferedMemberBytes Largest decoded member kept in memory
+     * @param maxBufferedBytes Cap on decoded bytes held in memory at once
+     * @throws IOException if the file cannot be opened
+     */
+    ParallelGzipInputStream(Path file, Executor executor, int window, int maxBufferedMemberBytes,
+                            long maxBufferedBytes) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.executor = executor;
+        this.window = Math.max(1, window);
+        this.maxBufferedMemberBytes = maxBufferedMemberBytes;
+        this.maxBufferedBytes = maxBufferedBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int read = read(single, 0, 1);
+        return read < 0 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (true) {
+            if (currentOffset < current.length) {
+                int count = Math.min(length, current.length - currentOffset);
+                System.arraycopy(current, currentOffset, buffer, offset, count);
+                currentOffset += count;
+                return count;
+            }
+            if (streaming != null) {
+                int count = streaming.read(buffer, offset, length);
+                if (count >= 0) {
+                    return count;
+                }
+                position = streaming.end;
+                streaming.close();
+                streaming = null;
+            }
+            if (finished || !nextMember()) {
+                finished = true;
+                return -1;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        if (streaming != null) {
+            streaming.close();
+            streaming = null;
+        }
+        for (Speculation speculation : speculative.values()) {
+            speculation.discard();
+        }
+        speculative.clear();
+        setCurrent(new byte[0]);
+        channel.close();
+    }
+
+    /**
+     * @return Decoded bytes currently held in memory
+     */
+    long getBufferedBytes() {
+        return bufferedBytes.get();
+    }
+
+    /**
+     * Makes the member at {@link #position} current.
+     * @return false at the end of the gzip data
+     */
+    private boolean nextMember() throws IOException {
+        if (position >= size) {
+            return false;
+        }
+        if (position > 0 && !hasHeaderMagic(position)) {
+            logger.debug("Ignoring {} trailing bytes after the last gzip member", size - position);
+            return false;
+        }
+
+        discardSpeculationBefore(position);
+        if (position > 0) {
+            // The first member tells whether the file has several; only then speculate
+            scheduleCandidates();
+        }
+
+        Speculation speculation = speculative.remove(position);
+        if (speculation != null) {
+            DecodedMember member = speculation.future.join();
+            if (member.data != null) {
+                // The speculation's bytes are now accounted to current
+                setCurrent(member.data);
+                position = member.end;
+                return true;
+            }
+        }
+        // Not decoded ahead, or too large to buffer: stream it on this thread
+        streaming = new MemberReader(channel, position);
+        setCurrent(new byte[0]);
+        return true;
+    }
+
+    /**
+     * Replaces the current member, releasing the bytes held by the previous one.
+     */
+    private void setCurrent(byte[] data) {
+        bufferedBytes.addAndGet(-current.length);
+        current = data;
+        currentOffset = 0;
+    }
+
+    private void discardSpeculationBefore(long offset) {
+        Iterator<Map.Entry<Long, Speculation>> iterator = speculative.headMap(offset, false).entrySet().iterator();
+        while (iterator.hasNext()) {
+            iterator.next().getValue().discard();
+            iterator.remove();
+        }
+        scanPosition = Math.max(scanPosition, offset);
+    }
+
+    private void scheduleCandidates() throws IOException {
+        while (speculative.size() < window && bufferedBytes.get() < maxBufferedBytes) {
+            long candidate = findCandidate(scanPosition);
+            if (candidate < 0) {
+                scanPosition = size;
+                return;
+            }
+            scanPosition = candidate + 1;
+            // The member is at least as long as the gap to the next candidate
+            long following = findCandidate(candidate + 1);
+            if ((following < 0 ? size : following) - candidate > maxBufferedMemberBytes) {
+                continue;
+            }
+            Speculation speculation = new Speculation();
+            try {
+                speculation.future = CompletableFuture.supplyAsync(() -> decodeSpeculatively(speculation, candidate), executor);
+            } catch (RejectedExecutionException e) {
+                // Executor saturated; try again at the next member
+                scanPosition = candidate;
+                return;
+            }
+            speculative.put(candidate, speculation);
+        }
+    }
+
+    private DecodedMember decodeSpeculatively(Speculation speculation, long start) {
+        long held = 0;
+        try (MemberReader reader = new MemberReader(channel, start)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] block = new byte[READ_BLOCK_BYTES];
+            int read;
+            while ((read = reader.read(block, 0, block.length)) >= 0) {
+                if (speculation.discarded || out.size() + read > maxBufferedMemberBytes) {
+                    bufferedBytes.addAndGet(-held);
+                    return new DecodedMember(null, -1);
+                }
+                held += read;
+                if (bufferedBytes.addAndGet(read) > maxBufferedBytes) {
+                    bufferedBytes.addAndGet(-held);
+                    return new DecodedMember(null, -1);
+                }
+                out.write(block, 0, read);
+            }
+            return speculation.complete(new DecodedMember(out.toByteArray(), reader.end));
+        } catch (IOException | RuntimeException e) {
+            // Most candidates inside compressed data fail here
+            bufferedBytes.addAndGet(-held);
+            return new DecodedMember(null, -1);
+        }
+    }
+
+    /**
+     * @return Offset of the first member header candidate at or after {@code from}, or -1
+     */
+    private long findCandidate(long from) throws IOException {
+        if (from != candidateSearchFrom) {
+            candidateFound = scanForCandidate(from);
+            candidateSearchFrom = from;
+        }
+        return candidateFound;
+    }
+
+    private long scanForCandidate(long from) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(READ_BLOCK_BYTES);
+        long blockStart = from;
+        while (blockStart < size - 2) {
+            block.clear();
+            int read = channel.read(block, blockStart);
+            if (read < 3) {
+                return -1;
+            }
+            for (int i = 0; i + 2 < read; i++) {
+                if (block.get(i) == (byte) 0x1f && block.get(i + 1) == (byte) 0x8b && block.get(i + 2) == 8) {
+                    return blockStart + i;
+                }
+            }
+            // Overlap so that a header split across blocks is still found
+            blockStart += read - 2;
+        }
+        return -1;
+    }
+
+    private boolean hasHeaderMagic(long offset) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(2);
+        channel.read(magic, offset);
+        return magic.position() == 2 && magic.get(0) == (byte) 0x1f && magic.get(1) == (byte) 0x8b;
+    }
+
+    /**
+     * A speculative decode, and whether its result is still wanted. Once discarded,
+     * the bytes of a completed result are released exactly once, by whichever of the
+     * decoder and the reader gets there second.
+     */
+    private final class Speculation {
+        private volatile CompletableFuture<DecodedMember> future;
+        private volatile boolean discarded;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile DecodedMember result;
+
+        private DecodedMember complete(DecodedMember member) {
+            result = member;
+            if (discarded) {
+                release();
+            }
+            return member;
+        }
+
+        private void discard() {
+            discarded = true;
+            if (result != null) {
+                release();
+            }
+        }
+
+        private void release() {
+            if (result.data != null && released.compareAndSet(false, true)) {
+                bufferedBytes.addAndGet(-result.data.length);
+            }
+        }
+    }
+
+    private static final class DecodedMember {
+        /** Decoded bytes, or null if the candidate is not a usable member. */
+        private final byte[] data;
+        private final long end;
+
+        private DecodedMember(byte[] data, long end) {
+            this.data = data;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Decodes one gzip member starting at a given offset, reading the channel with
+     * positional reads so several readers can share it.
+     */
+    static final class MemberReader implements AutoCloseable {
+        private static final int FHCRC = 2;
+        private static final int FEXTRA = 4;
+        private static final int FNAME = 8;
+        private static final int FCOMMENT = 16;
+
+        private final FileChannel channel;
+        private final Inflater inflater = new Inflater(true);
+        private final CRC32 crc = new CRC32();
+        private final byte[] input = new byte[READ_BLOCK_BYTES];
+        private long inputPosition;
+        private int inputLength;
+        private int inputOffset;
+        private boolean done;
+        /** Offset just past the member trailer, valid once the member is fully read. */
+        long end = -1;
+
+        MemberReader(FileChannel channel, long start) throws IOException {
+            this.channel = channel;
+            this.inputPosition = start;
+            readHeader();
+        }
+
+        /**
+         * Reads decoded bytes of this member.
+         * @return Number of bytes read, or -1 once the member ended and its trailer checked out
+         * @throws IOException if the member is truncated or corrupt
+         */
+        int read(byte[] buffer, int offset, int length) throws IOException {
+            if (done) {
+                return -1;
+            }
+            try {
+                while (true) {
+                    int count = inflater.inflate(buffer, offset, length);
+                    if (count > 0) {
+                        crc.update(buffer, offset, count);
+                        return count;
+                    }
+                    if (inflater.finished()) {
+                        inputOffset = inputLength - inflater.getRemaining();
+                        readTrailer();
+                        done = true;
+                        return -1;
+                    }
+                    if (inflater.needsDictionary()) {
+                        throw new ZipException("Unexpected preset dictionary in gzip member");
+                    }
+                    if (inflater.needsInput()) {
+                        if (inputOffset >= inputLength) {
+                            fill();
+                        }
+                        inflater.setInput(input, inputOffset, inputLength - inputOffset);
+                        inputOffset = inputLength;
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new ZipException("Corrupt gzip member: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            inflater.end();
+        }
+
+        private void readHeader() throws IOException {
+            if (readUnsignedByte() != 0x1f || readUnsignedByte() != 0x8b) {
+                throw new ZipException("Not in gzip format");
+            }
+            if (readUnsignedByte() != 8) {
+                throw new ZipException("Unsupported gzip compression method");
+            }
+            int flags = readUnsignedByte();
+            if ((flags & 0xe0) != 0) {
+                throw new ZipException("Reserved gzip header flags are set");
+            }
+            skip(6); // modification time, extra flags, operating system
+            if ((flags & FEXTRA) != 0) {
+                skip(readUnsignedByte() | (readUnsignedByte() << 8));
+            }
+            if ((flags & FNAME) != 0) {
+                skipZeroTerminated();
+            }
+            if ((flags & FCOMMENT) != 0) {
+                skipZeroTerminated();
+            }
+            if ((flags & FHCRC) != 0) {
+                skip(2);
+            }
+        }
+
+        private void readTrailer() throws IOException {
+            long expectedCrc = readUnsignedInt();
+            long expectedSize = readUnsignedInt();
+            if (expectedCrc != crc.getValue()) {
+                throw new ZipException("Corrupt gzip trailer: CRC mismatch");
+            }
+            if (expectedSize != (inflater.getBytesWritten() & 0xffffffffL)) {
+                throw new ZipException("Corrupt gzip trailer: size mismatch");
+            }
+            end = inputPosition - inputLength + inputOffset;
+        }
+
+        private long readUnsignedInt() throws IOException {
+            long value = 0;
+            for (int i = 0; i < 4; i++) {
+                value |= ((long) readUnsignedByte()) << (8 * i);
+            }
+            return value;
+        }
+
+        private void skipZeroTerminated() throws IOException {
+            while (readUnsignedByte() != 0) {
+                // Skip name or comment characters
+            }
+        }
+
+        private void skip(int count) throws IOException {
+            for (int i = 0; i < count; i++) {
+                readUnsignedByte();
+            }
+        }
+
+        private int readUnsignedByte() throws IOException {
+            if (inputOffset >= inputLength) {
+                fill();
+            }
+            return input[inputOffset++] & 0xff;
+        }
+
+        /** Refills the input buffer from the channel; {@code inputPosition} is the file offset after it. */
+        private void fill() throws IOException {
+            int read = channel.read(ByteBuffer.wrap(input), inputPosition);
+            if (read <= 0) {
+                throw new EOFException("Unexpected end of gzip data");
+            }
+            inputPosition += read;
+            inputLength = read;
+            inputOffset = 0;
+        }
+    }
+}
@@ -0,0 +1,780 @@
+package com.enterprise.dependency.adapter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Streaming parser for the Prometheus text exposition format (version 0.0.4) that
+ * turns every series carrying a source and a target label into a
+ * {@link SeriesAggregate}.
+ * <p>
+ * Each line is scanned once, character by character; labels may come in any order.
+ * Metric names, label names and label values are interned, so a scrape repeating the
+ * same few hundred values over hundreds of thousands of series allocates each string
+ * once. Only series with both labels are materialised.
+ * <p>
+ * Counters keep their last value per series between scrapes, and each aggregate
+ * carries the increase since the previous scrape; a series seen for the first time,
+ * or whose value dropped (a counter reset), counts from zero. First sightings are
+ * flagged, since their delta is the whole lifetime of the counter rather than the
+ * increase over one interval. Series missing from a
+ * scrape are forgotten. Histograms and summaries contribute their {@code _count}
+ * series as a counter. For gauges, and untyped series without a {@code _total} or
+ * {@code _count} suffix, the delta is the value itself.
+ * <p>
+ * One parser tracks one scrape target. Thread-safe.
+ * <p>
+ * Example:
+ * <pre>
+ *   PrometheusTextParser parser = new PrometheusTextParser();
+ *   try (Reader scrape = fetchMetrics("http://orders:8080/metrics")) {
+ *       for (PrometheusTextParser.SeriesAggregate series : parser.parseScrape(scrape, Instant.now())) {
+ *           record(series.getSource(), series.getTarget(), series.getDelta());
+ *       }
+ *   }
+ * </pre>
+ */
+public class PrometheusTextParser {
+    private static final Logger logger = LoggerFactory.getLogger(PrometheusTextParser.class);
+
+    /** Labels naming the calling service, in order of preference. */
+    public static final List<String> DEFAULT_SOURCE_LABELS = List.of(
+            "source_workload", "source_app", "source_service", "source", "client", "job");
+    /** Labels naming the called service, in order of preference. */
+    public static final List<String> DEFAULT_TARGET_LABELS = List.of(
+            "destination_workload", "destination_app", "destination_service", "target", "peer_service", "server");
+
+    // Interned strings are dropped once this many accumulate, bounding memory under label churn
+    private static final int MAX_INTERNED = 1 << 20;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private enum Kind { COUNTER, GAUGE, SKIP }
+
+    private final String[] sourceLabels;
+    private final String[] targetLabels;
+    private final CharTable strings = new CharTable();
+    private final SeriesTable series = new SeriesTable();
+    private final Map<String, String> types = new HashMap<>();
+    private long scrapes;
+    private int malformed;
+
+    // The sample being parsed
+    private String metric;
+    private String[] labelNames = new String[16];
+    private String[] labelValues = new String[16];
+    private int labelCount;
+    private double value;
+    private long timestampMs;
+    private final StringBuilder unescaped = new StringBuilder();
+
+    /**
+     * Creates a parser using {@link #DEFAULT_SOURCE_LABELS} and {@link #DEFAULT_TARGET_LABELS}.
+     */
+    public PrometheusTextParser() {
+        this(DEFAULT_SOURCE_LABELS, DEFAULT_TARGET_LABELS);
+    }
+
+    /**
+     * @param sourceLabels Labels naming the calling service, in order of preference
+     * @param targetLabels Labels naming the called service, in order of preference
+     */
+    public PrometheusTextParser(List<String> sourceLabels, List<String> targetLabels) {
+        Objects.requireNonNull(sourceLabels, "Source labels cannot be null");
+        Objects.requireNonNull(targetLabels, "Target labels cannot be null");
+        if (sourceLabels.isEmpty() || targetLabels.isEmpty()) {
+            throw new IllegalArgumentException("At least one source and one target label are required");
+        }
+        this.sourceLabels = sourceLabels.toArray(new String[0]);
+        this.targetLabels = targetLabels.toArray(new String[0]);
+    }
+
+    /**
+     * Parses one complete scrape, updating the counter state of this target.
+     * @param scrape Exposition text; not closed
+     * @param scrapeTime Time of the scrape, used for samples without a timestamp
+     * @return One aggregate per dependency series, in input order
+     * @throws IOException if the scrape cannot be read
+     */
+    public synchronized List<SeriesAggregate> parseScrape(Reader scrape, Instant scrapeTime) throws IOException {
+        Objects.requireNonNull(scrapeTime, "Scrape time cannot be null");
+        BufferedReader reader = scrape instanceof BufferedReader
+                ? (BufferedReader) scrape : new BufferedReader(scrape, 1 << 16);
+        long scrapeNumber = beginScrape();
+        List<SeriesAggregate> aggregates = new ArrayList<>();
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            accept(line, ++lineNumber, scrapeNumber, scrapeTime, aggregates);
+        }
+        endScrape(scrapeNumber, lineNumber, aggregates.size());
+        return aggregates;
+    }
+
+    /**
+     * Parses one complete scrape, updating the counter state of this target.
+     * @param lines Lines of the exposition text
+     * @param scrapeTime Time of the scrape, used for samples without a timestamp
+     * @return One aggregate per dependency series, in input order
+     */
+    public synchronized List<SeriesAggregate> parseScrape(List<String> lines, Instant scrapeTime) {
+        Objects.requireNonNull(scrapeTime, "Scrape time cannot be null");
+        long scrapeNumber = beginScrape();
+        List<SeriesAggregate> aggregates = new ArrayList<>();
+        long lineNumber = 0;
+        for (String line : lines) {
+            accept(line, ++lineNumber, scrapeNumber, scrapeTime, aggregates);
+        }
+        endScrape(scrapeNumber, lineNumber, aggregates.size());
+        return aggregates;
+    }
+
+    /**
+     * Parses a single sample line outside of any scrape: no counter state is kept,
+     * so the delta is the value, and the kind of metric is inferred from its suffix.
+     * @param line Sample line
+     * @return Aggregate of the series, or null if the line is not a dependency sample
+     */
+    public synchronized SeriesAggregate parseLine(String line) {
+        if (line == null) {
+            return null;
+        }
+        int start = skipBlanks(line, 0);
+        if (start == line.length() || line.charAt(start) == '#' || !scan(line, start)) {
+            return null;
+        }
+        return aggregate(line, 0, null);
+    }
+
+    /**
+     * @return Number of counter series whose last value is remembered
+     */
+    public synchronized int getTrackedSeries() {
+        return series.size();
+    }
+
+    private long beginScrape() {
+        types.clear();
+        malformed = 0;
+        if (strings.size() > MAX_INTERNED) {
+            strings.clear();
+        }
+        return ++scrapes;
+    }
+
+    private void endScrape(long scrapeNumber, long lines, int aggregates) {
+        int before = series.size();
+        series.retain(scrapeNumber);
+        logger.debug("Parsed {} dependency series from {} Prometheus lines ({} malformed, {} stale series dropped)",
+                aggregates, lines, malformed, before - series.size());
+    }
+
+    private void accept(String line, long lineNumber, long scrapeNumber, Instant scrapeTime,
+                        List<SeriesAggregate> aggregates) {
+        int start = skipBlanks(line, 0);
+        if (start == line.length()) {
+            return;
+        }
+        if (line.charAt(start) == '#') {
+            readType(line, start + 1);
+            return;
+        }
+        if (!scan(line, start)) {
+            malformed++;
+            logger.debug("Skipping malformed Prometheus sample on line {}: {}", lineNumber, line);
+            return;
+        }
+        SeriesAggregate aggregate = aggregate(line, scrapeNumber, scrapeTime);
+        if (aggregate != null) {
+            aggregates.add(aggregate);
+        }
+    }
+
+    /**
+     * Records {@code # TYPE name type}; other comments are ignored.
+     */
+    private void readType(String line, int i) {
+        i = skipBlanks(line, i);
+        if (!line.startsWith("TYPE", i) || i + 4 >= line.length() || !isBlank(line.charAt(i + 4))) {
+            return;
+        }
+        int nameStart = skipBlanks(line, i + 4);
+        int nameEnd = skipToken(line, nameStart);
+        int typeStart = skipBlanks(line, nameEnd);
+        int typeEnd = skipToken(line, typeStart);
+        if (nameStart < nameEnd && typeStart < typeEnd) {
+            types.put(strings.intern(line, nameStart, nameEnd), strings.intern(line, typeStart, typeEnd));
+        }
+    }
+
+    /**
+     * Scans {@code name[{labels}] value [timestamp]} into the sample fields.
+     * @return false if the line is malformed
+     */
+    private boolean scan(String line, int i) {
+        int length = line.length();
+        if (!isNameStart(line.charAt(i))) {
+            return false;
+        }
+        int nameStart = i++;
+        while (i < length && isNameChar(line.charAt(i))) {
+            i++;
+        }
+        metric = strings.intern(line, nameStart, i);
+        labelCount = 0;
+        i = skipBlanks(line, i);
+        if (i < length && line.charAt(i) == '{') {
+            i = scanLabels(line, i + 1);
+            if (i < 0) {
+                return false;
+            }
+            i = skipBlanks(line, i);
+        }
+        int valueStart = i;
+        i = skipToken(line, i);
+        if (valueStart == i) {
+            return false;
+        }
+        try {
+            value = parseValue(line, valueStart, i);
+            timestampMs = NO_TIMESTAMP;
+            i = skipBlanks(line, i);
+            if (i < length) {
+                int timestampStart = i;
+                i = skipToken(line, i);
+                timestampMs = Long.parseLong(line, timestampStart, i, 10);
+                return skipBlanks(line, i) == length;
+            }
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return Index after the closing brace, or -1 if the label set is malformed
+     */
+    private int scanLabels(String line, int i) {
+        int length = line.length();
+        while (true) {
+            i = skipBlanks(line, i);
+            if (i >= length) {
+                return -1;
+            }
+            char c = line.charAt(i);
+            if (c == '}') {
+                return i + 1;
+            }
+            if (!isLabelStart(c)) {
+                return -1;
+            }
+            int nameStart = i++;
+            while (i < length && isLabelChar(line.charAt(i))) {
+                i++;
+            }
+            String name = strings.intern(line, nameStart, i);
+            i = skipBlanks(line, i);
+            if (i >= length || line.charAt(i) != '=') {
+                return -1;
+            }
+            i = skipBlanks(line, i + 1);
+            if (i >= length || line.charAt(i) != '"') {
+                return -1;
+            }
+            int valueStart = ++i;
+            boolean escaped = false;
+            while (i < length && (c = line.charAt(i)) != '"') {
+                if (c == '\\') {
+                    escaped = true;
+                    i++;
+                }
+                i++;
+            }
+            if (i >= length) {
+                return -1;
+            }
+            addLabel(name, escaped ? unescape(line, valueStart, i) : strings.intern(line, valueStart, i));
+            i = skipBlanks(line, i + 1);
+            if (i >= length) {
+                return -1;
+            }
+            c = line.charAt(i);
+            if (c == ',') {
+                i++;
+            } else if (c != '}') {
+                return -1;
+            }
+        }
+    }
+
+    private void addLabel(String name, String labelValue) {
+        if (labelCount == labelNames.length) {
+            labelNames = Arrays.copyOf(labelNames, labelCount * 2);
+            labelValues = Arrays.copyOf(labelValues, labelCount * 2);
+        }
+        labelNames[labelCount] = name;
+        labelValues[labelCount++] = labelValue;
+    }
+
+    private String unescape(String line, int start, int end) {
+        unescaped.setLength(0);
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < end) {
+                char next = line.charAt(++i);
+                if (next == 'n') {
+                    unescaped.append('\n');
+                } else if (next == '\\' || next == '"') {
+                    unescaped.append(next);
+                } else {
+                    unescaped.append(c).append(next);
+                }
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return strings.intern(unescaped, 0, unescaped.length());
+    }
+
+    /**
+     * Builds the aggregate of the scanned sample, updating counter state when
+     * {@code scrapeNumber} is positive.
+     * @return Aggregate, or null if the sample is not a dependency series
+     */
+    private SeriesAggregate aggregate(String line, long scrapeNumber, Instant scrapeTime) {
+        if (Double.isNaN(value)) {
+            return null;
+        }
+        String source = label(sourceLabels);
+        String target = label(targetLabels);
+        if (source == null || target == null) {
+            return null;
+        }
+        Kind kind = kind(scrapeNumber > 0);
+        if (kind == Kind.SKIP) {
+            return null;
+        }
+        sortLabels();
+        double delta = value;
+        boolean firstSighting = kind == Kind.COUNTER;
+        String[] key;
+        if (kind == Kind.COUNTER && scrapeNumber > 0) {
+            int slot = series.slot(metric, labelNames, labelValues, labelCount);
+            firstSighting = series.generations[slot] == 0;
+            if (!firstSighting && value >= series.values[slot]) {
+                delta = value - series.values[slot];
+            }
+            series.values[slot] = value;
+            series.generations[slot] = scrapeNumber;
+            key = series.keys[slot];
+        } else {
+            key = SeriesTable.key(metric, labelNames, labelValues, labelCount);
+        }
+        Instant timestamp = timestampMs != NO_TIMESTAMP ? Instant.ofEpochMilli(timestampMs) : scrapeTime;
+        return new SeriesAggregate(key, source, target, value, delta, kind == Kind.COUNTER, firstSighting,
+                timestamp, line);
+    }
+
+    private String label(String[] preferred) {
+        for (String name : preferred) {
+            for (int i = 0; i < labelCount; i++) {
+                if (labelNames[i].equals(name)) {
+                    return labelValues[i];
+                }
+            }
+        }
+        return null;
+    }
+
+    private Kind kind(boolean typed) {
+        String type = typed ? types.get(metric) : null;
+        if (type != null) {
+            // The bare name of a summary holds its quantiles
+            return type.equals("counter") ? Kind.COUNTER
+                    : type.equals("summary") || type.equals("histogram") ? Kind.SKIP
+                    : type.equals("untyped") ? suffixKind() : Kind.GAUGE;
+        }
+        int cut = metric.lastIndexOf('_');
+        if (typed && cut > 0) {
+            String familyType = types.get(strings.intern(metric, 0, cut));
+            if (familyType != null && !familyType.equals("gauge") && !familyType.equals("untyped")) {
+                return metric.endsWith("_count") || metric.endsWith("_total") ? Kind.COUNTER : Kind.SKIP;
+            }
+        }
+        return suffixKind();
+    }
+
+    private Kind suffixKind() {
+        if (metric.endsWith("_total") || metric.endsWith("_count")) {
+            return Kind.COUNTER;
+        }
+        return metric.endsWith("_bucket") || metric.endsWith("_sum") || metric.endsWith("_created")
+                ? Kind.SKIP : Kind.GAUGE;
+    }
+
+    private void sortLabels() {
+        for (int i = 1; i < labelCount; i++) {
+            String name = labelNames[i];
+            String labelValue = labelValues[i];
+            int j = i - 1;
+            while (j >= 0 && labelNames[j].compareTo(name) > 0) {
+                labelNames[j + 1] = labelNames[j];
+                labelValues[j + 1] = labelValues[j];
+                j--;
+            }
+            labelNames[j + 1] = name;
+            labelValues[j + 1] = labelValue;
+        }
+    }
+
+    /**
+     * Parses a sample value; decimals of up to 15 digits are converted exactly
+     * without allocating, anything else goes through {@link Double#parseDouble}.
+     */
+    static double parseValue(CharSequence text, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        char first = text.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > 15) {
+                    return parseSlow(text, start, end);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return parseSlow(text, start, end);
+            }
+        }
+        if (digits == 0) {
+            return parseSlow(text, start, end);
+        }
+        // Both operands are exact doubles, so the division is correctly rounded
+        double parsed = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+        return negative ? -parsed : parsed;
+    }
+
+    private static double parseSlow(CharSequence text, int start, int end) {
+        String token = text.subSequence(start, end).toString();
+        String unsigned = token.startsWith("+") || token.startsWith("-") ? token.substring(1) : token;
+        if (unsigned.equalsIgnoreCase("inf")) {
+            return token.startsWith("-") ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        return Double.parseDouble(token);
+    }
+
+    private static int skipBlanks(String line, int i) {
+        while (i < line.length() && isBlank(line.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipToken(String line, int i) {
+        while (i < line.length() && !isBlank(line.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isBlank(char c) {
+        return c == ' ' || c == '\t';
+    }
+
+    private static boolean isNameStart(char c) {
+        return isLabelStart(c) || c == ':';
+    }
+
+    private static boolean isNameChar(char c) {
+        return isLabelChar(c) || c == ':';
+    }
+
+    private static boolean isLabelStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isLabelChar(char c) {
+        return isLabelStart(c) || (c >= '0' && c <= '9');
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Open-addressing set of strings looked up by character range, so that a
+     * repeated name or value is found without first being copied into a new string.
+     */
+    private static final class CharTable {
+        private String[] keys = new String[1024];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        String intern(CharSequence text, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + text.charAt(i);
+            }
+            int mask = keys.length - 1;
+            int slot = spread(hash) & mask;
+            while (true) {
+                String key = keys[slot];
+                if (key == null) {
+                    if ((size + 1) * 2 > keys.length) {
+                        resize();
+                        return intern(text, start, end);
+                    }
+                    key = text.subSequence(start, end).toString();
+                    keys[slot] = key;
+                    size++;
+                    return key;
+                }
+                if (key.hashCode() == hash && matches(key, text, start, end)) {
+                    return key;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        void clear() {
+            keys = new String[1024];
+            size = 0;
+        }
+
+        private void resize() {
+            String[] oldKeys = keys;
+            keys = new String[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (String key : oldKeys) {
+                if (key != null) {
+                    int slot = spread(key.hashCode()) & mask;
+                    while (keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = key;
+                }
+            }
+        }
+
+        private static boolean matches(String key, CharSequence text, int start, int end) {
+            if (key.length() != end - start) {
+                return false;
+            }
+            for (int i = 0; i < key.length(); i++) {
+                if (key.charAt(i) != text.charAt(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Open-addressing map from counter series to their last value and the scrape that
+     * set it. A series is keyed by its metric name followed by its sorted label names
+     * and values, all interned, so a lookup hashes and compares a dozen references
+     * rather than the characters of the series.
+     */
+    private static final class SeriesTable {
+        private String[][] keys = new String[1024][];
+        private int[] hashes = new int[1024];
+        private double[] values = new double[1024];
+        private long[] generations = new long[1024];
+        private int size;
+
+        static String[] key(String metric, String[] names, String[] labelValues, int count) {
+            String[] key = new String[1 + 2 * count];
+            key[0] = metric;
+            for (int i = 0; i < count; i++) {
+                key[1 + 2 * i] = names[i];
+                key[2 + 2 * i] = labelValues[i];
+            }
+            return key;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * @return Slot of the series, added with generation 0 if absent
+         */
+        int slot(String metric, String[] names, String[] labelValues, int count) {
+            int hash = metric.hashCode();
+            for (int i = 0; i < count; i++) {
+                hash = 31 * (31 * hash + names[i].hashCode()) + labelValues[i].hashCode();
+            }
+            int mask = keys.length - 1;
+            int slot = spread(hash) & mask;
+            while (true) {
+                String[] key = keys[slot];
+                if (key == null) {
+                    if ((size + 1) * 2 > keys.length) {
+                        resize(keys.length * 2, 0);
+                        return slot(metric, names, labelValues, count);
+                    }
+                    keys[slot] = key(metric, names, labelValues, count);
+                    hashes[slot] = hash;
+                    size++;
+                    return slot;
+                }
+                if (hashes[slot] == hash && matches(key, metric, names, labelValues, count)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        /**
+         * Drops every series not set in the given generation.
+         */
+        void retain(long generation) {
+            int live = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null && generations[i] == generation) {
+                    live++;
+                }
+            }
+            if (live < size) {
+                int capacity = 1024;
+                while (capacity < live * 2) {
+                    capacity *= 2;
+                }
+                resize(capacity, generation);
+            }
+        }
+
+        /**
+         * Rehashes into a table of the given capacity, keeping series of the given
+         * generation, or all series if it is 0.
+         */
+        private void resize(int capacity, long generation) {
+            String[][] oldKeys = keys;
+            int[] oldHashes = hashes;
+            double[] oldValues = values;
+            long[] oldGenerations = generations;
+            keys = new String[capacity][];
+            hashes = new int[capacity];
+            values = new double[capacity];
+            generations = new long[capacity];
+            size = 0;
+            int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == null || (generation != 0 && oldGenerations[i] != generation)) {
+                    continue;
+                }
+                int slot = spread(oldHashes[i]) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                hashes[slot] = oldHashes[i];
+                values[slot] = oldValues[i];
+                generations[slot] = oldGenerations[i];
+                size++;
+            }
+        }
+
+        // Interned strings are usually identical, which equals() checks first
+        private static boolean matches(String[] key, String metric, String[] names, String[] labelValues, int count) {
+            if (key.length != 1 + 2 * count || !key[0].equals(metric)) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                if (!key[1 + 2 * i].equals(names[i]) || !key[2 + 2 * i].equals(labelValues[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * One dependency series of a scrape.
+     */
+    public static class SeriesAggregate {
+        // Metric name followed by sorted label names and values
+        private final String[] series;
+        private final String source;
+        private final String target;
+        private final double value;
+        private final double delta;
+        private final boolean counter;
+        private final boolean firstSighting;
+        private final Instant timestamp;
+        private final String line;
+
+        SeriesAggregate(String[] series, String source, String target,
+                        double value, double delta, boolean counter, boolean firstSighting, Instant timestamp,
+                        String line) {
+            this.series = series;
+            this.source = source;
+            this.target = target;
+            this.value = value;
+            this.delta = delta;
+            this.counter = counter;
+            this.firstSighting = firstSighting;
+            this.timestamp = timestamp;
+            this.line = line;
+        }
+
+        public String getMetric() { return series[0]; }
+        public String getSource() { return source; }
+        public String getTarget() { return target; }
+        /** @return All labels of the series, sorted by name */
+        public Map<String, String> getLabels() {
+            Map<String, String> labels = new LinkedHashMap<>();
+            for (int i = 1; i < series.length; i += 2) {
+                labels.put(series[i], series[i + 1]);
+            }
+            return Collections.unmodifiableMap(labels);
+        }
+        public double getValue() { return value; }
+        /** @return Increase since the previous scrape for counters, the value otherwise */
+        public double getDelta() { return delta; }
+        public boolean isCounter() { return counter; }
+        /** @return Whether this is a counter not seen in the previous scrape, whose delta is its whole value */
+        public boolean isFirstSighting() { return firstSighting; }
+        /** @return Sample timestamp, or the scrape time if the sample has none */
+        public Instant getTimestamp() { return timestamp; }
+        /** @return The sample line as scraped */
+        public String getLine() { return line; }
+
+        @Override
+        public String toString() {
+            return "SeriesAggregate{" + getMetric() + getLabels() + " " + source + " -> " + target
+                    + ", value=" + value + ", delta=" + delta + '}';
+        }
+    }
+}
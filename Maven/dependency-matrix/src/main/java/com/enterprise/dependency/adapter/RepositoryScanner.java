@@ -0,0 +1,468 @@
+package com.enterprise.dependency.adapter;
+
+import com.enterprise.dependency.model.core.Claim;
+import com.enterprise.dependency.model.core.ConfidenceScore;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Scans repository trees for build files ({@code pom.xml}, {@code build.gradle},
+ * {@code package.json}) and reports how their dependencies changed since the last scan.
+ * <p>
+ * Directories are walked in parallel on a ForkJoinPool, skipping VCS metadata, build
+ * output and {@code node_modules}. Every build file found is looked up in a cache kept
+ * on disk, keyed by path: if its size and modification time are unchanged it is not
+ * even read; otherwise its content hash decides whether it is parsed again. Only
+ * changed files are parsed, in parallel, and only the difference to the cached
+ * claims is reported: claims for added dependencies, and the cached claims of
+ * dependencies that disappeared, including those of deleted build files.
+ * <p>
+ * A changed pom may alter what its child modules resolve to. The cache records, for
+ * every pom, the files of the parent chain it was resolved against, so when a pom
+ * changes or disappears every pom whose chain contains it is parsed again, wherever
+ * its {@code <relativePath>} points. Poms below the directory of a changed pom are
+ * parsed again as well, since a new pom may have become their parent.
+ * <p>
+ * The cache file is rewritten through a temporary file and an atomic move after
+ * each scan that changed it. Scans of one scanner are serialised.
+ * <p>
+ * Example:
+ * <pre>
+ *   RepositoryScanner scanner = new RepositoryScanner(codebaseAdapter, Path.of("codebase-scan.json"));
+ *   RepositoryScanner.ScanResult result = scanner.scan(Path.of("/srv/repos/order-service"));
+ *   claims.addAll(result.getAddedClaims());
+ * </pre>
+ */
+public class RepositoryScanner {
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryScanner.class);
+    private static final Set<String> BUILD_FILES = new HashSet<>(Arrays.asList("pom.xml", "build.gradle", "package.json"));
+    private static final Set<String> SKIPPED_DIRECTORIES = new HashSet<>(Arrays.asList(
+        ".git", ".hg", ".svn", ".idea", ".gradle", "node_modules", "target", "build", "out", "dist"));
+    private static final TypeReference<Map<String, CachedFile>> CACHE_TYPE = new TypeReference<Map<String, CachedFile>>() { };
+
+    private final CodebaseAdapter codebaseAdapter;
+    private final Path cacheFile;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, CachedFile> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Opens the scanner, loading the cache if the file exists.
+     * @param codebaseAdapter Adapter that parses the build files
+     * @param cacheFile JSON file holding the state of previously scanned build files
+     * @throws IOException if an existing cache cannot be read
+     */
+    public RepositoryScanner(CodebaseAdapter codebaseAdapter, Path cacheFile) throws IOException {
+        this.codebaseAdapter = Objects.requireNonNull(codebaseAdapter, "Codebase adapter cannot be null");
+        this.cacheFile = Objects.requireNonNull(cacheFile, "Cache file cannot be null");
+        if (Files.exists(cacheFile)) {
+            cache.putAll(objectMapper.readValue(cacheFile.toFile(), CACHE_TYPE));
+            logger.info("Loaded scan state of {} build files from {}", cache.size(), cacheFile);
+        }
+    }
+
+    /**
+     * Scans a repository on the common ForkJoinPool.
+     * @see #scan(Path, ForkJoinPool)
+     */
+    public ScanResult scan(Path repositoryRoot) throws IOException {
+        return scan(repositoryRoot, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Scans a repository and updates the cache.
+     * @param repositoryRoot Root directory of the repository
+     * @param pool Pool used to walk directories and parse build files
+     * @return Claims added and removed since the previous scan of this tree
+     * @throws IOException if the tree cannot be walked or the cache cannot be written
+     */
+    public synchronized ScanResult scan(Path repositoryRoot, ForkJoinPool pool) throws IOException {
+        Path root = repositoryRoot.toAbsolutePath().normalize();
+        if (!Files.isDirectory(root)) {
+            throw new IOException("Not a directory: " + root);
+        }
+        List<Path> buildFiles;
+        try {
+            buildFiles = pool.invoke(new DirectoryWalk(root));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Collections.sort(buildFiles);
+
+        // Find changed files; unchanged size and modification time means no read at all
+        List<ForkJoinTask<FileState>> checks = new ArrayList<>(buildFiles.size());
+        for (Path buildFile : buildFiles) {
+            checks.add(pool.submit(() -> check(buildFile)));
+        }
+        Map<Path, FileState> changed = new LinkedHashMap<>();
+        Set<String> present = new HashSet<>();
+        Set<String> changedPoms = new HashSet<>();
+        List<Path> changedPomDirectories = new ArrayList<>();
+        boolean dirty = false;
+        for (ForkJoinTask<FileState> check : checks) {
+            FileState state = joinUnchecked(check);
+            present.add(state.key);
+            if (state.contentChanged) {
+                changed.put(state.file, state);
+                if (state.file.getFileName().toString().equals("pom.xml")) {
+                    changedPoms.add(state.key);
+                    changedPomDirectories.add(state.file.getParent());
+                }
+            } else if (state.touched) {
+                dirty = true;
+            }
+        }
+        String prefix = root.toString().endsWith(root.getFileSystem().getSeparator())
+            ? root.toString() : root + root.getFileSystem().getSeparator();
+        String pomSuffix = root.getFileSystem().getSeparator() + "pom.xml";
+        for (String key : cache.keySet()) {
+            if (key.startsWith(prefix) && !present.contains(key) && key.endsWith(pomSuffix)) {
+                changedPoms.add(key);
+            }
+        }
+        if (!changedPoms.isEmpty()) {
+            codebaseAdapter.clearPomCache();
+            for (Path buildFile : buildFiles) {
+                if (changed.containsKey(buildFile) || !buildFile.getFileName().toString().equals("pom.xml")) {
+                    continue;
+                }
+                CachedFile cached = cache.get(key(buildFile));
+                if (isBelowAny(buildFile, changedPomDirectories) || inheritsFromAny(cached, changedPoms)) {
+                    changed.put(buildFile, FileState.reparse(buildFile, cached));
+                }
+            }
+        }
+
+        // Parse what changed and diff against the cached claims
+        Map<Path, ForkJoinTask<ParsedFile>> parses = new LinkedHashMap<>();
+        for (FileState state : changed.values()) {
+            parses.put(state.file, pool.submit(() -> parse(state.file)));
+        }
+        List<Claim> added = new ArrayList<>();
+        List<Claim> removed = new ArrayList<>();
+        for (Map.Entry<Path, ForkJoinTask<ParsedFile>> parse : parses.entrySet()) {
+            FileState state = changed.get(parse.getKey());
+            ParsedFile parsed = joinUnchecked(parse.getValue());
+            CachedFile previous = cache.get(state.key);
+            diff(previous != null ? previous.claims : Collections.<CachedClaim>emptyList(), parsed.claims, added, removed);
+            cache.put(state.key, state.toCachedFile(parsed));
+            dirty = true;
+        }
+
+        // Build files that disappeared take their claims with them
+        for (String key : new ArrayList<>(cache.keySet())) {
+            if (key.startsWith(prefix) && !present.contains(key)) {
+                for (CachedClaim claim : cache.remove(key).claims) {
+                    removed.add(claim.toClaim());
+                }
+                dirty = true;
+            }
+        }
+
+        if (dirty) {
+            save();
+        }
+        logger.info("Scanned {} build files under {}: {} parsed, {} claims added, {} removed",
+            buildFiles.size(), root, changed.size(), added.size(), removed.size());
+        return new ScanResult(added, removed, buildFiles.size(), changed.size());
+    }
+
+    private FileState check(Path buildFile) {
+        String key = key(buildFile);
+        CachedFile cached = cache.get(key);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(buildFile, BasicFileAttributes.class);
+            long size = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            if (cached != null && cached.size == size && cached.lastModified == lastModified) {
+                return new FileState(buildFile, key, size, lastModified, cached.hash, false, false);
+            }
+            String hash = ClaimIds.contentHash(new String(Files.readAllBytes(buildFile), StandardCharsets.UTF_8));
+            if (cached != null && hash.equals(cached.hash)) {
+                // Touched but not modified: remember the new timestamps, keep the claims
+                cached.size = size;
+                cached.lastModified = lastModified;
+                return new FileState(buildFile, key, size, lastModified, hash, false, true);
+            }
+            return new FileState(buildFile, key, size, lastModified, hash, true, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ParsedFile parse(Path buildFile) {
+        String sourceApplication = applicationName(buildFile);
+        String name = buildFile.getFileName().toString();
+        if (name.equals("pom.xml")) {
+            List<Path> parentFiles = new ArrayList<>();
+            List<Claim> claims = codebaseAdapter.parsePomFile(buildFile, sourceApplication, parentFiles);
+            return new ParsedFile(claims, parentFiles);
+        }
+        String content;
+        try {
+            content = new String(Files.readAllBytes(buildFile), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ParsedFile(codebaseAdapter.parseDependencies(content,
+            name.equals("package.json") ? "npm" : "gradle", sourceApplication), Collections.<Path>emptyList());
+    }
+
+    private static void diff(List<CachedClaim> previous, List<Claim> current, List<Claim> added, List<Claim> removed) {
+        Set<String> previousIds = new HashSet<>();
+        for (CachedClaim claim : previous) {
+            previousIds.add(claim.id);
+        }
+        Set<String> currentIds = new HashSet<>();
+        for (Claim claim : current) {
+            currentIds.add(claim.getId());
+            if (!previousIds.contains(claim.getId())) {
+                added.add(claim);
+            }
+        }
+        for (CachedClaim claim : previous) {
+            if (!currentIds.contains(claim.id)) {
+                removed.add(claim.toClaim());
+            }
+        }
+    }
+
+    /** A build file belongs to the application named after its directory. */
+    private static String applicationName(Path buildFile) {
+        Path directory = buildFile.getParent();
+        return directory != null && directory.getFileName() != null ? directory.getFileName().toString() : "unknown-app";
+    }
+
+    private static boolean isBelowAny(Path file, List<Path> directories) {
+        for (Path directory : directories) {
+            if (file.startsWith(directory)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean inheritsFromAny(CachedFile cached, Set<String> poms) {
+        if (cached != null) {
+            for (String parent : cached.parents) {
+                if (poms.contains(parent)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void save() throws IOException {
+        Path directory = cacheFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, cacheFile.getFileName().toString(), ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), new TreeMap<>(cache));
+            try {
+                Files.move(temp, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static <T> T joinUnchecked(ForkJoinTask<T> task) throws IOException {
+        try {
+            return task.join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String key(Path buildFile) {
+        return buildFile.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * Outcome of one scan.
+     */
+    public static final class ScanResult {
+        private final List<Claim> addedClaims;
+        private final List<Claim> removedClaims;
+        private final int buildFileCount;
+        private final int parsedFileCount;
+
+        private ScanResult(List<Claim> addedClaims, List<Claim> removedClaims, int buildFileCount, int parsedFileCount) {
+            this.addedClaims = Collections.unmodifiableList(addedClaims);
+            this.removedClaims = Collections.unmodifiableList(removedClaims);
+            this.buildFileCount = buildFileCount;
+            this.parsedFileCount = parsedFileCount;
+        }
+
+        /** @return Claims for dependencies not present at the previous scan */
+        public List<Claim> getAddedClaims() { return addedClaims; }
+        /** @return Claims reported earlier whose dependency is gone */
+        public List<Claim> getRemovedClaims() { return removedClaims; }
+        /** @return Build files found in the tree */
+        public int getBuildFileCount() { return buildFileCount; }
+        /** @return Build files that had to be parsed */
+        public int getParsedFileCount() { return parsedFileCount; }
+    }
+
+    /**
+     * Collects build files below a directory, forking a task per subdirectory.
+     */
+    private static final class DirectoryWalk extends RecursiveTask<List<Path>> {
+        private final Path directory;
+
+        private DirectoryWalk(Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected List<Path> compute() {
+            List<Path> buildFiles = new ArrayList<>();
+            List<DirectoryWalk> subdirectories = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    String name = entry.getFileName().toString();
+                    if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        if (!SKIPPED_DIRECTORIES.contains(name)) {
+                            subdirectories.add(new DirectoryWalk(entry));
+                        }
+                    } else if (BUILD_FILES.contains(name) && Files.isRegularFile(entry)) {
+                        buildFiles.add(entry);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            invokeAll(subdirectories);
+            for (DirectoryWalk subdirectory : subdirectories) {
+                buildFiles.addAll(subdirectory.join());
+            }
+            return buildFiles;
+        }
+    }
+
+    /**
+     * What a scan found out about one build file.
+     */
+    private static final class FileState {
+        private final Path file;
+        private final String key;
+        private final long size;
+        private final long lastModified;
+        private final String hash;
+        private final boolean contentChanged;
+        private final boolean touched;
+
+        private FileState(Path file, String key, long size, long lastModified, String hash,
+                          boolean contentChanged, boolean touched) {
+            this.file = file;
+            this.key = key;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+            this.contentChanged = contentChanged;
+            this.touched = touched;
+        }
+
+        /** An unchanged file that is parsed again because a pom above it changed. */
+        static FileState reparse(Path file, CachedFile cached) {
+            return new FileState(file, key(file), cached.size, cached.lastModified, cached.hash, true, false);
+        }
+
+        CachedFile toCachedFile(ParsedFile parsed) {
+            CachedFile cached = new CachedFile();
+            cached.size = size;
+            cached.lastModified = lastModified;
+            cached.hash = hash;
+            for (Claim claim : parsed.claims) {
+                cached.claims.add(CachedClaim.of(claim));
+            }
+            for (Path parent : parsed.parentFiles) {
+                cached.parents.add(key(parent));
+            }
+            return cached;
+        }
+    }
+
+    /**
+     * Claims of one parsed build file, and the parent poms it was resolved against.
+     */
+    private static final class ParsedFile {
+        private final List<Claim> claims;
+        private final List<Path> parentFiles;
+
+        private ParsedFile(List<Claim> claims, List<Path> parentFiles) {
+            this.claims = claims;
+            this.parentFiles = parentFiles;
+        }
+    }
+
+    /** Cache entry of one build file; serialised as JSON. */
+    static final class CachedFile {
+        public long size;
+        public long lastModified;
+        public String hash;
+        public List<CachedClaim> claims = new ArrayList<>();
+        /** Cache keys of the parent poms a pom was resolved against, nearest first. */
+        public List<String> parents = new ArrayList<>();
+    }
+
+    /** Enough of a claim to report its removal later; serialised as JSON. */
+    static final class CachedClaim {
+        public String id;
+        public String sourceType;
+        public String rawData;
+        public String processedData;
+        public double confidence;
+
+        static CachedClaim of(Claim claim) {
+            CachedClaim cached = new CachedClaim();
+            cached.id = claim.getId();
+            cached.sourceType = claim.getSourceType();
+            cached.rawData = claim.getRawData();
+            cached.processedData = claim.getProcessedData();
+            cached.confidence = claim.getConfidenceScore() != null ? claim.getConfidenceScore().getValue() : 0.0;
+            return cached;
+        }
+
+        Claim toClaim() {
+            return Claim.builder()
+                .id(id)
+                .sourceType(sourceType)
+                .rawData(rawData)
+                .processedData(processedData)
+                .timestamp(Instant.now())
+                .confidenceScore(ConfidenceScore.of(confidence))
+                .build();
+        }
+    }
+}
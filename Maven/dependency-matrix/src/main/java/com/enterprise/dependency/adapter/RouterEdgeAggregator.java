@@ -0,0 +1,245 @@
+package com.enterprise.dependency.adapter;
+
+import com.enterprise.dependency.model.sources.RouterLogEntry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Collapses router log entries into one aggregate per edge and time window, so that
+ * a hot edge yields one claim per window instead of one claim per log line.
+ * <p>
+ * An edge is the tuple (source, target, port, protocol, endpoint). Windows are
+ * aligned to the epoch in log time (UTC), so the same line always lands in the same
+ * window regardless of when it is processed. Each aggregate keeps the number of
+ * entries, first and last seen times, the methods seen, per-status-code counts and
+ * a min/mean/max summary of response times.
+ * <p>
+ * When reading a long log, {@link #drainCompletedBefore} hands out windows that can
+ * no longer receive lines, so only the windows still open are held in memory.
+ * <p>
+ * Not thread-safe.
+ * <p>
+ * Example:
+ * <pre>
+ *   RouterEdgeAggregator aggregator = new RouterEdgeAggregator(Duration.ofMinutes(5));
+ *   entries.forEach(aggregator::add);
+ *   for (RouterEdgeAggregator.EdgeAggregate aggregate : aggregator.drain()) {
+ *       claims.add(adapter.toClaim(aggregate));
+ *   }
+ * </pre>
+ */
+public class RouterEdgeAggregator {
+    private static final Comparator<EdgeAggregate> ORDER = Comparator
+            .comparing(EdgeAggregate::getWindowStart)
+            .thenComparing(EdgeAggregate::getFirstSeen);
+
+    private final long windowSeconds;
+    private final Map<EdgeKey, EdgeAggregate> aggregates = new HashMap<>();
+
+    /**
+     * @param window Aggregation window; at least one second
+     */
+    public RouterEdgeAggregator(Duration window) {
+        Objects.requireNonNull(window, "Window cannot be null");
+        if (window.getSeconds() < 1) {
+            throw new IllegalArgumentException("Aggregation window must be at least one second");
+        }
+        this.windowSeconds = window.getSeconds();
+    }
+
+    /**
+     * Adds one parsed log entry to the aggregate of its edge and window.
+     * @param entry Parsed router log entry
+     */
+    public void add(RouterLogEntry entry) {
+        LocalDateTime windowStart = windowStart(entry.getTimestamp());
+        EdgeKey key = new EdgeKey(entry.getSourceIp(), entry.getTargetIp(), entry.getTargetPort(),
+                entry.getProtocol(), entry.getEndpoint(), windowStart);
+        EdgeAggregate aggregate = aggregates.get(key);
+        if (aggregate == null) {
+            aggregate = new EdgeAggregate(key, windowSeconds);
+            aggregates.put(key, aggregate);
+        }
+        aggregate.add(entry);
+    }
+
+    /**
+     * @return Number of edge/window aggregates currently held
+     */
+    public int size() {
+        return aggregates.size();
+    }
+
+    /**
+     * Removes and returns every aggregate.
+     * @return Aggregates ordered by window, then by first-seen time
+     */
+    public List<EdgeAggregate> drain() {
+        List<EdgeAggregate> drained = new ArrayList<>(aggregates.values());
+        aggregates.clear();
+        drained.sort(ORDER);
+        return drained;
+    }
+
+    /**
+     * Removes and returns the aggregates whose window ended at or before the given
+     * log time. Used while reading a log, where later lines can still add to the
+     * current window.
+     * @param logTime Log time up to which windows are complete
+     * @return Completed aggregates ordered by window, then by first-seen time
+     */
+    public List<EdgeAggregate> drainCompletedBefore(LocalDateTime logTime) {
+        List<EdgeAggregate> drained = new ArrayList<>();
+        Iterator<EdgeAggregate> iterator = aggregates.values().iterator();
+        while (iterator.hasNext()) {
+            EdgeAggregate aggregate = iterator.next();
+            if (!aggregate.getWindowEnd().isAfter(logTime)) {
+                drained.add(aggregate);
+                iterator.remove();
+            }
+        }
+        drained.sort(ORDER);
+        return drained;
+    }
+
+    private LocalDateTime windowStart(LocalDateTime timestamp) {
+        long epochSecond = timestamp.toEpochSecond(ZoneOffset.UTC);
+        long start = Math.floorDiv(epochSecond, windowSeconds) * windowSeconds;
+        return LocalDateTime.ofEpochSecond(start, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Summary of all log entries of one edge within one window.
+     */
+    public static final class EdgeAggregate {
+        private final EdgeKey key;
+        private final LocalDateTime windowEnd;
+        private final SortedSet<String> methods = new TreeSet<>();
+        private final SortedMap<Integer, Long> statusCounts = new TreeMap<>();
+        private long count;
+        private LocalDateTime firstSeen;
+        private LocalDateTime lastSeen;
+        private long responseTimeCount;
+        private long responseTimeTotalMs;
+        private int minResponseTimeMs = Integer.MAX_VALUE;
+        private int maxResponseTimeMs = Integer.MIN_VALUE;
+
+        private EdgeAggregate(EdgeKey key, long windowSeconds) {
+            this.key = key;
+            this.windowEnd = key.windowStart.plusSeconds(windowSeconds);
+        }
+
+        private void add(RouterLogEntry entry) {
+            count++;
+            LocalDateTime timestamp = entry.getTimestamp();
+            if (firstSeen == null || timestamp.isBefore(firstSeen)) {
+                firstSeen = timestamp;
+            }
+            if (lastSeen == null || timestamp.isAfter(lastSeen)) {
+                lastSeen = timestamp;
+            }
+            if (entry.getMethod() != null) {
+                methods.add(entry.getMethod());
+            }
+            if (entry.getStatusCode() != null) {
+                statusCounts.merge(entry.getStatusCode(), 1L, Long::sum);
+            }
+            if (entry.getResponseTimeMs() != null) {
+                int responseTime = entry.getResponseTimeMs();
+                responseTimeCount++;
+                responseTimeTotalMs += responseTime;
+                minResponseTimeMs = Math.min(minResponseTimeMs, responseTime);
+                maxResponseTimeMs = Math.max(maxResponseTimeMs, responseTime);
+            }
+        }
+
+        public String getSourceIp() { return key.sourceIp; }
+        public String getTargetIp() { return key.targetIp; }
+        public int getTargetPort() { return key.targetPort; }
+        public String getProtocol() { return key.protocol; }
+        public String getEndpoint() { return key.endpoint; }
+        public LocalDateTime getWindowStart() { return key.windowStart; }
+        public LocalDateTime getWindowEnd() { return windowEnd; }
+        public long getCount() { return count; }
+        public LocalDateTime getFirstSeen() { return firstSeen; }
+        public LocalDateTime getLastSeen() { return lastSeen; }
+        public SortedSet<String> getMethods() { return Collections.unmodifiableSortedSet(methods); }
+        public SortedMap<Integer, Long> getStatusCounts() { return Collections.unmodifiableSortedMap(statusCounts); }
+        public long getResponseTimeCount() { return responseTimeCount; }
+
+        /** @return Smallest response time, or null if no entry carried one */
+        public Integer getMinResponseTimeMs() { return responseTimeCount > 0 ? minResponseTimeMs : null; }
+
+        /** @return Largest response time, or null if no entry carried one */
+        public Integer getMaxResponseTimeMs() { return responseTimeCount > 0 ? maxResponseTimeMs : null; }
+
+        /** @return Mean response time, or null if no entry carried one */
+        public Double getMeanResponseTimeMs() {
+            return responseTimeCount > 0 ? (double) responseTimeTotalMs / responseTimeCount : null;
+        }
+
+        @Override
+        public String toString() {
+            return "EdgeAggregate{" +
+                    key.sourceIp + " -> " + key.targetIp + ":" + key.targetPort + " " + key.protocol +
+                    (key.endpoint != null ? " " + key.endpoint : "") +
+                    ", window=" + key.windowStart +
+                    ", count=" + count +
+                    ", statusCounts=" + statusCounts +
+                    '}';
+        }
+    }
+
+    private static final class EdgeKey {
+        private final String sourceIp;
+        private final String targetIp;
+        private final int targetPort;
+        private final String protocol;
+        private final String endpoint;
+        private final LocalDateTime windowStart;
+        private final int hash;
+
+        private EdgeKey(String sourceIp, String targetIp, int targetPort, String protocol, String endpoint,
+                        LocalDateTime windowStart) {
+            this.sourceIp = sourceIp;
+            this.targetIp = targetIp;
+            this.targetPort = targetPort;
+            this.protocol = protocol;
+            this.endpoint = endpoint;
+            this.windowStart = windowStart;
+            this.hash = Objects.hash(sourceIp, targetIp, targetPort, protocol, endpoint, windowStart);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            EdgeKey that = (EdgeKey) o;
+            return targetPort == that.targetPort &&
+                   Objects.equals(sourceIp, that.sourceIp) &&
+                   Objects.equals(targetIp, that.targetIp) &&
+                   Objects.equals(protocol, that.protocol) &&
+                   Objects.equals(endpoint, that.endpoint) &&
+                   Objects.equals(windowStart, that.windowStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -2,20 +2,40 @@ package com.enterprise.dependency.adapter;
 
 import com.enterprise.dependency.model.sources.RouterLogEntry;
 import com.enterprise.dependency.model.core.Claim;
+import com.enterprise.dependency.resolver.ApplicationResolver;
+import com.enterprise.dependency.resolver.HeuristicApplicationResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Adapter for parsing router log files and extracting dependency claims.
@@ -24,7 +44,25 @@ import java.util.regex.Pattern;
  * <pre>
  *   RouterLogAdapter adapter = new RouterLogAdapter();
  *   List<Claim> claims = adapter.parseLogFile(Path.of("router.log"));
+ *
+ *   // Rotated logs are read directly, gzip members are decoded in parallel
+ *   List<Claim> rotatedClaims = adapter.parseLogFile(Path.of("router.log.1.gz"));
+ *
+ *   // Large files: memory-map and parse line-aligned chunks on all cores
+ *   List<Claim> sameClaims = adapter.parseLogFileParallel(Path.of("router.log"));
+ *
+ *   // What-if runs: keep 100 lines per edge, then every 20th, with scaled-up counts
+ *   List<Claim> sampledClaims = adapter.parseLogFileSampled(Path.of("router.log"), new EdgeSampler(100, 20));
+ *
+ *   // Hot edges: one claim per edge and 5-minute window instead of one per line
+ *   List<Claim> edgeClaims = adapter.parseLogFileAggregated(Path.of("router.log"), Duration.ofMinutes(5));
  * </pre>
+ * <p>
+ * Besides the native {@code [INFO]} layout, the dialects of {@link RouterLogGrammars}
+ * (iptables, Cisco ASA, Juniper SRX, Envoy, and any registered ones) are read. The
+ * dialect is detected once per file or stream from its first lines; every line is then
+ * parsed by that dialect's grammar alone. If no dialect parses the sample, the first
+ * registered grammar, the native layout by default, is used.
  */
 @Component
 public class RouterLogAdapter {
@@ -35,42 +73,415 @@ public class RouterLogAdapter {
     private static final DateTimeFormatter DATE_FORMATTER_SPACE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private static final DateTimeFormatter DATE_FORMATTER_ISO = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
     private static final DateTimeFormatter DATE_FORMATTER_ISO_MILLIS = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+    // Chunks smaller than this are not worth a separate task
+    private static final long MIN_PARALLEL_CHUNK_BYTES = 4L * 1024 * 1024;
+    // Several chunks per worker so that uneven line density still balances out
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final ApplicationResolver applicationResolver;
+    private final RouterLogGrammars grammars;
+    private final RouterLogGrammar fallbackGrammar;
 
     /**
-     * Parses a router log file and extracts dependency claims.
-     * @param logFilePath Path to the log file
+     * Creates an adapter that resolves addresses with the built-in name heuristics.
+     */
+    public RouterLogAdapter() {
+        this(new HeuristicApplicationResolver());
+    }
+
+    /**
+     * Creates an adapter that resolves source and target addresses to applications
+     * with the given resolver.
+     * @param applicationResolver Address-to-application resolver
+     */
+    @Autowired
+    public RouterLogAdapter(ApplicationResolver applicationResolver) {
+        this(applicationResolver, RouterLogGrammars.defaults());
+    }
+
+    /**
+     * Creates an adapter reading the dialects of the given registry.
+     * @param applicationResolver Address-to-application resolver
+     * @param grammars Dialects to detect; the first one is used when none matches
+     */
+    public RouterLogAdapter(ApplicationResolver applicationResolver, RouterLogGrammars grammars) {
+        this.applicationResolver = Objects.requireNonNull(applicationResolver, "Application resolver cannot be null");
+        this.grammars = Objects.requireNonNull(grammars, "Grammars cannot be null");
+        List<RouterLogGrammar> registered = grammars.getGrammars();
+        if (registered.isEmpty()) {
+            throw new IllegalArgumentException("At least one router log grammar must be registered");
+        }
+        this.fallbackGrammar = registered.get(0);
+    }
+
+    /**
+     * Parses a router log file and extracts dependency claims. Gzip-compressed
+     * (rotated) files are decompressed on the fly.
+     * @param logFilePath Path to the log file, plain or gzip
      * @return List of Claim objects
+     * @see LogFiles
      */
     public List<Claim> parseLogFile(Path logFilePath) {
         List<Claim> claims = new ArrayList<>();
-        try (BufferedReader reader = Files.newBufferedReader(logFilePath)) {
-            String line;
-            int lineNumber = 0;
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                try {
-                    RouterLogEntry entry = parseLogLine(line);
-                    if (entry != null) {
-                        Claim claim = toClaim(entry, line);
-                        claims.add(claim);
-                        logger.debug("Parsed claim from line {}: {}", lineNumber, claim);
+        try (Stream<Claim> parsed = streamLogFile(logFilePath)) {
+            parsed.forEach(claims::add);
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Error reading log file: {}", logFilePath, e);
+        }
+        return claims;
+    }
+
+    /**
+     * Lazily parses a router log file, producing claims as lines are read so heap use
+     * does not grow with the file size.
+     * <p>
+     * The stream holds the file open and must be closed, e.g. with try-with-resources:
+     * <pre>
+     *   try (Stream&lt;Claim&gt; claims = adapter.streamLogFile(path)) {
+     *       claims.forEach(sink);
+     *   }
+     * </pre>
+     * Read errors after the file has been opened surface as
+     * {@link java.io.UncheckedIOException} from the terminal operation.
+     * @param logFilePath Path to the log file, plain or gzip
+     * @return Stream of claims in file order
+     * @throws IOException if the file cannot be opened
+     */
+    public Stream<Claim> streamLogFile(Path logFilePath) throws IOException {
+        return streamLogData(LogFiles.lines(logFilePath));
+    }
+
+    /**
+     * Lazily parses router log lines from any source. Lines that do not parse are
+     * skipped with the same tolerance as {@link #parseLogData(List)}.
+     * @param logLines Log lines; closing the returned stream closes this one
+     * @return Stream of claims in input order
+     */
+    public Stream<Claim> streamLogData(Stream<String> logLines) {
+        AtomicLong lineNumber = new AtomicLong();
+        return withDetectedGrammar(logLines, (grammar, line) -> parseClaim(grammar, line, lineNumber.incrementAndGet()))
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Detects the dialect from the first lines of the stream, then maps every line,
+     * including the sampled ones, with the detected grammar. Lines are still read
+     * lazily: only the sample is buffered.
+     */
+    private <T> Stream<T> withDetectedGrammar(Stream<String> lines, BiFunction<RouterLogGrammar, String, T> parser) {
+        GrammarSniffer sniffer = new GrammarSniffer(lines.spliterator());
+        return StreamSupport.stream(sniffer, false)
+                .onClose(lines::close)
+                .map(line -> parser.apply(sniffer.grammar, line));
+    }
+
+    /**
+     * Parses a router log file in aggregation mode: lines are collapsed per
+     * (source, target, port, protocol, endpoint) and window while reading, and one
+     * claim is emitted per edge and window instead of one per line. Lines are read
+     * lazily and a window is turned into claims once the log is a full window past its
+     * end, so memory grows with the number of edges active in the last two windows,
+     * not with the file size or the time it spans.
+     * <p>
+     * Lines may be out of time order by up to one window. A line later than that
+     * starts a new aggregate for its window, so that window yields a second claim,
+     * with its own ID, after the windows already emitted.
+     * @param logFilePath Path to the log file, plain or gzip
+     * @param window Aggregation window, aligned to log time
+     * @return One claim per edge and window, ordered by window
+     * @see RouterEdgeAggregator
+     */
+    public List<Claim> parseLogFileAggregated(Path logFilePath, Duration window) {
+        try (Stream<String> lines = LogFiles.lines(logFilePath)) {
+            return aggregate(lines, window);
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Error reading log file: {}", logFilePath, e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Parses router log entries in aggregation mode.
+     * @param logData List of log entries as strings
+     * @param window Aggregation window, aligned to log time
+     * @return One claim per edge and window, ordered by window
+     * @see #parseLogFileAggregated(Path, Duration)
+     */
+    public List<Claim> parseLogDataAggregated(List<String> logData, Duration window) {
+        if (logData == null || logData.isEmpty()) {
+            logger.warn("No log data provided for parsing");
+            return new ArrayList<>();
+        }
+        return aggregate(logData.stream(), window);
+    }
+
+    private List<Claim> aggregate(Stream<String> lines, Duration window) {
+        RouterEdgeAggregator aggregator = new RouterEdgeAggregator(window);
+        AtomicLong lineNumber = new AtomicLong();
+        AtomicLong parsed = new AtomicLong();
+        List<Claim> claims = new ArrayList<>();
+        // Latest log time at which completed windows were drained
+        LocalDateTime[] drainedAt = new LocalDateTime[1];
+        withDetectedGrammar(lines, (grammar, line) -> parseEntry(grammar, line, lineNumber.incrementAndGet()))
+                .filter(Objects::nonNull)
+                .forEach(entry -> {
+                    aggregator.add(entry);
+                    parsed.incrementAndGet();
+                    LocalDateTime timestamp = entry.getTimestamp();
+                    if (drainedAt[0] == null) {
+                        drainedAt[0] = timestamp;
+                    } else if (timestamp.isAfter(drainedAt[0].plus(window))) {
+                        // Windows that ended a full window ago no longer receive lines
+                        for (RouterEdgeAggregator.EdgeAggregate aggregate
+                                : aggregator.drainCompletedBefore(timestamp.minus(window))) {
+                            claims.add(toClaim(aggregate));
+                        }
+                        drainedAt[0] = timestamp;
                     }
-                } catch (Exception e) {
-                    logger.warn("Failed to parse line {}: {}", lineNumber, line, e);
-                }
+                });
+        for (RouterEdgeAggregator.EdgeAggregate aggregate : aggregator.drain()) {
+            claims.add(toClaim(aggregate));
+        }
+        logger.info("Aggregated {} router log lines into {} edge claims", parsed.get(), claims.size());
+        return claims;
+    }
+
+    /**
+     * Parses a router log file in sampling mode, for exploratory runs where not every
+     * line is needed. Lines are sampled per edge (source, target, port, protocol) by
+     * the given sampler; only kept lines are turned into claims, each carrying the
+     * number of lines it stands for as its observation count.
+     * <p>
+     * The keep/skip decision is made on the edge key alone, which the native layout
+     * finds with a cheap scan; dropped lines are never fully parsed. A line whose edge
+     * scans but which does not parse still takes its turn in the edge's stride.
+     * @param logFilePath Path to the log file, plain or gzip
+     * @param sampler Sampler deciding which lines to keep; holds per-edge state, so
+     *                pass the same one for all files of a run
+     * @return Claims for the sampled lines, in file order
+     * @see EdgeSampler
+     */
+    public List<Claim> parseLogFileSampled(Path logFilePath, EdgeSampler sampler) {
+        try (Stream<String> lines = LogFiles.lines(logFilePath)) {
+            return sample(lines, sampler);
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Error reading log file: {}", logFilePath, e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Parses router log entries in sampling mode.
+     * @param logData List of log entries as strings
+     * @param sampler Sampler deciding which lines to keep
+     * @return Claims for the sampled lines, in input order
+     * @see #parseLogFileSampled(Path, EdgeSampler)
+     */
+    public List<Claim> parseLogDataSampled(List<String> logData, EdgeSampler sampler) {
+        if (logData == null || logData.isEmpty()) {
+            logger.warn("No log data provided for parsing");
+            return new ArrayList<>();
+        }
+        return sample(logData.stream(), sampler);
+    }
+
+    private List<Claim> sample(Stream<String> lines, EdgeSampler sampler) {
+        Objects.requireNonNull(sampler, "Sampler cannot be null");
+        long seenBefore = sampler.getSeenCount();
+        AtomicLong lineNumber = new AtomicLong();
+        List<Claim> claims = withDetectedGrammar(lines,
+                (grammar, line) -> sampleLine(grammar, line, lineNumber.incrementAndGet(), sampler))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        logger.info("Sampled {} of {} router log lines", claims.size(), sampler.getSeenCount() - seenBefore);
+        return claims;
+    }
+
+    /**
+     * Samples one line on its edge key, parsing it in full only if it is kept. Lines
+     * the grammar cannot key cheaply are parsed first and keyed from the entry.
+     * @return Claim weighted by the sampler, or null if the line is dropped or does not parse
+     */
+    private Claim sampleLine(RouterLogGrammar grammar, String line, long lineNumber, EdgeSampler sampler) {
+        String edgeKey = grammar.edgeKey(line);
+        RouterLogEntry entry = null;
+        if (edgeKey == null) {
+            entry = parseEntry(grammar, line, lineNumber);
+            if (entry == null) {
+                return null;
+            }
+            edgeKey = entry.getSourceIp() + " -> " + entry.getTargetIp() + ":" + entry.getTargetPort() + " "
+                    + entry.getProtocol();
+        }
+        long weight = sampler.sample(edgeKey);
+        if (weight == 0) {
+            return null;
+        }
+        if (entry == null) {
+            entry = parseEntry(grammar, line, lineNumber);
+        }
+        return entry != null ? toClaim(entry, entry.getRawLine(), weight) : null;
+    }
+
+    /**
+     * Parses a router log file by memory-mapping it and parsing line-aligned chunks
+     * in parallel on the common ForkJoinPool.
+     * @param logFilePath Path to the log file
+     * @return List of Claim objects, in file order
+     * @see #parseLogFileParallel(Path, ForkJoinPool)
+     */
+    public List<Claim> parseLogFileParallel(Path logFilePath) {
+        return parseLogFileParallel(logFilePath, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parses a router log file by memory-mapping it and parsing line-aligned chunks
+     * in parallel on the given pool.
+     * <p>
+     * Produces the same claims in the same order as {@link #parseLogFile(Path)}, with
+     * the same per-line error tolerance. Two differences are inherent to working on raw
+     * bytes: a lone {@code '\r'} is not treated as a line terminator, and malformed
+     * UTF-8 is replaced instead of ending the read early. Warnings report the byte offset
+     * of the offending line rather than its line number.
+     * <p>
+     * Gzip files cannot be split at line boundaries before decompression; they are
+     * handed to {@link #parseLogFile(Path)}, which decodes gzip members in parallel.
+     * @param logFilePath Path to the log file
+     * @param pool Pool used to parse the chunks
+     * @return List of Claim objects, in file order
+     */
+    public List<Claim> parseLogFileParallel(Path logFilePath, ForkJoinPool pool) {
+        try {
+            if (LogFiles.isGzip(logFilePath)) {
+                return parseLogFile(logFilePath);
             }
         } catch (IOException e) {
             logger.error("Error reading log file: {}", logFilePath, e);
+            return new ArrayList<>();
+        }
+        try (FileChannel channel = FileChannel.open(logFilePath, StandardOpenOption.READ)) {
+            long chunkBytes = Math.max(MIN_PARALLEL_CHUNK_BYTES,
+                    channel.size() / ((long) pool.getParallelism() * CHUNKS_PER_WORKER));
+            return parseChunks(channel, pool, chunkBytes);
+        } catch (IOException e) {
+            logger.error("Error reading log file: {}", logFilePath, e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Parses the channel in chunks of roughly {@code chunkBytes}; exposed for tests that
+     * need many chunks from a small file.
+     */
+    List<Claim> parseChunks(FileChannel channel, ForkJoinPool pool, long chunkBytes) throws IOException {
+        List<MappedByteBuffer> chunks = LineChunker.split(channel, chunkBytes);
+        RouterLogGrammar detected = detectGrammar(chunks);
+        RouterLogGrammar grammar = detected != null ? detected : fallbackGrammar;
+        List<ForkJoinTask<List<Claim>>> tasks = new ArrayList<>();
+        long chunkOffset = 0;
+        for (MappedByteBuffer chunk : chunks) {
+            final long offset = chunkOffset;
+            tasks.add(pool.submit(() -> parseChunk(chunk, offset, grammar)));
+            chunkOffset += chunk.capacity();
+        }
+        logger.debug("Parsing {} bytes of {} router log in {} chunks", chunkOffset, grammar.getName(), tasks.size());
+
+        List<Claim> claims = new ArrayList<>();
+        for (ForkJoinTask<List<Claim>> task : tasks) {
+            claims.addAll(task.join());
+        }
+        return claims;
+    }
+
+    /**
+     * Detects the dialect of the lines at the start of a buffer, without moving it.
+     * @return Detected grammar, or null if no grammar parses the sample
+     */
+    RouterLogGrammar detectGrammar(ByteBuffer buffer) {
+        return detectGrammar(Collections.singletonList(buffer));
+    }
+
+    /**
+     * Detects the dialect of the lines at the start of consecutive buffers, e.g. the
+     * chunks of one file, without moving them. The sample holds the same whole lines
+     * as the sequential path takes, so both detect the same dialect.
+     * @return Detected grammar, or null if no grammar parses the sample
+     */
+    RouterLogGrammar detectGrammar(List<? extends ByteBuffer> buffers) {
+        List<String> sample = new ArrayList<>();
+        int remaining = grammars.getSampleLines();
+        for (int i = 0; i < buffers.size() && remaining > 0; i++) {
+            for (String line : LineChunker.headLines(buffers.get(i), remaining)) {
+                sample.add(line);
+                if (!line.trim().isEmpty()) {
+                    remaining--;
+                }
+            }
         }
+        return grammars.detect(sample);
+    }
+
+    /**
+     * @return Grammar used when detection finds no dialect
+     */
+    RouterLogGrammar getFallbackGrammar() {
+        return fallbackGrammar;
+    }
+
+    /**
+     * Parses the whole lines in a buffer with the given grammar; warnings report
+     * {@code chunkOffset} plus the line's offset in the buffer.
+     */
+    List<Claim> parseChunk(ByteBuffer chunk, long chunkOffset, RouterLogGrammar grammar) {
+        List<Claim> claims = new ArrayList<>();
+        LineChunker.forEachLine(chunk, (line, offset) -> {
+            try {
+                RouterLogEntry entry = grammar.parse(line);
+                if (entry != null) {
+                    Claim claim = toClaim(entry, line);
+                    claims.add(claim);
+                    logger.debug("Parsed claim at byte offset {}: {}", chunkOffset + offset, claim);
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to parse line at byte offset {}: {}", chunkOffset + offset, line, e);
+            }
+        });
         return claims;
     }
 
     /**
-     * Parses a single router log line into a RouterLogEntry.
+     * Parses a single router log line in the native {@code [INFO]} layout into a
+     * RouterLogEntry.
+     * <p>
+     * Well-formed lines go through the allocation-free {@link RouterLogTokenizer};
+     * anything it does not handle falls back to the regex path.
      * @param line Log line
      * @return RouterLogEntry or null if not matched
      */
     public RouterLogEntry parseLogLine(String line) {
+        return parseInfoLine(line);
+    }
+
+    /**
+     * Grammar function of the native {@code [INFO]} layout.
+     * @see #parseLogLine(String)
+     */
+    static RouterLogEntry parseInfoLine(String line) {
+        RouterLogEntry entry = RouterLogTokenizer.tokenize(line);
+        return entry != null ? entry : parseInfoLineWithPattern(line);
+    }
+
+    /**
+     * Parses a single router log line with {@code LOG_PATTERN}. This is the reference
+     * behaviour the tokenizer is checked against.
+     * @param line Log line
+     * @return RouterLogEntry or null if not matched
+     */
+    RouterLogEntry parseLogLineWithPattern(String line) {
+        return parseInfoLineWithPattern(line);
+    }
+
+    private static RouterLogEntry parseInfoLineWithPattern(String line) {
         Matcher matcher = LOG_PATTERN.matcher(line);
         if (!matcher.matches()) {
             logger.debug("Log line did not match pattern: {}", line);
@@ -108,7 +519,7 @@ public class RouterLogAdapter {
     /**
      * Parse timestamp from various formats
      */
-    private LocalDateTime parseTimestamp(String timestampStr) {
+    private static LocalDateTime parseTimestamp(String timestampStr) {
         // Try different timestamp formats
         try {
             if (timestampStr.contains("T") && timestampStr.endsWith("Z")) {
@@ -127,18 +538,23 @@ public class RouterLogAdapter {
     }
 
     /**
-     * Converts a RouterLogEntry to a standardized Claim object.
+     * Converts a RouterLogEntry to a standardized Claim object. The claim ID is a hash
+     * of the raw line, so re-reading the same line always yields the same ID.
      * @param entry RouterLogEntry
      * @param rawLine Original log line
      * @return Claim
      */
     public Claim toClaim(RouterLogEntry entry, String rawLine) {
+        return toClaim(entry, rawLine, 1);
+    }
+    
+    private Claim toClaim(RouterLogEntry entry, String rawLine, long observationCount) {
         // Create meaningful dependency claims from router logs
-        String sourceApp = mapIpToApplication(entry.getSourceIp());
-        String targetApp = mapIpToApplication(entry.getTargetIp());
+        String sourceApp = applicationResolver.resolve(entry.getSourceIp());
+        String targetApp = applicationResolver.resolve(entry.getTargetIp());
         
         return Claim.builder()
-                .id("router-claim-" + Math.abs(entry.hashCode()))
+                .id(ClaimIds.contentId("router-claim-", "ROUTER_LOG", rawLine))
                 .sourceType("ROUTER_LOG")
                 .rawData(rawLine)
                 .processedData(String.format("%s -> %s via %s%s", 
@@ -147,31 +563,52 @@ public class RouterLogAdapter {
                     entry.getProtocol(),
                     entry.getEndpoint() != null ? " " + entry.getEndpoint() : ""))
                 .timestamp(java.time.Instant.now())
+                .observationCount(observationCount)
                 .build();
     }
     
     /**
-     * Map IP addresses to application names based on common patterns
-     */
-    private String mapIpToApplication(String ip) {
-        // Simple IP-to-service mapping for demo purposes
-        // In a real system, this would likely come from a configuration or service registry
-        if ("user-service".equals(ip) || ip.contains("user")) return "user-service";
-        if ("auth-service".equals(ip) || ip.contains("auth")) return "auth-service";
-        if ("order-service".equals(ip) || ip.contains("order")) return "order-service";
-        if ("payment-service".equals(ip) || ip.contains("payment")) return "payment-service";
-        if ("notification-service".equals(ip) || ip.contains("notification")) return "notification-service";
-        if ("api-gateway".equals(ip) || ip.contains("gateway")) return "api-gateway";
+     * Converts an edge aggregate into a single claim standing for all of its log lines.
+     * The processed data has the same format as {@link #toClaim(RouterLogEntry, String)},
+     * so aggregated and per-line claims group together downstream; the raw data is a
+     * one-line summary of the window.
+     * @param aggregate Edge aggregate for one window
+     * @return Claim whose observation count is the number of aggregated lines
+     */
+    public Claim toClaim(RouterEdgeAggregator.EdgeAggregate aggregate) {
+        String sourceApp = applicationResolver.resolve(aggregate.getSourceIp());
+        String targetApp = applicationResolver.resolve(aggregate.getTargetIp());
+        String endpoint = aggregate.getEndpoint() != null ? " " + aggregate.getEndpoint() : "";
         
-        // Fallback: try to extract service name from IP-like strings
-        if (ip.contains("-")) {
-            return ip;  // Assume it's already a service name
+        StringBuilder rawData = new StringBuilder()
+                .append(aggregate.getFirstSeen()).append(" .. ").append(aggregate.getLastSeen())
+                .append(" [AGGREGATE] ")
+                .append(aggregate.getSourceIp()).append(" -> ")
+                .append(aggregate.getTargetIp()).append(':').append(aggregate.getTargetPort())
+                .append(' ').append(aggregate.getProtocol());
+        for (String method : aggregate.getMethods()) {
+            rawData.append(' ').append(method);
+        }
+        rawData.append(endpoint)
+                .append(" count=").append(aggregate.getCount())
+                .append(" status=").append(aggregate.getStatusCounts());
+        if (aggregate.getResponseTimeCount() > 0) {
+            rawData.append(String.format(" responseTimeMs(min/mean/max)=%d/%.1f/%d",
+                    aggregate.getMinResponseTimeMs(), aggregate.getMeanResponseTimeMs(), aggregate.getMaxResponseTimeMs()));
         }
         
-        // Default fallback for actual IP addresses
-        return "app-" + ip.replace(".", "-");
+        return Claim.builder()
+                .id(ClaimIds.contentId("router-claim-", "ROUTER_LOG_AGGREGATE", aggregate.getSourceIp(),
+                    aggregate.getTargetIp(), String.valueOf(aggregate.getTargetPort()), aggregate.getProtocol(),
+                    aggregate.getEndpoint(), aggregate.getWindowStart().toString(), aggregate.getFirstSeen().toString()))
+                .sourceType("ROUTER_LOG")
+                .rawData(rawData.toString())
+                .processedData(String.format("%s -> %s via %s%s", sourceApp, targetApp, aggregate.getProtocol(), endpoint))
+                .timestamp(java.time.Instant.now())
+                .observationCount(aggregate.getCount())
+                .build();
     }
-
+    
     /**
      * Parses multiple router log entries from string data.
      * 
@@ -179,32 +616,88 @@ public class RouterLogAdapter {
      * @return List of claims extracted from the log data
      */
     public List<Claim> parseLogData(List<String> logData) {
-        List<Claim> claims = new ArrayList<>();
-        
         if (logData == null || logData.isEmpty()) {
             logger.warn("No log data provided for parsing");
-            return claims;
+            return new ArrayList<>();
         }
         
         logger.info("Parsing {} router log entries", logData.size());
         
-        for (int i = 0; i < logData.size(); i++) {
-            String line = logData.get(i);
-            try {
-                RouterLogEntry entry = parseLogLine(line);
-                if (entry != null) {
-                    Claim claim = toClaim(entry, line);
-                    claims.add(claim);
-                    logger.debug("Parsed claim from line {}: {}", i + 1, claim);
-                } else {
-                    logger.debug("Log line did not match pattern: {}", line);
-                }
-            } catch (Exception e) {
-                logger.warn("Failed to parse log line {}: {}", i + 1, line, e);
-            }
-        }
+        List<Claim> claims = streamLogData(logData.stream()).collect(Collectors.toList());
         
         logger.info("Successfully parsed {} claims from router log data", claims.size());
         return claims;
     }
+
+    /**
+     * Parses one log line into a claim, logging and swallowing per-line failures.
+     * @return Claim, or null if the line does not parse
+     */
+    private Claim parseClaim(RouterLogGrammar grammar, String line, long lineNumber) {
+        try {
+            RouterLogEntry entry = grammar.parse(line);
+            if (entry != null) {
+                Claim claim = toClaim(entry, line);
+                logger.debug("Parsed claim from line {}: {}", lineNumber, claim);
+                return claim;
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to parse line {}: {}", lineNumber, line, e);
+        }
+        return null;
+    }
+
+    /**
+     * Parses one log line into an entry, logging and swallowing per-line failures.
+     * @return Entry, or null if the line does not parse
+     */
+    private RouterLogEntry parseEntry(RouterLogGrammar grammar, String line, long lineNumber) {
+        try {
+            return grammar.parse(line);
+        } catch (Exception e) {
+            logger.warn("Failed to parse line {}: {}", lineNumber, line, e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads the first lines of a stream when the first line is requested, detects the
+     * dialect from them, then hands out the sampled lines followed by the rest of the
+     * stream, unchanged.
+     */
+    private final class GrammarSniffer extends Spliterators.AbstractSpliterator<String> {
+        private final Spliterator<String> lines;
+        private final ArrayDeque<String> sample = new ArrayDeque<>();
+        private RouterLogGrammar grammar;
+
+        GrammarSniffer(Spliterator<String> lines) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.lines = lines;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            if (grammar == null) {
+                detect();
+            }
+            String sampled = sample.poll();
+            if (sampled != null) {
+                action.accept(sampled);
+                return true;
+            }
+            return lines.tryAdvance(action);
+        }
+
+        private void detect() {
+            int sampledLines = 0;
+            while (sampledLines < grammars.getSampleLines() && lines.tryAdvance(sample::add)) {
+                if (!sample.peekLast().trim().isEmpty()) {
+                    sampledLines++;
+                }
+            }
+            RouterLogGrammar detected = grammars.detect(new ArrayList<>(sample));
+            grammar = detected != null ? detected : fallbackGrammar;
+            logger.debug("Parsing router log as {}", grammar.getName());
+        }
+    }
 }
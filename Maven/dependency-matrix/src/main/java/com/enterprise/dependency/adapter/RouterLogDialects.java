@@ -0,0 +1,209 @@
+package com.enterprise.dependency.adapter;
+
+import com.enterprise.dependency.model.sources.RouterLogEntry;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.chrono.IsoChronology;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.temporal.TemporalAccessor;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Built-in grammars for router, firewall and proxy log dialects other than the
+ * native {@code [INFO]} layout. Each compiles its pattern once; times are converted to
+ * UTC, and syslog times without a year are placed in the current year, or the
+ * previous one if that would put them in the future.
+ */
+final class RouterLogDialects {
+    // 2024-01-15T10:30:45, with optional fraction and Z or +01:00/+0100 offset; spelled
+    // out so that a colon after the time (ASA) is not taken as part of it
+    private static final String ISO_TIME = "\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(?:\\.\\d+)?(?:Z|[+-]\\d{2}:?\\d{2})?";
+    private static final DateTimeFormatter ISO_FORMATTER = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+            .optionalStart().appendOffset("+HH:MM", "Z").optionalEnd()
+            .optionalStart().appendOffset("+HHMM", "Z").optionalEnd()
+            .toFormatter(Locale.ROOT)
+            .withResolverStyle(ResolverStyle.STRICT)
+            .withChronology(IsoChronology.INSTANCE);
+    // Jan 15 10:30:45, Jan  5 10:30:45, Jan 15 2024 10:30:45 (ASA)
+    private static final String SYSLOG_TIME = "[A-Z][a-z]{2} +\\d{1,2}(?: \\d{4})? \\d{2}:\\d{2}:\\d{2}";
+    private static final DateTimeFormatter SYSLOG_FORMATTER = DateTimeFormatter.ofPattern("MMM d yyyy HH:mm:ss", Locale.ENGLISH);
+    private static final Pattern SPACES = Pattern.compile(" +");
+
+    /**
+     * Netfilter {@code LOG} target:
+     * <pre>
+     *   Jan 15 10:30:45 fw01 kernel: [UFW ALLOW] IN=eth0 OUT= SRC=10.0.1.100 DST=10.0.2.200 LEN=60 ... PROTO=TCP SPT=51234 DPT=8080 ...
+     * </pre>
+     */
+    static final RouterLogGrammar IPTABLES = new PatternGrammar("iptables",
+            "^(?<time>" + ISO_TIME + "|" + SYSLOG_TIME + ") .*?\\bSRC=(?<src>\\S+) DST=(?<dst>\\S+) .*?\\bPROTO=(?<proto>\\w+)(?: .*?\\bDPT=(?<dport>\\d+))?") {
+        @Override
+        RouterLogEntry.Builder entry(Matcher m) {
+            return RouterLogEntry.builder()
+                    .sourceIp(m.group("src"))
+                    .targetIp(m.group("dst"))
+                    .targetPort(m.group("dport") != null ? Integer.parseInt(m.group("dport")) : 0)
+                    .protocol(m.group("proto"));
+        }
+    };
+
+    /**
+     * Cisco ASA connection setup; the initiator is the {@code for} side of inbound and
+     * the {@code to} side of outbound connections:
+     * <pre>
+     *   Jan 15 2024 10:30:45: %ASA-6-302013: Built inbound TCP connection 81 for outside:203.0.113.5/51234 (203.0.113.5/51234) to inside:10.0.2.200/443 (10.0.2.200/443)
+     * </pre>
+     */
+    static final RouterLogGrammar CISCO_ASA = new PatternGrammar("cisco-asa",
+            "^(?<time>" + ISO_TIME + "|" + SYSLOG_TIME + "):? .*?%ASA-\\d-30201[35]: Built (?<direction>inbound|outbound) (?<proto>\\w+) connection \\d+ "
+            + "for [^:]+:(?<for>[^/ ]+)/(?<forPort>\\d+) \\([^)]*\\)(?: \\([^)]*\\))? to [^:]+:(?<to>[^/ ]+)/(?<toPort>\\d+)") {
+        @Override
+        RouterLogEntry.Builder entry(Matcher m) {
+            boolean inbound = m.group("direction").equals("inbound");
+            return RouterLogEntry.builder()
+                    .sourceIp(inbound ? m.group("for") : m.group("to"))
+                    .targetIp(inbound ? m.group("to") : m.group("for"))
+                    .targetPort(Integer.parseInt(inbound ? m.group("toPort") : m.group("forPort")))
+                    .protocol(m.group("proto"));
+        }
+    };
+
+    /**
+     * Juniper SRX session creation; the protocol is the first bare number after the
+     * NAT tuples:
+     * <pre>
+     *   2024-01-15T10:30:45.123Z srx01 RT_FLOW: RT_FLOW_SESSION_CREATE: session created 10.0.1.100/51234->10.0.2.200/8080 0x0 junos-http 10.0.1.100/51234->10.0.2.200/8080 0x0 N/A N/A N/A N/A 6 trust-to-untrust ...
+     * </pre>
+     */
+    static final RouterLogGrammar JUNIPER_SRX = new PatternGrammar("juniper-srx",
+            "^(?:<\\d+>\\d? ?)?(?<time>" + ISO_TIME + "|" + SYSLOG_TIME + ") .*?RT_FLOW_SESSION_CREATE: session created "
+            + "(?<src>[^/ ]+)/\\d+->(?<dst>[^/ ]+)/(?<dport>\\d+) .*? (?<proto>\\d{1,3}) ") {
+        @Override
+        RouterLogEntry.Builder entry(Matcher m) {
+            return RouterLogEntry.builder()
+                    .sourceIp(m.group("src"))
+                    .targetIp(m.group("dst"))
+                    .targetPort(Integer.parseInt(m.group("dport")))
+                    .protocol(ipProtocol(m.group("proto")));
+        }
+    };
+
+    /**
+     * Envoy's default access log format; the source is the first
+     * {@code X-Forwarded-For} address and the target the upstream host:
+     * <pre>
+     *   [2024-01-15T10:30:45.123Z] "GET /api/users HTTP/1.1" 200 - 0 1234 125 120 "10.0.1.100" "curl/8.0" "req-1" "user-service" "10.0.2.200:8080"
+     * </pre>
+     * Requests without a forwarded address or upstream host are not dependencies
+     * between known addresses and are skipped.
+     */
+    static final RouterLogGrammar ENVOY = new PatternGrammar("envoy",
+            "^\\[(?<time>[^\\]]+)] \"(?<method>[A-Z]+) (?<endpoint>\\S+) (?<proto>[A-Z0-9]+)/[\\d.]+\" (?<status>\\d{3}) \\S+ \\d+ \\d+ (?<duration>\\d+) \\S+ "
+            + "\"(?<forwarded>[^\",]+)[^\"]*\" \"[^\"]*\" \"[^\"]*\" \"[^\"]*\" \"(?<upstream>[^\"]+):(?<port>\\d+)\"") {
+        @Override
+        RouterLogEntry.Builder entry(Matcher m) {
+            if (m.group("forwarded").equals("-")) {
+                return null;
+            }
+            return RouterLogEntry.builder()
+                    .sourceIp(m.group("forwarded").trim())
+                    .targetIp(m.group("upstream"))
+                    .targetPort(Integer.parseInt(m.group("port")))
+                    .protocol(m.group("proto"))
+                    .method(m.group("method"))
+                    .endpoint(m.group("endpoint"))
+                    .statusCode(Integer.parseInt(m.group("status")))
+                    .responseTimeMs(Integer.parseInt(m.group("duration")));
+        }
+    };
+
+    private RouterLogDialects() {
+    }
+
+    private static String ipProtocol(String number) {
+        switch (number) {
+            case "1":
+                return "ICMP";
+            case "6":
+                return "TCP";
+            case "17":
+                return "UDP";
+            default:
+                return number;
+        }
+    }
+
+    /**
+     * Parses ISO-8601 times with or without an offset, and syslog times.
+     * @param clock Read only for syslog times without a year
+     */
+    static LocalDateTime parseTime(String text, Clock clock) {
+        if (Character.isDigit(text.charAt(0))) {
+            TemporalAccessor parsed = ISO_FORMATTER.parseBest(text, OffsetDateTime::from, LocalDateTime::from);
+            return parsed instanceof OffsetDateTime
+                    ? ((OffsetDateTime) parsed).withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime()
+                    : (LocalDateTime) parsed;
+        }
+        String[] parts = SPACES.split(text);
+        if (parts.length == 4) {
+            return LocalDateTime.parse(String.join(" ", parts), SYSLOG_FORMATTER);
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        String withoutYear = parts[0] + " " + parts[1] + " %d " + parts[2];
+        LocalDateTime time = LocalDateTime.parse(String.format(withoutYear, now.getYear()), SYSLOG_FORMATTER);
+        return time.isAfter(now.plusDays(1))
+                ? LocalDateTime.parse(String.format(withoutYear, now.getYear() - 1), SYSLOG_FORMATTER)
+                : time;
+    }
+
+    /**
+     * Matches a line against one compiled pattern with a {@code time} group and
+     * builds the entry from the other groups.
+     */
+    private abstract static class PatternGrammar implements RouterLogGrammar {
+        private final String name;
+        private final Pattern pattern;
+
+        PatternGrammar(String name, String regex) {
+            this.name = name;
+            this.pattern = Pattern.compile(regex);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+
+        /** @return Builder with everything but time and raw line set, or null to skip the line */
+        abstract RouterLogEntry.Builder entry(Matcher matcher);
+
+        @Override
+        public RouterLogEntry parse(String line) {
+            Matcher matcher = pattern.matcher(line);
+            if (!matcher.find()) {
+                return null;
+            }
+            RouterLogEntry.Builder builder = entry(matcher);
+            if (builder == null) {
+                return null;
+            }
+            return builder
+                    .timestamp(parseTime(matcher.group("time"), Clock.systemUTC()))
+                    .rawLine(line)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.enterprise.dependency.adapter;
+
+import com.enterprise.dependency.model.core.Claim;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Tails a live router log and hands claims for newly appended lines to a sink, so
+ * new dependencies show up within one poll interval instead of the next full batch.
+ * <p>
+ * Progress is checkpointed per file as a byte offset in a {@link LogCheckpointStore};
+ * a restarted follower resumes at the checkpoint rather than re-reading the file.
+ * Only complete lines are consumed: a line still being written stays unread until its
+ * terminating {@code '\n'} arrives.
+ * <p>
+ * Rotation is detected in two ways:
+ * <ul>
+ *   <li>The path now refers to a different file (its file key, i.e. device and inode,
+ *       changed). The rest of the old file, including an unterminated last line, is
+ *       drained before switching to the new file from offset 0.</li>
+ *   <li>The file was truncated in place (copy-truncate rotation): it shrank below the
+ *       consumed offset, or its first bytes no longer match the fingerprint taken when
+ *       they were consumed, which also catches a file that grew back past the old
+ *       offset between two polls. Reading restarts at offset 0.</li>
+ * </ul>
+ * The fingerprint is a CRC-32 of up to the first {@value #HEAD_BYTES} consumed bytes,
+ * re-read on every poll and stored with the checkpoint. Rewritten content whose first
+ * bytes are identical to the old content is not detected.
+ * Claims are delivered before the checkpoint is written, so a crash between the two
+ * can replay a batch but never loses one.
+ * <p>
+ * The log dialect is detected from the first batch of each file that holds a line of a
+ * known dialect, and kept until the file is rotated or truncated.
+ * <p>
+ * Example:
+ * <pre>
+ *   LogCheckpointStore store = new LogCheckpointStore(Path.of("router.checkpoints"));
+ *   RouterLogFollower follower = new RouterLogFollower(adapter, Path.of("/var/log/router.log"),
+ *           store, claims -&gt; service.ingestIncrementalClaims(claims));
+ *   follower.start(Duration.ofSeconds(2));
+ *   ...
+ *   follower.close();
+ * </pre>
+ */
+public class RouterLogFollower implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(RouterLogFollower.class);
+    /** Upper bound of bytes parsed and delivered as one batch. */
+    static final int MAX_BATCH_BYTES = 8 * 1024 * 1024;
+    /** Leading bytes of the file fingerprinted to detect in-place truncation. */
+    static final int HEAD_BYTES = 1024;
+
+    private final RouterLogAdapter adapter;
+    private final Path logFile;
+    private final LogCheckpointStore checkpointStore;
+    private final Consumer<List<Claim>> sink;
+
+    private FileChannel channel;
+    private Object fileKey;
+    private long offset;
+    private int headLength;
+    private long headChecksum;
+    private RouterLogGrammar grammar;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param adapter Adapter used to parse lines into claims
+     * @param logFile Log file to follow; it does not have to exist yet
+     * @param checkpointStore Store for the consumed offset
+     * @param sink Receives each non-empty batch of new claims, in file order
+     */
+    public RouterLogFollower(RouterLogAdapter adapter, Path logFile, LogCheckpointStore checkpointStore,
+                             Consumer<List<Claim>> sink) {
+        this.adapter = Objects.requireNonNull(adapter, "Adapter cannot be null");
+        this.logFile = Objects.requireNonNull(logFile, "Log file cannot be null");
+        this.checkpointStore = Objects.requireNonNull(checkpointStore, "Checkpoint store cannot be null");
+        this.sink = Objects.requireNonNull(sink, "Claim sink cannot be null");
+    }
+
+    /**
+     * Polls the log file on a background thread with the given delay between polls.
+     * @param pollInterval Delay between the end of one poll and the start of the next
+     * @throws IllegalStateException if the follower is already running
+     */
+    public synchronized void start(Duration pollInterval) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Follower for " + logFile + " is already running");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "router-log-follower-" + logFile.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::pollQuietly, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        logger.info("Following router log {} every {} ms", logFile, pollInterval.toMillis());
+    }
+
+    /**
+     * Reads everything appended since the last poll and delivers the resulting claims.
+     * @return Number of claims delivered
+     * @throws IOException if the log or the checkpoint store cannot be accessed
+     */
+    public synchronized int poll() throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(logFile, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            // Between rotation and creation of the new file
+            logger.debug("Router log {} does not exist yet", logFile);
+            return 0;
+        }
+
+        int delivered = 0;
+        if (channel == null) {
+            open(attributes.fileKey());
+        } else if (attributes.fileKey() != null && !attributes.fileKey().equals(fileKey)) {
+            logger.info("Router log {} was rotated, draining {} remaining bytes of the old file",
+                    logFile, Math.max(0, channel.size() - offset));
+            delivered += readAvailable(true);
+            channel.close();
+            channel = null;
+            open(attributes.fileKey());
+        }
+
+        if (channel.size() < offset || !headMatches()) {
+            logger.info("Router log {} was truncated at byte offset {} (now {} bytes), reading from the start",
+                    logFile, offset, channel.size());
+            offset = 0;
+            headLength = 0;
+            grammar = null;
+            saveCheckpoint();
+        }
+        delivered += readAvailable(false);
+        return delivered;
+    }
+
+    /**
+     * Stops polling and releases the file.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    long getOffset() {
+        return offset;
+    }
+
+    private void pollQuietly() {
+        try {
+            int delivered = poll();
+            if (delivered > 0) {
+                logger.debug("Delivered {} new claims from {}", delivered, logFile);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to poll router log {}", logFile, e);
+        }
+    }
+
+    private void open(Object currentFileKey) throws IOException {
+        channel = FileChannel.open(logFile, StandardOpenOption.READ);
+        fileKey = currentFileKey;
+        offset = 0;
+        headLength = 0;
+        grammar = null;
+        LogCheckpointStore.Checkpoint checkpoint = checkpointStore.get(logFile);
+        if (checkpoint != null && Objects.equals(checkpoint.getFileKey(), keyString(currentFileKey))
+                && checkpoint.getOffset() <= channel.size()
+                && checksum(checkpoint.getHeadLength()) == checkpoint.getHeadChecksum()) {
+            offset = checkpoint.getOffset();
+            headLength = checkpoint.getHeadLength();
+            headChecksum = checkpoint.getHeadChecksum();
+            logger.info("Resuming router log {} at byte offset {}", logFile, offset);
+        } else if (checkpoint != null) {
+            logger.info("Checkpoint {} does not match router log {}, reading from the start", checkpoint, logFile);
+        }
+    }
+
+    /**
+     * Parses and delivers complete lines between the offset and the end of the file.
+     * @param includePartialLine Whether to also consume a trailing unterminated line
+     */
+    private int readAvailable(boolean includePartialLine) throws IOException {
+        int delivered = 0;
+        long size = channel.size();
+        while (offset < size) {
+            int length = (int) Math.min(MAX_BATCH_BYTES, size - offset);
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            int read;
+            do {
+                read = channel.read(buffer, offset + buffer.position());
+            } while (read > 0 && buffer.hasRemaining());
+            buffer.flip();
+
+            int end = buffer.limit();
+            boolean atEnd = offset + end >= size;
+            if (!(includePartialLine && atEnd)) {
+                end = lastLineEnd(buffer);
+                if (end == 0) {
+                    if (buffer.limit() == MAX_BATCH_BYTES) {
+                        throw new IOException("Line at offset " + offset + " of " + logFile
+                                + " is longer than " + MAX_BATCH_BYTES + " bytes");
+                    }
+                    break;
+                }
+            }
+            buffer.limit(end);
+
+            if (grammar == null) {
+                grammar = adapter.detectGrammar(buffer);
+            }
+            List<Claim> claims = adapter.parseChunk(buffer, offset,
+                    grammar != null ? grammar : adapter.getFallbackGrammar());
+            if (!claims.isEmpty()) {
+                sink.accept(claims);
+                delivered += claims.size();
+            }
+            offset += end;
+            saveCheckpoint();
+        }
+        return delivered;
+    }
+
+    private void saveCheckpoint() throws IOException {
+        if (headLength < HEAD_BYTES && offset > headLength) {
+            headLength = (int) Math.min(offset, HEAD_BYTES);
+            headChecksum = checksum(headLength);
+        }
+        checkpointStore.put(logFile, new LogCheckpointStore.Checkpoint(offset, keyString(fileKey),
+                headLength, headChecksum));
+    }
+
+    private boolean headMatches() throws IOException {
+        return headLength == 0 || checksum(headLength) == headChecksum;
+    }
+
+    /**
+     * @return CRC-32 of the file's first {@code length} bytes, or -1 if it is shorter
+     */
+    private long checksum(int length) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(length);
+        int read;
+        do {
+            read = channel.read(head, head.position());
+        } while (read > 0 && head.hasRemaining());
+        if (head.hasRemaining()) {
+            return -1;
+        }
+        head.flip();
+        CRC32 crc = new CRC32();
+        crc.update(head);
+        return crc.getValue();
+    }
+
+    /**
+     * Returns the position just past the last {@code '\n'} in the buffer, or 0 if
+     * it holds no complete line.
+     */
+    private static int lastLineEnd(ByteBuffer buffer) {
+        for (int i = buffer.limit() - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static String keyString(Object fileKey) {
+        return fileKey != null ? fileKey.toString() : null;
+    }
+}
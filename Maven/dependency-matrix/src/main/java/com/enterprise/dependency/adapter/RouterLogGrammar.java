@@ -0,0 +1,86 @@
+package com.enterprise.dependency.adapter;
+
+import com.enterprise.dependency.model.sources.RouterLogEntry;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Parser for one router or proxy log dialect, registered in {@link RouterLogGrammars}.
+ * <p>
+ * Implementations must be thread-safe; one instance parses every line of each file
+ * detected to be in its dialect.
+ */
+public interface RouterLogGrammar {
+
+    /**
+     * @return Unique dialect name, e.g. {@code iptables}
+     */
+    String getName();
+
+    /**
+     * Parses one line.
+     * @param line Log line without its terminator
+     * @return Entry for the connection or request the line records, or null if the
+     *         line is not such a record in this dialect
+     */
+    RouterLogEntry parse(String line);
+
+    /**
+     * Extracts the edge a line records, {@code src -> dst:port PROTO}, more cheaply than
+     * {@link #parse(String)}, so that sampling can drop a line before parsing it. For
+     * every line {@code parse} accepts, the key must equal the one built from the parsed
+     * entry. The default has no cheap path and returns null.
+     * @param line Log line without its terminator
+     * @return Edge key, or null if the line must be parsed to find its edge
+     */
+    default String edgeKey(String line) {
+        return null;
+    }
+
+    /**
+     * Creates a grammar from a parsing function.
+     * @param name Dialect name
+     * @param parser Function returning the entry of a line, or null
+     * @return Grammar delegating to the function
+     */
+    static RouterLogGrammar of(String name, Function<String, RouterLogEntry> parser) {
+        return of(name, parser, line -> null);
+    }
+
+    /**
+     * Creates a grammar from a parsing function and a cheap edge key scan.
+     * @param name Dialect name
+     * @param parser Function returning the entry of a line, or null
+     * @param edgeKeyScanner Function returning the edge key of a line, or null
+     * @return Grammar delegating to the functions
+     * @see #edgeKey(String)
+     */
+    static RouterLogGrammar of(String name, Function<String, RouterLogEntry> parser,
+                               Function<String, String> edgeKeyScanner) {
+        Objects.requireNonNull(name, "Grammar name cannot be null");
+        Objects.requireNonNull(parser, "Parser cannot be null");
+        Objects.requireNonNull(edgeKeyScanner, "Edge key scanner cannot be null");
+        return new RouterLogGrammar() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public RouterLogEntry parse(String line) {
+                return parser.apply(line);
+            }
+
+            @Override
+            public String edgeKey(String line) {
+                return edgeKeyScanner.apply(line);
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+}
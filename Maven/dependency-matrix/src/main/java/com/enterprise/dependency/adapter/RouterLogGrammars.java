@@ -0,0 +1,155 @@
+package com.enterprise.dependency.adapter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of router log dialects, and detection of the dialect a file is written in.
+ * <p>
+ * The dialect is detected once per file or stream from its first non-blank lines:
+ * every registered grammar parses the sample, and the one that parses the most lines
+ * wins, ties going to the earlier registration. The caller then parses the whole file
+ * with that grammar alone, so no line pays for format checks.
+ * <p>
+ * {@link #defaults()} registers the built-in dialects, in this order:
+ * <ul>
+ *   <li>{@code router-info}: {@code timestamp [INFO] src -> dst:port PROTO [METHOD] [endpoint] [status] [NNNms]}</li>
+ *   <li>{@code envoy}: Envoy's default access log format</li>
+ *   <li>{@code cisco-asa}: ASA {@code %ASA-6-302013/302015} connection built messages</li>
+ *   <li>{@code juniper-srx}: SRX {@code RT_FLOW_SESSION_CREATE} messages</li>
+ *   <li>{@code iptables}: netfilter {@code LOG} target lines ({@code SRC= DST= PROTO= DPT=})</li>
+ * </ul>
+ * Further dialects are added with {@link #register(RouterLogGrammar)}.
+ * <p>
+ * Thread-safe.
+ */
+public final class RouterLogGrammars {
+    private static final Logger logger = LoggerFactory.getLogger(RouterLogGrammars.class);
+    /** Lines sampled by default to detect a file's dialect. */
+    public static final int DEFAULT_SAMPLE_LINES = 32;
+
+    private final List<RouterLogGrammar> grammars = new CopyOnWriteArrayList<>();
+    private final int sampleLines;
+
+    /**
+     * Creates an empty registry sampling {@link #DEFAULT_SAMPLE_LINES} lines.
+     */
+    public RouterLogGrammars() {
+        this(DEFAULT_SAMPLE_LINES);
+    }
+
+    /**
+     * Creates an empty registry.
+     * @param sampleLines Non-blank lines sampled to detect a file's dialect
+     */
+    public RouterLogGrammars(int sampleLines) {
+        if (sampleLines < 1) {
+            throw new IllegalArgumentException("Sample lines must be at least 1, was " + sampleLines);
+        }
+        this.sampleLines = sampleLines;
+    }
+
+    /**
+     * @return Registry holding the built-in dialects
+     */
+    public static RouterLogGrammars defaults() {
+        return new RouterLogGrammars()
+                .register(RouterLogGrammar.of("router-info", RouterLogAdapter::parseInfoLine, RouterLogTokenizer::edgeKey))
+                .register(RouterLogDialects.ENVOY)
+                .register(RouterLogDialects.CISCO_ASA)
+                .register(RouterLogDialects.JUNIPER_SRX)
+                .register(RouterLogDialects.IPTABLES);
+    }
+
+    /**
+     * Adds a dialect; detection prefers earlier registrations on ties.
+     * @param grammar Grammar to add
+     * @return This registry
+     * @throws IllegalArgumentException if a grammar with the same name is registered
+     */
+    public synchronized RouterLogGrammars register(RouterLogGrammar grammar) {
+        Objects.requireNonNull(grammar, "Grammar cannot be null");
+        if (get(grammar.getName()) != null) {
+            throw new IllegalArgumentException("Router log grammar already registered: " + grammar.getName());
+        }
+        grammars.add(grammar);
+        return this;
+    }
+
+    /**
+     * @param name Dialect name
+     * @return The grammar registered under the name, or null
+     */
+    public RouterLogGrammar get(String name) {
+        for (RouterLogGrammar grammar : grammars) {
+            if (grammar.getName().equals(name)) {
+                return grammar;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Registered grammars in registration order
+     */
+    public List<RouterLogGrammar> getGrammars() {
+        return Collections.unmodifiableList(new ArrayList<>(grammars));
+    }
+
+    /**
+     * @return Non-blank lines to pass to {@link #detect(List)}
+     */
+    public int getSampleLines() {
+        return sampleLines;
+    }
+
+    /**
+     * Detects the dialect of a sample of lines.
+     * @param sample First lines of a file; blank lines are ignored, and only the first
+     *               {@link #getSampleLines()} non-blank ones are considered
+     * @return Grammar parsing the most sample lines, or null if none parses any
+     */
+    public RouterLogGrammar detect(List<String> sample) {
+        List<RouterLogGrammar> candidates = new ArrayList<>(grammars);
+        int[] parsed = new int[candidates.size()];
+        int considered = 0;
+        for (String line : sample) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            if (++considered > sampleLines) {
+                break;
+            }
+            for (int i = 0; i < candidates.size(); i++) {
+                if (parses(candidates.get(i), line)) {
+                    parsed[i]++;
+                }
+            }
+        }
+        RouterLogGrammar detected = null;
+        int best = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            if (parsed[i] > best) {
+                best = parsed[i];
+                detected = candidates.get(i);
+            }
+        }
+        logger.debug("Detected router log dialect {} from {} sample lines ({} parsed)",
+                detected != null ? detected.getName() : "none", Math.min(considered, sampleLines), best);
+        return detected;
+    }
+
+    private static boolean parses(RouterLogGrammar grammar, String line) {
+        try {
+            return grammar.parse(line) != null;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
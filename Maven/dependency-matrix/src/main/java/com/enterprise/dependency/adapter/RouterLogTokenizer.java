@@ -0,0 +1,343 @@
+package com.enterprise.dependency.adapter;
+
+import com.enterprise.dependency.model.sources.RouterLogEntry;
+
+import java.time.LocalDateTime;
+import java.time.Year;
+
+/**
+ * Single-pass, regex-free tokenizer for the router log layout
+ * <pre>
+ *   timestamp [INFO] src -&gt; dst:port PROTO [METHOD] [endpoint] [status] [NNNms]
+ * </pre>
+ * It walks the line once with index arithmetic and allocates nothing until it
+ * builds the {@link RouterLogEntry}.
+ * <p>
+ * The tokenizer accepts a strict subset of what {@link RouterLogAdapter}'s
+ * {@code LOG_PATTERN} accepts and, for every line it accepts, produces exactly the
+ * entry the regex path would. Anything unusual (unknown timestamp shapes, calendar
+ * values the formatter would adjust, numeric overflow, stray whitespace) is rejected
+ * with {@code null} so the caller falls back to the regex path, which remains the
+ * reference behaviour.
+ */
+final class RouterLogTokenizer {
+    private static final String LEVEL = " [INFO] ";
+    private static final String ARROW = " -> ";
+    private static final int MAX_OPTIONAL_TOKENS = 4;
+    // Optional slots in pattern order; bit 3 is the first slot
+    private static final int SLOT_METHOD = 8;
+    private static final int SLOT_ENDPOINT = 4;
+    private static final int SLOT_STATUS = 2;
+    private static final int SLOT_RESPONSE_TIME = 1;
+
+    private RouterLogTokenizer() {
+    }
+
+    /**
+     * Tokenizes a router log line.
+     * @param line Log line
+     * @return RouterLogEntry, or null if the fast path does not handle this line
+     */
+    static RouterLogEntry tokenize(String line) {
+        int length = line.length();
+        if (length < 19) {
+            return null;
+        }
+
+        // yyyy-MM-dd[T ]HH:mm:ss
+        int year = digits(line, 0, 4);
+        int month = digits(line, 5, 2);
+        int day = digits(line, 8, 2);
+        int hour = digits(line, 11, 2);
+        int minute = digits(line, 14, 2);
+        int second = digits(line, 17, 2);
+        char separator = line.charAt(10);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 59
+                || line.charAt(4) != '-' || line.charAt(7) != '-'
+                || line.charAt(13) != ':' || line.charAt(16) != ':'
+                || (separator != 'T' && separator != ' ')
+                || day > monthLength(year, month)) {
+            return null;
+        }
+
+        // Only the shapes RouterLogAdapter.parseTimestamp can parse: ...Z, ....SSSZ, or no suffix with a space
+        int pos = 19;
+        int nanos = 0;
+        if (separator == 'T') {
+            if (pos < length && line.charAt(pos) == '.') {
+                int millis = digits(line, pos + 1, 3);
+                if (millis < 0) {
+                    return null;
+                }
+                nanos = millis * 1_000_000;
+                pos += 4;
+            }
+            if (pos >= length || line.charAt(pos) != 'Z') {
+                return null;
+            }
+            pos++;
+        }
+        if (!line.startsWith(LEVEL, pos)) {
+            return null;
+        }
+        pos += LEVEL.length();
+
+        // src -> dst:port PROTO
+        int sourceStart = pos;
+        pos = skipHostChars(line, pos);
+        int sourceEnd = pos;
+        if (sourceEnd == sourceStart || !line.startsWith(ARROW, pos)) {
+            return null;
+        }
+        pos += ARROW.length();
+        int targetStart = pos;
+        pos = skipHostChars(line, pos);
+        int targetEnd = pos;
+        if (targetEnd == targetStart || pos >= length || line.charAt(pos) != ':') {
+            return null;
+        }
+        pos++;
+        int portEnd = skipDigits(line, pos);
+        int port = parseInt(line, pos, portEnd);
+        if (port < 0 || portEnd >= length || line.charAt(portEnd) != ' ') {
+            return null;
+        }
+        pos = portEnd + 1;
+        int protocolStart = pos;
+        pos = skipWordChars(line, pos);
+        int protocolEnd = pos;
+        if (protocolEnd == protocolStart || (pos < length && line.charAt(pos) != ' ')) {
+            return null;
+        }
+
+        // Up to four single-space separated optional tokens follow
+        int tailStart = pos;
+        int tokenCount = 0;
+        while (pos < length) {
+            int tokenStart = pos + 1;
+            int tokenEnd = tokenEnd(line, tokenStart);
+            if (tokenEnd == tokenStart || ++tokenCount > MAX_OPTIONAL_TOKENS) {
+                return null;
+            }
+            pos = tokenEnd;
+        }
+
+        int slots = assignSlots(line, tailStart, tokenCount);
+        if (slots < 0) {
+            return null;
+        }
+
+        String method = null;
+        String endpoint = null;
+        Integer statusCode = null;
+        Integer responseTime = null;
+        int tokenStart = tailStart + 1;
+        for (int slot = SLOT_METHOD; slot > 0; slot >>= 1) {
+            if ((slots & slot) == 0) {
+                continue;
+            }
+            int tokenEnd = tokenEnd(line, tokenStart);
+            if (slot == SLOT_METHOD) {
+                method = line.substring(tokenStart, tokenEnd);
+            } else if (slot == SLOT_ENDPOINT) {
+                endpoint = line.substring(tokenStart, tokenEnd);
+            } else if (slot == SLOT_STATUS) {
+                int status = parseInt(line, tokenStart, tokenEnd);
+                if (status < 0) {
+                    return null;
+                }
+                statusCode = status;
+            } else {
+                int millis = parseInt(line, tokenStart, tokenEnd - 2);
+                if (millis < 0) {
+                    return null;
+                }
+                responseTime = millis;
+            }
+            tokenStart = tokenEnd + 1;
+        }
+
+        return RouterLogEntry.builder()
+                .timestamp(LocalDateTime.of(year, month, day, hour, minute, second, nanos))
+                .sourceIp(line.substring(sourceStart, sourceEnd))
+                .targetIp(line.substring(targetStart, targetEnd))
+                .targetPort(port)
+                .protocol(line.substring(protocolStart, protocolEnd))
+                .method(method)
+                .endpoint(endpoint)
+                .statusCode(statusCode)
+                .responseTimeMs(responseTime)
+                .rawLine(line)
+                .build();
+    }
+
+    /**
+     * Extracts the edge of a line, {@code src -> dst:port PROTO}, without validating
+     * the timestamp or the optional tokens. For every line {@link #tokenize(String)} or
+     * the regex path accepts, the key equals the one built from the parsed entry; lines
+     * it cannot key that way, such as ports with leading zeros, yield {@code null}.
+     * @param line Log line
+     * @return Edge key, or null if the line has no recognisable edge
+     */
+    static String edgeKey(String line) {
+        int level = line.indexOf(LEVEL);
+        if (level < 0) {
+            return null;
+        }
+        int sourceStart = level + LEVEL.length();
+        int pos = skipHostChars(line, sourceStart);
+        if (pos == sourceStart || !line.startsWith(ARROW, pos)) {
+            return null;
+        }
+        int targetStart = pos + ARROW.length();
+        pos = skipHostChars(line, targetStart);
+        if (pos == targetStart || pos >= line.length() || line.charAt(pos) != ':') {
+            return null;
+        }
+        int portStart = pos + 1;
+        int portEnd = skipDigits(line, portStart);
+        if (parseInt(line, portStart, portEnd) < 0 || (portEnd - portStart > 1 && line.charAt(portStart) == '0')
+                || portEnd >= line.length() || line.charAt(portEnd) != ' ') {
+            return null;
+        }
+        int protocolEnd = skipWordChars(line, portEnd + 1);
+        if (protocolEnd == portEnd + 1 || (protocolEnd < line.length() && line.charAt(protocolEnd) != ' ')) {
+            return null;
+        }
+        return line.substring(sourceStart, protocolEnd);
+    }
+
+    /**
+     * Chooses which optional slots the tokens fill. The regex tries each optional group
+     * before skipping it, left to right, so its first successful match is the first
+     * slot mask in descending order that has one slot per token and whose slots accept
+     * their tokens.
+     * @return Slot mask, or -1 if no assignment matches
+     */
+    private static int assignSlots(String line, int tailStart, int tokenCount) {
+        for (int mask = 15; mask >= 0; mask--) {
+            if (Integer.bitCount(mask) != tokenCount) {
+                continue;
+            }
+            boolean matches = true;
+            int tokenStart = tailStart + 1;
+            for (int slot = SLOT_METHOD; slot > 0 && matches; slot >>= 1) {
+                if ((mask & slot) == 0) {
+                    continue;
+                }
+                int tokenEnd = tokenEnd(line, tokenStart);
+                matches = slotAccepts(slot, line, tokenStart, tokenEnd);
+                tokenStart = tokenEnd + 1;
+            }
+            if (matches) {
+                return mask;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean slotAccepts(int slot, String line, int start, int end) {
+        switch (slot) {
+            case SLOT_METHOD:
+                return skipWordChars(line, start) >= end;
+            case SLOT_ENDPOINT:
+                return true;
+            case SLOT_STATUS:
+                return skipDigits(line, start) >= end;
+            default:
+                return end - start > 2 && line.charAt(end - 2) == 'm' && line.charAt(end - 1) == 's'
+                        && skipDigits(line, start) >= end - 2;
+        }
+    }
+
+    private static int tokenEnd(String line, int start) {
+        int end = line.indexOf(' ', start);
+        return end < 0 ? line.length() : end;
+    }
+
+    /**
+     * Reads exactly {@code count} ASCII digits.
+     * @return The value, or -1 if any character is not a digit or the line is too short
+     */
+    private static int digits(String line, int start, int count) {
+        if (start + count > line.length()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Parses a run of digits as Integer.parseInt would.
+     * @return The value, or -1 if the range is empty or overflows an int
+     */
+    private static int parseInt(String line, int start, int end) {
+        if (end <= start) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (line.charAt(i) - '0');
+            if (value > Integer.MAX_VALUE) {
+                return -1;
+            }
+        }
+        return (int) value;
+    }
+
+    private static int skipDigits(String line, int pos) {
+        while (pos < line.length() && isDigit(line.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int skipWordChars(String line, int pos) {
+        while (pos < line.length() && isWordChar(line.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int skipHostChars(String line, int pos) {
+        while (pos < line.length()) {
+            char c = line.charAt(pos);
+            if (!isWordChar(c) && c != '.' && c != '-') {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // Same as the regex \w without UNICODE_CHARACTER_CLASS
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c) || c == '_';
+    }
+
+    private static int monthLength(int year, int month) {
+        switch (month) {
+            case 2:
+                return Year.isLeap(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+}
@@ -2,16 +2,26 @@ package com.enterprise.dependency.adapter;
 
 import com.enterprise.dependency.model.core.Claim;
 import com.enterprise.dependency.model.core.ConfidenceScore;
+import com.fasterxml.jackson.core.JsonFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * TelemetryAdapter processes telemetry data from monitoring and observability systems
@@ -19,8 +29,8 @@ import java.util.regex.Pattern;
  * 
  * <p>Supported telemetry formats:
  * <ul>
- *   <li>Prometheus metrics</li>
- *   <li>OpenTelemetry traces</li>
+ *   <li>Prometheus metrics, as single samples or whole scrapes ({@link PrometheusTextParser})</li>
+ *   <li>OpenTelemetry traces, as single spans or OTLP/JSON exports ({@link OtlpTraceReader})</li>
  *   <li>Application Performance Monitoring (APM) data</li>
  *   <li>Custom telemetry formats</li>
  * </ul>
@@ -31,7 +41,11 @@ import java.util.regex.Pattern;
  *   List&lt;String&gt; telemetryData = readTelemetryMetrics();
  *   List&lt;Claim&gt; claims = adapter.parseTelemetryData(telemetryData);
  * </pre>
- * 
+ *
+ * <p>High-frequency telemetry can instead be fed to {@link #aggregateTelemetryData(Stream)}
+ * from any number of threads, and {@link #publishTelemetryWindow()} then yields one claim
+ * per edge per window ({@link TelemetryEdgeAggregator}).
+ *
  * @author Enterprise Architecture Team
  * @version 1.0
  * @since 2025-07-05
@@ -40,11 +54,6 @@ import java.util.regex.Pattern;
 public class TelemetryAdapter {
     private static final Logger logger = LoggerFactory.getLogger(TelemetryAdapter.class);
     
-    // Prometheus HTTP request metrics pattern
-    private static final Pattern PROMETHEUS_HTTP_PATTERN = Pattern.compile(
-        "http_requests_total\\{.*?job=\"([^\"]+)\".*?instance=\"([^\"]+)\".*?target=\"([^\"]+)\".*?\\}\\s+(\\d+(?:\\.\\d+)?)"
-    );
-    
     // OpenTelemetry span pattern
     private static final Pattern OTEL_SPAN_PATTERN = Pattern.compile(
         "span\\{.*?service\\.name=\"([^\"]+)\".*?operation\\.name=\"([^\"]+)\".*?peer\\.service=\"([^\"]+)\".*?duration=(\\d+)ms.*?\\}"
@@ -59,6 +68,27 @@ public class TelemetryAdapter {
     private static final Pattern CUSTOM_TELEMETRY_PATTERN = Pattern.compile(
         "TELEMETRY\\s+(?<timestamp>[\\d\\-T:\\sZ]+)\\s+(?<source>[\\w\\-]+)\\s*->\\s*(?<target>[\\w\\-]+)\\s+(?<metric>\\w+)=(?<value>[\\d.]+)(?<unit>\\w*)"
     );
+    
+    // Stateless parser for single Prometheus samples; scrapes get a parser per target
+    private final PrometheusTextParser prometheusLineParser = new PrometheusTextParser();
+    private final Map<String, PrometheusTextParser> prometheusTargets = new ConcurrentHashMap<>();
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final TelemetryEdgeAggregator edgeAggregator;
+
+    /**
+     * Creates an adapter aggregating telemetry over one-minute windows.
+     */
+    public TelemetryAdapter() {
+        this(new TelemetryEdgeAggregator());
+    }
+
+    /**
+     * Creates an adapter recording aggregated telemetry into the given windows.
+     * @param edgeAggregator Rolling per-edge windows for {@link #aggregateTelemetryData(Stream)}
+     */
+    public TelemetryAdapter(TelemetryEdgeAggregator edgeAggregator) {
+        this.edgeAggregator = Objects.requireNonNull(edgeAggregator, "Edge aggregator cannot be null");
+    }
 
     /**
      * Parses telemetry data from various monitoring systems
@@ -76,25 +106,45 @@ public class TelemetryAdapter {
         
         logger.info("Parsing {} telemetry entries", telemetryData.size());
         
-        for (int i = 0; i < telemetryData.size(); i++) {
-            String entry = telemetryData.get(i);
-            try {
-                Claim claim = parseTelemetryEntry(entry);
-                if (claim != null) {
-                    claims.add(claim);
-                    logger.debug("Parsed telemetry claim from line {}: {}", i + 1, claim);
-                } else {
-                    logger.debug("Could not parse telemetry entry: {}", entry);
-                }
-            } catch (Exception e) {
-                logger.warn("Failed to parse telemetry entry {}: {}", i + 1, entry, e);
-            }
-        }
+        claims = streamTelemetryData(telemetryData.stream()).collect(Collectors.toList());
         
         logger.info("Successfully parsed {} claims from telemetry data", claims.size());
         return claims;
     }
     
+    /**
+     * Lazily parses telemetry entries, producing claims as entries are consumed so
+     * that large exports never need to be held in memory.
+     * 
+     * @param telemetryData Telemetry entries, e.g. from {@link java.nio.file.Files#lines};
+     *                      closing the returned stream closes this one
+     * @return Stream of claims in input order
+     */
+    public Stream<Claim> streamTelemetryData(Stream<String> telemetryData) {
+        AtomicLong lineNumber = new AtomicLong();
+        return telemetryData
+            .map(entry -> parseTelemetryEntry(entry, lineNumber.incrementAndGet()))
+            .filter(Objects::nonNull);
+    }
+    
+    /**
+     * Parse a numbered telemetry entry, logging and swallowing per-entry failures.
+     */
+    private Claim parseTelemetryEntry(String entry, long lineNumber) {
+        try {
+            Claim claim = parseTelemetryEntry(entry);
+            if (claim != null) {
+                logger.debug("Parsed telemetry claim from line {}: {}", lineNumber, claim);
+            } else {
+                logger.debug("Could not parse telemetry entry: {}", entry);
+            }
+            return claim;
+        } catch (Exception e) {
+            logger.warn("Failed to parse telemetry entry {}: {}", lineNumber, entry, e);
+            return null;
+        }
+    }
+    
     /**
      * Parse a single telemetry entry
      */
@@ -103,84 +153,231 @@ public class TelemetryAdapter {
             return null;
         }
         
-        // Try different telemetry formats
-        Claim claim = null;
-        
+        TelemetrySample sample = parseSample(entry);
+        if (sample == null) {
+            logger.debug("No telemetry pattern matched for entry: {}", entry);
+            return null;
+        }
+        return createTelemetryClaim(sample);
+    }
+    
+    /**
+     * Try each telemetry format in turn
+     */
+    private TelemetrySample parseSample(String entry) {
         // Try Prometheus format
-        claim = parsePrometheusMetric(entry);
-        if (claim != null) return claim;
+        TelemetrySample sample = parsePrometheusMetric(entry);
+        if (sample != null) return sample;
         
         // Try OpenTelemetry format
-        claim = parseOpenTelemetrySpan(entry);
-        if (claim != null) return claim;
+        sample = parseOpenTelemetrySpan(entry);
+        if (sample != null) return sample;
         
         // Try APM format
-        claim = parseApmDependency(entry);
-        if (claim != null) return claim;
+        sample = parseApmDependency(entry);
+        if (sample != null) return sample;
         
         // Try custom telemetry format
-        claim = parseCustomTelemetry(entry);
-        if (claim != null) return claim;
-        
-        logger.debug("No telemetry pattern matched for entry: {}", entry);
-        return null;
+        return parseCustomTelemetry(entry);
     }
     
     /**
-     * Parse Prometheus HTTP metrics
+     * Parse a Prometheus sample with source and target labels in any order
      */
-    private Claim parsePrometheusMetric(String entry) {
-        Matcher matcher = PROMETHEUS_HTTP_PATTERN.matcher(entry);
-        if (matcher.find()) {
-            String sourceService = matcher.group(1);
-            String targetService = matcher.group(3);
-            
-            return createTelemetryClaim(
-                sourceService, 
-                targetService, 
-                "prometheus-http",
-                entry,
-                0.8 // Good confidence for Prometheus metrics
-            );
+    private TelemetrySample parsePrometheusMetric(String entry) {
+        PrometheusTextParser.SeriesAggregate series = prometheusLineParser.parseLine(entry);
+        if (series == null) {
+            return null;
         }
-        return null;
+        String status = series.getLabels().getOrDefault("code", series.getLabels().get("status"));
+        return new TelemetrySample(
+            series.getSource(),
+            series.getTarget(),
+            prometheusType(series.getMetric()),
+            entry,
+            Double.NaN,
+            status != null && status.startsWith("5")
+        );
+    }
+    
+    /**
+     * Parses a full Prometheus scrape of one target into one claim per dependency and
+     * metric, whose observation count is the increase of its counters since the
+     * previous scrape of the same target. Dependencies without traffic since then
+     * yield no claim.
+     * <p>
+     * Only counter increases are counted as observations. A gauge says nothing about how
+     * many calls were made, and a counter seen for the first time holds its whole
+     * lifetime rather than one interval, as with PromQL {@code increase()}. Both only
+     * mark the dependency as present when their value is positive, which counts as one
+     * observation if no counter of the dependency increased.
+     * 
+     * @param target Identifier of the scraped target, e.g. its metrics URL; counter
+     *               state is kept per target
+     * @param scrape Exposition text; not closed
+     * @param scrapeTime Time of the scrape
+     * @return Claims in order of first appearance
+     * @throws IOException if the scrape cannot be read
+     */
+    public List<Claim> parsePrometheusScrape(String target, Reader scrape, Instant scrapeTime) throws IOException {
+        Objects.requireNonNull(target, "Target cannot be null");
+        List<PrometheusTextParser.SeriesAggregate> series = prometheusTargets
+            .computeIfAbsent(target, t -> new PrometheusTextParser())
+            .parseScrape(scrape, scrapeTime);
+        
+        // Per edge: counter increase, series count, whether any series marks it present
+        Map<List<String>, double[]> edges = new LinkedHashMap<>();
+        for (PrometheusTextParser.SeriesAggregate aggregate : series) {
+            List<String> edge = List.of(aggregate.getMetric(), aggregate.getSource(), aggregate.getTarget());
+            double[] totals = edges.computeIfAbsent(edge, e -> new double[3]);
+            if (aggregate.isCounter() && !aggregate.isFirstSighting()) {
+                totals[0] += aggregate.getDelta();
+            } else if (aggregate.getValue() > 0) {
+                totals[2] = 1;
+            }
+            totals[1]++;
+        }
+        
+        List<Claim> claims = new ArrayList<>();
+        edges.forEach((edge, totals) -> {
+            long observations = Math.max(Math.round(totals[0]), (long) totals[2]);
+            if (observations < 1) {
+                return;
+            }
+            String metric = edge.get(0);
+            String processedData = String.format("%s -> %s (%s)", edge.get(1), edge.get(2), prometheusType(metric));
+            claims.add(Claim.builder()
+                .id(ClaimIds.contentId("telemetry_", "TELEMETRY_AGGREGATE", target, metric, edge.get(1), edge.get(2),
+                    scrapeTime.toString()))
+                .sourceType("TELEMETRY")
+                .rawData(String.format("%s %s [SCRAPE] %s -> %s %s series=%d delta=%s",
+                    scrapeTime, target, edge.get(1), edge.get(2), metric, (long) totals[1], totals[0]))
+                .processedData(processedData)
+                .timestamp(scrapeTime)
+                .confidenceScore(ConfidenceScore.of(0.8))
+                .observationCount(observations)
+                .build());
+        });
+        logger.info("Extracted {} dependency claims from {} Prometheus series of {}", claims.size(), series.size(), target);
+        return claims;
+    }
+    
+    private static String prometheusType(String metric) {
+        return metric.contains("http") ? "prometheus-http" : "prometheus";
     }
     
     /**
      * Parse OpenTelemetry span data
      */
-    private Claim parseOpenTelemetrySpan(String entry) {
+    private TelemetrySample parseOpenTelemetrySpan(String entry) {
         Matcher matcher = OTEL_SPAN_PATTERN.matcher(entry);
         if (matcher.find()) {
             String serviceName = matcher.group(1);
             String peerService = matcher.group(3);
             
-            return createTelemetryClaim(
+            return new TelemetrySample(
                 serviceName,
                 peerService,
                 "opentelemetry-span", 
                 entry,
-                0.9 // High confidence for OpenTelemetry traces
+                Double.parseDouble(matcher.group(4)),
+                false
             );
         }
         return null;
     }
     
+    /**
+     * Reads an OTLP/JSON trace export file and returns one claim per caller/callee
+     * edge; gzip files are decompressed on the fly. Spans are streamed, so files of
+     * any size are read in bounded memory.
+     * 
+     * @param exportFile File of {@code ExportTraceServiceRequest} documents, plain or gzip
+     * @return Claims in order of each edge's first call, or an empty list if the file
+     *         cannot be read
+     * @see OtlpTraceReader
+     */
+    public List<Claim> parseOtlpTraces(Path exportFile) {
+        try {
+            return parseOtlpTraces(LogFiles.newReader(exportFile));
+        } catch (IOException e) {
+            logger.error("Error reading OTLP trace export: {}", exportFile, e);
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Reads OTLP/JSON traces and returns one claim per caller/callee edge, whose
+     * observation count is the number of calls.
+     * 
+     * @param traces Source of {@code ExportTraceServiceRequest} documents; closed when read
+     * @return Claims in order of each edge's first call
+     * @throws IOException if the input cannot be read or is not well-formed JSON
+     */
+    public List<Claim> parseOtlpTraces(Reader traces) throws IOException {
+        return readOtlpTraces(traces).getEdges().stream()
+            .map(this::toClaim)
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * Reads OTLP/JSON traces and joins their spans into service edges.
+     * 
+     * @param traces Source of {@code ExportTraceServiceRequest} documents; closed when read
+     * @return Joiner holding the edges and span counts
+     * @throws IOException if the input cannot be read or is not well-formed JSON
+     * @see TraceEdgeJoiner
+     */
+    public TraceEdgeJoiner readOtlpTraces(Reader traces) throws IOException {
+        TraceEdgeJoiner joiner = new TraceEdgeJoiner();
+        try (OtlpTraceReader spans = new OtlpTraceReader(jsonFactory.createParser(traces))) {
+            spans.read(joiner::accept);
+        }
+        List<TraceEdgeJoiner.ServiceEdge> edges = joiner.finish();
+        logger.info("Joined {} spans into {} service edges ({} spans without a parent in view)",
+            joiner.getSpans(), edges.size(), joiner.getUnmatchedSpans());
+        return joiner;
+    }
+    
+    /**
+     * Converts a trace edge into a single claim standing for all of its calls.
+     * 
+     * @param edge Edge joined from spans
+     * @return Claim whose observation count is the number of calls
+     */
+    public Claim toClaim(TraceEdgeJoiner.ServiceEdge edge) {
+        String processedData = String.format("%s -> %s (opentelemetry-span)", edge.getCaller(), edge.getCallee());
+        String rawData = String.format("%s .. %s [TRACES] %s -> %s calls=%d errors=%d latencyMs(min/mean/max)=%.1f/%.1f/%.1f",
+            edge.getFirstSeen(), edge.getLastSeen(), edge.getCaller(), edge.getCallee(), edge.getCalls(), edge.getErrors(),
+            edge.getMinLatencyMs(), edge.getMeanLatencyMs(), edge.getMaxLatencyMs());
+        return Claim.builder()
+            .id(ClaimIds.contentId("telemetry_", "TELEMETRY_TRACES", edge.getCaller(), edge.getCallee(),
+                edge.getFirstSeen().toString(), edge.getLastSeen().toString(), String.valueOf(edge.getCalls())))
+            .sourceType("TELEMETRY")
+            .rawData(rawData)
+            .processedData(processedData)
+            .timestamp(edge.getLastSeen())
+            .confidenceScore(ConfidenceScore.of(0.9))
+            .observationCount(edge.getCalls())
+            .build();
+    }
+    
     /**
      * Parse APM dependency data
      */
-    private Claim parseApmDependency(String entry) {
+    private TelemetrySample parseApmDependency(String entry) {
         Matcher matcher = APM_DEPENDENCY_PATTERN.matcher(entry);
         if (matcher.find()) {
             String sourceService = matcher.group(1);
             String targetService = matcher.group(2);
             
-            return createTelemetryClaim(
+            return new TelemetrySample(
                 sourceService,
                 targetService,
                 "apm-dependency",
                 entry,
-                0.85 // High confidence for APM data
+                Double.parseDouble(matcher.group(4)),
+                false
             );
         }
         return null;
@@ -189,18 +386,21 @@ public class TelemetryAdapter {
     /**
      * Parse custom telemetry format
      */
-    private Claim parseCustomTelemetry(String entry) {
+    private TelemetrySample parseCustomTelemetry(String entry) {
         Matcher matcher = CUSTOM_TELEMETRY_PATTERN.matcher(entry);
         if (matcher.find()) {
             String source = matcher.group("source");
             String target = matcher.group("target");
+            String unit = matcher.group("unit");
+            double value = Double.parseDouble(matcher.group("value"));
             
-            return createTelemetryClaim(
+            return new TelemetrySample(
                 source,
                 target,
                 "custom-telemetry",
                 entry,
-                0.7 // Moderate confidence for custom telemetry
+                unit.equals("ms") ? value : unit.equals("s") ? value * 1000 : Double.NaN,
+                matcher.group("metric").startsWith("error") && value > 0
             );
         }
         return null;
@@ -219,62 +419,177 @@ public class TelemetryAdapter {
         }
         
         logger.info("Parsing {} telemetry log entries", telemetryLogs.size());
-        List<Claim> claims = new ArrayList<>();
-        
-        for (String line : telemetryLogs) {
-            try {
-                // Try different formats to parse the line
-                Claim claim = parseLineAuto(line.trim());
-                if (claim != null) {
-                    claims.add(claim);
-                    logger.debug("Parsed telemetry claim: {}", claim.getProcessedData());
-                }
-            } catch (Exception e) {
-                logger.debug("Failed to parse telemetry log line: {}", line, e);
-            }
-        }
+        List<Claim> claims = streamLogData(telemetryLogs.stream()).collect(Collectors.toList());
         
         logger.info("Extracted {} telemetry dependency claims", claims.size());
         return claims;
     }
     
+    /**
+     * Lazily parses telemetry log lines, auto-detecting the format of each line.
+     * 
+     * @param telemetryLogs Telemetry log lines; closing the returned stream closes this one
+     * @return Stream of claims in input order
+     */
+    public Stream<Claim> streamLogData(Stream<String> telemetryLogs) {
+        return telemetryLogs
+            .map(this::parseLineOrNull)
+            .filter(Objects::nonNull);
+    }
+    
+    private Claim parseLineOrNull(String line) {
+        try {
+            // Try different formats to parse the line
+            Claim claim = parseLineAuto(line.trim());
+            if (claim != null) {
+                logger.debug("Parsed telemetry claim: {}", claim.getProcessedData());
+            }
+            return claim;
+        } catch (Exception e) {
+            logger.debug("Failed to parse telemetry log line: {}", line, e);
+            return null;
+        }
+    }
+    
     /**
      * Auto-detect format and parse a telemetry line.
      */
     private Claim parseLineAuto(String line) {
         if (line.isEmpty()) return null;
         
-        // Try Prometheus format
-        Claim claim = parsePrometheusMetric(line);
-        if (claim != null) return claim;
-        
-        // Try OpenTelemetry format
-        claim = parseOpenTelemetrySpan(line);
-        if (claim != null) return claim;
-        
-        // Try APM format
-        claim = parseApmDependency(line);
-        if (claim != null) return claim;
-        
-        // Try custom telemetry format
-        claim = parseCustomTelemetry(line);
-        if (claim != null) return claim;
-        
-        logger.debug("Could not parse telemetry line with any known format: {}", line);
-        return null;
+        TelemetrySample sample = parseSample(line);
+        if (sample == null) {
+            logger.debug("Could not parse telemetry line with any known format: {}", line);
+            return null;
+        }
+        return createTelemetryClaim(sample);
+    }
+    
+    /**
+     * Records telemetry entries into the rolling per-edge windows of
+     * {@link #getEdgeAggregator()} instead of turning each into a claim, so that
+     * high-frequency telemetry does not flood the claim pipeline. Safe to call from
+     * many ingestion threads at once; claims come from {@link #publishTelemetryWindow()}.
+     * 
+     * @param telemetryData Telemetry entries in any supported format
+     * @return Number of entries recorded
+     */
+    public long aggregateTelemetryData(Stream<String> telemetryData) {
+        return telemetryData.filter(this::recordEntry).count();
+    }
+    
+    private boolean recordEntry(String entry) {
+        try {
+            TelemetrySample sample = entry != null && !entry.trim().isEmpty() ? parseSample(entry.trim()) : null;
+            if (sample == null) {
+                return false;
+            }
+            edgeAggregator.record(sample.source, sample.target, sample.type, sample.latencyMs, sample.error);
+            return true;
+        } catch (Exception e) {
+            logger.debug("Failed to record telemetry entry: {}", entry, e);
+            return false;
+        }
+    }
+    
+    /**
+     * Publishes one claim per edge with traffic in the completed buckets not published
+     * before, so every recorded entry is counted in exactly one claim. Call at least
+     * once per window length; the bucket in progress is left for a later call.
+     * 
+     * @return Claims whose observation count is the number of entries recorded for the edge
+     * @see TelemetryEdgeAggregator#publish()
+     */
+    public List<Claim> publishTelemetryWindow() {
+        List<Claim> claims = edgeAggregator.publish().stream()
+            .map(this::toClaim)
+            .collect(Collectors.toList());
+        logger.info("Published {} telemetry edge claims ({} late samples dropped so far)",
+            claims.size(), edgeAggregator.getLateSamples());
+        return claims;
+    }
+    
+    /**
+     * Converts a window summary into a single claim standing for all calls on its edge.
+     * The processed data has the same format as per-entry claims.
+     * 
+     * @param summary Summary of one edge over one window
+     * @return Claim whose observation count is the number of calls
+     */
+    public Claim toClaim(TelemetryEdgeAggregator.EdgeSummary summary) {
+        String processedData = String.format("%s -> %s (%s)", summary.getSource(), summary.getTarget(), summary.getType());
+        String rawData = String.format("%s .. %s [WINDOW] %s calls=%d rate=%.3f/s errorRate=%.4f latencyMs(p50/p95/p99)=%.1f/%.1f/%.1f",
+            summary.getWindowStart(), summary.getWindowEnd(), processedData, summary.getCalls(), summary.getRatePerSecond(),
+            summary.getErrorRate(), summary.getP50LatencyMs(), summary.getP95LatencyMs(), summary.getP99LatencyMs());
+        return Claim.builder()
+            .id(ClaimIds.contentId("telemetry_", "TELEMETRY_WINDOW", processedData, summary.getWindowEnd().toString()))
+            .sourceType("TELEMETRY")
+            .rawData(rawData)
+            .processedData(processedData)
+            .timestamp(summary.getWindowEnd())
+            .confidenceScore(ConfidenceScore.of(confidence(summary.getType())))
+            .observationCount(summary.getCalls())
+            .build();
+    }
+    
+    /**
+     * @return Rolling per-edge windows fed by {@link #aggregateTelemetryData(Stream)}
+     */
+    public TelemetryEdgeAggregator getEdgeAggregator() {
+        return edgeAggregator;
+    }
+    
+    private Claim createTelemetryClaim(TelemetrySample sample) {
+        return createTelemetryClaim(sample.source, sample.target, sample.type, sample.rawData, confidence(sample.type));
+    }
+    
+    private static double confidence(String type) {
+        switch (type) {
+            case "opentelemetry-span":
+                return 0.9; // High confidence for OpenTelemetry traces
+            case "apm-dependency":
+                return 0.85; // High confidence for APM data
+            case "custom-telemetry":
+                return 0.7; // Moderate confidence for custom telemetry
+            default:
+                return 0.8; // Good confidence for Prometheus metrics
+        }
     }
     
     /**
      * Create a telemetry claim
      */
     private Claim createTelemetryClaim(String sourceApp, String targetApp, String type, String rawData, double confidence) {
+        String processedData = String.format("%s -> %s (%s)", sourceApp, targetApp, type);
         return Claim.builder()
-            .id("telemetry_" + UUID.randomUUID().toString())
+            .id(ClaimIds.contentId("telemetry_", "TELEMETRY", rawData, processedData))
             .sourceType("TELEMETRY")
             .rawData(rawData)
-            .processedData(String.format("%s -> %s (%s)", sourceApp, targetApp, type))
+            .processedData(processedData)
             .timestamp(Instant.now())
             .confidenceScore(ConfidenceScore.of(confidence))
             .build();
     }
+    
+    /**
+     * One telemetry entry: the edge it names, its format, and the latency and
+     * outcome of the call where the format carries them.
+     */
+    private static final class TelemetrySample {
+        private final String source;
+        private final String target;
+        private final String type;
+        private final String rawData;
+        private final double latencyMs;
+        private final boolean error;
+        
+        TelemetrySample(String source, String target, String type, String rawData, double latencyMs, boolean error) {
+            this.source = source;
+            this.target = target;
+            this.type = type;
+            this.rawData = rawData;
+            this.latencyMs = latencyMs;
+            this.error = error;
+        }
+    }
 }
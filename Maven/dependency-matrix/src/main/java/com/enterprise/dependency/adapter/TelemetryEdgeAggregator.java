@@ -0,0 +1,448 @@
+package com.enterprise.dependency.adapter;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rolling-window statistics per telemetry edge (source, target, type), updated
+ * without locks by any number of ingestion threads.
+ * <p>
+ * Each edge keeps a ring of time buckets covering the window, plus the bucket in
+ * progress. A bucket is replaced by compare-and-set when its slot comes round again.
+ * Counters are striped {@link LongAdder}s and {@link DoubleAdder}s, and latencies go
+ * into a log-scale histogram with four bins per power of two, from 1/16 ms to about
+ * 17 minutes, so quantiles are within 12.5%.
+ * <p>
+ * Only completed buckets are ever reported; the bucket in progress is still being
+ * written. {@link #summarize()} merges the completed buckets of the window into one
+ * {@link EdgeSummary} per edge with traffic, giving rate, error rate and latency
+ * quantiles; successive calls overlap. {@link #publish()} instead reports the
+ * completed buckets not published before, so each bucket is published exactly once;
+ * call it at least once per window, or older buckets roll out of the ring unpublished.
+ * Edges without traffic for a whole window are dropped.
+ * <p>
+ * Samples older than the window, or whose bucket was already published, are counted
+ * in {@link #getLateSamples()} and dropped. A recorder can also find its bucket
+ * unpublished, then lose the race to a publish that takes the bucket before the
+ * recorder creates or updates it. That sample would be neither published nor counted
+ * as late. Publishing therefore remembers how many calls it took from each bucket,
+ * and the next publish counts any calls added to older buckets since as late. A
+ * sample recorded while its idle edge is being dropped, or by a thread stalled for a
+ * whole window while its bucket is replaced, may still be lost. Totals are therefore
+ * exact except across such races.
+ * <p>
+ * Example:
+ * <pre>
+ *   TelemetryEdgeAggregator aggregator = new TelemetryEdgeAggregator();
+ *   // on ingestion threads
+ *   aggregator.record("orders", "payments", "opentelemetry-span", 12.5, false);
+ *   // periodically, at least once per window
+ *   for (TelemetryEdgeAggregator.EdgeSummary summary : aggregator.publish()) {
+ *       claims.add(adapter.toClaim(summary));
+ *   }
+ * </pre>
+ */
+public class TelemetryEdgeAggregator {
+    public static final Duration DEFAULT_BUCKET_WIDTH = Duration.ofSeconds(10);
+    public static final int DEFAULT_BUCKETS = 6;
+
+    private static final int SUB_BINS = 4;
+    private static final int MIN_EXPONENT = -4;
+    private static final int MAX_EXPONENT = 20;
+    // Underflow bin, four per power of two, overflow bin
+    private static final int BINS = 2 + (MAX_EXPONENT - MIN_EXPONENT) * SUB_BINS;
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final Clock clock;
+    private final Map<EdgeKey, EdgeWindow> edges = new ConcurrentHashMap<>();
+    private final LongAdder lateSamples = new LongAdder();
+    private final AtomicLong lastPublishedEpoch = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Creates an aggregator over a one-minute window of six ten-second buckets.
+     */
+    public TelemetryEdgeAggregator() {
+        this(DEFAULT_BUCKET_WIDTH, DEFAULT_BUCKETS, Clock.systemUTC());
+    }
+
+    /**
+     * @param bucketWidth Width of each bucket; at least one millisecond
+     * @param buckets Buckets per window; the window is {@code bucketWidth * buckets}
+     * @param clock Clock for samples and summaries without an explicit time
+     */
+    public TelemetryEdgeAggregator(Duration bucketWidth, int buckets, Clock clock) {
+        Objects.requireNonNull(bucketWidth, "Bucket width cannot be null");
+        Objects.requireNonNull(clock, "Clock cannot be null");
+        if (bucketWidth.toMillis() < 1 || buckets < 1) {
+            throw new IllegalArgumentException("Bucket width must be at least 1ms and buckets at least 1");
+        }
+        this.bucketMillis = bucketWidth.toMillis();
+        this.buckets = buckets;
+        this.clock = clock;
+    }
+
+    /**
+     * Records one call on an edge at the current time.
+     * @param latencyMs Latency of the call, or {@link Double#NaN} if unknown
+     */
+    public void record(String source, String target, String type, double latencyMs, boolean error) {
+        record(source, target, type, latencyMs, error, clock.millis());
+    }
+
+    /**
+     * Records one call on an edge.
+     * @param latencyMs Latency of the call, or {@link Double#NaN} if unknown
+     * @param timestampMillis Time of the call; calls older than the window are dropped
+     */
+    public void record(String source, String target, String type, double latencyMs, boolean error,
+                       long timestampMillis) {
+        EdgeKey key = new EdgeKey(source, target, type);
+        long current = Math.floorDiv(clock.millis(), bucketMillis);
+        long epoch = Math.min(Math.floorDiv(timestampMillis, bucketMillis), current);
+        if (epoch < current - buckets || epoch <= lastPublishedEpoch.get()) {
+            lateSamples.increment();
+            return;
+        }
+        EdgeWindow window = edges.get(key);
+        if (window == null) {
+            EdgeWindow created = new EdgeWindow(buckets + 1);
+            window = edges.putIfAbsent(key, created);
+            if (window == null) {
+                window = created;
+            }
+        }
+        Bucket bucket = window.bucket(epoch);
+        if (bucket == null) {
+            lateSamples.increment();
+            return;
+        }
+        bucket.calls.increment();
+        if (error) {
+            bucket.errors.increment();
+        }
+        if (latencyMs >= 0) {
+            bucket.latencyCount.increment();
+            bucket.latencyTotalMs.add(latencyMs);
+            bucket.histogram.incrementAndGet(bin(latencyMs));
+        }
+    }
+
+    /**
+     * Summarises the window of completed buckets ending now.
+     * @return One summary per edge with calls in the window
+     */
+    public List<EdgeSummary> summarize() {
+        return summarize(clock.millis());
+    }
+
+    /**
+     * Summarises the window of completed buckets ending at the start of the bucket
+     * holding {@code nowMillis}, and drops edges without calls in or after it.
+     * @param nowMillis Time within the bucket in progress
+     * @return One summary per edge with calls in the window
+     */
+    public List<EdgeSummary> summarize(long nowMillis) {
+        long current = Math.floorDiv(nowMillis, bucketMillis);
+        return summarize(current - buckets, current);
+    }
+
+    /**
+     * Publishes the completed buckets not published before.
+     * @return One summary per edge with calls in those buckets
+     * @see #publish(long)
+     */
+    public List<EdgeSummary> publish() {
+        return publish(clock.millis());
+    }
+
+    /**
+     * Publishes the completed buckets of the window, up to the start of the bucket
+     * holding {@code nowMillis}, that no earlier call published; later samples for
+     * them count as late, including those that raced with an earlier publish. Drops
+     * edges without calls in or after the window.
+     * @param nowMillis Time within the bucket in progress
+     * @return One summary per edge with calls in those buckets; empty if none completed
+     */
+    public synchronized List<EdgeSummary> publish(long nowMillis) {
+        long current = Math.floorDiv(nowMillis, bucketMillis);
+        long previous = lastPublishedEpoch.get();
+        if (current - 1 <= previous) {
+            return new ArrayList<>();
+        }
+        // Recorders that check after this see the buckets as published and count as late
+        lastPublishedEpoch.set(current - 1);
+        return summarize(Math.max(previous + 1, current - buckets), current, true);
+    }
+
+    private List<EdgeSummary> summarize(long first, long end) {
+        return summarize(first, end, false);
+    }
+
+    /**
+     * Merges the buckets with epochs from {@code first} up to, excluding, {@code end}.
+     * @param publishing Whether the merged buckets are being published; calls in older
+     *                   buckets that no publish took are then counted as late
+     */
+    private List<EdgeSummary> summarize(long first, long end, boolean publishing) {
+        long oldest = end - buckets;
+        Instant windowStart = Instant.ofEpochMilli(first * bucketMillis);
+        Instant windowEnd = Instant.ofEpochMilli(end * bucketMillis);
+        double windowSeconds = (end - first) * bucketMillis / 1000.0;
+        List<EdgeSummary> summaries = new ArrayList<>();
+        long[] histogram = new long[BINS];
+        for (Map.Entry<EdgeKey, EdgeWindow> entry : edges.entrySet()) {
+            EdgeWindow window = entry.getValue();
+            long calls = 0;
+            long errors = 0;
+            long latencyCount = 0;
+            double latencyTotalMs = 0;
+            boolean idle = true;
+            boolean empty = true;
+            Arrays.fill(histogram, 0);
+            for (int i = 0; i < window.ring.length(); i++) {
+                Bucket bucket = window.ring.get(i);
+                if (bucket == null) {
+                    continue;
+                }
+                empty = false;
+                if (publishing && bucket.epoch < first) {
+                    // Published before, or never and now out of the window; calls added
+                    // since came from recorders that checked before it was published
+                    long bucketCalls = bucket.calls.sum();
+                    lateSamples.add(bucketCalls - bucket.publishedCalls);
+                    bucket.publishedCalls = bucketCalls;
+                }
+                if (bucket.epoch < oldest) {
+                    continue;
+                }
+                idle = false;
+                if (bucket.epoch < first || bucket.epoch >= end) {
+                    continue;
+                }
+                long bucketCalls = bucket.calls.sum();
+                if (publishing) {
+                    bucket.publishedCalls = bucketCalls;
+                }
+                calls += bucketCalls;
+                errors += bucket.errors.sum();
+                latencyCount += bucket.latencyCount.sum();
+                latencyTotalMs += bucket.latencyTotalMs.sum();
+                for (int bin = 0; bin < BINS; bin++) {
+                    histogram[bin] += bucket.histogram.get(bin);
+                }
+            }
+            if (calls == 0) {
+                // A window without buckets is about to get its first sample
+                if (idle && !empty) {
+                    edges.remove(entry.getKey(), window);
+                }
+                continue;
+            }
+            EdgeKey key = entry.getKey();
+            summaries.add(new EdgeSummary(key.source, key.target, key.type, windowStart, windowEnd,
+                    calls, errors, calls / windowSeconds,
+                    latencyCount > 0 ? latencyTotalMs / latencyCount : Double.NaN,
+                    quantile(histogram, latencyCount, 0.50),
+                    quantile(histogram, latencyCount, 0.95),
+                    quantile(histogram, latencyCount, 0.99)));
+        }
+        return summaries;
+    }
+
+    /**
+     * @return Number of edges with a live window
+     */
+    public int getEdgeCount() {
+        return edges.size();
+    }
+
+    /**
+     * @return Number of samples dropped for being older than the window or for
+     *         arriving after their bucket was published
+     */
+    public long getLateSamples() {
+        return lateSamples.sum();
+    }
+
+    static int bin(double latencyMs) {
+        if (latencyMs < Math.scalb(1.0, MIN_EXPONENT)) {
+            return 0;
+        }
+        int exponent = Math.getExponent(latencyMs);
+        if (exponent >= MAX_EXPONENT) {
+            return BINS - 1;
+        }
+        // Top two mantissa bits pick the quarter of the octave
+        int quarter = (int) ((Double.doubleToRawLongBits(latencyMs) >>> 50) & (SUB_BINS - 1));
+        return 1 + (exponent - MIN_EXPONENT) * SUB_BINS + quarter;
+    }
+
+    /**
+     * @return Midpoint of the bin's range; the bounds for the underflow and overflow bins
+     */
+    static double binValue(int bin) {
+        if (bin == 0) {
+            return Math.scalb(1.0, MIN_EXPONENT);
+        }
+        if (bin == BINS - 1) {
+            return Math.scalb(1.0, MAX_EXPONENT);
+        }
+        int exponent = MIN_EXPONENT + (bin - 1) / SUB_BINS;
+        int quarter = (bin - 1) % SUB_BINS;
+        return Math.scalb(1.0 + (quarter + 0.5) / SUB_BINS, exponent);
+    }
+
+    private static double quantile(long[] histogram, long count, double quantile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int bin = 0; bin < histogram.length; bin++) {
+            seen += histogram[bin];
+            if (seen >= rank) {
+                return binValue(bin);
+            }
+        }
+        return binValue(histogram.length - 1);
+    }
+
+    private static final class EdgeKey {
+        private final String source;
+        private final String target;
+        private final String type;
+
+        EdgeKey(String source, String target, String type) {
+            this.source = Objects.requireNonNull(source, "Source cannot be null");
+            this.target = Objects.requireNonNull(target, "Target cannot be null");
+            this.type = Objects.requireNonNull(type, "Type cannot be null");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof EdgeKey)) return false;
+            EdgeKey other = (EdgeKey) o;
+            return source.equals(other.source) && target.equals(other.target) && type.equals(other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * source.hashCode() + target.hashCode()) + type.hashCode();
+        }
+    }
+
+    /**
+     * Ring of the buckets of one edge, indexed by bucket epoch modulo its size.
+     */
+    private static final class EdgeWindow {
+        private final AtomicReferenceArray<Bucket> ring;
+
+        EdgeWindow(int buckets) {
+            this.ring = new AtomicReferenceArray<>(buckets);
+        }
+
+        /**
+         * @return Bucket of the epoch, replacing an older one in its slot, or null if a
+         *         newer bucket already took the slot
+         */
+        Bucket bucket(long epoch) {
+            int slot = (int) Math.floorMod(epoch, (long) ring.length());
+            while (true) {
+                Bucket bucket = ring.get(slot);
+                if (bucket != null && bucket.epoch >= epoch) {
+                    return bucket.epoch == epoch ? bucket : null;
+                }
+                Bucket fresh = new Bucket(epoch);
+                if (ring.compareAndSet(slot, bucket, fresh)) {
+                    return fresh;
+                }
+            }
+        }
+    }
+
+    private static final class Bucket {
+        private final long epoch;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder latencyCount = new LongAdder();
+        private final DoubleAdder latencyTotalMs = new DoubleAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(BINS);
+        // Calls taken by publish; written and read only while publishing, which is synchronized
+        private long publishedCalls;
+
+        Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+
+    /**
+     * Traffic on one edge over one window.
+     */
+    public static class EdgeSummary {
+        private final String source;
+        private final String target;
+        private final String type;
+        private final Instant windowStart;
+        private final Instant windowEnd;
+        private final long calls;
+        private final long errors;
+        private final double ratePerSecond;
+        private final double meanLatencyMs;
+        private final double p50LatencyMs;
+        private final double p95LatencyMs;
+        private final double p99LatencyMs;
+
+        EdgeSummary(String source, String target, String type, Instant windowStart, Instant windowEnd,
+                    long calls, long errors, double ratePerSecond, double meanLatencyMs,
+                    double p50LatencyMs, double p95LatencyMs, double p99LatencyMs) {
+            this.source = source;
+            this.target = target;
+            this.type = type;
+            this.windowStart = windowStart;
+            this.windowEnd = windowEnd;
+            this.calls = calls;
+            this.errors = errors;
+            this.ratePerSecond = ratePerSecond;
+            this.meanLatencyMs = meanLatencyMs;
+            this.p50LatencyMs = p50LatencyMs;
+            this.p95LatencyMs = p95LatencyMs;
+            this.p99LatencyMs = p99LatencyMs;
+        }
+
+        public String getSource() { return source; }
+        public String getTarget() { return target; }
+        public String getType() { return type; }
+        public Instant getWindowStart() { return windowStart; }
+        public Instant getWindowEnd() { return windowEnd; }
+        public long getCalls() { return calls; }
+        public long getErrors() { return errors; }
+        /** @return Calls per second over the whole window */
+        public double getRatePerSecond() { return ratePerSecond; }
+        public double getErrorRate() { return (double) errors / calls; }
+        /** @return Mean latency, or NaN if no call carried one */
+        public double getMeanLatencyMs() { return meanLatencyMs; }
+        /** @return Median latency, or NaN if no call carried one */
+        public double getP50LatencyMs() { return p50LatencyMs; }
+        public double getP95LatencyMs() { return p95LatencyMs; }
+        public double getP99LatencyMs() { return p99LatencyMs; }
+
+        @Override
+        public String toString() {
+            return source + " -> " + target + " (" + type + ") calls=" + calls + " errors=" + errors;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.enterprise.dependency.adapter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Derives caller-to-callee service edges from trace spans by joining each span to its
+ * parent across service boundaries.
+ * <p>
+ * A span whose parent belongs to another service records a call from the parent's
+ * service to its own, and its duration is the latency of that call. Spans may arrive
+ * in any order: a span whose parent has not been seen yet waits for it. A client or
+ * producer span that names its peer (for example {@code peer.service}) and has no
+ * child in another service records a call to that peer. This covers databases and
+ * external APIs that are not instrumented.
+ * <p>
+ * Span IDs are only unique within a trace, so spans are matched on trace ID and span
+ * ID together.
+ * <p>
+ * Memory is bounded by {@code maxTrackedSpans}, which caps the remembered span IDs,
+ * the parents with waiting children and the client spans waiting for a child. The
+ * oldest entry is dropped first. A dropped client span is counted as a call to its
+ * peer. Dropped children are counted as unmatched, so a low limit shows up in
+ * {@link #getUnmatchedSpans()} rather than as wrong edges.
+ * <p>
+ * Not thread-safe.
+ */
+public class TraceEdgeJoiner {
+    /** Span IDs remembered by default; a few times the spans of the longest trace is plenty. */
+    public static final int DEFAULT_MAX_TRACKED_SPANS = 100_000;
+
+    private final Map<String, String> services;
+    private final Map<String, List<OtlpTraceReader.Span>> waiting;
+    private final Map<String, OtlpTraceReader.Span> clients;
+    private final Map<List<String>, ServiceEdge> edges = new LinkedHashMap<>();
+    private long spans;
+    private long unmatched;
+
+    /**
+     * Creates a joiner remembering {@link #DEFAULT_MAX_TRACKED_SPANS} spans.
+     */
+    public TraceEdgeJoiner() {
+        this(DEFAULT_MAX_TRACKED_SPANS);
+    }
+
+    /**
+     * @param maxTrackedSpans Bound of each of the span maps
+     */
+    public TraceEdgeJoiner(int maxTrackedSpans) {
+        if (maxTrackedSpans < 1) {
+            throw new IllegalArgumentException("Max tracked spans must be at least 1, was " + maxTrackedSpans);
+        }
+        this.services = new LinkedHashMap<String, String>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxTrackedSpans;
+            }
+        };
+        this.waiting = new LinkedHashMap<String, List<OtlpTraceReader.Span>>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<OtlpTraceReader.Span>> eldest) {
+                if (size() <= maxTrackedSpans) {
+                    return false;
+                }
+                unmatched += eldest.getValue().size();
+                return true;
+            }
+        };
+        this.clients = new LinkedHashMap<String, OtlpTraceReader.Span>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, OtlpTraceReader.Span> eldest) {
+                if (size() <= maxTrackedSpans) {
+                    return false;
+                }
+                addPeerCall(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Adds one span, recording the calls it completes.
+     * @param span Span with its service set
+     */
+    void accept(OtlpTraceReader.Span span) {
+        spans++;
+        if (span.parentSpanId() != null) {
+            String parent = key(span.traceId(), span.parentSpanId());
+            String parentService = services.get(parent);
+            if (parentService != null) {
+                join(parentService, parent, span);
+            } else {
+                waiting.computeIfAbsent(parent, p -> new ArrayList<>(2)).add(span);
+            }
+        }
+        String key = key(span.traceId(), span.spanId());
+        services.put(key, span.service());
+        int kind = span.kind();
+        if (span.peer() != null && (kind == OtlpTraceReader.KIND_CLIENT || kind == OtlpTraceReader.KIND_PRODUCER)) {
+            clients.put(key, span);
+        }
+        List<OtlpTraceReader.Span> children = waiting.remove(key);
+        if (children != null) {
+            for (OtlpTraceReader.Span child : children) {
+                join(span.service(), key, child);
+            }
+        }
+    }
+
+    /**
+     * Ends the input: client spans still waiting become calls to their peers, and
+     * children still waiting for their parent are counted as unmatched.
+     * @return Edges, as from {@link #getEdges()}
+     */
+    List<ServiceEdge> finish() {
+        for (OtlpTraceReader.Span client : clients.values()) {
+            addPeerCall(client);
+        }
+        clients.clear();
+        for (List<OtlpTraceReader.Span> children : waiting.values()) {
+            unmatched += children.size();
+        }
+        waiting.clear();
+        services.clear();
+        return getEdges();
+    }
+
+    /**
+     * @return Edges in order of their first call
+     */
+    public List<ServiceEdge> getEdges() {
+        return Collections.unmodifiableList(new ArrayList<>(edges.values()));
+    }
+
+    /**
+     * @return Number of spans added
+     */
+    public long getSpans() {
+        return spans;
+    }
+
+    /**
+     * @return Number of spans whose parent was never seen or was seen too late
+     */
+    public long getUnmatchedSpans() {
+        return unmatched;
+    }
+
+    /** Key of a span in the span maps; spans without a trace ID are keyed on the span ID. */
+    private static String key(String traceId, String spanId) {
+        return traceId != null ? traceId + '/' + spanId : spanId;
+    }
+
+    private void join(String parentService, String parentKey, OtlpTraceReader.Span child) {
+        if (parentService.equals(child.service())) {
+            return;
+        }
+        // The call reached an instrumented service, which names it better than the peer attribute
+        clients.remove(parentKey);
+        edge(parentService, child.service()).add(child);
+    }
+
+    private void addPeerCall(OtlpTraceReader.Span client) {
+        if (!client.peer().equals(client.service())) {
+            edge(client.service(), client.peer()).add(client);
+        }
+    }
+
+    private ServiceEdge edge(String caller, String callee) {
+        return edges.computeIfAbsent(Arrays.asList(caller, callee), key -> new ServiceEdge(caller, callee));
+    }
+
+    /**
+     * Calls from one service to another: how many, how many failed, and their
+     * latencies.
+     */
+    public static class ServiceEdge {
+        private final String caller;
+        private final String callee;
+        private long calls;
+        private long errors;
+        private double minLatencyMs = Double.MAX_VALUE;
+        private double maxLatencyMs;
+        private double totalLatencyMs;
+        private long firstStartNanos = Long.MAX_VALUE;
+        private long lastStartNanos = Long.MIN_VALUE;
+
+        ServiceEdge(String caller, String callee) {
+            this.caller = caller;
+            this.callee = callee;
+        }
+
+        void add(OtlpTraceReader.Span span) {
+            calls++;
+            if (span.error()) {
+                errors++;
+            }
+            double latencyMs = span.durationMs();
+            minLatencyMs = Math.min(minLatencyMs, latencyMs);
+            maxLatencyMs = Math.max(maxLatencyMs, latencyMs);
+            totalLatencyMs += latencyMs;
+            firstStartNanos = Math.min(firstStartNanos, span.startNanos());
+            lastStartNanos = Math.max(lastStartNanos, span.startNanos());
+        }
+
+        public String getCaller() { return caller; }
+        public String getCallee() { return callee; }
+        public long getCalls() { return calls; }
+        public long getErrors() { return errors; }
+        public double getMinLatencyMs() { return minLatencyMs; }
+        public double getMaxLatencyMs() { return maxLatencyMs; }
+        public double getMeanLatencyMs() { return totalLatencyMs / calls; }
+        /** @return Start of the earliest call */
+        public Instant getFirstSeen() { return toInstant(firstStartNanos); }
+        /** @return Start of the latest call */
+        public Instant getLastSeen() { return toInstant(lastStartNanos); }
+
+        private static Instant toInstant(long epochNanos) {
+            return Instant.ofEpochSecond(0, epochNanos);
+        }
+
+        @Override
+        public String toString() {
+            return caller + " -> " + callee + " calls=" + calls + " errors=" + errors;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.enterprise.dependency.config;
+
+import com.enterprise.dependency.resolver.ApplicationResolver;
+import com.enterprise.dependency.resolver.GatewayRouteTable;
+import com.enterprise.dependency.resolver.HeuristicApplicationResolver;
+import com.enterprise.dependency.resolver.InventoryApplicationResolver;
+import com.enterprise.dependency.resolver.SourceServiceResolver;
+import com.enterprise.dependency.resolver.UserAgentSourceClassifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+/**
+ * Provides the {@link ApplicationResolver} shared by the router and network log parsers,
+ * and the {@link GatewayRouteTable} and {@link SourceServiceResolver} used by the API
+ * gateway adapter.
+ */
+@Configuration
+public class ResolverConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ResolverConfig.class);
+
+    @Bean
+    public ApplicationResolver applicationResolver(ResolverProperties properties) throws IOException {
+        HeuristicApplicationResolver heuristic = new HeuristicApplicationResolver();
+        String inventoryFile = properties.getInventoryFile();
+        if (inventoryFile == null || inventoryFile.trim().isEmpty()) {
+            logger.info("No application inventory configured, resolving addresses by name heuristics");
+            return heuristic;
+        }
+        InventoryApplicationResolver resolver = new InventoryApplicationResolver(
+            Paths.get(inventoryFile.trim()), heuristic, properties.getCacheSize());
+        if (!properties.getReloadInterval().isZero()) {
+            resolver.watch(properties.getReloadInterval());
+        }
+        return resolver;
+    }
+
+    @Bean
+    public GatewayRouteTable gatewayRouteTable(ResolverProperties properties) throws IOException {
+        String routesFile = properties.getGatewayRoutesFile();
+        if (routesFile == null || routesFile.trim().isEmpty()) {
+            logger.info("No gateway routes configured, resolving endpoints by path heuristics");
+            return GatewayRouteTable.empty();
+        }
+        return GatewayRouteTable.load(Paths.get(routesFile.trim()), properties.getCacheSize());
+    }
+
+    @Bean
+    public SourceServiceResolver sourceServiceResolver(ResolverProperties properties) {
+        return new SourceServiceResolver(
+            Collections.singletonList(new UserAgentSourceClassifier()), properties.getCacheSize());
+    }
+}
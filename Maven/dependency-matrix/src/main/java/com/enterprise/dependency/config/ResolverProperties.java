@@ -0,0 +1,33 @@
+package com.enterprise.dependency.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration for resolving IP addresses and host names to application names, and
+ * API gateway endpoints to services. Without an inventory file or route file, the
+ * built-in name heuristics are used.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "resolver")
+public class ResolverProperties {
+    /** Inventory file mapping addresses, CIDR blocks and host names to applications. */
+    private String inventoryFile;
+    /** Maximum number of cached lookups. */
+    private int cacheSize = 100_000;
+    /** How often to check the inventory file for changes; zero disables hot reload. */
+    private Duration reloadInterval = Duration.ofSeconds(30);
+    /** API gateway route definitions mapping path patterns to services. */
+    private String gatewayRoutesFile;
+
+    public String getInventoryFile() { return inventoryFile; }
+    public void setInventoryFile(String inventoryFile) { this.inventoryFile = inventoryFile; }
+    public int getCacheSize() { return cacheSize; }
+    public void setCacheSize(int cacheSize) { this.cacheSize = cacheSize; }
+    public Duration getReloadInterval() { return reloadInterval; }
+    public void setReloadInterval(Duration reloadInterval) { this.reloadInterval = reloadInterval; }
+    public String getGatewayRoutesFile() { return gatewayRoutesFile; }
+    public void setGatewayRoutesFile(String gatewayRoutesFile) { this.gatewayRoutesFile = gatewayRoutesFile; }
+}
@@ -0,0 +1,129 @@
+package com.enterprise.dependency.engine;
+
+import com.enterprise.dependency.model.core.Claim;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Drops claims whose ID has been seen before, in front of {@link ClaimProcessingEngine}.
+ * <p>
+ * Adapters derive claim IDs from claim content, so re-ingesting an overlapping log
+ * window, or replaying a batch after a restart, produces claims with the same IDs.
+ * Without this stage those duplicates would be scored again and inflate frequency
+ * weights. Seen IDs are tracked in a {@link ScalableBloomFilter}, so memory stays
+ * at a few bytes per distinct claim no matter how long the deduplicator lives.
+ * <p>
+ * The price is that a new claim is wrongly dropped with probability at most the
+ * configured false positive rate (one in a million by default). Duplicates are
+ * never let through.
+ * <p>
+ * Example:
+ * <pre>
+ *   ClaimDeduplicator deduplicator = new ClaimDeduplicator();
+ *   List&lt;Claim&gt; processed = engine.processClaims(deduplicator.deduplicate(rawClaims));
+ * </pre>
+ */
+public class ClaimDeduplicator {
+    private static final Logger logger = LoggerFactory.getLogger(ClaimDeduplicator.class);
+    /** Claims the first filter is sized for; later filters double in size. */
+    public static final long DEFAULT_INITIAL_CAPACITY = 64 * 1024;
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 1e-6;
+
+    private final ScalableBloomFilter seen;
+    private final AtomicLong duplicateCount = new AtomicLong();
+
+    /**
+     * Creates a deduplicator with the default capacity and false positive rate.
+     */
+    public ClaimDeduplicator() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * @param initialCapacity Number of distinct claims to size the first filter for
+     * @param falsePositiveRate Highest acceptable rate of new claims dropped as duplicates
+     */
+    public ClaimDeduplicator(long initialCapacity, double falsePositiveRate) {
+        this.seen = new ScalableBloomFilter(initialCapacity, falsePositiveRate);
+    }
+
+    /**
+     * Records a claim as seen.
+     * @param claim Claim to check
+     * @return true if no claim with this ID was seen before
+     */
+    public boolean firstSeen(Claim claim) {
+        Objects.requireNonNull(claim, "Claim cannot be null");
+        String id = claim.getId();
+        long hash1 = hash(id, 0xcbf29ce484222325L);
+        long hash2 = hash(id, 0x84222325cbf29ce4L) | 1;
+        if (seen.add(hash1, hash2)) {
+            return true;
+        }
+        duplicateCount.incrementAndGet();
+        logger.trace("Dropping duplicate claim {}", id);
+        return false;
+    }
+
+    /**
+     * @param claims Claims to filter
+     * @return Claims not seen before, in input order
+     */
+    public List<Claim> deduplicate(List<Claim> claims) {
+        Objects.requireNonNull(claims, "Claims list cannot be null");
+        List<Claim> unique = new ArrayList<>(claims.size());
+        for (Claim claim : claims) {
+            if (firstSeen(claim)) {
+                unique.add(claim);
+            }
+        }
+        if (unique.size() < claims.size()) {
+            logger.info("Dropped {} duplicate claims out of {}", claims.size() - unique.size(), claims.size());
+        }
+        return unique;
+    }
+
+    /**
+     * @param claims Claims to filter lazily
+     * @return Claims not seen before, in input order
+     */
+    public Stream<Claim> deduplicate(Stream<Claim> claims) {
+        return claims.filter(this::firstSeen);
+    }
+
+    /** @return Number of claims dropped as duplicates so far */
+    public long getDuplicateCount() {
+        return duplicateCount.get();
+    }
+
+    /** @return Number of distinct claims seen so far */
+    public long getDistinctCount() {
+        return seen.size();
+    }
+
+    /** @return Memory held by the filter, in bytes */
+    public long getFilterBytes() {
+        return seen.bitCount() / 8;
+    }
+
+    /**
+     * 64-bit FNV-1a over the ID's characters, finished with a SplitMix64 mix so that
+     * every input bit affects every output bit.
+     */
+    private static long hash(String id, long seed) {
+        long hash = seed;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -14,6 +14,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 /**
  * ClaimProcessingEngine is the core business logic component responsible for transforming
@@ -141,23 +142,12 @@ public class ClaimProcessingEngine {
         int failureCount = 0;
         
         for (Claim claim : rawClaims) {
-            try {
-                // Step 1: Normalize the claim data
-                Claim normalized = normalize(claim);
-                
-                // Step 2: Validate the normalized claim
-                validate(normalized);
-                
-                // Step 3: Score the validated claim
-                Claim scored = score(normalized);
-                
+            Claim scored = processOrNull(claim);
+            if (scored != null) {
                 result.add(scored);
                 successCount++;
-                logger.debug("Successfully processed claim: {}", scored.getId());
-            } catch (Exception e) {
+            } else {
                 failureCount++;
-                logger.warn("Claim processing failed for claim ID: {} - Error: {}", 
-                    claim != null ? claim.getId() : "null", e.getMessage(), e);
             }
         }
         
@@ -168,6 +158,50 @@ public class ClaimProcessingEngine {
         return result;
     }
 
+    /**
+     * Processes claims lazily as they are pulled from the stream, so a pipeline fed by a
+     * streaming adapter never holds more than the claims in flight.
+     * 
+     * <p>Each claim goes through the same normalize, validate and score steps as in
+     * {@link #processClaims(List)}; claims that fail are logged and dropped.</p>
+     * 
+     * @param rawClaims Stream of raw claims. Must not be null. Closing the returned
+     *                  stream closes this one.
+     * @return Stream of successfully processed claims, in input order
+     * @throws NullPointerException if rawClaims is null
+     */
+    public Stream<Claim> processClaimStream(Stream<Claim> rawClaims) {
+        Objects.requireNonNull(rawClaims, "Raw claims stream cannot be null");
+        return rawClaims
+            .map(this::processOrNull)
+            .filter(Objects::nonNull);
+    }
+
+    /**
+     * Runs one claim through normalize, validate and score.
+     * 
+     * @return The scored claim, or null if any step failed
+     */
+    private Claim processOrNull(Claim claim) {
+        try {
+            // Step 1: Normalize the claim data
+            Claim normalized = normalize(claim);
+            
+            // Step 2: Validate the normalized claim
+            validate(normalized);
+            
+            // Step 3: Score the validated claim
+            Claim scored = score(normalized);
+            
+            logger.debug("Successfully processed claim: {}", scored.getId());
+            return scored;
+        } catch (Exception e) {
+            logger.warn("Claim processing failed for claim ID: {} - Error: {}", 
+                claim != null ? claim.getId() : "null", e.getMessage(), e);
+            return null;
+        }
+    }
+
     /**
      * Normalizes a claim by standardizing data formats and cleaning inconsistencies.
      * 
@@ -342,6 +376,7 @@ public class ClaimProcessingEngine {
                     .processedData(claim.getProcessedData())
                     .timestamp(claim.getTimestamp())
                     .confidenceScore(ConfidenceScore.of(scoreValue))
+                    .observationCount(claim.getObservationCount())
                     .build();
                     
             logger.debug("Assigned confidence score {} to claim: {}", scoreValue, claim.getId());
@@ -72,6 +72,7 @@ public class ConflictResolutionEngine {
                     .processedData(singleClaim.getProcessedData())
                     .timestamp(singleClaim.getTimestamp())
                     .confidenceScore(ConfidenceScore.of(0.5)) // Default confidence
+                    .observationCount(singleClaim.getObservationCount())
                     .build();
             }
             return Arrays.asList(singleClaim);
@@ -99,6 +100,7 @@ public class ConflictResolutionEngine {
                         .processedData(singleClaim.getProcessedData())
                         .timestamp(singleClaim.getTimestamp())
                         .confidenceScore(ConfidenceScore.of(0.5)) // Default confidence
+                        .observationCount(singleClaim.getObservationCount())
                         .build();
                 }
                 resolvedClaims.add(singleClaim);
@@ -171,6 +173,7 @@ public class ConflictResolutionEngine {
             .processedData(winner.getProcessedData())
             .timestamp(Instant.now())
             .confidenceScore(resolvedScore)
+            .observationCount(totalObservations(conflictingClaims))
             .build();
     }
     
@@ -226,8 +229,9 @@ public class ConflictResolutionEngine {
     private double calculateFrequencyWeight(Claim claim, List<Claim> allClaims) {
         String dependencyKey = extractDependencyKey(claim);
         
+        // Aggregated claims count once per observation they summarize
         long frequency = allClaims.stream()
-            .mapToLong(c -> extractDependencyKey(c).equals(dependencyKey) ? 1 : 0)
+            .mapToLong(c -> extractDependencyKey(c).equals(dependencyKey) ? c.getObservationCount() : 0)
             .sum();
         
         // Normalize frequency (1-3 occurrences = normal, 4+ = high confidence boost)
@@ -236,6 +240,13 @@ public class ConflictResolutionEngine {
         return 1.2; // Cap frequency boost at 20%
     }
     
+    /**
+     * Sums the observations behind a group of claims.
+     */
+    private long totalObservations(List<Claim> claims) {
+        return claims.stream().mapToLong(Claim::getObservationCount).sum();
+    }
+    
     /**
      * Applies business rules for manual overrides.
      * TODO: Implement configurable business rules from database or config file.
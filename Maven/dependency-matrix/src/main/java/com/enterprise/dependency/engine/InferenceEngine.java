@@ -193,9 +193,11 @@ public class InferenceEngine {
     private double calculateInferenceConfidence(List<Claim> claims, DependencyType dependencyType) {
         double baseConfidence = 0.5;
         
-        // Factor 1: Number of supporting claims - more aggressive boost for multiple claims
-        double claimFrequency = Math.min(1.0, claims.size() / 3.0); // Max at 3 claims (more aggressive)
-        if (claims.size() > 1) {
+        // Factor 1: Number of supporting observations - more aggressive boost for multiple claims.
+        // Aggregated claims contribute every observation they summarize.
+        long observations = claims.stream().mapToLong(Claim::getObservationCount).sum();
+        double claimFrequency = Math.min(1.0, observations / 3.0); // Max at 3 claims (more aggressive)
+        if (observations > 1) {
             claimFrequency += 0.3; // Significant bonus for having multiple claims
             claimFrequency = Math.min(1.0, claimFrequency);
         }
@@ -0,0 +1,121 @@
+package com.enterprise.dependency.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bloom filter that grows as keys are added while keeping its overall false
+ * positive rate bounded (Almeida et al., "Scalable Bloom Filters").
+ * <p>
+ * Keys go into a series of plain Bloom filters. When the newest filter is full, a
+ * new one with twice the capacity and half the false positive rate is appended, so
+ * the summed rate over all filters never exceeds the configured one. Memory grows
+ * with the number of distinct keys seen, at roughly 20-35 bits per key for rates
+ * between 1e-4 and 1e-8.
+ * <p>
+ * Keys are given as two independent 64-bit hashes; the filter derives its bit
+ * positions from them by double hashing. Thread-safe.
+ */
+final class ScalableBloomFilter {
+    private static final double LN2 = Math.log(2);
+    private static final double TIGHTENING_RATIO = 0.5;
+    private static final int GROWTH_FACTOR = 2;
+
+    private final List<Stage> stages = new ArrayList<>();
+    private final double falsePositiveRate;
+    private long size;
+
+    /**
+     * @param initialCapacity Keys the first filter is sized for
+     * @param falsePositiveRate Upper bound of the overall false positive rate, in (0, 1)
+     */
+    ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Initial capacity must be positive");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        stages.add(new Stage(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO)));
+    }
+
+    /**
+     * Adds a key unless it is (probably) present already.
+     * @return true if the key was added, false if it was probably seen before
+     */
+    synchronized boolean add(long hash1, long hash2) {
+        for (Stage stage : stages) {
+            if (stage.mightContain(hash1, hash2)) {
+                return false;
+            }
+        }
+        Stage current = stages.get(stages.size() - 1);
+        if (current.count >= current.capacity) {
+            int next = stages.size();
+            current = new Stage(current.capacity * GROWTH_FACTOR,
+                    falsePositiveRate * (1 - TIGHTENING_RATIO) * Math.pow(TIGHTENING_RATIO, next));
+            stages.add(current);
+        }
+        current.put(hash1, hash2);
+        size++;
+        return true;
+    }
+
+    /** @return Number of keys added */
+    synchronized long size() {
+        return size;
+    }
+
+    /** @return Number of filters in the series */
+    synchronized int stageCount() {
+        return stages.size();
+    }
+
+    /** @return Total number of bits allocated over all filters */
+    synchronized long bitCount() {
+        long bits = 0;
+        for (Stage stage : stages) {
+            bits += stage.bitCount;
+        }
+        return bits;
+    }
+
+    private static final class Stage {
+        private final long capacity;
+        private final long bitCount;
+        private final int hashCount;
+        private final long[] words;
+        private long count;
+
+        private Stage(long capacity, double falsePositiveRate) {
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+            this.capacity = capacity;
+            this.words = new long[(int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64)];
+            this.bitCount = (long) words.length * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * LN2));
+        }
+
+        private boolean mightContain(long hash1, long hash2) {
+            long combined = hash1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(combined, bitCount);
+                if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+                combined += hash2;
+            }
+            return true;
+        }
+
+        private void put(long hash1, long hash2) {
+            long combined = hash1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(combined, bitCount);
+                words[(int) (bit >>> 6)] |= 1L << bit;
+                combined += hash2;
+            }
+            count++;
+        }
+    }
+}
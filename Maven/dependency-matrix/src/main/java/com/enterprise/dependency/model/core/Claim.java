@@ -34,6 +34,8 @@ public class Claim {
     @NotNull
     private final Instant timestamp;
     private final ConfidenceScore confidenceScore;
+    /** Number of source observations this claim stands for; greater than 1 for aggregated claims. */
+    private final long observationCount;
 
     private Claim(Builder builder) {
         this.id = builder.id;
@@ -42,6 +44,7 @@ public class Claim {
         this.processedData = builder.processedData;
         this.timestamp = builder.timestamp;
         this.confidenceScore = builder.confidenceScore;
+        this.observationCount = builder.observationCount;
         validate();
     }
 
@@ -52,6 +55,7 @@ public class Claim {
         if (rawData == null || rawData.isEmpty()) throw new IllegalArgumentException("rawData is required");
         if (processedData == null || processedData.isEmpty()) throw new IllegalArgumentException("processedData is required");
         if (timestamp == null) throw new IllegalArgumentException("timestamp is required");
+        if (observationCount < 1) throw new IllegalArgumentException("observationCount must be at least 1");
         logger.debug("Validated Claim: {}", this);
     }
 
@@ -63,6 +67,7 @@ public class Claim {
     public String getProcessedData() { return processedData; }
     public Instant getTimestamp() { return timestamp; }
     public ConfidenceScore getConfidenceScore() { return confidenceScore; }
+    public long getObservationCount() { return observationCount; }
 
     @Override
     public boolean equals(Object o) {
@@ -83,6 +88,7 @@ public class Claim {
                 ", rawData='" + rawData + '\'' +
                 ", processedData='" + processedData + '\'' +
                 ", timestamp=" + timestamp +
+                ", observationCount=" + observationCount +
                 '}';
     }
 
@@ -96,6 +102,7 @@ public class Claim {
         private String processedData;
         private Instant timestamp;
         private ConfidenceScore confidenceScore;
+        private long observationCount = 1;
 
         public Builder id(String id) { this.id = id; return this; }
         public Builder sourceType(String sourceType) { this.sourceType = sourceType; return this; }
@@ -103,6 +110,7 @@ public class Claim {
         public Builder processedData(String processedData) { this.processedData = processedData; return this; }
         public Builder timestamp(Instant timestamp) { this.timestamp = timestamp; return this; }
         public Builder confidenceScore(ConfidenceScore confidenceScore) { this.confidenceScore = confidenceScore; return this; }
+        public Builder observationCount(long observationCount) { this.observationCount = observationCount; return this; }
         public Claim build() { return new Claim(this); }
     }
 }
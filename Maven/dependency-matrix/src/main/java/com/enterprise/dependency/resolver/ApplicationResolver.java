@@ -0,0 +1,15 @@
+package com.enterprise.dependency.resolver;
+
+/**
+ * Interface for pluggable resolution of network addresses and host names to
+ * application names.
+ */
+public interface ApplicationResolver {
+    /**
+     * Resolves an IP address, host name or service name seen in a log to the
+     * application it belongs to.
+     * @param address IPv4/IPv6 literal, host name or service name
+     * @return the application name; never null
+     */
+    String resolve(String address);
+}
@@ -0,0 +1,97 @@
+package com.enterprise.dependency.resolver;
+
+/**
+ * Binary radix trie over IP address bits for longest-prefix matching of CIDR
+ * blocks. IPv4 and IPv6 prefixes live in separate roots.
+ * <p>
+ * Lookups walk at most 32 (IPv4) or 128 (IPv6) nodes and allocate nothing.
+ * Instances are built once and then only read, so a fully built trie can be shared
+ * between threads through a safe publication such as a volatile field.
+ *
+ * @param <V> value stored per prefix
+ */
+final class CidrTrie<V> {
+    private final Node<V> ipv4Root = new Node<>();
+    private final Node<V> ipv6Root = new Node<>();
+    private int size;
+
+    private static final class Node<V> {
+        private Node<V> zero;
+        private Node<V> one;
+        private V value;
+    }
+
+    /**
+     * Adds or replaces the value of a CIDR block.
+     * @param cidr Block such as {@code 10.1.0.0/16} or {@code 2001:db8::/32}
+     * @param value Value for addresses in the block
+     * @throws IllegalArgumentException if the block is malformed
+     */
+    void put(String cidr, V value) {
+        int slash = cidr.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("Not a CIDR block: " + cidr);
+        }
+        byte[] address = IpAddresses.parse(cidr.substring(0, slash));
+        if (address == null) {
+            throw new IllegalArgumentException("Invalid address in CIDR block: " + cidr);
+        }
+        int prefixLength;
+        try {
+            prefixLength = Integer.parseInt(cidr.substring(slash + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid prefix length in CIDR block: " + cidr, e);
+        }
+        if (prefixLength < 0 || prefixLength > address.length * 8) {
+            throw new IllegalArgumentException("Prefix length out of range in CIDR block: " + cidr);
+        }
+
+        Node<V> node = address.length == 4 ? ipv4Root : ipv6Root;
+        for (int bit = 0; bit < prefixLength; bit++) {
+            if (isSet(address, bit)) {
+                if (node.one == null) {
+                    node.one = new Node<>();
+                }
+                node = node.one;
+            } else {
+                if (node.zero == null) {
+                    node.zero = new Node<>();
+                }
+                node = node.zero;
+            }
+        }
+        if (node.value == null) {
+            size++;
+        }
+        node.value = value;
+    }
+
+    /**
+     * Finds the value of the most specific block containing the address.
+     * @param address 4 or 16 address bytes
+     * @return Value of the longest matching prefix, or null if none matches
+     */
+    V longestMatch(byte[] address) {
+        Node<V> node = address.length == 4 ? ipv4Root : ipv6Root;
+        V match = node.value;
+        int bits = address.length * 8;
+        for (int bit = 0; bit < bits; bit++) {
+            node = isSet(address, bit) ? node.one : node.zero;
+            if (node == null) {
+                break;
+            }
+            if (node.value != null) {
+                match = node.value;
+            }
+        }
+        return match;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static boolean isSet(byte[] address, int bit) {
+        return (address[bit >>> 3] & (0x80 >>> (bit & 7))) != 0;
+    }
+}
@@ -0,0 +1,217 @@
+package com.enterprise.dependency.resolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves API gateway endpoints to the services they are routed to, from the
+ * gateway's route definitions.
+ * <p>
+ * Route format, one route per line, {@code #} starts a comment:
+ * <pre>
+ *   # path pattern                      service
+ *   /api/v1/users/**                    user-service
+ *   /api/v1/users/{id}/orders           order-service
+ *   /api/&#42;/health                      health-check
+ * </pre>
+ * A pattern segment is a literal, {@code *} or a path parameter such as {@code {id}}
+ * (both match exactly one segment), or a trailing {@code **} (matches any number of
+ * remaining segments, including none). Patterns are compiled into a trie keyed by
+ * path segment. When several routes match, the most specific one wins: at every
+ * segment a literal beats a single-segment wildcard, which beats {@code **}. Query
+ * strings, repeated and trailing slashes are ignored.
+ * <p>
+ * The table is immutable; recent lookups, including misses, are kept in a bounded
+ * cache.
+ */
+public class GatewayRouteTable {
+    private static final Logger logger = LoggerFactory.getLogger(GatewayRouteTable.class);
+    private static final String NO_ROUTE = "";
+    private static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private final Node root;
+    private final int routeCount;
+    private final BoundedCache<String, String> cache;
+
+    private GatewayRouteTable(Node root, int routeCount, int cacheSize) {
+        this.root = root;
+        this.routeCount = routeCount;
+        this.cache = new BoundedCache<>(cacheSize);
+    }
+
+    /**
+     * @return A table without routes; every lookup misses
+     */
+    public static GatewayRouteTable empty() {
+        return new GatewayRouteTable(new Node(), 0, 1);
+    }
+
+    /**
+     * Loads routes from a route definition file.
+     * @param routesFile File in the route format described above
+     * @param cacheSize Maximum number of cached lookups
+     * @return Compiled route table
+     * @throws IOException if the file cannot be read
+     */
+    public static GatewayRouteTable load(Path routesFile, int cacheSize) throws IOException {
+        GatewayRouteTable table = parse(Files.readAllLines(routesFile), cacheSize);
+        logger.info("Loaded {} gateway routes from {}", table.size(), routesFile);
+        return table;
+    }
+
+    /**
+     * Compiles route definition lines; malformed lines are logged and skipped.
+     * @param lines Lines in the route format described above
+     * @param cacheSize Maximum number of cached lookups
+     * @return Compiled route table
+     */
+    public static GatewayRouteTable parse(List<String> lines, int cacheSize) {
+        Node root = new Node();
+        int routes = 0;
+        int lineNumber = 0;
+        for (String line : lines) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            String content = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (content.isEmpty()) {
+                continue;
+            }
+            String[] fields = content.split("\\s+");
+            if (fields.length != 2 || !fields[0].startsWith("/")) {
+                logger.warn("Skipping malformed route line {}: {}", lineNumber, line);
+                continue;
+            }
+            try {
+                add(root, fields[0], fields[1]);
+                routes++;
+            } catch (IllegalArgumentException e) {
+                logger.warn("Skipping invalid route line {}: {}", lineNumber, e.getMessage());
+            }
+        }
+        return new GatewayRouteTable(root, routes, cacheSize);
+    }
+
+    /**
+     * Compiles a list of routes given as pattern-to-service pairs, e.g. for defaults
+     * in code; the default cache size is used.
+     * @param routes Path patterns mapped to services
+     * @return Compiled route table
+     * @throws IllegalArgumentException if a pattern is invalid
+     */
+    public static GatewayRouteTable of(Map<String, String> routes) {
+        Node root = new Node();
+        for (Map.Entry<String, String> route : routes.entrySet()) {
+            add(root, route.getKey(), route.getValue());
+        }
+        return new GatewayRouteTable(root, routes.size(), DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param endpoint Request path, optionally with a query string
+     * @return Service the most specific matching route points to, or null if no route matches
+     */
+    public String resolve(String endpoint) {
+        if (endpoint == null || routeCount == 0) {
+            return null;
+        }
+        String service = cache.get(endpoint, key -> {
+            String match = match(root, segments(key), 0);
+            return match != null ? match : NO_ROUTE;
+        });
+        return service.isEmpty() ? null : service;
+    }
+
+    /** @return Number of routes in the table */
+    public int size() {
+        return routeCount;
+    }
+
+    public long getCacheHitCount() {
+        return cache.hitCount();
+    }
+
+    public long getCacheMissCount() {
+        return cache.missCount();
+    }
+
+    private static void add(Node root, String pattern, String service) {
+        List<String> segments = segments(pattern);
+        Node node = root;
+        for (int i = 0; i < segments.size(); i++) {
+            String segment = segments.get(i);
+            if (segment.equals("**")) {
+                if (i != segments.size() - 1) {
+                    throw new IllegalArgumentException("'**' must be the last segment of " + pattern);
+                }
+                node.catchAllService = service;
+                return;
+            }
+            if (segment.equals("*") || (segment.startsWith("{") && segment.endsWith("}"))) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                node = node.literals.computeIfAbsent(segment, key -> new Node());
+            }
+        }
+        node.service = service;
+    }
+
+    /**
+     * Depth-first match preferring literal children, then the single-segment wildcard,
+     * then {@code **}, backtracking when a branch has no route for the rest of the path.
+     */
+    private static String match(Node node, List<String> segments, int index) {
+        if (index == segments.size()) {
+            return node.service != null ? node.service : node.catchAllService;
+        }
+        Node literal = node.literals.get(segments.get(index));
+        if (literal != null) {
+            String service = match(literal, segments, index + 1);
+            if (service != null) {
+                return service;
+            }
+        }
+        if (node.wildcard != null) {
+            String service = match(node.wildcard, segments, index + 1);
+            if (service != null) {
+                return service;
+            }
+        }
+        return node.catchAllService;
+    }
+
+    private static List<String> segments(String path) {
+        int query = path.indexOf('?');
+        int end = query >= 0 ? query : path.length();
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        while (start < end) {
+            int slash = path.indexOf('/', start);
+            if (slash < 0 || slash > end) {
+                slash = end;
+            }
+            if (slash > start) {
+                segments.add(path.substring(start, slash));
+            }
+            start = slash + 1;
+        }
+        return segments;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private Node wildcard;
+        private String service;
+        private String catchAllService;
+    }
+}
@@ -0,0 +1,42 @@
+package com.enterprise.dependency.resolver;
+
+/**
+ * Resolves addresses by well-known name fragments. Used when no inventory is
+ * configured, and as the fallback for addresses the inventory does not cover.
+ * <p>
+ * Names containing a known service fragment map to that service, other names
+ * containing a dash are taken to be service names already and any other name
+ * {@code x} becomes {@code app-x}.
+ * <p>
+ * IP literals are the exception to the last rule and resolve to themselves. An
+ * address no inventory entry covers has no known application, and a made-up
+ * {@code app-10-1-2-3} would look like one. It would also never match the address
+ * once an inventory entry for it is added. Keeping the literal leaves unresolved
+ * addresses recognisable in claims.
+ */
+public class HeuristicApplicationResolver implements ApplicationResolver {
+    private static final String[][] KNOWN_SERVICES = {
+        {"user", "user-service"},
+        {"auth", "auth-service"},
+        {"order", "order-service"},
+        {"payment", "payment-service"},
+        {"notification", "notification-service"},
+        {"gateway", "api-gateway"}
+    };
+
+    @Override
+    public String resolve(String address) {
+        for (String[] service : KNOWN_SERVICES) {
+            if (address.contains(service[0])) {
+                return service[1];
+            }
+        }
+        if (address.contains("-")) {
+            return address;
+        }
+        if (IpAddresses.parse(address) != null) {
+            return address;
+        }
+        return "app-" + address.replace(".", "-");
+    }
+}
@@ -0,0 +1,208 @@
+package com.enterprise.dependency.resolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves addresses to applications from an inventory file, falling back to another
+ * resolver for addresses the inventory does not cover.
+ * <p>
+ * Inventory format, one mapping per line, {@code #} starts a comment:
+ * <pre>
+ *   # address, CIDR block or host name     application
+ *   10.20.0.0/16                            order-service
+ *   10.20.5.17                              payment-service
+ *   2001:db8:40::/48                        inventory-service
+ *   orders-db.prod.internal                 order-database
+ * </pre>
+ * Host names are matched exactly (case-insensitive) through a hash map. IP
+ * addresses are matched against a longest-prefix {@link CidrTrie}, where a bare
+ * address counts as a /32 or /128 block, so the most specific entry wins. Recent
+ * lookups, including fallback results, are kept in a bounded cache.
+ * <p>
+ * {@link #reload()} builds a complete new index and swaps it in atomically, so
+ * lookups never see a half-loaded inventory; the cache starts empty with each
+ * index. {@link #watch(Duration)} reloads automatically when the file changes.
+ */
+public class InventoryApplicationResolver implements ApplicationResolver, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryApplicationResolver.class);
+
+    private final Path inventoryFile;
+    private final ApplicationResolver fallback;
+    private final int cacheSize;
+    private volatile Index index;
+    private volatile FileTime loadedModifiedTime;
+    private ScheduledExecutorService watcher;
+
+    /**
+     * Immutable snapshot of one version of the inventory, with its own cache.
+     */
+    private static final class Index {
+        private final Map<String, String> hostNames;
+        private final CidrTrie<String> blocks;
+        private final BoundedCache<String, String> cache;
+
+        private Index(Map<String, String> hostNames, CidrTrie<String> blocks, int cacheSize) {
+            this.hostNames = hostNames;
+            this.blocks = blocks;
+            this.cache = new BoundedCache<>(cacheSize);
+        }
+    }
+
+    /**
+     * Loads the inventory.
+     * @param inventoryFile Inventory file
+     * @param fallback Resolver for addresses not in the inventory
+     * @param cacheSize Maximum number of cached lookups
+     * @throws IOException if the inventory cannot be read
+     */
+    public InventoryApplicationResolver(Path inventoryFile, ApplicationResolver fallback, int cacheSize) throws IOException {
+        this.inventoryFile = Objects.requireNonNull(inventoryFile, "Inventory file cannot be null");
+        this.fallback = Objects.requireNonNull(fallback, "Fallback resolver cannot be null");
+        this.cacheSize = cacheSize;
+        reload();
+    }
+
+    @Override
+    public String resolve(String address) {
+        Index current = index;
+        return current.cache.get(address, key -> lookup(current, key));
+    }
+
+    /**
+     * Re-reads the inventory file and atomically replaces the index.
+     * @throws IOException if the file cannot be read; the previous index stays active
+     */
+    public synchronized void reload() throws IOException {
+        FileTime modifiedTime = Files.getLastModifiedTime(inventoryFile);
+        Map<String, String> hostNames = new HashMap<>();
+        CidrTrie<String> blocks = new CidrTrie<>();
+        int lineNumber = 0;
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(inventoryFile)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                int comment = line.indexOf('#');
+                String content = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                if (content.isEmpty()) {
+                    continue;
+                }
+                String[] fields = content.split("\\s+");
+                if (fields.length != 2) {
+                    logger.warn("Skipping malformed inventory line {}: {}", lineNumber, line);
+                    skipped++;
+                    continue;
+                }
+                try {
+                    addEntry(fields[0], fields[1], hostNames, blocks);
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Skipping invalid inventory line {}: {}", lineNumber, e.getMessage());
+                    skipped++;
+                }
+            }
+        }
+        index = new Index(hostNames, blocks, cacheSize);
+        loadedModifiedTime = modifiedTime;
+        logger.info("Loaded application inventory {}: {} host names, {} address blocks, {} lines skipped",
+                inventoryFile, hostNames.size(), blocks.size(), skipped);
+    }
+
+    /**
+     * Reloads the inventory if the file changed since it was last loaded.
+     * @return true if the inventory was reloaded
+     * @throws IOException if the file cannot be read
+     */
+    public synchronized boolean reloadIfModified() throws IOException {
+        if (Files.getLastModifiedTime(inventoryFile).equals(loadedModifiedTime)) {
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    /**
+     * Checks the inventory file for changes on a background thread.
+     * @param interval Delay between checks
+     */
+    public synchronized void watch(Duration interval) {
+        if (watcher != null) {
+            throw new IllegalStateException("Inventory " + inventoryFile + " is already being watched");
+        }
+        watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watcher.scheduleWithFixedDelay(() -> {
+            try {
+                reloadIfModified();
+            } catch (Exception e) {
+                logger.error("Failed to reload application inventory {}, keeping the previous version", inventoryFile, e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops watching the inventory file.
+     */
+    @Override
+    public synchronized void close() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+            watcher = null;
+        }
+    }
+
+    /** @return Lookups served from the cache since the last reload */
+    public long getCacheHitCount() {
+        return index.cache.hitCount();
+    }
+
+    /** @return Lookups that missed the cache since the last reload */
+    public long getCacheMissCount() {
+        return index.cache.missCount();
+    }
+
+    private String lookup(Index current, String address) {
+        String application = current.hostNames.get(address.toLowerCase(Locale.ROOT));
+        if (application != null) {
+            return application;
+        }
+        byte[] ip = IpAddresses.parse(address);
+        if (ip != null) {
+            application = current.blocks.longestMatch(ip);
+            if (application != null) {
+                return application;
+            }
+        }
+        return fallback.resolve(address);
+    }
+
+    private static void addEntry(String key, String application, Map<String, String> hostNames, CidrTrie<String> blocks) {
+        if (key.indexOf('/') >= 0) {
+            blocks.put(key, application);
+            return;
+        }
+        byte[] ip = IpAddresses.parse(key);
+        if (ip != null) {
+            blocks.put(key + "/" + (ip.length * 8), application);
+        } else {
+            hostNames.put(key.toLowerCase(Locale.ROOT), application);
+        }
+    }
+}
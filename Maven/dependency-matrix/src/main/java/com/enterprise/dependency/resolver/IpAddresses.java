@@ -0,0 +1,71 @@
+package com.enterprise.dependency.resolver;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Parses IP address literals without ever falling back to a DNS lookup.
+ */
+final class IpAddresses {
+    private IpAddresses() {
+    }
+
+    /**
+     * Parses an IPv4 or IPv6 literal.
+     * @param address Address text; IPv6 may be enclosed in brackets
+     * @return 4 or 16 address bytes, or null if the text is not an IP literal
+     */
+    static byte[] parse(String address) {
+        if (address == null || address.isEmpty()) {
+            return null;
+        }
+        if (address.indexOf(':') < 0) {
+            return parseIpv4(address);
+        }
+        String literal = address.startsWith("[") && address.endsWith("]")
+                ? address.substring(1, address.length() - 1) : address;
+        if (literal.indexOf('%') >= 0) {
+            return null;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (Character.digit(c, 16) < 0 && c != ':' && c != '.') {
+                return null;
+            }
+        }
+        try {
+            // A string containing ':' is always treated as a literal, never looked up.
+            // IPv4-mapped literals such as ::ffff:10.0.0.1 come back as 4 bytes.
+            return InetAddress.getByName(literal).getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private static byte[] parseIpv4(String address) {
+        byte[] bytes = new byte[4];
+        int octet = 0;
+        int value = 0;
+        int digits = 0;
+        for (int i = 0; i <= address.length(); i++) {
+            char c = i < address.length() ? address.charAt(i) : '.';
+            if (c == '.') {
+                if (digits == 0 || octet == 4) {
+                    return null;
+                }
+                bytes[octet++] = (byte) value;
+                value = 0;
+                digits = 0;
+            } else if (c >= '0' && c <= '9' && digits < 3) {
+                value = value * 10 + (c - '0');
+                digits++;
+                if (value > 255) {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+        }
+        return octet == 4 ? bytes : null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.enterprise.dependency.resolver;
+
+/**
+ * One step of API gateway source classification: maps what the gateway knows about a
+ * caller to the service making the call. Implementations are chained by
+ * {@link SourceServiceResolver}, which caches the combined result.
+ */
+public interface SourceClassifier {
+    /**
+     * @param userAgent User-Agent header as logged, may be null or {@code "-"}
+     * @param clientIp Client address as logged, may be null
+     * @return the source service, or null if this classifier cannot tell
+     */
+    String classify(String userAgent, String clientIp);
+}
@@ -0,0 +1,93 @@
+package com.enterprise.dependency.resolver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Resolves the source service of an API gateway call from its User-Agent header and
+ * client address.
+ * <p>
+ * Classifiers are asked in order and the first answer wins; callers no classifier
+ * recognises become {@code client-<ip>}. Gateway traffic has few distinct
+ * (user agent, client address) pairs compared to its volume, so results are kept
+ * in a bounded LRU cache keyed by that pair. Classifiers only run on a cache miss,
+ * so adding one (e.g. for mTLS certificate subjects) does not slow down the hot path.
+ * <p>
+ * Thread-safe as long as the classifiers are.
+ */
+public class SourceServiceResolver {
+    private static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private final List<SourceClassifier> classifiers;
+    private final BoundedCache<CacheKey, String> cache;
+
+    /**
+     * @param classifiers Classifiers in priority order
+     * @param cacheSize Maximum number of cached classifications
+     */
+    public SourceServiceResolver(List<? extends SourceClassifier> classifiers, int cacheSize) {
+        this.classifiers = Collections.unmodifiableList(new ArrayList<>(classifiers));
+        this.cache = new BoundedCache<>(cacheSize);
+    }
+
+    /**
+     * @return A resolver using only the User-Agent classifier and the default cache size
+     */
+    public static SourceServiceResolver defaults() {
+        return new SourceServiceResolver(Collections.singletonList(new UserAgentSourceClassifier()), DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param userAgent User-Agent header as logged, may be null or {@code "-"}
+     * @param clientIp Client address as logged, may be null
+     * @return the source service; never null
+     */
+    public String resolve(String userAgent, String clientIp) {
+        return cache.get(new CacheKey(userAgent, clientIp), this::classify);
+    }
+
+    public long getCacheHitCount() {
+        return cache.hitCount();
+    }
+
+    public long getCacheMissCount() {
+        return cache.missCount();
+    }
+
+    private String classify(CacheKey key) {
+        for (SourceClassifier classifier : classifiers) {
+            String source = classifier.classify(key.userAgent, key.clientIp);
+            if (source != null) {
+                return source;
+            }
+        }
+        return "client-" + (key.clientIp != null ? key.clientIp.replace(".", "-") : "unknown");
+    }
+
+    private static final class CacheKey {
+        private final String userAgent;
+        private final String clientIp;
+        private final int hash;
+
+        private CacheKey(String userAgent, String clientIp) {
+            this.userAgent = userAgent;
+            this.clientIp = clientIp;
+            this.hash = 31 * Objects.hashCode(userAgent) + Objects.hashCode(clientIp);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CacheKey)) return false;
+            CacheKey that = (CacheKey) o;
+            return Objects.equals(userAgent, that.userAgent) && Objects.equals(clientIp, that.clientIp);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
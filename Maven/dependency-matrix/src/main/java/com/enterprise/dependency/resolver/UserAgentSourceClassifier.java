@@ -0,0 +1,32 @@
+package com.enterprise.dependency.resolver;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies callers by a service or client name embedded in the User-Agent header,
+ * e.g. {@code order-service-proxy/2.0} or {@code mobile-client/1.0}.
+ */
+public class UserAgentSourceClassifier implements SourceClassifier {
+    // Full service names with dashes/underscores, e.g. "order-service-proxy"
+    private static final Pattern SERVICE_NAME = Pattern.compile("([a-zA-Z][a-zA-Z0-9-_]*(?:client|service)[a-zA-Z0-9-_]*)");
+    private static final Pattern PART_SEPARATOR = Pattern.compile("[\\s/]");
+
+    @Override
+    public String classify(String userAgent, String clientIp) {
+        if (userAgent == null || userAgent.equals("-")) {
+            return null;
+        }
+        Matcher matcher = SERVICE_NAME.matcher(userAgent);
+        if (matcher.find()) {
+            return matcher.group(1);
+        }
+        // Bare words such as "service" that the name pattern needs a prefix for
+        for (String part : PART_SEPARATOR.split(userAgent)) {
+            if (part.contains("service") || part.contains("client")) {
+                return part;
+            }
+        }
+        return null;
+    }
+}
@@ -4,7 +4,10 @@ import com.enterprise.dependency.adapter.ApiGatewayAdapter;
 import com.enterprise.dependency.adapter.CodebaseAdapter;
 import com.enterprise.dependency.adapter.RouterLogAdapter;
 import com.enterprise.dependency.adapter.CiCdAdapter;
+import com.enterprise.dependency.adapter.LogCheckpointStore;
+import com.enterprise.dependency.adapter.RouterLogFollower;
 import com.enterprise.dependency.adapter.TelemetryAdapter;
+import com.enterprise.dependency.engine.ClaimDeduplicator;
 import com.enterprise.dependency.engine.ClaimProcessingEngine;
 import com.enterprise.dependency.engine.ConflictResolutionEngine;
 import com.enterprise.dependency.engine.DependencyGraphBuilder;
@@ -17,11 +20,18 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * DependencyMatrixService orchestrates the complete pipeline:
@@ -32,7 +42,9 @@ import java.util.Map;
 @Service
 public class DependencyMatrixService {
     private static final Logger logger = LoggerFactory.getLogger(DependencyMatrixService.class);
-     private final RouterLogAdapter routerLogAdapter;
+    /** Scored claims kept per dependency for incremental updates; older ones are folded into the oldest kept. */
+    static final int MAX_INCREMENTAL_CLAIMS_PER_DEPENDENCY = 32;
+    private final RouterLogAdapter routerLogAdapter;
     private final CodebaseAdapter codebaseAdapter;
     private final ApiGatewayAdapter apiGatewayAdapter;
     private final CiCdAdapter ciCdAdapter;
@@ -41,6 +53,11 @@ public class DependencyMatrixService {
     private final ConflictResolutionEngine conflictResolutionEngine;
     private final InferenceEngine inferenceEngine;
     private final DependencyGraphBuilder graphBuilder;
+    // Scored claims per dependency key, oldest first, and the resolved claim for each key
+    private final Map<String, ArrayDeque<Claim>> incrementalClaims = new HashMap<>();
+    private final Map<String, Claim> resolvedIncrementalClaims = new LinkedHashMap<>();
+    private final ClaimDeduplicator incrementalDeduplicator = new ClaimDeduplicator();
+    private volatile DependencyMatrix latestMatrix;
 
     @Autowired
     public DependencyMatrixService(
@@ -85,8 +102,8 @@ public class DependencyMatrixService {
             List<Claim> allClaims = ingestData(routerLogs, codebaseDeps, apiGatewayLogs);
             logger.info("Step 1 Complete: Ingested {} claims from all sources", allClaims.size());
             
-            // Step 2: Claim Processing - Apply confidence scoring
-            List<Claim> scoredClaims = processClaims(allClaims);
+            // Step 2: Claim Processing - Drop duplicate observations, apply confidence scoring
+            List<Claim> scoredClaims = processClaims(allClaims, new ClaimDeduplicator());
             logger.info("Step 2 Complete: Scored {} claims", scoredClaims.size());
             
             // Step 3: Conflict Resolution - Resolve conflicting claims
@@ -114,6 +131,107 @@ public class DependencyMatrixService {
         }
     }
     
+    /**
+     * Incremental ingestion: scores newly observed claims, re-resolves only the
+     * dependencies they touch and rebuilds the matrix from one resolved claim per
+     * dependency. Used by router log followers so that new dependencies appear without
+     * re-reading whole log files. Claims already ingested earlier, e.g. a batch replayed
+     * after a restart, are dropped.
+     * <p>
+     * At most {@link #MAX_INCREMENTAL_CLAIMS_PER_DEPENDENCY} claims are kept per
+     * dependency. When one is evicted its observations are added to the oldest claim
+     * kept, so observation totals stay exact while memory and the work per call grow
+     * with the number of distinct dependencies, not with the history.
+     * 
+     * @param newClaims Raw claims observed since the previous call
+     * @return The updated dependency matrix, or the previous one if no new claim survived scoring
+     */
+    public synchronized DependencyMatrix ingestIncrementalClaims(List<Claim> newClaims) {
+        Instant startTime = Instant.now();
+        List<Claim> scoredClaims = processClaims(newClaims, incrementalDeduplicator);
+        if (scoredClaims.isEmpty()) {
+            return latestMatrix;
+        }
+        Set<String> changedKeys = new HashSet<>();
+        for (Claim claim : scoredClaims) {
+            String key = incrementalKey(claim);
+            ArrayDeque<Claim> claims = incrementalClaims.computeIfAbsent(key, k -> new ArrayDeque<>());
+            claims.addLast(claim);
+            if (claims.size() > MAX_INCREMENTAL_CLAIMS_PER_DEPENDENCY) {
+                foldOldest(claims);
+            }
+            changedKeys.add(key);
+        }
+        for (String key : changedKeys) {
+            // Claims sharing a key always resolve to a single claim
+            resolvedIncrementalClaims.put(key, resolveClaims(new ArrayList<>(incrementalClaims.get(key))).get(0));
+        }
+        
+        List<Dependency> dependencies = inferDependencies(new ArrayList<>(resolvedIncrementalClaims.values()));
+        DependencyMatrix matrix = generateDependencyMatrix(dependencies, buildDependencyGraph(dependencies), startTime);
+        latestMatrix = matrix;
+        logger.info("Incremental update: {} new claims on {} dependencies, {} dependencies across {} applications", 
+            scoredClaims.size(), changedKeys.size(), matrix.getDependencyCount(), matrix.getApplicationCount());
+        return matrix;
+    }
+    
+    /**
+     * Groups claims the way conflict resolution does: by normalised "source -> target"
+     * data, or by ID for claims without it.
+     */
+    private static String incrementalKey(Claim claim) {
+        String processedData = claim.getProcessedData();
+        if (processedData != null && processedData.contains("->")) {
+            return processedData.trim().toLowerCase();
+        }
+        return claim.getId();
+    }
+    
+    /**
+     * Drops the oldest claim, adding its observations to the next oldest.
+     */
+    private static void foldOldest(ArrayDeque<Claim> claims) {
+        Claim evicted = claims.pollFirst();
+        Claim next = claims.pollFirst();
+        claims.addFirst(Claim.builder()
+            .id(next.getId())
+            .sourceType(next.getSourceType())
+            .rawData(next.getRawData())
+            .processedData(next.getProcessedData())
+            .timestamp(next.getTimestamp())
+            .confidenceScore(next.getConfidenceScore())
+            .observationCount(next.getObservationCount() + evicted.getObservationCount())
+            .build());
+    }
+    
+    /**
+     * Starts following a live router log, feeding newly appended lines into
+     * {@link #ingestIncrementalClaims(List)}. The consumed offset is checkpointed, so a
+     * follower started again with the same checkpoint file skips what was already read.
+     * 
+     * @param logFile Router log to follow
+     * @param checkpointFile File holding the consumed offsets
+     * @param pollInterval Delay between polls
+     * @return The running follower; close it to stop following
+     * @throws IOException if the checkpoint file exists but cannot be read
+     */
+    public RouterLogFollower followRouterLog(Path logFile, Path checkpointFile, Duration pollInterval) throws IOException {
+        LogCheckpointStore checkpointStore = new LogCheckpointStore(checkpointFile);
+        RouterLogFollower follower = new RouterLogFollower(routerLogAdapter, logFile, checkpointStore, 
+            this::ingestIncrementalClaims);
+        follower.start(pollInterval);
+        return follower;
+    }
+    
+    /**
+     * Returns the matrix built by the most recent incremental update.
+     * 
+     * @return Latest dependency matrix, or null if nothing has been ingested incrementally yet
+     */
+    public DependencyMatrix getLatestMatrix() {
+        return latestMatrix;
+    }
+    
     /**
      * Step 1: Data Ingestion - Extract claims from all data sources
      */
@@ -136,9 +254,7 @@ public class DependencyMatrixService {
         
         // Process API gateway logs
         if (apiGatewayLogs != null && !apiGatewayLogs.isEmpty()) {
-            // Convert list to single string for the existing method
-            String combinedLogs = String.join("\n", apiGatewayLogs);
-            List<Claim> apiClaims = apiGatewayAdapter.parseApiCalls(combinedLogs, "json");
+            List<Claim> apiClaims = apiGatewayAdapter.parseApiCallEntries(apiGatewayLogs, "json");
             allClaims.addAll(apiClaims);
             logger.debug("Extracted {} claims from API gateway logs", apiClaims.size());
         }
@@ -147,10 +263,11 @@ public class DependencyMatrixService {
     }
     
     /**
-     * Step 2: Claim Processing - Apply confidence scoring to all claims
+     * Step 2: Claim Processing - Drop claims the deduplicator has seen, apply confidence
+     * scoring to the rest
      */
-    private List<Claim> processClaims(List<Claim> rawClaims) {
-        return claimProcessingEngine.processClaims(rawClaims);
+    private List<Claim> processClaims(List<Claim> rawClaims, ClaimDeduplicator deduplicator) {
+        return claimProcessingEngine.processClaims(deduplicator.deduplicate(rawClaims));
     }
     
     /**
@@ -394,8 +511,8 @@ public class DependencyMatrixService {
             List<Claim> allClaims = ingestAllData(routerLogs, codebaseDeps, apiGatewayLogs, ciCdLogs, telemetryLogs);
             logger.info("Step 1 Complete: Ingested {} claims from all sources", allClaims.size());
             
-            // Step 2: Claim Processing - Apply confidence scoring
-            List<Claim> scoredClaims = processClaims(allClaims);
+            // Step 2: Claim Processing - Drop duplicate observations, apply confidence scoring
+            List<Claim> scoredClaims = processClaims(allClaims, new ClaimDeduplicator());
             logger.info("Step 2 Complete: Scored {} claims", scoredClaims.size());
             
             // Step 3: Conflict Resolution - Resolve conflicting claims
@@ -447,8 +564,7 @@ public class DependencyMatrixService {
         
         // Process API gateway logs
         if (apiGatewayLogs != null && !apiGatewayLogs.isEmpty()) {
-            String combinedLogs = String.join("\n", apiGatewayLogs);
-            List<Claim> apiClaims = apiGatewayAdapter.parseApiCalls(combinedLogs, "json");
+            List<Claim> apiClaims = apiGatewayAdapter.parseApiCallEntries(apiGatewayLogs, "json");
             allClaims.addAll(apiClaims);
             logger.debug("Extracted {} claims from API gateway logs", apiClaims.size());
         }
@@ -0,0 +1,246 @@
+package com.enterprise.dependency.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Finds the classes each Java source file depends on, through constructor calls
+ * ({@code new ClassName(}) and imports.
+ * <p>
+ * Files are analysed in parallel on a ForkJoinPool, each thread reusing its own
+ * matchers. Results are cached per file: a file whose size and modification time are
+ * unchanged is not read, and one whose content hash is unchanged is not parsed, so
+ * re-analysing a large codebase only parses the files that changed. Cache entries of
+ * files that disappeared from an analysed tree are dropped.
+ * <p>
+ * Thread-safe.
+ */
+final class JavaSourceAnalyzer {
+    private static final Pattern CONSTRUCTOR_PATTERN = Pattern.compile("new\\s+(\\w+)\\s*\\(");
+    // import [static] a.b.C[.member|.*];
+    private static final Pattern IMPORT_PATTERN = Pattern.compile(
+        "^\\s*import\\s+(static\\s+)?([\\w.]+?)(\\.\\*)?\\s*;", Pattern.MULTILINE);
+
+    // Common Java types that aren't meaningful dependencies
+    private static final Set<String> COMMON_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "String", "Integer", "Long", "Double", "Float", "Boolean", "Character",
+        "Object", "List", "Map", "Set", "Collection", "ArrayList", "HashMap", "HashSet",
+        "Date", "LocalDate", "LocalDateTime", "Instant", "BigDecimal", "BigInteger",
+        "StringBuilder", "StringBuffer", "Exception", "RuntimeException"
+    )));
+
+    private static final ThreadLocal<Matcher> CONSTRUCTOR_MATCHER =
+        ThreadLocal.withInitial(() -> CONSTRUCTOR_PATTERN.matcher(""));
+    private static final ThreadLocal<Matcher> IMPORT_MATCHER =
+        ThreadLocal.withInitial(() -> IMPORT_PATTERN.matcher(""));
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final Map<Path, CachedSource> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Analyses every {@code .java} file below a directory.
+     * @param codebaseDir Root of the source tree
+     * @param pool Pool the files are analysed on
+     * @return Outcome of the analysis; files that could not be read are reported as errors
+     * @throws IOException if the tree cannot be walked
+     */
+    Analysis analyze(Path codebaseDir, ForkJoinPool pool) throws IOException {
+        Path root = codebaseDir.toAbsolutePath().normalize();
+        List<Path> javaFiles;
+        try (Stream<Path> paths = Files.walk(root)) {
+            javaFiles = paths.filter(path -> path.toString().endsWith(".java")).sorted().collect(Collectors.toList());
+        }
+
+        List<ForkJoinTask<FileResult>> tasks = new ArrayList<>(javaFiles.size());
+        for (Path javaFile : javaFiles) {
+            tasks.add(pool.submit(() -> analyzeFile(javaFile)));
+        }
+
+        Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+        List<String> errors = new ArrayList<>();
+        int parsedFiles = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            FileResult result = tasks.get(i).join();
+            if (result.error != null) {
+                errors.add(String.format("Codebase parse error in %s: %s", javaFiles.get(i), result.error));
+                continue;
+            }
+            if (result.parsed) {
+                parsedFiles++;
+            }
+            dependencies.put(result.source.className, new HashSet<>(result.source.dependencies));
+        }
+
+        Set<Path> present = new HashSet<>(javaFiles);
+        cache.keySet().removeIf(file -> file.startsWith(root) && !present.contains(file));
+        return new Analysis(dependencies, errors, javaFiles.size(), parsedFiles);
+    }
+
+    private FileResult analyzeFile(Path javaFile) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(javaFile, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            long size = attributes.size();
+            long modified = attributes.lastModifiedTime().toMillis();
+            CachedSource cached = cache.get(javaFile);
+            if (cached != null && cached.size == size && cached.modified == modified) {
+                return new FileResult(cached, false);
+            }
+
+            byte[] content = Files.readAllBytes(javaFile);
+            byte[] hash = SHA_256.get().digest(content);
+            if (cached != null && Arrays.equals(cached.hash, hash)) {
+                CachedSource touched = new CachedSource(content.length, modified, hash, cached.className, cached.dependencies);
+                cache.put(javaFile, touched);
+                return new FileResult(touched, false);
+            }
+
+            String className = javaFile.getFileName().toString().replace(".java", "");
+            // Match on the decoded buffer rather than a String copy of the file
+            CharBuffer source = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(content));
+            CachedSource parsed = new CachedSource(content.length, modified, hash, className, findDependencies(source));
+            cache.put(javaFile, parsed);
+            return new FileResult(parsed, true);
+        } catch (IOException | UncheckedIOException e) {
+            return new FileResult(e.getMessage());
+        }
+    }
+
+    /**
+     * @return Simple names of the classes the source constructs or imports, in order of appearance
+     */
+    static Set<String> findDependencies(CharSequence source) {
+        Set<String> dependencies = new LinkedHashSet<>();
+
+        Matcher imports = IMPORT_MATCHER.get().reset(source);
+        while (imports.find()) {
+            String name = imports.group(2);
+            if (name.startsWith("java.") || name.startsWith("javax.")) {
+                continue;
+            }
+            // A static member import names the class before the member
+            if (imports.group(1) != null && imports.group(3) == null) {
+                int memberStart = name.lastIndexOf('.');
+                name = memberStart < 0 ? name : name.substring(0, memberStart);
+            } else if (imports.group(1) == null && imports.group(3) != null) {
+                // Package wildcard: the classes used are found through their constructor calls
+                continue;
+            }
+            addIfMeaningful(dependencies, name.substring(name.lastIndexOf('.') + 1));
+        }
+
+        Matcher constructors = CONSTRUCTOR_MATCHER.get().reset(source);
+        while (constructors.find()) {
+            addIfMeaningful(dependencies, constructors.group(1));
+        }
+        // Release the source so a thread-held matcher doesn't keep a large file alive
+        imports.reset("");
+        constructors.reset("");
+        return dependencies;
+    }
+
+    private static void addIfMeaningful(Set<String> dependencies, String className) {
+        if (!className.isEmpty() && !COMMON_TYPES.contains(className)) {
+            dependencies.add(className);
+        }
+    }
+
+    /**
+     * Outcome of one analysis.
+     */
+    static final class Analysis {
+        private final Map<String, Set<String>> dependencies;
+        private final List<String> errors;
+        private final int fileCount;
+        private final int parsedFileCount;
+
+        private Analysis(Map<String, Set<String>> dependencies, List<String> errors, int fileCount, int parsedFileCount) {
+            this.dependencies = dependencies;
+            this.errors = errors;
+            this.fileCount = fileCount;
+            this.parsedFileCount = parsedFileCount;
+        }
+
+        /** @return Class name to the names of the classes it depends on */
+        Map<String, Set<String>> dependencies() {
+            return dependencies;
+        }
+
+        List<String> errors() {
+            return errors;
+        }
+
+        int fileCount() {
+            return fileCount;
+        }
+
+        /** @return Files that were new or changed and therefore parsed */
+        int parsedFileCount() {
+            return parsedFileCount;
+        }
+    }
+
+    private static final class CachedSource {
+        private final long size;
+        private final long modified;
+        private final byte[] hash;
+        private final String className;
+        private final Set<String> dependencies;
+
+        private CachedSource(long size, long modified, byte[] hash, String className, Set<String> dependencies) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+            this.className = className;
+            this.dependencies = dependencies;
+        }
+    }
+
+    private static final class FileResult {
+        private final CachedSource source;
+        private final boolean parsed;
+        private final String error;
+
+        private FileResult(CachedSource source, boolean parsed) {
+            this.source = source;
+            this.parsed = parsed;
+            this.error = null;
+        }
+
+        private FileResult(String error) {
+            this.source = null;
+            this.parsed = false;
+            this.error = error;
+        }
+    }
+}
@@ -4,7 +4,10 @@ import java.io.*;
 import java.nio.file.*;
 import java.util.*;
 import java.util.regex.*;
-import java.util.stream.Stream;
+import java.util.concurrent.ForkJoinPool;
+import com.enterprise.dependency.adapter.LogFiles;
+import com.enterprise.dependency.resolver.ApplicationResolver;
+import com.enterprise.dependency.resolver.HeuristicApplicationResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
@@ -99,6 +102,26 @@ public class LogAndCodebaseParserService {
         "(?<timestamp>\\S+)\\s+(?<monitor>\\S+)\\s+(?<action>CONNECT|MALFORMED)\\s+" +
         "src=(?<src>\\S*)\\s+dst=(?<dst>\\S*)\\s+status=(?<status>\\S*)"
     );
+    
+    private final ApplicationResolver applicationResolver;
+    private final JavaSourceAnalyzer javaSourceAnalyzer = new JavaSourceAnalyzer();
+    
+    /**
+     * Creates a parser that resolves addresses with the built-in name heuristics.
+     */
+    public LogAndCodebaseParserService() {
+        this(new HeuristicApplicationResolver());
+    }
+    
+    /**
+     * Creates a parser that resolves the source and destination of router and network
+     * log entries with the given resolver.
+     * 
+     * @param applicationResolver Address-to-application resolver shared with the router log adapter
+     */
+    public LogAndCodebaseParserService(ApplicationResolver applicationResolver) {
+        this.applicationResolver = Objects.requireNonNull(applicationResolver, "Application resolver cannot be null");
+    }
 
     /**
      * Parses router log files to extract network traffic patterns and connection data.
@@ -119,9 +142,10 @@ public class LogAndCodebaseParserService {
      *   <li>Returns all successfully parsed entries</li>
      * </ul>
      * 
-     * @param logPath Path to the router log file to parse. Must be readable and exist.
+     * @param logPath Path to the router log file to parse, plain or gzip-compressed. Must be readable and exist.
      * @return List of maps containing parsed router log entries. Each map contains keys:
-     *         timestamp, router, action, src, dst, proto, dport
+     *         timestamp, router, action, src, dst, proto, dport, plus srcApp and dstApp
+     *         holding the applications that src and dst resolve to
      * @throws IOException if the log file cannot be read or accessed
      * @throws IllegalArgumentException if logPath is null
      * 
@@ -136,35 +160,36 @@ public class LogAndCodebaseParserService {
         List<String> errors = new ArrayList<>();
         int lineNumber = 0;
         
-        // Read all lines from the log file
-        List<String> lines = Files.readAllLines(logPath);
-        logger.debug("Read {} lines from router log file", lines.size());
-        
-        for (String line : lines) {
-            lineNumber++;
-            try {
-                Matcher matcher = ROUTER_PATTERN.matcher(line);
-                if (matcher.matches()) {
-                    // Extract all named groups from the regex match
-                    Map<String, String> entry = new HashMap<>();
-                    String[] groups = {"timestamp", "router", "action", "src", "dst", "proto", "dport"};
+        // Stream lines so large and gzip-compressed (rotated) logs are not loaded whole
+        try (BufferedReader reader = LogFiles.newReader(logPath)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                try {
+                    Matcher matcher = ROUTER_PATTERN.matcher(line);
+                    if (matcher.matches()) {
+                        // Extract all named groups from the regex match
+                        Map<String, String> entry = new HashMap<>();
+                        String[] groups = {"timestamp", "router", "action", "src", "dst", "proto", "dport"};
                     
-                    for (String group : groups) {
-                        String value = matcher.group(group);
-                        entry.put(group, value != null ? value : "");
-                    }
+                        for (String group : groups) {
+                            String value = matcher.group(group);
+                            entry.put(group, value != null ? value : "");
+                        }
                     
-                    results.add(entry);
-                    logger.trace("Successfully parsed router log entry at line {}: {}", lineNumber, entry);
-                } else {
-                    String errorMsg = String.format("Malformed router log at line %d: %s", lineNumber, line);
+                        addResolvedApplications(entry);
+                        results.add(entry);
+                        logger.trace("Successfully parsed router log entry at line {}: {}", lineNumber, entry);
+                    } else {
+                        String errorMsg = String.format("Malformed router log at line %d: %s", lineNumber, line);
+                        errors.add(errorMsg);
+                        logger.debug(errorMsg);
+                    }
+                } catch (Exception e) {
+                    String errorMsg = String.format("Error processing line %d: %s - %s", lineNumber, line, e.getMessage());
                     errors.add(errorMsg);
-                    logger.debug(errorMsg);
+                    logger.warn(errorMsg, e);
                 }
-            } catch (Exception e) {
-                String errorMsg = String.format("Error processing line %d: %s - %s", lineNumber, line, e.getMessage());
-                errors.add(errorMsg);
-                logger.warn(errorMsg, e);
             }
         }
         
@@ -192,9 +217,11 @@ public class LogAndCodebaseParserService {
      * timestamp monitor action src=source_ip dst=dest_ip status=connection_status
      * </pre>
      * 
-     * @param logPath Path to the network monitoring log file to parse. Must be readable and exist.
+     * @param logPath Path to the network monitoring log file to parse, plain or gzip-compressed.
+     *                Must be readable and exist.
      * @return List of maps containing parsed network log entries. Each map contains keys:
-     *         timestamp, monitor, action, src, dst, status
+     *         timestamp, monitor, action, src, dst, status, plus srcApp and dstApp
+     *         holding the applications that src and dst resolve to
      * @throws IOException if the log file cannot be read or accessed
      * @throws IllegalArgumentException if logPath is null
      * 
@@ -209,33 +236,35 @@ public class LogAndCodebaseParserService {
         List<String> errors = new ArrayList<>();
         int lineNumber = 0;
         
-        List<String> lines = Files.readAllLines(logPath);
-        logger.debug("Read {} lines from network log file", lines.size());
-        
-        for (String line : lines) {
-            lineNumber++;
-            try {
-                Matcher matcher = NETWORK_PATTERN.matcher(line);
-                if (matcher.matches()) {
-                    Map<String, String> entry = new HashMap<>();
-                    String[] groups = {"timestamp", "monitor", "action", "src", "dst", "status"};
+        // Stream lines so large and gzip-compressed (rotated) logs are not loaded whole
+        try (BufferedReader reader = LogFiles.newReader(logPath)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                try {
+                    Matcher matcher = NETWORK_PATTERN.matcher(line);
+                    if (matcher.matches()) {
+                        Map<String, String> entry = new HashMap<>();
+                        String[] groups = {"timestamp", "monitor", "action", "src", "dst", "status"};
                     
-                    for (String group : groups) {
-                        String value = matcher.group(group);
-                        entry.put(group, value != null ? value : "");
-                    }
+                        for (String group : groups) {
+                            String value = matcher.group(group);
+                            entry.put(group, value != null ? value : "");
+                        }
                     
-                    results.add(entry);
-                    logger.trace("Successfully parsed network log entry at line {}: {}", lineNumber, entry);
-                } else {
-                    String errorMsg = String.format("Malformed network log at line %d: %s", lineNumber, line);
+                        addResolvedApplications(entry);
+                        results.add(entry);
+                        logger.trace("Successfully parsed network log entry at line {}: {}", lineNumber, entry);
+                    } else {
+                        String errorMsg = String.format("Malformed network log at line %d: %s", lineNumber, line);
+                        errors.add(errorMsg);
+                        logger.debug(errorMsg);
+                    }
+                } catch (Exception e) {
+                    String errorMsg = String.format("Error processing line %d: %s - %s", lineNumber, line, e.getMessage());
                     errors.add(errorMsg);
-                    logger.debug(errorMsg);
+                    logger.warn(errorMsg, e);
                 }
-            } catch (Exception e) {
-                String errorMsg = String.format("Error processing line %d: %s - %s", lineNumber, line, e.getMessage());
-                errors.add(errorMsg);
-                logger.warn(errorMsg, e);
             }
         }
         
@@ -252,125 +281,91 @@ public class LogAndCodebaseParserService {
     }
 
     /**
-     * Performs static analysis of Java codebases to discover dependencies through constructor calls.
+     * Adds the applications that the entry's src and dst addresses resolve to.
+     */
+    private void addResolvedApplications(Map<String, String> entry) {
+        String src = entry.get("src");
+        String dst = entry.get("dst");
+        entry.put("srcApp", src.isEmpty() ? "" : applicationResolver.resolve(src));
+        entry.put("dstApp", dst.isEmpty() ? "" : applicationResolver.resolve(dst));
+    }
+
+    /**
+     * Performs static analysis of Java codebases to discover dependencies through constructor calls
+     * and imports.
      * 
      * <p>This method analyzes Java source files to identify potential dependencies by looking for
-     * constructor invocations (new ClassName()) which often indicate direct dependencies between classes.</p>
+     * constructor invocations (new ClassName()) and imported classes, which often indicate direct
+     * dependencies between classes.</p>
      * 
      * <p><strong>Analysis Approach:</strong></p>
      * <ul>
      *   <li>Recursively traverses the codebase directory structure</li>
-     *   <li>Processes all Java source files (.java extension)</li>
-     *   <li>Uses regex pattern matching to find constructor invocations</li>
+     *   <li>Processes all Java source files (.java extension) in parallel on the common ForkJoinPool</li>
+     *   <li>Uses regex pattern matching to find constructor invocations and imports</li>
      *   <li>Maps class names to their discovered dependencies</li>
+     *   <li>Caches results per file, so repeated analyses only parse new and changed files</li>
      * </ul>
      * 
      * <p><strong>Limitations:</strong></p>
      * <ul>
-     *   <li>Only detects direct constructor calls (new ClassName())</li>
+     *   <li>Only detects direct constructor calls (new ClassName()) and imports; JDK imports are ignored</li>
      *   <li>Does not analyze method calls, field access, or static usage</li>
-     *   <li>Does not resolve package imports or fully qualified names</li>
+     *   <li>Dependencies are reported by simple class name</li>
      *   <li>Basic regex parsing - not a full AST analysis</li>
      * </ul>
      * 
      * <p><strong>Future Enhancements:</strong></p>
      * <ul>
      *   <li>Full AST parsing using JavaParser or similar library</li>
-     *   <li>Import resolution for better dependency accuracy</li>
      *   <li>Method call analysis for runtime dependencies</li>
      *   <li>Annotation-based dependency discovery</li>
      * </ul>
      * 
      * @param codebaseDir Root directory of the Java codebase to analyze. Must be readable and exist.
      * @return Map where keys are class names and values are sets of dependency class names
-     * @throws IOException if the directory cannot be accessed or files cannot be read
+     * @throws IOException if the directory cannot be accessed
      * @throws IllegalArgumentException if codebaseDir is null
      */
     public Map<String, Set<String>> parseJavaCodebase(Path codebaseDir) throws IOException {
+        return parseJavaCodebase(codebaseDir, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Performs static analysis of a Java codebase on the given pool.
+     * 
+     * @param codebaseDir Root directory of the Java codebase to analyze. Must be readable and exist.
+     * @param pool Pool the source files are analyzed on
+     * @return Map where keys are class names and values are sets of dependency class names
+     * @throws IOException if the directory cannot be accessed
+     * @see #parseJavaCodebase(Path)
+     */
+    public Map<String, Set<String>> parseJavaCodebase(Path codebaseDir, ForkJoinPool pool) throws IOException {
         Objects.requireNonNull(codebaseDir, "Codebase directory cannot be null");
         
         logger.info("Starting Java codebase analysis for directory: {}", codebaseDir);
         
-        Map<String, Set<String>> dependencies = new HashMap<>();
-        List<String> errors = new ArrayList<>();
-        int filesProcessed = 0;
-        
-        // Use try-with-resources to ensure the stream is properly closed
-        try (Stream<Path> javaFiles = Files.walk(codebaseDir)
-                .filter(path -> path.toString().endsWith(".java"))) {
-            
-            javaFiles.forEach(javaFile -> {
-                try {
-                    logger.debug("Analyzing Java file: {}", javaFile);
-                    
-                    // Read the entire file content
-                    String content = new String(Files.readAllBytes(javaFile));
-                    
-                    // Extract class name from file name
-                    String className = javaFile.getFileName().toString().replace(".java", "");
-                    
-                    // Find all constructor calls using regex
-                    Set<String> constructorCalls = new HashSet<>();
-                    Pattern constructorPattern = Pattern.compile("new\\s+(\\w+)\\s*\\(");
-                    Matcher matcher = constructorPattern.matcher(content);
-                    
-                    while (matcher.find()) {
-                        String dependencyClass = matcher.group(1);
-                        // Filter out primitive types and common Java types that aren't dependencies
-                        if (!isPrimitiveOrCommonType(dependencyClass)) {
-                            constructorCalls.add(dependencyClass);
-                            logger.trace("Found dependency: {} -> {}", className, dependencyClass);
-                        }
-                    }
-                    
-                    dependencies.put(className, constructorCalls);
-                    logger.debug("Class {} has {} dependencies: {}", className, constructorCalls.size(), constructorCalls);
-                    
-                } catch (Exception e) {
-                    String errorMsg = String.format("Codebase parse error in %s: %s", javaFile, e.getMessage());
-                    errors.add(errorMsg);
-                    logger.warn(errorMsg, e);
-                }
-            });
-            
-            filesProcessed = dependencies.size();
-        }
+        JavaSourceAnalyzer.Analysis analysis = javaSourceAnalyzer.analyze(codebaseDir, pool);
+        List<String> errors = analysis.errors();
+        int filesProcessed = analysis.fileCount();
         
         if (!errors.isEmpty()) {
             logger.warn("Codebase analysis completed with {} errors out of {} files processed", 
                 errors.size(), filesProcessed);
             logger.debug("Codebase parse errors: {}", errors);
         } else {
-            logger.info("Codebase analysis completed successfully: {} files processed, {} classes analyzed", 
-                filesProcessed, dependencies.size());
+            logger.info("Codebase analysis completed successfully: {} files processed ({} parsed), {} classes analyzed", 
+                filesProcessed, analysis.parsedFileCount(), analysis.dependencies().size());
         }
         
-        return dependencies;
-    }
-    
-    /**
-     * Helper method to filter out primitive types and common Java types that aren't meaningful dependencies.
-     * 
-     * @param className The class name to check
-     * @return true if this is a primitive or common type that should be filtered out
-     */
-    private boolean isPrimitiveOrCommonType(String className) {
-        // Filter out common Java types that aren't meaningful dependencies
-        Set<String> commonTypes = Set.of(
-            "String", "Integer", "Long", "Double", "Float", "Boolean", "Character",
-            "Object", "List", "Map", "Set", "Collection", "ArrayList", "HashMap", "HashSet",
-            "Date", "LocalDate", "LocalDateTime", "Instant", "BigDecimal", "BigInteger",
-            "StringBuilder", "StringBuffer", "Exception", "RuntimeException"
-        );
-        
-        return commonTypes.contains(className);
+        return analysis.dependencies();
     }
 }
 
 @Configuration
 class ParserServiceConfig {
     @Bean
-    public LogAndCodebaseParserService logAndCodebaseParserService() {
-        return new LogAndCodebaseParserService();
+    public LogAndCodebaseParserService logAndCodebaseParserService(ApplicationResolver applicationResolver) {
+        return new LogAndCodebaseParserService(applicationResolver);
     }
 }
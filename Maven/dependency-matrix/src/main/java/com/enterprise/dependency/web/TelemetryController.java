@@ -0,0 +1,89 @@
+package com.enterprise.dependency.web;
+
+import com.enterprise.dependency.adapter.TelemetryAdapter;
+import com.enterprise.dependency.adapter.TraceEdgeJoiner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * REST endpoints for bulk telemetry ingestion.
+ *
+ * <p><strong>Available Endpoints:</strong></p>
+ * <ul>
+ *   <li><strong>POST /api/telemetry/otlp/traces</strong> - Join OTLP/JSON trace exports into service edges</li>
+ * </ul>
+ *
+ * <p><strong>Usage Example:</strong></p>
+ * <pre>
+ * # Post a file written by the collector's file exporter
+ * curl -X POST -H 'Content-Type: application/json' --data-binary @traces.json \
+ *      http://localhost:8080/api/telemetry/otlp/traces
+ * </pre>
+ *
+ * @see TelemetryAdapter#readOtlpTraces(Reader)
+ */
+@RestController
+@RequestMapping("/api/telemetry")
+public class TelemetryController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelemetryController.class);
+
+    private final TelemetryAdapter telemetryAdapter;
+
+    @Autowired
+    public TelemetryController(TelemetryAdapter telemetryAdapter) {
+        this.telemetryAdapter = Objects.requireNonNull(telemetryAdapter, "TelemetryAdapter cannot be null");
+    }
+
+    /**
+     * Streams the request body through the OTLP trace reader; the body is never held
+     * in memory as a whole.
+     *
+     * <p><strong>Response Structure:</strong></p>
+     * <pre>
+     * Success (HTTP 200):
+     * {
+     *   "spans": 1200,
+     *   "unmatchedSpans": 3,
+     *   "edges": [
+     *     {"caller": "orders", "callee": "payments", "calls": 400, "errors": 2,
+     *      "minLatencyMs": 4.1, "meanLatencyMs": 12.7, "maxLatencyMs": 130.0,
+     *      "firstSeen": "2024-01-15T10:30:00Z", "lastSeen": "2024-01-15T10:34:59Z"}
+     *   ]
+     * }
+     *
+     * Error (HTTP 400):
+     * {
+     *   "error": "Detailed error message"
+     * }
+     * </pre>
+     *
+     * @param body One or more {@code ExportTraceServiceRequest} documents
+     * @return ResponseEntity containing the joined edges or error information
+     */
+    @PostMapping(value = "/otlp/traces", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> ingestOtlpTraces(Reader body) {
+        logger.info("Received OTLP trace export");
+
+        try {
+            TraceEdgeJoiner joiner = telemetryAdapter.readOtlpTraces(body);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("spans", joiner.getSpans());
+            result.put("unmatchedSpans", joiner.getUnmatchedSpans());
+            result.put("edges", joiner.getEdges());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            logger.error("Failed to ingest OTLP traces", e);
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+}
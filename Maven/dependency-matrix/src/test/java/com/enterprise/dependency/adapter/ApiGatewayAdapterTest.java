@@ -1,11 +1,28 @@
 package com.enterprise.dependency.adapter;
 
 import com.enterprise.dependency.model.core.Claim;
+import com.enterprise.dependency.resolver.GatewayRouteTable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -99,6 +116,86 @@ class ApiGatewayAdapterTest {
         assertEquals("client -> unknown-service", claims.get(3).getProcessedData());
     }
     
+    @Test
+    @DisplayName("Should resolve target services through the gateway route table before heuristics")
+    void shouldResolveTargetServiceThroughRouteTable() {
+        ApiGatewayAdapter routedAdapter = new ApiGatewayAdapter(GatewayRouteTable.parse(Arrays.asList(
+                "/api/users/{id}/orders  order-service",
+                "/api/users/**           identity-service"), 100));
+        String json = "{\"timestamp\":\"2024-01-15T10:30:00Z\",\"method\":\"GET\",\"path\":\"/api/users/7/orders\",\"sourceService\":\"client\"}\n" +
+                      "{\"timestamp\":\"2024-01-15T10:31:00Z\",\"method\":\"GET\",\"path\":\"/api/users\",\"sourceService\":\"client\"}\n" +
+                      "{\"timestamp\":\"2024-01-15T10:32:00Z\",\"method\":\"GET\",\"path\":\"/v1/products\",\"sourceService\":\"client\"}";
+        
+        List<Claim> claims = routedAdapter.parseApiCalls(json, "json");
+        
+        assertEquals("client -> order-service", claims.get(0).getProcessedData());
+        assertEquals("client -> identity-service", claims.get(1).getProcessedData());
+        // No route, so the path heuristic applies
+        assertEquals("client -> products-service", claims.get(2).getProcessedData());
+    }
+    
+    @Test
+    @DisplayName("Should parse CLF files in parallel chunks exactly like the sequential path")
+    void shouldParseClfFileInParallelLikeSequentially(@TempDir Path dir) throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 400; i++) {
+            content.append(String.format("10.0.%d.%d - - [15/Jan/2024:10:%02d:%02d +0000] \"GET /api/v1/orders/%d HTTP/1.1\" 200 %d \"-\" \"%s\" %dms",
+                i / 100, i % 100, i / 60, i % 60, i, i * 3, i % 3 == 0 ? "order-client/1.0" : "Mozilla/5.0 (X11)", i % 500));
+            // Mix in CRLF terminators, blank lines, lines only the regex path handles and garbage
+            content.append(i % 7 == 0 ? "\r\n" : "\n");
+            if (i % 40 == 0) {
+                content.append("\n  \n");
+            }
+            if (i % 25 == 0) {
+                content.append("10.1.1.1 - - [15/Jan/2024:10:00:00 +0000] \"GET /api/users HTTP/1.1\" 200 1 \"-\" \"curl\" 99999999999ms\n");
+                content.append("not a log line ").append(i).append('\n');
+            }
+        }
+        Path logFile = dir.resolve("access.log");
+        Files.write(logFile, content.toString().getBytes(StandardCharsets.UTF_8));
+        
+        List<Claim> sequential = adapter.parseApiCallsFrom(logFile, "clf");
+        List<Claim> parallel;
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            parallel = adapter.parseClfChunks(channel, ForkJoinPool.commonPool(), 900);
+        }
+        
+        assertEquals(400, sequential.size());
+        assertEquals(ids(sequential), ids(parallel));
+        assertEquals(sequential.stream().map(Claim::getProcessedData).collect(Collectors.toList()),
+                     parallel.stream().map(Claim::getProcessedData).collect(Collectors.toList()));
+        assertEquals(ids(sequential), ids(adapter.parseClfFileParallel(logFile)));
+    }
+    
+    @Test
+    @DisplayName("Should stream events out of CloudWatch Logs export envelopes")
+    void shouldStreamCloudWatchExportEnvelopes(@TempDir Path dir) throws Exception {
+        String delivery = "{\"messageType\":\"DATA_MESSAGE\",\"logGroup\":\"API-Gateway-Execution-Logs\",\"subscriptionFilters\":[\"all\"],\"logEvents\":[\n" +
+            "  {\"id\":\"1\",\"timestamp\":1705314600000,\"message\":\"{\\\"httpMethod\\\":\\\"GET\\\",\\\"resource\\\":\\\"/api/v1/users\\\",\\\"clientId\\\":\\\"web-app\\\",\\\"events\\\":[1]}\"},\n" +
+            "  {\"id\":\"2\",\"timestamp\":1705314660000,\"extractedFields\":{\"message\":\"ignored\"},\"message\":\"10.0.0.5 - - [15/Jan/2024:10:31:00 +0000] \\\"POST /api/orders HTTP/1.1\\\" 201 5 \\\"-\\\" \\\"billing-service/1.0\\\" 40ms\"},\n" +
+            "  {\"id\":\"3\",\"message\":\"not a gateway record\"}\n" +
+            "]}";
+        // Concatenated deliveries followed by get-log-events output
+        String export = delivery + delivery + "\n{\"events\":[{\"timestamp\":1705314720000,\"message\":\"{\\\"method\\\":\\\"get\\\",\\\"path\\\":\\\"/api/products\\\"}\"}],\"nextForwardToken\":\"f/1\"}";
+        Path exportFile = dir.resolve("export.json");
+        Files.write(exportFile, export.getBytes(StandardCharsets.UTF_8));
+        
+        List<Claim> claims = adapter.parseCloudWatchExport(exportFile);
+        
+        assertEquals(5, claims.size());
+        assertEquals("web-app -> users-service", claims.get(0).getProcessedData());
+        assertEquals(Instant.ofEpochMilli(1705314600000L), claims.get(0).getTimestamp());
+        assertEquals("billing-service -> orders-service", claims.get(1).getProcessedData());
+        assertEquals("unknown-client -> products-service", claims.get(4).getProcessedData());
+        assertEquals(Instant.ofEpochMilli(1705314720000L), claims.get(4).getTimestamp());
+        try (Stream<Claim> lazy = adapter.streamCloudWatchExport(new StringReader(export))) {
+            assertEquals(ids(claims), ids(lazy.collect(Collectors.toList())));
+        }
+        
+        Files.write(exportFile, "{\"logEvents\":[{\"message\":\"x\"},".getBytes(StandardCharsets.UTF_8));
+        assertTrue(adapter.parseCloudWatchExport(exportFile).isEmpty());
+    }
+    
     @Test
     @DisplayName("Should calculate confidence scores based on call characteristics")
     void shouldCalculateConfidenceScores() {
@@ -162,4 +259,128 @@ class ApiGatewayAdapterTest {
         assertTrue(claims.get(0).getProcessedData().contains("mobile-client ->"));
         assertTrue(claims.get(1).getProcessedData().contains("order-service-proxy ->"));
     }
+    
+    @Test
+    @DisplayName("Should stream claims from JSON lines on demand")
+    void shouldStreamJsonLogsLazily() {
+        Stream<String> endless = Stream.iterate(0, i -> i + 1)
+            .map(i -> "{\"timestamp\":\"2024-01-15T10:30:00Z\",\"method\":\"GET\",\"path\":\"/api/v1/users\",\"sourceService\":\"client-" + i + "\"}");
+        
+        List<Claim> claims = adapter.streamApiCalls(endless, "json").limit(2).collect(Collectors.toList());
+        
+        assertEquals(2, claims.size());
+        assertEquals("client-1 -> users-service", claims.get(1).getProcessedData());
+    }
+    
+    @Test
+    @DisplayName("Should stream the same claims as parseApiCalls")
+    void streamApiCallsShouldMatchParseApiCalls() {
+        String clfLogs = "192.168.1.100 - - [15/Jan/2024:10:30:00 +0000] \"GET /api/v1/users HTTP/1.1\" 200 1234 \"-\" \"UserService/1.0\" 125ms\n" +
+                        "not a log line\n" +
+                        "10.0.0.50 - - [15/Jan/2024:10:31:00 +0000] \"POST /api/v1/orders HTTP/1.1\" 201 567 \"-\" \"OrderClient/2.0\" 250ms";
+        
+        List<String> expected = adapter.parseApiCalls(clfLogs, "clf").stream()
+            .map(Claim::getProcessedData).collect(Collectors.toList());
+        List<String> streamed = adapter.streamApiCalls(Stream.of(clfLogs.split("\n")), "clf")
+            .map(Claim::getProcessedData).collect(Collectors.toList());
+        
+        assertEquals(2, streamed.size());
+        assertEquals(expected, streamed);
+        assertEquals(0, adapter.streamApiCalls(Stream.of(clfLogs), "xml").count());
+    }
+    
+    @Test
+    @DisplayName("Should sample hot service pairs and scale their counts")
+    void shouldSampleApiCallsPerServicePair() {
+        StringBuilder logs = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            logs.append("{\"timestamp\":\"2024-01-15T10:30:00Z\",\"method\":\"GET\",\"path\":\"/api/v1/users/")
+                .append(i).append("\",\"sourceService\":\"web-portal\"}\n");
+        }
+        logs.append("{\"timestamp\":\"2024-01-15T10:31:00Z\",\"method\":\"POST\",\"path\":\"/api/v1/orders\",\"sourceService\":\"mobile-app\"}");
+        
+        EdgeSampler sampler = new EdgeSampler(10, 10);
+        List<Claim> claims = adapter.parseApiCallsSampled(logs.toString(), "json", sampler);
+        
+        assertEquals(501, sampler.getSeenCount());
+        assertTrue(claims.stream().anyMatch(c -> c.getProcessedData().equals("mobile-app -> orders-service")));
+        long usersEstimate = claims.stream().filter(c -> c.getProcessedData().equals("web-portal -> users-service"))
+            .mapToLong(Claim::getObservationCount).sum();
+        assertTrue(claims.size() < 70);
+        assertTrue(Math.abs(usersEstimate - 500) <= 10, "estimate " + usersEstimate + " should be within one stride");
+    }
+    
+    @Test
+    @DisplayName("Should sample CLF files on the scanned edge like on parsed calls")
+    void shouldSampleClfFilesBeforeParsing(@TempDir Path dir) throws Exception {
+        StringBuilder logs = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            logs.append(String.format("10.0.0.%d - - [15/Jan/2024:10:%02d:%02d +0000] \"GET /api/v1/users/%d HTTP/1.1\" 200 1 \"-\" \"web-client/1.0\" %dms%n",
+                i % 4, (i / 60) % 60, i % 60, i, 20 + i % 100));
+        }
+        // Scans but does not parse: counted in its edge's stride, never a claim
+        logs.append("10.0.0.1 - - [31/Apr/2024:10:00:00 +0000] \"GET /api/v1/users/1 HTTP/1.1\" 200 1 \"-\" \"web-client/1.0\" 5ms\n");
+        logs.append("10.0.0.50 - - [15/Jan/2024:10:31:00 +0000] \"POST /api/v1/orders HTTP/1.1\" 201 567 \"-\" \"mobile-client/2.0\" 250ms\n");
+        Path logFile = dir.resolve("gateway.log");
+        Files.write(logFile, logs.toString().getBytes(StandardCharsets.UTF_8));
+        
+        EdgeSampler sampler = new EdgeSampler(10, 10);
+        List<Claim> claims = adapter.parseApiCallsSampled(logFile, "clf", sampler);
+        
+        assertEquals(502, sampler.getSeenCount());
+        assertEquals(2, sampler.getEdgeCount());
+        assertTrue(claims.stream().anyMatch(c -> c.getProcessedData().equals("mobile-client -> orders-service")));
+        long usersEstimate = claims.stream().filter(c -> c.getProcessedData().equals("web-client -> users-service"))
+            .mapToLong(Claim::getObservationCount).sum();
+        assertTrue(claims.size() < 70);
+        assertTrue(Math.abs(usersEstimate - 500) <= 10, "estimate " + usersEstimate + " should be within one stride");
+        
+        // Same keys, so the same sample as keying parsed calls line by line
+        try (Stream<String> lines = Files.lines(logFile)) {
+            assertEquals(ids(claims), ids(adapter.parseApiCallsSampled(lines, "clf", new EdgeSampler(10, 10))));
+        }
+        assertTrue(adapter.parseApiCallsSampled(dir.resolve("missing.log"), "clf", sampler).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Should parse files, readers and byte streams record by record")
+    void shouldParseFromFileReaderAndInputStream(@TempDir Path dir) throws Exception {
+        String jsonLogs = "{\"timestamp\":\"2024-01-15T10:30:00Z\",\"method\":\"GET\",\"path\":\"/api/v1/users\",\"sourceService\":\"web-portal\",\"responseTime\":125}\r\n" +
+                         "\n" +
+                         "{\"timestamp\":\"2024-01-15T10:31:00Z\",\"method\":\"POST\",\"path\":\"/api/v1/orders\",\"sourceService\":\"mobile-app\",\"responseTime\":250}";
+        List<String> expected = adapter.parseApiCalls(jsonLogs, "json").stream()
+            .map(Claim::getId).collect(Collectors.toList());
+        assertEquals(2, expected.size());
+        
+        Path logFile = dir.resolve("gateway.log");
+        Files.write(logFile, jsonLogs.getBytes(StandardCharsets.UTF_8));
+        assertEquals(expected, ids(adapter.parseApiCallsFrom(logFile, "json")));
+        assertEquals(expected, ids(adapter.parseApiCallsFrom(new StringReader(jsonLogs), "json")));
+        assertEquals(expected, ids(adapter.parseApiCallsFrom(
+            new ByteArrayInputStream(jsonLogs.getBytes(StandardCharsets.UTF_8)), "json")));
+        assertEquals(expected, ids(adapter.parseApiCallEntries(Arrays.asList(jsonLogs.split("\n")), "json")));
+        assertTrue(adapter.parseApiCallsFrom(dir.resolve("missing.log"), "json").isEmpty());
+    }
+    
+    @Test
+    @DisplayName("Should keep the claims read before a read error")
+    void shouldKeepClaimsReadBeforeReadError() {
+        String jsonLogs = "{\"timestamp\":\"2024-01-15T10:30:00Z\",\"method\":\"GET\",\"path\":\"/api/v1/users\",\"sourceService\":\"web-portal\"}\n" +
+                         "{\"timestamp\":\"2024-01-15T10:31:00Z\",\"method\":\"POST\",\"path\":\"/api/v1/orders\",\"sourceService\":\"mobile-app\"}\n";
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+        };
+        
+        List<Claim> claims = adapter.parseApiCallsFrom(
+            new SequenceInputStream(new ByteArrayInputStream(jsonLogs.getBytes(StandardCharsets.UTF_8)), failing), "json");
+        
+        assertEquals(ids(adapter.parseApiCalls(jsonLogs, "json")), ids(claims));
+    }
+    
+    private static List<String> ids(List<Claim> claims) {
+        return claims.stream().map(Claim::getId).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,117 @@
+package com.enterprise.dependency.adapter;
+
+import com.enterprise.dependency.model.core.Claim;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BytecodeDependencyScanner} and {@link ClassFileReader}.
+ */
+class BytecodeDependencyScannerTest {
+    @TempDir
+    Path workDir;
+
+    @Test
+    void shouldReadReferencesFromConstantPoolAndSignatures() throws Exception {
+        Path classes = compile("orders",
+                "com/enterprise/payments/PaymentClient.java",
+                "package com.enterprise.payments; public class PaymentClient { public static class Receipt { } }",
+                "com/enterprise/orders/OrderService.java",
+                "package com.enterprise.orders;\n"
+                + "public class OrderService {\n"
+                + "    private com.enterprise.payments.PaymentClient.Receipt[] receipts;\n"
+                + "    public String describe(java.util.List<String> items) { return \"\" + items.size(); }\n"
+                + "}\n");
+
+        ClassFileReader.ClassReferences references = ClassFileReader.read(
+                Files.readAllBytes(classes.resolve("com/enterprise/orders/OrderService.class")));
+
+        assertEquals("com.enterprise.orders.OrderService", references.className());
+        assertTrue(references.references().containsAll(Arrays.asList(
+                "com.enterprise.payments.PaymentClient", "java.util.List", "java.lang.String", "java.lang.Object")));
+        assertFalse(references.references().contains("com.enterprise.orders.OrderService"));
+    }
+
+    @Test
+    void shouldClaimDependenciesBetweenArtifacts() throws Exception {
+        Path payments = compile("payments",
+                "com/enterprise/payments/PaymentClient.java",
+                "package com.enterprise.payments; public class PaymentClient { public void pay() { } }");
+        Path orders = compile("orders", payments,
+                "com/enterprise/orders/OrderService.java",
+                "package com.enterprise.orders;\n"
+                + "public class OrderService extends com.enterprise.payments.PaymentClient {\n"
+                + "    Object audit() { return new com.enterprise.audit.AuditLog(); }\n"
+                + "}\n",
+                "com/enterprise/audit/AuditLog.java",
+                "package com.enterprise.audit; public class AuditLog { }");
+        Path repository = Files.createDirectories(workDir.resolve("repository"));
+        jar(payments, repository.resolve("payment-service-1.4.0.jar"), "BOOT-INF/classes/");
+        jar(orders, repository.resolve("order-service-2.0.0-SNAPSHOT.jar"), "");
+
+        List<Claim> claims = new BytecodeDependencyScanner().scanRepository(repository);
+
+        assertEquals(1, claims.size());
+        assertEquals("order-service -> payment-service", claims.get(0).getProcessedData());
+        assertTrue(claims.get(0).getRawData().contains("com.enterprise.orders.OrderService -> com.enterprise.payments.PaymentClient"));
+
+        // An explicit owner for a package nobody builds
+        List<Claim> owned = new BytecodeDependencyScanner(Map.of("com.enterprise.payments", "payments-platform"))
+                .scan(Map.of("order-service", orders), ForkJoinPool.commonPool());
+        assertEquals(new HashSet<>(Arrays.asList("order-service -> payments-platform")),
+                owned.stream().map(Claim::getProcessedData).collect(Collectors.toSet()));
+    }
+
+    private Path compile(String name, String... pathsAndSources) throws Exception {
+        return compile(name, workDir, pathsAndSources);
+    }
+
+    private Path compile(String name, Path classpath, String... pathsAndSources) throws Exception {
+        Path sources = Files.createDirectories(workDir.resolve(name + "-src"));
+        Path classes = Files.createDirectories(workDir.resolve(name + "-classes"));
+        String[] arguments = new String[pathsAndSources.length / 2 + 4];
+        arguments[0] = "-d";
+        arguments[1] = classes.toString();
+        arguments[2] = "-cp";
+        arguments[3] = classpath.toString();
+        for (int i = 0; i < pathsAndSources.length; i += 2) {
+            Path source = sources.resolve(pathsAndSources[i]);
+            Files.createDirectories(source.getParent());
+            Files.write(source, pathsAndSources[i + 1].getBytes(StandardCharsets.UTF_8));
+            arguments[i / 2 + 4] = source.toString();
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, arguments));
+        return classes;
+    }
+
+    private static void jar(Path classes, Path jarFile, String prefix) throws Exception {
+        try (OutputStream out = Files.newOutputStream(jarFile);
+             JarOutputStream jar = new JarOutputStream(out);
+             Stream<Path> files = Files.walk(classes)) {
+            for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                jar.putNextEntry(new ZipEntry(prefix + classes.relativize(file).toString().replace('\\', '/')));
+                jar.write(Files.readAllBytes(file));
+                jar.closeEntry();
+            }
+        }
+    }
+}
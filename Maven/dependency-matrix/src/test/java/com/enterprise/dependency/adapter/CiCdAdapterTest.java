@@ -0,0 +1,61 @@
+package com.enterprise.dependency.adapter;
+
+import com.enterprise.dependency.model.core.Claim;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CiCdAdapter} and {@link CiCdLineClassifier}.
+ */
+class CiCdAdapterTest {
+    private static final String JENKINS_LINE =
+            "[2024-01-15T10:30:00.123Z] pipeline order-service -> payment-service DEPLOY SUCCESS";
+    private static final String GITHUB_LINE =
+            "2024-01-15T10:31:00.000Z run workflow: deploy-orders depends_on: [build-orders, \"lint\"]";
+    private static final String GITLAB_LINE =
+            "2024-01-15T10:32:00.000Z job stage: integration-test needs: ['unit-test']";
+
+    private final CiCdAdapter adapter = new CiCdAdapter();
+
+    @Test
+    void shouldClassifyLinesByRequiredKeywords() {
+        assertEquals(CiCdLineClassifier.JENKINS, CiCdLineClassifier.candidates(JENKINS_LINE));
+        assertEquals(CiCdLineClassifier.GITHUB_ACTIONS, CiCdLineClassifier.candidates(GITHUB_LINE));
+        assertEquals(CiCdLineClassifier.GITLAB_CI, CiCdLineClassifier.candidates(GITLAB_LINE));
+        assertEquals(0, CiCdLineClassifier.candidates("[INFO] Downloading artifacts - done > 10MB, stage complete"));
+        assertEquals(0, CiCdLineClassifier.candidates("workflow depends_on stage needs"));
+    }
+
+    @Test
+    void genericFormatShouldDetectEachLine() {
+        String logs = String.join("\n",
+                JENKINS_LINE,
+                "[INFO] Building order-service 2.1.0",
+                GITHUB_LINE,
+                "",
+                GITLAB_LINE,
+                "{\"timestamp\":\"2024-01-15T10:33:00Z\",\"source\":\"a\",\"target\":\"b\"}");
+
+        List<Claim> claims = adapter.parseCiCdLogs(logs, "generic");
+
+        assertEquals(List.of("order-service -> payment-service", "build-orders -> deploy-orders",
+                        "unit-test -> integration-test", "unknown-source -> unknown-target"),
+                claims.stream().map(Claim::getProcessedData).collect(Collectors.toList()));
+        assertEquals(claims.stream().map(Claim::getId).collect(Collectors.toList()),
+                adapter.parseLogData(List.of(logs.split("\n"))).stream().map(Claim::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void explicitFormatShouldOnlyParseItsOwnLines() {
+        String logs = String.join("\n", JENKINS_LINE, GITHUB_LINE, GITLAB_LINE);
+
+        List<Claim> claims = adapter.parseCiCdLogs(logs, "github-actions");
+
+        assertEquals(1, claims.size());
+        assertEquals("build-orders -> deploy-orders", claims.get(0).getProcessedData());
+    }
+}
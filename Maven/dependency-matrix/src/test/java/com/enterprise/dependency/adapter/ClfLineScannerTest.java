@@ -0,0 +1,88 @@
+package com.enterprise.dependency.adapter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ClfLineScanner}.
+ */
+class ClfLineScannerTest {
+    private static final DateTimeFormatter CLF_TIMESTAMP = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+
+    @Test
+    void shouldScanFieldsAroundQuotesAndBrackets() {
+        ClfLineScanner.Record record = ClfLineScanner.scan(
+                "10.0.0.50 - alice [15/Jan/2024:10:31:00 +0130]\t\"post /api/orders?id=1 HTTP/1.1\" 201 567 "
+                + "\"https://shop.example/cart page\" \"order-service-proxy/2.0 (linux; x64)\" 250ms");
+
+        assertNotNull(record);
+        assertEquals("10.0.0.50", record.clientIp());
+        assertEquals(Instant.parse("2024-01-15T09:01:00Z"), record.timestamp());
+        assertEquals("post", record.method());
+        assertEquals("/api/orders?id=1", record.endpoint());
+        assertEquals("order-service-proxy/2.0 (linux; x64)", record.userAgent());
+        assertEquals(250, record.responseTime());
+    }
+
+    @Test
+    void timestampsShouldMatchFormatter() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            ZonedDateTime time = Instant.ofEpochSecond(random.nextInt(Integer.MAX_VALUE) * 4L - 4_000_000_000L)
+                    .atZone(ZoneOffset.ofTotalSeconds((random.nextInt(36 * 4 + 1) - 18 * 4) * 900));
+            String text = CLF_TIMESTAMP.format(time);
+            assertEquals(time.toEpochSecond(), ClfLineScanner.parseTimestamp(text, 0, text.length()), text);
+        }
+    }
+
+    @Test
+    void shouldLeaveUnusualLinesToTheRegexPath() {
+        String prefix = "1.2.3.4 - - [";
+        String suffix = "] \"GET /api/users HTTP/1.1\" 200 1 \"-\" \"curl/8\" 5ms";
+        assertNotNull(ClfLineScanner.scan(prefix + "29/Feb/2024:23:59:59 -0000" + suffix));
+        // The formatter would adjust or reject these
+        assertNull(ClfLineScanner.scan(prefix + "31/Apr/2024:10:00:00 +0000" + suffix));
+        assertNull(ClfLineScanner.scan(prefix + "15/Jan/2024:24:00:00 +0000" + suffix));
+        assertNull(ClfLineScanner.scan(prefix + "15/jan/2024:10:00:00 +0000" + suffix));
+        assertNull(ClfLineScanner.scan(prefix + "15/Jan/2024:10:00:00 +1900" + suffix));
+        assertNull(ClfLineScanner.scan(prefix + "15/Jan/2024:10:00:00" + suffix));
+        // Not CLF at all
+        assertNull(ClfLineScanner.scan("1.2.3.4 - - [15/Jan/2024:10:00:00 +0000] \"GET /api HTTP/1.1\" 200 1 \"-\" \"curl/8\" 5ms extra"));
+        assertNull(ClfLineScanner.scan("1.2.3.4 - - [15/Jan/2024:10:00:00 +0000] \"GET /api/users\" 200 1 \"-\" \"curl/8\" 5ms"));
+        assertNull(ClfLineScanner.scan("1.2.3.4 - - [15/Jan/2024:10:00:00 +0000] \"GET /api HTTP/1.1\" 200 1 \"-\" \"curl/8\" 12345678901ms"));
+    }
+
+    @Test
+    void edgeFieldsShouldAgreeWithFullScan() {
+        String prefix = "10.0.0.50 - alice [15/Jan/2024:10:31:00 +0130]\t\"post ";
+        String[] lines = {
+            prefix + "/api/orders?id=1 HTTP/1.1\" 201 567 \"https://shop.example/cart page\" \"order-service-proxy/2.0 (linux; x64)\" 250ms",
+            prefix + "/api/users HTTP/1.1\" 200 1 \"-\" \"\" 5ms",
+            "1.2.3.4 - - [15/Jan/2024:10:00:00 +0000] \"GET /api/users HTTP/1.1\" 200 1 \"-\" \"curl/8\" 5ms"
+        };
+        for (String line : lines) {
+            ClfLineScanner.Record record = ClfLineScanner.scan(line);
+            ClfLineScanner.EdgeFields fields = ClfLineScanner.scanEdge(line);
+            assertNotNull(record, line);
+            assertNotNull(fields, line);
+            assertEquals(record.clientIp(), fields.clientIp(), line);
+            assertEquals(record.endpoint(), fields.endpoint(), line);
+            assertEquals(record.userAgent(), fields.userAgent(), line);
+        }
+
+        // The timestamp is not read, only skipped
+        assertNotNull(ClfLineScanner.scanEdge("1.2.3.4 - - [31/Apr/2024:10:00:00 +0000] \"GET /api/users HTTP/1.1\" 200 1 \"-\" \"curl/8\" 5ms"));
+        assertNull(ClfLineScanner.scanEdge("1.2.3.4 - - [15/Jan/2024:10:00:00 +0000] \"GET /api HTTP/1.1\" 200 1 \"-\" \"curl/8\" 5ms extra"));
+        assertNull(ClfLineScanner.scanEdge("1.2.3.4 - - 15/Jan/2024:10:00:00 +0000 \"GET /api HTTP/1.1\" 200 1 \"-\" \"curl/8\" 5ms"));
+        assertNull(ClfLineScanner.scanEdge("1.2.3.4 - - [15/Jan/2024:10:00:00 +0000] \"GET\" 200 1 \"-\" \"curl/8\" 5ms"));
+        assertNull(ClfLineScanner.scanEdge("invalid log line"));
+    }
+}
@@ -0,0 +1,52 @@
+package com.enterprise.dependency.adapter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link GatewayJsonExtractor}.
+ */
+class GatewayJsonExtractorTest {
+    private final GatewayJsonExtractor extractor = new GatewayJsonExtractor(new JsonFactory());
+
+    @Test
+    void shouldPreferFieldsInPriorityOrderAndSkipNestedObjects() throws Exception {
+        GatewayJsonExtractor.Record record = extractor.extract(
+                "{\"requestContext\":{\"path\":\"/nested\",\"method\":\"PUT\",\"items\":[1,{\"a\":2}]},"
+                + "\"httpMethod\":\"post\",\"resource\":\"/api/v1/orders\",\"method\":\"get\","
+                + "\"clientId\":\"mobile-app\",\"latency\":\"slow\",\"duration\":42.7,"
+                + "\"eventTime\":\"2024-01-15T10:30:00Z\"}");
+
+        assertEquals("get", record.method());
+        assertEquals("/api/v1/orders", record.endpoint());
+        assertEquals("mobile-app", record.sourceService());
+        // Only numeric response times count
+        assertEquals(42, record.responseTime());
+        assertTrue(record.hasTimestamp());
+        assertEquals(Instant.parse("2024-01-15T10:30:00Z"), record.timestamp());
+    }
+
+    @Test
+    void shouldTreatNullsAsMissingAndFallBackBetweenTimestamps() throws Exception {
+        GatewayJsonExtractor.Record record = extractor.extract(
+                "{\"method\":null,\"requestMethod\":\"DELETE\",\"timestamp\":\"yesterday\",\"time\":1705314600000}");
+
+        assertEquals("DELETE", record.method());
+        assertNull(record.endpoint());
+        assertNull(record.sourceService());
+        assertNull(record.responseTime());
+        assertEquals(Instant.ofEpochMilli(1705314600000L), record.timestamp());
+        assertFalse(extractor.extract("{\"timestamp\":null}").hasTimestamp());
+    }
+
+    @Test
+    void shouldRejectNonObjectsAndMalformedJson() throws Exception {
+        assertNull(extractor.extract("[1, 2]"));
+        assertThrows(IOException.class, () -> extractor.extract("{\"method\":\"GET\""));
+    }
+}
@@ -0,0 +1,100 @@
+package com.enterprise.dependency.adapter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link MavenPomParser}.
+ */
+class MavenPomParserTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldResolvePropertiesManagedVersionsAndParents() throws Exception {
+        write("pom.xml",
+            "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">",
+            "  <groupId>com.enterprise</groupId><artifactId>platform-parent</artifactId><version>7.0</version>",
+            "  <properties><jackson.version>2.15.3</jackson.version><client.version>${project.version}</client.version></properties>",
+            "  <dependencyManagement><dependencies>",
+            "    <dependency><groupId>com.fasterxml.jackson.core</groupId><artifactId>jackson-databind</artifactId><version>${jackson.version}</version></dependency>",
+            "    <dependency><groupId>${project.groupId}</groupId><artifactId>user-service-client</artifactId><version>${client.version}</version></dependency>",
+            "  </dependencies></dependencyManagement>",
+            "  <dependencies><dependency><groupId>org.slf4j</groupId><artifactId>slf4j-api</artifactId><version>1.7.36</version></dependency></dependencies>",
+            "</project>");
+        write("order-service/pom.xml",
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+            "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">",
+            "  <parent><groupId>com.enterprise</groupId><artifactId>platform-parent</artifactId><version>7.0</version></parent>",
+            "  <artifactId>order-service</artifactId><version>7.1</version>",
+            "  <dependencies>",
+            "    <dependency>",
+            "      <groupId>com.fasterxml.jackson.core</groupId><artifactId>jackson-databind</artifactId>",
+            "      <exclusions><exclusion><groupId>com.fasterxml.jackson.core</groupId><artifactId>jackson-annotations</artifactId></exclusion></exclusions>",
+            "    </dependency>",
+            "    <dependency><groupId>com.enterprise</groupId><artifactId>user-service-client</artifactId></dependency>",
+            "    <dependency><groupId>com.enterprise</groupId><artifactId>unmanaged-lib</artifactId><scope>test</scope></dependency>",
+            "  </dependencies>",
+            "  <build><plugins><plugin><artifactId>maven-surefire-plugin</artifactId>",
+            "    <dependencies><dependency><groupId>org.junit</groupId><artifactId>junit-bom</artifactId><version>5.10.0</version></dependency></dependencies>",
+            "  </plugin></plugins></build>",
+            "</project>");
+        write("payment-service/pom.xml",
+            "<project><parent><groupId>com.enterprise</groupId><artifactId>platform-parent</artifactId><version>7.0</version></parent>",
+            "  <artifactId>payment-service</artifactId>",
+            "  <dependencies><dependency><groupId>com.fasterxml.jackson.core</groupId><artifactId>jackson-databind</artifactId></dependency></dependencies>",
+            "</project>");
+        MavenPomParser parser = new MavenPomParser();
+
+        MavenPomParser.Pom order = parser.parse(dir.resolve("order-service/pom.xml"));
+        assertEquals("com.enterprise", order.getGroupId());
+        assertEquals("7.1", order.getVersion());
+        assertEquals(3, order.getDependencies().size());
+        MavenPomParser.PomDependency jackson = order.getDependencies().get(0);
+        assertEquals("2.15.3", jackson.getVersion());
+        assertTrue(jackson.getDeclaration().startsWith("<dependency><groupId>com.fasterxml.jackson.core</groupId>"));
+        // Inherited property resolved in the child's context, as Maven does
+        assertEquals("7.1", order.getDependencies().get(1).getVersion());
+        assertNull(order.getDependencies().get(2).getVersion());
+        assertEquals("test", order.getDependencies().get(2).getScope());
+
+        MavenPomParser.Pom payment = parser.parse(dir.resolve("payment-service/pom.xml"));
+        assertEquals("7.0", payment.getVersion());
+        assertEquals("2.15.3", payment.getDependencies().get(0).getVersion());
+        assertEquals(1, parser.getCachedParentCount());
+
+        // Content without a location still sees cached parents
+        MavenPomParser.Pom fromString = parser.parse(String.join("\n", Files.readAllLines(dir.resolve("payment-service/pom.xml"))));
+        assertEquals("2.15.3", fromString.getDependencies().get(0).getVersion());
+    }
+
+    @Test
+    void shouldParseBareDependenciesAndRejectMalformedXml() throws Exception {
+        MavenPomParser parser = new MavenPomParser();
+        List<String> coordinates = parser.parse("<dependency><groupId>com.enterprise</groupId><artifactId>shared-models</artifactId><version>4.1.0</version></dependency>")
+            .getDependencies().stream()
+            .map(d -> d.getGroupId() + ":" + d.getArtifactId() + ":" + d.getVersion())
+            .collect(Collectors.toList());
+
+        assertEquals(1, coordinates.size());
+        assertEquals("com.enterprise:shared-models:4.1.0", coordinates.get(0));
+        assertThrows(IOException.class, () -> parser.parse("<project><dependencies>"));
+        assertThrows(IOException.class, () -> parser.parse(
+            "<!DOCTYPE project [<!ENTITY x SYSTEM \"file:///etc/passwd\">]><project><artifactId>&x;</artifactId></project>"));
+    }
+
+    private void write(String name, String... lines) throws IOException {
+        Path file = dir.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,72 @@
+package com.enterprise.dependency.adapter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link NpmDependencyExtractor}.
+ */
+class NpmDependencyExtractorTest {
+    private final NpmDependencyExtractor extractor = new NpmDependencyExtractor(new JsonFactory());
+
+    @Test
+    void shouldReadManifestDependenciesAndIgnoreOtherStrings() throws Exception {
+        String packageJson = "{\"name\":\"web-app\",\"version\":\"1.0.0\","
+                + "\"scripts\":{\"build\":\"webpack\",\"test\":\"jest\"},"
+                + "\"dependencies\":{\"react\":\"^18.2.0\",\"@enterprise/user-service-client\":\"2.1.0\"},"
+                + "\"devDependencies\":{\"jest\":\"^29.0.0\"},"
+                + "\"config\":{\"dependencies\":{\"nested\":\"1.0.0\"}}}";
+
+        assertEquals(List.of("react@^18.2.0", "@enterprise/user-service-client@2.1.0", "jest@^29.0.0"),
+                names(extractor.extract(packageJson)));
+    }
+
+    @Test
+    void shouldPreferLockfilePackagesOverLegacyTreeAndReadTheSameScope() throws Exception {
+        String lockfile = "{\"name\":\"web-app\",\"lockfileVersion\":2,\"packages\":{"
+                + "\"\":{\"name\":\"web-app\",\"dependencies\":{\"react\":\"^18.2.0\"}},"
+                + "\"node_modules/react\":{\"version\":\"18.2.0\",\"integrity\":\"sha512-x\",\"dependencies\":{\"loose-envify\":\"^1.1.0\"}},"
+                + "\"node_modules/a/node_modules/@scope/b\":{\"version\":\"3.0.1\",\"dev\":true},"
+                + "\"packages/workspace\":{\"version\":\"0.0.1\"}},"
+                + "\"dependencies\":{\"react\":{\"version\":\"18.2.0\",\"requires\":{\"loose-envify\":\"^1.1.0\"}}}}";
+
+        // Only top-level installs, as in the legacy tree below
+        assertEquals(List.of("react@18.2.0"), names(extractor.extract(lockfile)));
+
+        String legacyLockfile = "{\"lockfileVersion\":1,\"dependencies\":{"
+                + "\"react\":{\"version\":\"18.2.0\",\"dependencies\":{\"inner\":{\"version\":\"1.0.0\"}}}}}";
+        assertEquals(List.of("react@18.2.0"), names(extractor.extract(legacyLockfile)));
+    }
+
+    @Test
+    void shouldMemoiseIdenticalContent() throws Exception {
+        String packageJson = "{\"dependencies\":{\"express\":\"4.18.2\"}}";
+
+        List<NpmDependencyExtractor.NpmDependency> first = extractor.extract(packageJson);
+        List<NpmDependencyExtractor.NpmDependency> second = extractor.extract(new String(packageJson));
+
+        assertSame(first, second);
+        assertEquals(1, extractor.getMemoHitCount());
+
+        // Same length and same sampled windows: the memo key collides, the content check does not
+        String large = "{\"dependencies\":{\"express\":\"4.18.2\"}," + " ".repeat(50)
+                + "\"devDependencies\":{\"jest\":\"29.0.0\"}" + " ".repeat(2000) + "}";
+        String sameSample = large.replace("jest", "vite");
+        assertEquals(List.of("express@4.18.2", "jest@29.0.0"), names(extractor.extract(large)));
+        assertEquals(List.of("express@4.18.2", "vite@29.0.0"), names(extractor.extract(sameSample)));
+        assertEquals(1, extractor.getMemoHitCount());
+    }
+
+    private static List<String> names(List<NpmDependencyExtractor.NpmDependency> dependencies) {
+        List<String> names = new ArrayList<>();
+        for (NpmDependencyExtractor.NpmDependency dependency : dependencies) {
+            names.add(dependency.name() + "@" + dependency.version());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,109 @@
+package com.enterprise.dependency.adapter;
+
+import com.enterprise.dependency.model.core.Claim;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link OtlpTraceReader} and {@link TraceEdgeJoiner}, over a recorded
+ * export of two requests: the second holds a child span before its parent, a span
+ * whose parent never arrives, and the legacy {@code instrumentationLibrarySpans} field.
+ */
+class OtlpTraceReaderTest {
+
+    @Test
+    void shouldJoinSpansAcrossServiceBoundaries() throws Exception {
+        TraceEdgeJoiner joiner = join(new TraceEdgeJoiner());
+
+        assertEquals(8, joiner.getSpans());
+        assertEquals(1, joiner.getUnmatchedSpans());
+        List<TraceEdgeJoiner.ServiceEdge> edges = joiner.getEdges();
+        assertEquals(List.of("orders -> payments calls=1 errors=0", "orders -> inventory calls=1 errors=1",
+                        "orders -> postgres.db calls=1 errors=1"),
+                edges.stream().map(Object::toString).collect(Collectors.toList()));
+
+        // Server-side duration of the payments span, not the 125ms of the orders client span
+        assertEquals(100.0, edges.get(0).getMeanLatencyMs(), 1e-9);
+        assertEquals(Instant.parse("2024-01-15T10:30:00.020Z"), edges.get(0).getFirstSeen());
+        // No instrumented callee: the client span's peer and duration stand in
+        assertEquals(40.0, edges.get(2).getMaxLatencyMs(), 1e-9);
+    }
+
+    @Test
+    void shouldStayWithinTrackedSpanBound() throws Exception {
+        TraceEdgeJoiner joiner = join(new TraceEdgeJoiner(1));
+
+        assertEquals(8, joiner.getSpans());
+        assertTrue(joiner.getUnmatchedSpans() > 1);
+        // The orders client span was dropped before payments arrived and counts as a call to its peer
+        TraceEdgeJoiner.ServiceEdge payments = joiner.getEdges().get(0);
+        assertEquals("orders -> payments calls=1 errors=0", payments.toString());
+        assertEquals(125.0, payments.getMeanLatencyMs(), 1e-9);
+    }
+
+    @Test
+    void shouldNotJoinSpansOfDifferentTracesWithTheSameSpanId() throws Exception {
+        // Both traces use span IDs 01 and 02; only the trace ID tells them apart
+        String export = request("t1", "orders", "01", "") + "\n" + request("t2", "billing", "01", "") + "\n"
+                + request("t1", "payments", "02", "01") + "\n" + request("t2", "ledger", "02", "01");
+        TraceEdgeJoiner joiner = new TraceEdgeJoiner();
+        try (OtlpTraceReader spans = new OtlpTraceReader(new JsonFactory().createParser(export))) {
+            assertEquals(4, spans.read(joiner::accept));
+        }
+
+        assertEquals(List.of("orders -> payments calls=1 errors=0", "billing -> ledger calls=1 errors=0"),
+                joiner.finish().stream().map(Object::toString).collect(Collectors.toList()));
+        assertEquals(0, joiner.getUnmatchedSpans());
+    }
+
+    @Test
+    void telemetryAdapterShouldReadPlainAndGzipExports(@TempDir Path tempDir) throws Exception {
+        Path export = recording();
+        Path gzip = tempDir.resolve("traces.json.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip))) {
+            Files.copy(export, out);
+        }
+        TelemetryAdapter adapter = new TelemetryAdapter();
+
+        List<Claim> claims = adapter.parseOtlpTraces(export);
+
+        assertEquals(List.of("orders -> payments (opentelemetry-span)", "orders -> inventory (opentelemetry-span)",
+                        "orders -> postgres.db (opentelemetry-span)"),
+                claims.stream().map(Claim::getProcessedData).collect(Collectors.toList()));
+        assertEquals(claims, adapter.parseOtlpTraces(gzip));
+        assertTrue(adapter.parseOtlpTraces(tempDir.resolve("missing.json")).isEmpty());
+    }
+
+    private static String request(String traceId, String service, String spanId, String parentSpanId) {
+        return "{\"resourceSpans\":[{\"resource\":{\"attributes\":[{\"key\":\"service.name\",\"value\":{\"stringValue\":\""
+                + service + "\"}}]},\"scopeSpans\":[{\"spans\":[{\"traceId\":\"" + traceId + "\",\"spanId\":\"" + spanId
+                + "\",\"parentSpanId\":\"" + parentSpanId + "\",\"kind\":2,"
+                + "\"startTimeUnixNano\":\"1705314600000000000\",\"endTimeUnixNano\":\"1705314600010000000\"}]}]}]}";
+    }
+
+    private static TraceEdgeJoiner join(TraceEdgeJoiner joiner) throws Exception {
+        try (Reader reader = Files.newBufferedReader(recording());
+             OtlpTraceReader spans = new OtlpTraceReader(new JsonFactory().createParser(reader))) {
+            assertEquals(8, spans.read(joiner::accept));
+        }
+        joiner.finish();
+        return joiner;
+    }
+
+    private static Path recording() throws Exception {
+        return Paths.get(OtlpTraceReaderTest.class.getResource("/otlp/traces.json").toURI());
+    }
+}
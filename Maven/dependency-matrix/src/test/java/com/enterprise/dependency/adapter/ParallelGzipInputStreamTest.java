@@ -0,0 +1,166 @@
+package com.enterprise.dependency.adapter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ParallelGzipInputStream}.
+ */
+class ParallelGzipInputStreamTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldDecodeMembersInOrder() throws Exception {
+        Random random = new Random(42);
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        for (int member = 0; member < 20; member++) {
+            byte[] data = new byte[member == 3 ? 0 : 1000 + random.nextInt(200_000)];
+            // Incompressible members are stored almost verbatim and contain false header candidates
+            random.nextBytes(data);
+            if (member % 2 == 0) {
+                for (int i = 0; i < data.length; i++) {
+                    data[i] = (byte) ('a' + (data[i] & 7));
+                }
+            }
+            if (data.length > 100) {
+                data[50] = 0x1f;
+                data[51] = (byte) 0x8b;
+                data[52] = 8;
+            }
+            file.write(gzip(data));
+            expected.write(data);
+        }
+        Path path = dir.resolve("members.gz");
+        Files.write(path, file.toByteArray());
+
+        assertArrayEquals(expected.toByteArray(), readAll(new ParallelGzipInputStream(path, ForkJoinPool.commonPool(), 4, 1 << 20, 8 << 20)));
+        // Members too large to buffer are streamed instead
+        assertArrayEquals(expected.toByteArray(), readAll(new ParallelGzipInputStream(path, ForkJoinPool.commonPool(), 4, 1024, 8 << 20)));
+        // A byte budget below one member, and an executor that rejects everything, fall back to streaming
+        assertArrayEquals(expected.toByteArray(), readAll(new ParallelGzipInputStream(path, ForkJoinPool.commonPool(), 4, 1 << 20, 1024)));
+        Executor rejecting = task -> {
+            throw new RejectedExecutionException("busy");
+        };
+        assertArrayEquals(expected.toByteArray(), readAll(new ParallelGzipInputStream(path, rejecting, 4, 1 << 20, 8 << 20)));
+        assertArrayEquals(expected.toByteArray(), readAll(new GZIPInputStream(Files.newInputStream(path))));
+
+        // Every buffered member is released once read or discarded
+        ParallelGzipInputStream inline = new ParallelGzipInputStream(path, Runnable::run, 4, 1 << 20, 8 << 20);
+        assertArrayEquals(expected.toByteArray(), readAll(inline));
+        assertEquals(0, inline.getBufferedBytes());
+    }
+
+    @Test
+    void shouldDecodeHeaderWithFileNameAndIgnoreTrailingZeros() throws Exception {
+        byte[] data = "2024-07-04 10:30:45 [INFO] a -> b:80 HTTP\n".getBytes("UTF-8");
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.write(gzipWithFileName(data, "router.log"));
+        file.write(gzip(data));
+        file.write(new byte[16]);
+        Path path = dir.resolve("named.gz");
+        Files.write(path, file.toByteArray());
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(data);
+        expected.write(data);
+        assertArrayEquals(expected.toByteArray(), readAll(new ParallelGzipInputStream(path, ForkJoinPool.commonPool(), 2, 1 << 20, 8 << 20)));
+    }
+
+    @Test
+    void shouldRejectCorruptMember() throws Exception {
+        byte[] member = gzip(new byte[10_000]);
+        // Break the CRC of the second member
+        member[member.length - 8] ^= 1;
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.write(gzip("first\n".getBytes("UTF-8")));
+        file.write(member);
+        Path path = dir.resolve("corrupt.gz");
+        Files.write(path, file.toByteArray());
+
+        assertThrows(IOException.class,
+                () -> readAll(new ParallelGzipInputStream(path, ForkJoinPool.commonPool(), 2, 1 << 20, 8 << 20)));
+    }
+
+    @Test
+    void logFilesShouldDetectGzipByContent() throws Exception {
+        Path plain = dir.resolve("router.gz");
+        Files.write(plain, "not compressed\n".getBytes("UTF-8"));
+        Path compressed = dir.resolve("router.log.1");
+        Files.write(compressed, gzip("compressed\n".getBytes("UTF-8")));
+
+        assertFalse(LogFiles.isGzip(plain));
+        assertTrue(LogFiles.isGzip(compressed));
+        try (BufferedReader reader = LogFiles.newReader(compressed)) {
+            assertEquals("compressed", reader.readLine());
+        }
+        try (BufferedReader reader = LogFiles.newReader(plain)) {
+            assertEquals("not compressed", reader.readLine());
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    /** Writes a member with the FNAME header flag, which GZIPOutputStream never sets. */
+    private static byte[] gzipWithFileName(byte[] data, String name) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[] {0x1f, (byte) 0x8b, 8, 8, 0, 0, 0, 0, 0, 3});
+        out.write(name.getBytes("ISO-8859-1"));
+        out.write(0);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(data);
+        deflater.finish();
+        byte[] buffer = new byte[4096];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        writeIntLe(out, crc.getValue());
+        writeIntLe(out, data.length);
+        return out.toByteArray();
+    }
+
+    private static void writeIntLe(ByteArrayOutputStream out, long value) {
+        for (int i = 0; i < 4; i++) {
+            out.write((int) (value >>> (8 * i)) & 0xff);
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
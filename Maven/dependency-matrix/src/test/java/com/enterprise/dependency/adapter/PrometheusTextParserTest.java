@@ -0,0 +1,175 @@
+package com.enterprise.dependency.adapter;
+
+import com.enterprise.dependency.model.core.Claim;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PrometheusTextParser}.
+ */
+class PrometheusTextParserTest {
+    private static final Instant T0 = Instant.parse("2024-01-15T10:30:00Z");
+    private static final Instant T1 = Instant.parse("2024-01-15T10:30:15Z");
+
+    @Test
+    void shouldParseLabelsInAnyOrderAndInternThem() {
+        PrometheusTextParser parser = new PrometheusTextParser();
+        List<PrometheusTextParser.SeriesAggregate> series = parser.parseScrape(List.of(
+                "# HELP http_requests_total Requests sent.",
+                "# TYPE http_requests_total counter",
+                "http_requests_total{target=\"auth-service\",code=\"200\",job=\"user-service\"} 1250",
+                "http_requests_total { job = \"user-service\" , code=\"500\", target=\"auth-service\", } 3 1705314600000",
+                "  ",
+                "grpc_calls{source_workload=\"orders\",destination_workload=\"pay\\\"ments\\\\v2\"} -Inf",
+                "up{job=\"user-service\"} 1",
+                "http_requests_total{job=\"user-service\",target=\"auth\" 1",
+                "http_requests_total{job=\"user-service\",target=\"auth\"} 1 not-a-time"), T0);
+
+        assertEquals(3, series.size());
+        PrometheusTextParser.SeriesAggregate ok = series.get(0);
+        PrometheusTextParser.SeriesAggregate failed = series.get(1);
+        assertEquals("user-service -> auth-service", ok.getSource() + " -> " + ok.getTarget());
+        assertEquals(Map.of("code", "200", "job", "user-service", "target", "auth-service"), ok.getLabels());
+        assertEquals(List.of("code", "job", "target"), List.copyOf(failed.getLabels().keySet()));
+        assertSame(ok.getSource(), failed.getSource());
+        assertSame(ok.getMetric(), failed.getMetric());
+        assertTrue(ok.isCounter());
+        assertEquals(1250, ok.getDelta());
+        assertEquals(T0, ok.getTimestamp());
+        assertEquals(Instant.ofEpochMilli(1705314600000L), failed.getTimestamp());
+
+        PrometheusTextParser.SeriesAggregate grpc = series.get(2);
+        assertEquals("pay\"ments\\v2", grpc.getTarget());
+        assertFalse(grpc.isCounter());
+        assertEquals(Double.NEGATIVE_INFINITY, grpc.getValue());
+    }
+
+    @Test
+    void shouldComputeCounterDeltasBetweenScrapes() throws Exception {
+        PrometheusTextParser parser = new PrometheusTextParser();
+        String first = String.join("\n",
+                "# TYPE rpc_latency_seconds histogram",
+                "rpc_latency_seconds_bucket{client=\"a\",server=\"b\",le=\"0.1\"} 7",
+                "rpc_latency_seconds_sum{client=\"a\",server=\"b\"} 1.5",
+                "rpc_latency_seconds_count{client=\"a\",server=\"b\"} 10",
+                "calls_total{source=\"a\",target=\"c\"} 100",
+                "calls_total{source=\"a\",target=\"d\"} 5");
+        String second = String.join("\n",
+                "# TYPE rpc_latency_seconds histogram",
+                "rpc_latency_seconds_count{server=\"b\",client=\"a\"} 25.5",
+                "calls_total{source=\"a\",target=\"c\"} 40");
+
+        List<PrometheusTextParser.SeriesAggregate> before = parser.parseScrape(new StringReader(first), T0);
+        assertEquals(List.of(10.0, 100.0, 5.0), deltas(before));
+        assertEquals(3, parser.getTrackedSeries());
+
+        List<PrometheusTextParser.SeriesAggregate> after = parser.parseScrape(new StringReader(second), T1);
+        // Same series with labels reordered; the second counter was reset
+        assertEquals(List.of(15.5, 40.0), deltas(after));
+        assertEquals(2, parser.getTrackedSeries());
+    }
+
+    @Test
+    void shouldParseValuesLikeDoubleParseDouble() {
+        for (String value : List.of("0", "1250.5", "-0.25", "+7", "0.1", "123456789012345", "1234567890123456789",
+                "0.000000000000000000001", "1.5e3", "NaN", "12.")) {
+            assertEquals(Double.parseDouble(value), PrometheusTextParser.parseValue(value, 0, value.length()), value);
+        }
+        assertEquals(Double.POSITIVE_INFINITY, PrometheusTextParser.parseValue("+Inf", 0, 4));
+        assertThrows(NumberFormatException.class, () -> PrometheusTextParser.parseValue("1,5", 0, 3));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void scrapeThroughputWithShuffledLabels() {
+        Random random = new Random(42);
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        first.add("# TYPE http_requests_total counter");
+        second.add("# TYPE http_requests_total counter");
+        for (int i = 0; i < 200_000; i++) {
+            List<String> labels = Arrays.asList(
+                    "job=\"service-" + i % 100 + "\"",
+                    "target=\"backend-" + (i / 100) % 100 + "\"",
+                    "code=\"" + ((i / 10_000) % 2 == 0 ? "200" : "500") + "\"",
+                    "instance=\"pod-" + i / 20_000 + "\"");
+            // Exporters do not agree on label order, so neither do these lines
+            Collections.shuffle(labels, random);
+            String series = "http_requests_total{" + String.join(",", labels) + "} ";
+            first.add(series + i);
+            second.add(series + (i + 60));
+        }
+
+        PrometheusTextParser parser = new PrometheusTextParser();
+        long firstStart = System.nanoTime();
+        List<PrometheusTextParser.SeriesAggregate> before = parser.parseScrape(first, T0);
+        long firstNanos = System.nanoTime() - firstStart;
+        long secondStart = System.nanoTime();
+        List<PrometheusTextParser.SeriesAggregate> after = parser.parseScrape(second, T1);
+        long secondNanos = System.nanoTime() - secondStart;
+
+        assertEquals(200_000, before.size());
+        assertEquals(200_000, after.size());
+        assertEquals(200_000, parser.getTrackedSeries());
+        assertTrue(after.stream().allMatch(series -> series.getDelta() == 60));
+        System.out.printf("Prometheus scrape of %d series: first %.0f series/s, second %.0f series/s%n",
+                after.size(),
+                before.size() / (firstNanos / 1e9),
+                after.size() / (secondNanos / 1e9));
+    }
+
+    @Test
+    void telemetryAdapterShouldClaimEdgesFromSamplesAndScrapes() throws Exception {
+        TelemetryAdapter adapter = new TelemetryAdapter();
+
+        List<Claim> lineClaims = adapter.parseTelemetryData(List.of(
+                "http_requests_total{target=\"auth-service\",instance=\"user-service:8080\",job=\"user-service\"} 1250.5",
+                "dependency{source=\"a\",target=\"b\",type=\"http\",response_time=150ms,success_rate=0.99}"));
+        assertEquals(List.of("user-service -> auth-service (prometheus-http)", "a -> b (apm-dependency)"),
+                lineClaims.stream().map(Claim::getProcessedData).collect(Collectors.toList()));
+
+        String scrape = "http_requests_total{job=\"orders\",target=\"pay\",code=\"200\"} 90\n"
+                + "http_requests_total{job=\"orders\",target=\"pay\",code=\"503\"} 10\n";
+        List<Claim> first = adapter.parsePrometheusScrape("orders:8080", new StringReader(scrape), T0);
+        assertEquals(1, first.size());
+        assertEquals("orders -> pay (prometheus-http)", first.get(0).getProcessedData());
+        // First sightings hold the counters' whole lifetime: the edge is present, nothing more
+        assertEquals(1, first.get(0).getObservationCount());
+
+        assertTrue(adapter.parsePrometheusScrape("orders:8080", new StringReader(scrape), T1).isEmpty());
+        assertEquals(1, adapter.parsePrometheusScrape("orders:8081", new StringReader(scrape), T1).size());
+
+        String later = "http_requests_total{job=\"orders\",target=\"pay\",code=\"200\"} 150\n"
+                + "http_requests_total{job=\"orders\",target=\"pay\",code=\"503\"} 10\n";
+        assertEquals(60, adapter.parsePrometheusScrape("orders:8080", new StringReader(later), T1.plusSeconds(15))
+                .get(0).getObservationCount());
+
+        // Gauges mark presence only, whatever their value
+        String gauges = "# TYPE db_connections gauge\n"
+                + "db_connections{job=\"orders\",target=\"postgres\",pool=\"read\"} 40\n"
+                + "db_connections{job=\"orders\",target=\"postgres\",pool=\"write\"} 12\n"
+                + "db_connections{job=\"orders\",target=\"redis\"} 0\n";
+        for (Instant scrapeTime : List.of(T0, T1)) {
+            List<Claim> gaugeClaims = adapter.parsePrometheusScrape("orders:9090", new StringReader(gauges), scrapeTime);
+            assertEquals(List.of("orders -> postgres (prometheus)"),
+                    gaugeClaims.stream().map(Claim::getProcessedData).collect(Collectors.toList()));
+            assertEquals(1, gaugeClaims.get(0).getObservationCount());
+        }
+    }
+
+    private static List<Double> deltas(List<PrometheusTextParser.SeriesAggregate> series) {
+        return series.stream().map(PrometheusTextParser.SeriesAggregate::getDelta).collect(Collectors.toList());
+    }
+}
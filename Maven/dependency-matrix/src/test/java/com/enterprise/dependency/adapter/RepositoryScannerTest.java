@@ -0,0 +1,109 @@
+package com.enterprise.dependency.adapter;
+
+import com.enterprise.dependency.model.core.Claim;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RepositoryScanner}.
+ */
+class RepositoryScannerTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void rescanShouldOnlyReportChangedDependencies() throws Exception {
+        Path repo = dir.resolve("shop");
+        write(repo.resolve("pom.xml"),
+            "<project><groupId>com.enterprise</groupId><artifactId>shop-parent</artifactId><version>1.0</version>",
+            "<properties><client.version>2.0</client.version></properties></project>");
+        write(repo.resolve("order-service/pom.xml"),
+            "<project><parent><groupId>com.enterprise</groupId><artifactId>shop-parent</artifactId><version>1.0</version></parent>",
+            "<artifactId>order-service</artifactId><dependencies>",
+            "<dependency><groupId>com.enterprise</groupId><artifactId>user-service-client</artifactId><version>${client.version}</version></dependency>",
+            "</dependencies></project>");
+        write(repo.resolve("web/package.json"), "{\"name\":\"web\",\"dependencies\":{\"react\":\"18.2.0\"}}");
+        write(repo.resolve("web/node_modules/react/package.json"), "{\"dependencies\":{\"loose-envify\":\"1.1.0\"}}");
+        Path cacheFile = dir.resolve("state/scan.json");
+        CodebaseAdapter adapter = new CodebaseAdapter();
+
+        RepositoryScanner.ScanResult first = new RepositoryScanner(adapter, cacheFile).scan(repo);
+        assertEquals(3, first.getBuildFileCount());
+        assertEquals(Arrays.asList("user-service-client:2.0", "react:18.2.0"), coordinates(first.getAddedClaims()));
+
+        // A new scanner picks up the cache: nothing changed, nothing parsed
+        RepositoryScanner scanner = new RepositoryScanner(adapter, cacheFile);
+        Files.setLastModifiedTime(repo.resolve("web/package.json"), FileTime.fromMillis(1_000_000L));
+        RepositoryScanner.ScanResult unchanged = scanner.scan(repo);
+        assertEquals(0, unchanged.getParsedFileCount());
+        assertTrue(unchanged.getAddedClaims().isEmpty());
+        assertTrue(unchanged.getRemovedClaims().isEmpty());
+
+        // A parent change re-resolves the child; a deleted file retracts its claims
+        write(repo.resolve("pom.xml"),
+            "<project><groupId>com.enterprise</groupId><artifactId>shop-parent</artifactId><version>1.0</version>",
+            "<properties><client.version>2.1</client.version></properties></project>");
+        Files.delete(repo.resolve("web/package.json"));
+        RepositoryScanner.ScanResult changed = scanner.scan(repo);
+        assertEquals(2, changed.getParsedFileCount());
+        assertEquals(Arrays.asList("user-service-client:2.1"), coordinates(changed.getAddedClaims()));
+        assertEquals(Arrays.asList("user-service-client:2.0", "react:18.2.0"), coordinates(changed.getRemovedClaims()));
+    }
+
+    @Test
+    void siblingParentChangeShouldReparseItsChildren() throws Exception {
+        Path repo = dir.resolve("shop");
+        write(repo.resolve("parent/pom.xml"),
+            "<project><groupId>com.enterprise</groupId><artifactId>shop-parent</artifactId><version>1.0</version>",
+            "<properties><client.version>2.0</client.version></properties></project>");
+        write(repo.resolve("order-service/pom.xml"),
+            "<project><parent><groupId>com.enterprise</groupId><artifactId>shop-parent</artifactId><version>1.0</version>",
+            "<relativePath>../parent/pom.xml</relativePath></parent>",
+            "<artifactId>order-service</artifactId><dependencies>",
+            "<dependency><groupId>com.enterprise</groupId><artifactId>user-service-client</artifactId><version>${client.version}</version></dependency>",
+            "</dependencies></project>");
+        RepositoryScanner scanner = new RepositoryScanner(new CodebaseAdapter(), dir.resolve("state/scan.json"));
+        assertEquals(Arrays.asList("user-service-client:2.0"), coordinates(scanner.scan(repo).getAddedClaims()));
+
+        // The parent is neither above nor beside the child, only referenced by relativePath
+        write(repo.resolve("parent/pom.xml"),
+            "<project><groupId>com.enterprise</groupId><artifactId>shop-parent</artifactId><version>1.0</version>",
+            "<properties><client.version>2.1</client.version></properties></project>");
+        // A new scanner finds the parent chain in the cache file
+        scanner = new RepositoryScanner(new CodebaseAdapter(), dir.resolve("state/scan.json"));
+        RepositoryScanner.ScanResult changed = scanner.scan(repo);
+        assertEquals(2, changed.getParsedFileCount());
+        assertEquals(Arrays.asList("user-service-client:2.1"), coordinates(changed.getAddedClaims()));
+        assertEquals(Arrays.asList("user-service-client:2.0"), coordinates(changed.getRemovedClaims()));
+
+        // A deleted parent leaves the version unresolved
+        Files.delete(repo.resolve("parent/pom.xml"));
+        RepositoryScanner.ScanResult deleted = scanner.scan(repo);
+        assertEquals(1, deleted.getParsedFileCount());
+        assertEquals(Arrays.asList("user-service-client:${client.version}"), coordinates(deleted.getAddedClaims()));
+    }
+
+    private static List<String> coordinates(List<Claim> claims) {
+        // Raw data is "groupId:artifactId:version (type)"
+        return claims.stream()
+            .map(claim -> claim.getRawData().split(" ")[0])
+            .map(raw -> raw.substring(raw.indexOf(':') + 1))
+            .collect(Collectors.toList());
+    }
+
+    private static void write(Path file, String... lines) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
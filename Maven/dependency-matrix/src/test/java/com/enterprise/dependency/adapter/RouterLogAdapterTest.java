@@ -4,9 +4,18 @@ import com.enterprise.dependency.model.sources.RouterLogEntry;
 import com.enterprise.dependency.model.core.Claim;
 import org.junit.jupiter.api.Test;
 
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -61,4 +70,195 @@ class RouterLogAdapterTest {
         assertEquals(2, claims.size());
         Files.deleteIfExists(tempFile);
     }
+
+    @Test
+    void parseLogFileParallelShouldMatchSequentialOutput() throws Exception {
+        Path tempFile = Files.createTempFile("router-parallel", ".log");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            content.append(String.format("2024-07-04T10:%02d:%02dZ [INFO] user-service -> order-service:8080 HTTP GET /api/orders/%d 200 %dms",
+                    (i / 60) % 60, i % 60, i, i % 300));
+            // Mix in CRLF terminators, blank lines and malformed lines
+            content.append(i % 7 == 0 ? "\r\n" : "\n");
+            if (i % 50 == 0) {
+                content.append("\n");
+            }
+            if (i % 33 == 0) {
+                content.append("garbage line ").append(i).append('\n');
+            }
+        }
+        content.append("2024-07-04 11:00:00 [INFO] auth-service -> database:5432 TCP connection established");
+        Files.write(tempFile, content.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<Claim> sequential = adapter.parseLogFile(tempFile);
+        List<Claim> parallel;
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.READ)) {
+            parallel = adapter.parseChunks(channel, ForkJoinPool.commonPool(), 700);
+        }
+
+        assertEquals(501, sequential.size());
+        assertEquals(ids(sequential), ids(parallel));
+        assertEquals(sequential.stream().map(Claim::getRawData).collect(Collectors.toList()),
+                parallel.stream().map(Claim::getRawData).collect(Collectors.toList()));
+        assertEquals(ids(sequential), ids(adapter.parseLogFileParallel(tempFile)));
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    void parseLogFileParallelShouldDetectDialectFromSameLinesAsSequential() throws Exception {
+        Path tempFile = Files.createTempFile("router-dialect", ".log");
+        StringBuilder content = new StringBuilder();
+        // Long native lines fill the first few KB, which once were the whole sample
+        String longPath = String.join("/", Collections.nCopies(500, "seg"));
+        for (int i = 0; i < 10; i++) {
+            content.append(String.format("2024-07-04T10:00:%02dZ [INFO] user-service -> order-service:8080 HTTP GET /%s/%d 200 12ms%n%n", i, longPath, i));
+        }
+        // but the sampled lines are mostly iptables
+        for (int i = 0; i < 100; i++) {
+            content.append(String.format("Jan 15 10:30:%02d fw01 kernel: [UFW ALLOW] IN=eth0 OUT= MAC=00:11 SRC=10.0.1.100 DST=10.0.2.200 "
+                    + "LEN=60 TOS=0x00 TTL=64 ID=%d DF PROTO=TCP SPT=51234 DPT=8080 WINDOW=64240 SYN%n", i % 60, i));
+        }
+        Files.write(tempFile, content.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<Claim> sequential = adapter.parseLogFile(tempFile);
+        assertEquals(100, sequential.size());
+        assertEquals(ids(sequential), ids(adapter.parseLogFileParallel(tempFile)));
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.READ)) {
+            assertEquals(ids(sequential), ids(adapter.parseChunks(channel, ForkJoinPool.commonPool(), 700)));
+        }
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    void parseLogFileShouldReadMultiMemberGzip() throws Exception {
+        Path plainFile = Files.createTempFile("router-rotated", ".log");
+        Path gzipFile = Files.createTempFile("router-rotated", ".log.gz");
+        StringBuilder content = new StringBuilder();
+        try (OutputStream out = Files.newOutputStream(gzipFile)) {
+            for (int member = 0; member < 5; member++) {
+                StringBuilder chunk = new StringBuilder();
+                for (int i = 0; i < 40; i++) {
+                    chunk.append(String.format("2024-07-04T10:%02d:%02dZ [INFO] user-service -> order-service:8080 HTTP GET /api/orders/%d 200 12ms\n",
+                            member, i, member * 40 + i));
+                }
+                // One gzip member per rotation flush, concatenated as with cat
+                GZIPOutputStream gzip = new GZIPOutputStream(out);
+                gzip.write(chunk.toString().getBytes(StandardCharsets.UTF_8));
+                gzip.finish();
+                content.append(chunk);
+            }
+        }
+        Files.write(plainFile, content.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<Claim> fromGzip = adapter.parseLogFile(gzipFile);
+        assertEquals(200, fromGzip.size());
+        assertEquals(ids(adapter.parseLogFile(plainFile)), ids(fromGzip));
+        assertEquals(ids(fromGzip), ids(adapter.parseLogFileParallel(gzipFile)));
+        try (Stream<Claim> claims = adapter.streamLogFile(gzipFile)) {
+            assertEquals(ids(fromGzip), ids(claims.collect(Collectors.toList())));
+        }
+        Files.deleteIfExists(plainFile);
+        Files.deleteIfExists(gzipFile);
+    }
+
+    @Test
+    void streamLogFileShouldMatchParseLogFile() throws Exception {
+        Path tempFile = Files.createTempFile("router-stream", ".log");
+        Files.write(tempFile, List.of(
+            "2024-07-04 10:30:45 [INFO] 192.168.1.100 -> 192.168.1.200:8080 HTTP GET /api/users 200 125ms",
+            "invalid log line",
+            "2024-07-04 10:30:46 [INFO] 192.168.1.200 -> 192.168.1.150:3306 TCP connection established"
+        ));
+        List<Claim> streamed;
+        try (Stream<Claim> claims = adapter.streamLogFile(tempFile)) {
+            streamed = claims.collect(Collectors.toList());
+        }
+        assertEquals(ids(adapter.parseLogFile(tempFile)), ids(streamed));
+        assertEquals(2, streamed.size());
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    void streamLogDataShouldParseLazily() {
+        // An unbounded source only terminates if lines are pulled on demand
+        Stream<String> endless = Stream.iterate(0, i -> i + 1)
+            .map(i -> String.format("2024-07-04T10:30:%02dZ [INFO] service-%d -> database:5432 TCP", i % 60, i));
+        List<Claim> claims = adapter.streamLogData(endless).limit(3).collect(Collectors.toList());
+        assertEquals(3, claims.size());
+        assertTrue(claims.get(2).getRawData().contains("service-2 -> database"));
+    }
+
+    @Test
+    void parseLogDataAggregatedShouldEmitOneClaimPerEdgeAndWindow() {
+        List<String> lines = new java.util.ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            // Two edges over ten minutes: two 5-minute windows each
+            String target = i % 2 == 0 ? "auth-service" : "database";
+            lines.add(String.format("2024-07-04T10:%02d:%02dZ [INFO] user-service -> %s:8080 HTTP GET /api/validate %d %dms",
+                    (i * 600 / 1000) / 60, (i * 600 / 1000) % 60, target, i % 10 == 0 ? 500 : 200, 10 + i % 5));
+        }
+        lines.add("invalid log line");
+
+        List<Claim> claims = adapter.parseLogDataAggregated(lines, java.time.Duration.ofMinutes(5));
+
+        assertEquals(4, claims.size());
+        assertEquals(1000, claims.stream().mapToLong(Claim::getObservationCount).sum());
+        Claim first = claims.get(0);
+        assertEquals(250, first.getObservationCount());
+        assertEquals(adapter.toClaim(adapter.parseLogLine(lines.get(0)), lines.get(0)).getProcessedData(),
+                first.getProcessedData());
+        assertTrue(first.getRawData().contains("count=250"));
+        assertTrue(first.getRawData().contains("500=50"));
+        assertTrue(first.getRawData().contains("responseTimeMs(min/mean/max)=10/12.0/14"));
+    }
+
+    @Test
+    void parseLogDataAggregatedShouldTolerateLinesOutOfOrderByLessThanAWindow() {
+        List<String> lines = new java.util.ArrayList<>();
+        for (int minute = 0; minute < 60; minute++) {
+            // Each minute's second line is logged 50 seconds late, after the next minute's first
+            lines.add(String.format("2024-07-04T10:%02d:10Z [INFO] user-service -> auth-service:8080 HTTP GET /api 200 5ms", minute));
+            if (minute > 0) {
+                lines.add(String.format("2024-07-04T10:%02d:20Z [INFO] user-service -> auth-service:8080 HTTP GET /api 200 5ms", minute - 1));
+            }
+        }
+
+        List<Claim> claims = adapter.parseLogDataAggregated(lines, java.time.Duration.ofMinutes(1));
+
+        assertEquals(60, claims.size());
+        assertEquals(60, claims.stream().map(Claim::getId).distinct().count());
+        assertEquals(59, claims.stream().filter(c -> c.getObservationCount() == 2).count());
+        assertTrue(claims.get(0).getRawData().startsWith("2024-07-04T10:00:10 .. 2024-07-04T10:00:20"));
+    }
+
+    @Test
+    void parseLogDataSampledShouldKeepRareEdgesAndScaleHotOnes() {
+        List<String> lines = new java.util.ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            lines.add(String.format("2024-07-04T10:%02d:%02dZ [INFO] user-service -> order-service:8080 HTTP GET /api/orders/%d 200 12ms",
+                    (i / 60) % 60, i % 60, i));
+            if (i % 700 == 0) {
+                lines.add(String.format("2024-07-04T10:%02d:%02dZ [INFO] batch-job -> database:5432 TCP", (i / 60) % 60, i % 60));
+            }
+        }
+
+        EdgeSampler sampler = new EdgeSampler(50, 20);
+        List<Claim> claims = adapter.parseLogDataSampled(lines, sampler);
+
+        List<Claim> rare = claims.stream().filter(c -> c.getRawData().contains("batch-job"))
+                .collect(Collectors.toList());
+        assertEquals(3, rare.size());
+        assertTrue(rare.stream().allMatch(c -> c.getObservationCount() == 1));
+        assertTrue(claims.size() < 200, "hot edge should be downsampled");
+        long hotEstimate = claims.stream().filter(c -> c.getRawData().contains("order-service"))
+                .mapToLong(Claim::getObservationCount).sum();
+        assertTrue(Math.abs(hotEstimate - 2000) <= 20, "estimate " + hotEstimate + " should be within one stride");
+        assertEquals(2003, sampler.getSeenCount());
+        assertEquals(2, sampler.getEdgeCount());
+        assertEquals(ids(claims), ids(adapter.parseLogDataSampled(lines, new EdgeSampler(50, 20))));
+    }
+
+    private static List<String> ids(List<Claim> claims) {
+        return claims.stream().map(Claim::getId).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,134 @@
+package com.enterprise.dependency.adapter;
+
+import com.enterprise.dependency.model.core.Claim;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RouterLogFollower}.
+ */
+class RouterLogFollowerTest {
+    private final RouterLogAdapter adapter = new RouterLogAdapter();
+    private final List<Claim> received = new ArrayList<>();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void pollShouldDeliverOnlyCompleteNewLines() throws Exception {
+        Path log = dir.resolve("router.log");
+        append(log, line("user-service", "auth-service") + line("user-service", "database"));
+
+        try (RouterLogFollower follower = follower(log)) {
+            assertEquals(2, follower.poll());
+            assertEquals(0, follower.poll());
+
+            // A line still being written is left for the next poll
+            String partial = line("order-service", "payment-service");
+            append(log, partial.substring(0, 20));
+            assertEquals(0, follower.poll());
+            append(log, partial.substring(20));
+            assertEquals(1, follower.poll());
+            assertEquals(Files.size(log), follower.getOffset());
+        }
+        assertEquals(3, received.size());
+        assertTrue(received.get(2).getRawData().contains("order-service -> payment-service"));
+    }
+
+    @Test
+    void restartedFollowerShouldResumeFromCheckpoint() throws Exception {
+        Path log = dir.resolve("router.log");
+        append(log, line("user-service", "auth-service"));
+        try (RouterLogFollower follower = follower(log)) {
+            assertEquals(1, follower.poll());
+        }
+
+        append(log, line("order-service", "payment-service"));
+        try (RouterLogFollower follower = follower(log)) {
+            assertEquals(1, follower.poll());
+        }
+        assertEquals(2, received.size());
+        assertTrue(received.get(1).getRawData().contains("order-service"));
+    }
+
+    @Test
+    void pollShouldDrainOldFileAndFollowRotatedFile() throws Exception {
+        Path log = dir.resolve("router.log");
+        append(log, line("user-service", "auth-service"));
+        try (RouterLogFollower follower = follower(log)) {
+            assertEquals(1, follower.poll());
+
+            // Written just before rotation, without a trailing newline
+            Files.write(log, line("user-service", "database").trim().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.APPEND);
+            Files.move(log, dir.resolve("router.log.1"));
+            assertEquals(0, follower.poll());
+
+            // The old file is drained once the new one shows up
+            append(log, line("order-service", "payment-service"));
+            assertEquals(2, follower.poll());
+        }
+        assertEquals(3, received.size());
+        assertTrue(received.get(1).getRawData().contains("user-service -> database"));
+        assertTrue(received.get(2).getRawData().contains("order-service -> payment-service"));
+    }
+
+    @Test
+    void pollShouldRestartAfterTruncation() throws Exception {
+        Path log = dir.resolve("router.log");
+        append(log, line("user-service", "auth-service") + line("user-service", "database"));
+        try (RouterLogFollower follower = follower(log)) {
+            assertEquals(2, follower.poll());
+
+            Files.write(log, line("order-service", "payment-service").getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            assertEquals(1, follower.poll());
+        }
+        assertTrue(received.get(2).getRawData().contains("order-service"));
+    }
+
+    @Test
+    void pollShouldRestartWhenTruncatedFileGrewPastOffset() throws Exception {
+        Path log = dir.resolve("router.log");
+        append(log, line("user-service", "auth-service"));
+        try (RouterLogFollower follower = follower(log)) {
+            assertEquals(1, follower.poll());
+
+            // Copy-truncate, then more was written than had been consumed before the next poll
+            Files.write(log, (line("order-service", "payment-service") + line("order-service", "inventory-service"))
+                    .getBytes(StandardCharsets.UTF_8), StandardOpenOption.TRUNCATE_EXISTING);
+            assertEquals(2, follower.poll());
+        }
+        assertTrue(received.get(1).getRawData().contains("order-service -> payment-service"));
+
+        // A restarted follower notices the same through the checkpointed fingerprint
+        Files.write(log, (line("billing-service", "ledger-service") + line("billing-service", "audit-service")
+                + line("billing-service", "tax-service")).getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try (RouterLogFollower follower = follower(log)) {
+            assertEquals(3, follower.poll());
+        }
+    }
+
+    private RouterLogFollower follower(Path log) throws Exception {
+        LogCheckpointStore store = new LogCheckpointStore(dir.resolve("checkpoints.properties"));
+        return new RouterLogFollower(adapter, log, store, received::addAll);
+    }
+
+    private static String line(String source, String target) {
+        return "2024-07-04T10:30:45Z [INFO] " + source + " -> " + target + ":8080 HTTP GET /api 200 12ms\n";
+    }
+
+    private static void append(Path log, String content) throws Exception {
+        Files.write(log, content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
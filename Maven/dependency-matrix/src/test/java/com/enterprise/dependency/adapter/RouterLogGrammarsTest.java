@@ -0,0 +1,125 @@
+package com.enterprise.dependency.adapter;
+
+import com.enterprise.dependency.model.core.Claim;
+import com.enterprise.dependency.model.sources.RouterLogEntry;
+import com.enterprise.dependency.resolver.HeuristicApplicationResolver;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RouterLogGrammars} and the built-in dialects.
+ */
+class RouterLogGrammarsTest {
+    private static final String IPTABLES_LINE = "Jan 15 10:30:45 fw01 kernel: [UFW ALLOW] IN=eth0 OUT= MAC=00:11 "
+            + "SRC=10.0.1.100 DST=10.0.2.200 LEN=60 TOS=0x00 TTL=64 ID=1 DF PROTO=TCP SPT=51234 DPT=8080 WINDOW=64240 SYN";
+    private static final String ASA_LINE = "Jan 15 2024 10:30:45: %ASA-6-302013: Built outbound TCP connection 81 for "
+            + "outside:10.0.2.200/443 (10.0.2.200/443) to inside:10.0.1.100/51234 (10.0.1.100/51234)";
+    private static final String ASA_ISO_LINE = "2024-01-15T10:30:45Z: %ASA-6-302013: Built inbound TCP connection 82 for "
+            + "outside:203.0.113.5/51234 (203.0.113.5/51234) to inside:10.0.2.200/443 (10.0.2.200/443)";
+    private static final String SRX_LINE = "2024-01-15T10:30:45.123Z srx01 RT_FLOW: RT_FLOW_SESSION_CREATE: session created "
+            + "10.0.1.100/51234->10.0.2.200/8080 0x0 junos-http 10.0.1.100/51234->10.0.2.200/8080 0x0 N/A N/A N/A N/A "
+            + "17 trust-to-untrust trust untrust 42 N/A(N/A) ge-0/0/1.0";
+    private static final String ENVOY_LINE = "[2024-01-15T10:30:45.123+01:00] \"GET /api/users?id=7 HTTP/1.1\" 200 - 0 1234 125 120 "
+            + "\"10.0.1.100, 10.0.0.1\" \"curl/8.0\" \"req-1\" \"user-service\" \"10.0.2.200:8080\"";
+
+    private final RouterLogGrammars grammars = RouterLogGrammars.defaults();
+
+    @Test
+    void builtInDialectsShouldParseTheirLines() {
+        RouterLogEntry iptables = grammars.get("iptables").parse(IPTABLES_LINE);
+        assertEquals("10.0.1.100 -> 10.0.2.200:8080 TCP", describe(iptables));
+
+        RouterLogEntry asa = grammars.get("cisco-asa").parse(ASA_LINE);
+        assertEquals("10.0.1.100 -> 10.0.2.200:443 TCP", describe(asa));
+        assertEquals(LocalDateTime.of(2024, 1, 15, 10, 30, 45), asa.getTimestamp());
+
+        RouterLogEntry asaIso = grammars.get("cisco-asa").parse(ASA_ISO_LINE);
+        assertEquals("203.0.113.5 -> 10.0.2.200:443 TCP", describe(asaIso));
+        assertEquals(LocalDateTime.of(2024, 1, 15, 10, 30, 45), asaIso.getTimestamp());
+        assertEquals("cisco-asa", grammars.detect(Arrays.asList(ASA_ISO_LINE, ASA_ISO_LINE)).getName());
+
+        RouterLogEntry srx = grammars.get("juniper-srx").parse(SRX_LINE);
+        assertEquals("10.0.1.100 -> 10.0.2.200:8080 UDP", describe(srx));
+
+        RouterLogEntry envoy = grammars.get("envoy").parse(ENVOY_LINE);
+        assertEquals("10.0.1.100 -> 10.0.2.200:8080 HTTP", describe(envoy));
+        assertEquals("/api/users?id=7", envoy.getEndpoint());
+        assertEquals(125, envoy.getResponseTimeMs());
+        assertEquals(LocalDateTime.of(2024, 1, 15, 9, 30, 45, 123_000_000), envoy.getTimestamp());
+
+        for (RouterLogGrammar grammar : grammars.getGrammars()) {
+            assertNull(grammar.parse("kernel: eth0 link up"), grammar.getName());
+        }
+    }
+
+    @Test
+    void syslogTimesWithoutYearShouldNotLieInTheFuture() {
+        Clock now = Clock.fixed(Instant.parse("2025-01-02T00:00:00Z"), ZoneOffset.UTC);
+        assertEquals(LocalDateTime.of(2024, 12, 31, 23, 59, 59), RouterLogDialects.parseTime("Dec 31 23:59:59", now));
+        assertEquals(LocalDateTime.of(2025, 1, 1, 8, 0), RouterLogDialects.parseTime("Jan  1 08:00:00", now));
+    }
+
+    @Test
+    void isoTimesShouldAcceptOffsetsWithAndWithoutColon() {
+        Clock clock = Clock.systemUTC();
+        LocalDateTime expected = LocalDateTime.of(2024, 1, 15, 9, 30, 45, 500_000_000);
+        assertEquals(expected, RouterLogDialects.parseTime("2024-01-15T10:30:45.5+01:00", clock));
+        assertEquals(expected, RouterLogDialects.parseTime("2024-01-15T10:30:45.5+0100", clock));
+        assertEquals(expected, RouterLogDialects.parseTime("2024-01-15T09:30:45.5Z", clock));
+        assertEquals(expected, RouterLogDialects.parseTime("2024-01-15T09:30:45.5", clock));
+    }
+
+    @Test
+    void shouldDetectDialectOnceFromFirstLines() {
+        List<String> lines = Arrays.asList(
+                "Jan 15 10:30:40 fw01 kernel: eth0 link up",
+                "",
+                IPTABLES_LINE,
+                IPTABLES_LINE.replace("DPT=8080", "DPT=5432"),
+                // Would parse in the native layout, but the file was detected as iptables
+                "2024-07-04 10:30:45 [INFO] 10.0.1.100 -> 10.0.2.200:8080 HTTP");
+
+        assertEquals("iptables", grammars.detect(lines).getName());
+        assertNull(grammars.detect(Arrays.asList("noise", "")));
+
+        RouterLogAdapter adapter = new RouterLogAdapter(new HeuristicApplicationResolver(), grammars);
+        List<Claim> claims = adapter.parseLogData(lines);
+        assertEquals(2, claims.size());
+        assertTrue(claims.get(1).getRawData().contains("DPT=5432"));
+        assertEquals(2, adapter.parseLogDataAggregated(lines, Duration.ofDays(1)).size());
+    }
+
+    @Test
+    void registeredDialectsShouldTakePartInDetection() {
+        RouterLogGrammar csv = RouterLogGrammar.of("csv", line -> {
+            String[] fields = line.split(",");
+            return fields.length != 4 ? null : RouterLogEntry.builder()
+                    .timestamp(LocalDateTime.parse(fields[0]))
+                    .sourceIp(fields[1])
+                    .targetIp(fields[2])
+                    .targetPort(Integer.parseInt(fields[3]))
+                    .protocol("TCP")
+                    .rawLine(line)
+                    .build();
+        });
+        grammars.register(csv);
+
+        assertThrows(IllegalArgumentException.class, () -> grammars.register(RouterLogGrammar.of("csv", line -> null)));
+        List<String> lines = Arrays.asList("2024-01-15T10:30:45,10.0.1.100,10.0.2.200,8080", "2024-01-15T10:30:46,a,b,1");
+        assertSame(csv, grammars.detect(lines));
+        assertEquals(2, new RouterLogAdapter(new HeuristicApplicationResolver(), grammars).parseLogData(lines).size());
+    }
+
+    private static String describe(RouterLogEntry entry) {
+        return entry.getSourceIp() + " -> " + entry.getTargetIp() + ":" + entry.getTargetPort() + " " + entry.getProtocol();
+    }
+}
@@ -0,0 +1,185 @@
+package com.enterprise.dependency.adapter;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.enterprise.dependency.model.sources.RouterLogEntry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RouterLogTokenizer}, checked against the regex path of
+ * {@link RouterLogAdapter}.
+ */
+class RouterLogTokenizerTest {
+    private final RouterLogAdapter adapter = new RouterLogAdapter();
+
+    private static final List<String> LINES = Arrays.asList(
+        "2024-07-04 10:30:45 [INFO] 192.168.1.100 -> 192.168.1.200:8080 HTTP GET /api/users 200 125ms",
+        "2024-07-04T10:30:45Z [INFO] user-service -> auth-service:8080 HTTP GET /api/validate 200 125ms",
+        "2024-07-04T10:30:45.123Z [INFO] user-service -> database:3306 TCP connection established",
+        "2024-07-04T10:31:20Z [INFO] inventory-service -> redis-cache:6379 REDIS GET inventory:item:123 200 5ms",
+        "2024-07-04T10:32:15Z [INFO] analytics-service -> kafka-broker:9092 KAFKA PRODUCE events topic 200 25ms",
+        "2024-07-04T10:31:35Z [INFO] notification-service -> email-gateway:587 SMTP SEND email notification 250 100ms",
+        "2024-07-04 10:30:45 [INFO] a -> b:80 HTTP",
+        "2024-07-04 10:30:45 [INFO] a -> b:80 HTTP GET",
+        "2024-07-04 10:30:45 [INFO] a -> b:80 HTTP 200",
+        "2024-07-04 10:30:45 [INFO] a -> b:80 HTTP 200 5ms",
+        "2024-07-04 10:30:45 [INFO] a -> b:80 HTTP GET 200 5ms",
+        "2024-07-04 10:30:45 [INFO] a -> b:80 HTTP /x 5ms",
+        "2024-07-04 10:30:45 [INFO] a -> b:80 HTTP 5ms",
+        "2024-07-04 10:30:45 [INFO] a -> b:80 HTTP /x/y 200",
+        "2024-07-04 10:30:45 [INFO] a -> b:80 HTTP GET /x 99999999999 5ms",
+        "2024-07-04 10:30:45 [INFO] a -> b:99999999999 HTTP GET",
+        "2024-07-04 10:30:45 [INFO] a -> b:080 HTTP GET",
+        "2024-07-04 10:30:45 [INFO] a -> b:80 HTTP GET  /x",
+        "2024-07-04 10:30:45 [INFO] a -> b:80 HTTP GET /x ",
+        "2024-07-04 10:30:45 [INFO] a -> b:80 HTTP/1.1 GET /x",
+        "2024-07-04 10:30:45 [INFO] a->b -> c:80 HTTP",
+        "2024-02-30 10:30:45 [INFO] a -> b:80 HTTP",
+        "2024-02-29 23:59:59 [INFO] a -> b:80 HTTP",
+        "2023-02-29 10:30:45 [INFO] a -> b:80 HTTP",
+        "2024-13-01 10:30:45 [INFO] a -> b:80 HTTP",
+        "2024-07-04 24:00:00 [INFO] a -> b:80 HTTP",
+        "2024-07-04T10:30:45 [INFO] a -> b:80 HTTP",
+        "2024-07-04 10:30:45Z [INFO] a -> b:80 HTTP",
+        "2024-07-04T10:30:45.12Z [INFO] a -> b:80 HTTP",
+        "2024-07-04T10:30:45.1234Z [INFO] a -> b:80 HTTP",
+        "2024-07-04 10:30:45 [WARN] a -> b:80 HTTP",
+        "2024-07-04 10:30:45 [INFO] a -> b HTTP",
+        "2024-07-04 10:30:45 [INFO] a -> b:80",
+        "invalid log line",
+        ""
+    );
+
+    @Test
+    void tokenizerShouldAgreeWithRegexOnEveryLineItAccepts() {
+        for (String line : LINES) {
+            RouterLogEntry fast = RouterLogTokenizer.tokenize(line);
+            RouterLogEntry reference = adapter.parseLogLineWithPattern(line);
+            if (fast != null) {
+                assertEquals(describe(reference), describe(fast), line);
+            }
+            assertEquals(describe(reference), describe(adapter.parseLogLine(line)), line);
+        }
+    }
+
+    @Test
+    void tokenizerShouldHandleCommonLayoutsWithoutFallback() {
+        RouterLogEntry entry = RouterLogTokenizer.tokenize(LINES.get(0));
+        assertNotNull(entry);
+        assertEquals("GET", entry.getMethod());
+        assertEquals("/api/users", entry.getEndpoint());
+        assertEquals(200, entry.getStatusCode());
+        assertEquals(125, entry.getResponseTimeMs());
+
+        assertNotNull(RouterLogTokenizer.tokenize(LINES.get(1)));
+        assertNotNull(RouterLogTokenizer.tokenize(LINES.get(2)));
+        assertEquals(123_000_000, RouterLogTokenizer.tokenize(LINES.get(2)).getTimestamp().getNano());
+
+        // Left to the regex: the formatter adjusts or rejects these
+        assertNull(RouterLogTokenizer.tokenize("2024-02-30 10:30:45 [INFO] a -> b:80 HTTP"));
+        assertNull(RouterLogTokenizer.tokenize("2024-07-04T10:30:45 [INFO] a -> b:80 HTTP"));
+    }
+
+    @Test
+    void tokenizerShouldAgreeWithRegexOnGeneratedTraffic() {
+        for (int i = 0; i < 2_000; i++) {
+            String line = String.format("2024-07-04T10:%02d:%02dZ [INFO] service-%d -> service-%d:8080 HTTP GET /api/items/%d 200 %dms",
+                    (i / 60) % 60, i % 60, i % 40, (i + 1) % 40, i, i % 500);
+            RouterLogEntry fast = RouterLogTokenizer.tokenize(line);
+            assertNotNull(fast, line);
+            assertEquals(describe(adapter.parseLogLineWithPattern(line)), describe(fast), line);
+        }
+    }
+
+    @Test
+    void edgeKeyShouldMatchParsedEntryOnEveryLineItKeys() {
+        for (String line : LINES) {
+            RouterLogEntry reference = adapter.parseLogLineWithPattern(line);
+            String key = RouterLogTokenizer.edgeKey(line);
+            if (reference != null && key != null) {
+                assertEquals(reference.getSourceIp() + " -> " + reference.getTargetIp() + ":"
+                        + reference.getTargetPort() + " " + reference.getProtocol(), key, line);
+            }
+        }
+        assertEquals("user-service -> database:3306 TCP", RouterLogTokenizer.edgeKey(LINES.get(2)));
+        // Keyed from the parsed entry instead
+        assertNull(RouterLogTokenizer.edgeKey("2024-07-04 10:30:45 [INFO] a -> b:080 HTTP GET"));
+        assertNull(RouterLogTokenizer.edgeKey("invalid log line"));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void tokenizerThroughputComparedToRegex() {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            lines.add(String.format("2024-07-04T10:%02d:%02dZ [INFO] service-%d -> service-%d:8080 HTTP GET /api/items/%d 200 %dms",
+                    (i / 60) % 60, i % 60, i % 40, (i + 1) % 40, i, i % 500));
+        }
+
+        // Entry validation logs at debug level, which would dominate both timings
+        Logger entryLogger = (Logger) LoggerFactory.getLogger(RouterLogEntry.class);
+        Level previousLevel = entryLogger.getLevel();
+        entryLogger.setLevel(Level.INFO);
+        long regexNanos;
+        long tokenizerNanos;
+        int regexCount;
+        int tokenizerCount;
+        try {
+            // Warm up both paths before timing them
+            runRegex(lines);
+            runTokenizer(lines);
+
+            long regexStart = System.nanoTime();
+            regexCount = runRegex(lines);
+            regexNanos = System.nanoTime() - regexStart;
+
+            long tokenizerStart = System.nanoTime();
+            tokenizerCount = runTokenizer(lines);
+            tokenizerNanos = System.nanoTime() - tokenizerStart;
+        } finally {
+            entryLogger.setLevel(previousLevel);
+        }
+
+        assertEquals(lines.size(), regexCount);
+        assertEquals(lines.size(), tokenizerCount);
+        System.out.printf("Router log parsing of %d lines: regex %.0f lines/s, tokenizer %.0f lines/s (%.1fx)%n",
+                lines.size(),
+                lines.size() / (regexNanos / 1e9),
+                lines.size() / (tokenizerNanos / 1e9),
+                (double) regexNanos / tokenizerNanos);
+    }
+
+    private int runRegex(List<String> lines) {
+        int count = 0;
+        for (String line : lines) {
+            if (adapter.parseLogLineWithPattern(line) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int runTokenizer(List<String> lines) {
+        int count = 0;
+        for (String line : lines) {
+            if (RouterLogTokenizer.tokenize(line) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // RouterLogEntry.equals only compares a few fields
+    private static String describe(RouterLogEntry entry) {
+        return Objects.toString(entry);
+    }
+}
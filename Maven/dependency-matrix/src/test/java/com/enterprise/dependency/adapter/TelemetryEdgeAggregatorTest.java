@@ -0,0 +1,253 @@
+package com.enterprise.dependency.adapter;
+
+import com.enterprise.dependency.model.core.Claim;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TelemetryEdgeAggregator} and the windowed claims of
+ * {@link TelemetryAdapter}.
+ */
+class TelemetryEdgeAggregatorTest {
+
+    private static final long START = Instant.parse("2024-01-15T10:30:00Z").toEpochMilli();
+
+    @Test
+    void shouldCountExactlyAcrossThreads() throws Exception {
+        ManualClock clock = new ManualClock(START);
+        TelemetryEdgeAggregator aggregator = new TelemetryEdgeAggregator(Duration.ofSeconds(10), 6, clock);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        aggregator.record("orders", i % 2 == 0 ? "payments" : "inventory", "apm-dependency",
+                                i % 100 + 1, i % 20 < 2);
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // The bucket in progress is not reported
+        assertTrue(aggregator.summarize().isEmpty());
+        clock.set(START + 10_000);
+        List<TelemetryEdgeAggregator.EdgeSummary> summaries = aggregator.summarize();
+        assertEquals(2, summaries.size());
+        for (TelemetryEdgeAggregator.EdgeSummary summary : summaries) {
+            assertEquals(20_000, summary.getCalls());
+            assertEquals(0.1, summary.getErrorRate(), 1e-9);
+            assertEquals(20_000 / 60.0, summary.getRatePerSecond(), 1e-9);
+        }
+        assertEquals(0, aggregator.getLateSamples());
+    }
+
+    @Test
+    void shouldEstimateLatencyQuantiles() {
+        TelemetryEdgeAggregator aggregator = new TelemetryEdgeAggregator(
+                Duration.ofSeconds(10), 6, new ManualClock(START));
+        for (int latency = 1; latency <= 1000; latency++) {
+            aggregator.record("orders", "payments", "opentelemetry-span", latency, false);
+        }
+        aggregator.record("orders", "payments", "prometheus-http", Double.NaN, false);
+
+        List<TelemetryEdgeAggregator.EdgeSummary> summaries = aggregator.summarize(START + 10_000);
+        TelemetryEdgeAggregator.EdgeSummary spans = summaries.stream()
+                .filter(s -> s.getType().equals("opentelemetry-span")).findFirst().orElseThrow();
+        assertEquals(500.5, spans.getMeanLatencyMs(), 1e-9);
+        assertEquals(500, spans.getP50LatencyMs(), 500 * 0.125);
+        assertEquals(950, spans.getP95LatencyMs(), 950 * 0.125);
+        assertEquals(990, spans.getP99LatencyMs(), 990 * 0.125);
+        TelemetryEdgeAggregator.EdgeSummary metrics = summaries.stream()
+                .filter(s -> s.getType().equals("prometheus-http")).findFirst().orElseThrow();
+        assertEquals(1, metrics.getCalls());
+        assertTrue(Double.isNaN(metrics.getP99LatencyMs()));
+
+        for (double latency : new double[] {0.07, 1, 3, 45.5, 1234, 600_000}) {
+            assertEquals(latency, TelemetryEdgeAggregator.binValue(TelemetryEdgeAggregator.bin(latency)),
+                    latency * 0.125);
+        }
+    }
+
+    @Test
+    void shouldRollWindowAndDropIdleEdges() {
+        ManualClock clock = new ManualClock(START);
+        TelemetryEdgeAggregator aggregator = new TelemetryEdgeAggregator(Duration.ofSeconds(10), 3, clock);
+        aggregator.record("orders", "payments", "apm-dependency", 10, false, START);
+        aggregator.record("orders", "payments", "apm-dependency", 10, false, START + 5_000);
+        aggregator.record("orders", "inventory", "apm-dependency", 10, true, START);
+
+        clock.set(START + 20_000);
+        aggregator.record("orders", "payments", "apm-dependency", 10, false);
+        // The three completed buckets before the one in progress
+        clock.set(START + 30_000);
+        List<TelemetryEdgeAggregator.EdgeSummary> summaries = aggregator.summarize();
+        assertEquals(2, summaries.size());
+        assertEquals(3, summaries.stream().filter(s -> s.getTarget().equals("payments"))
+                .findFirst().orElseThrow().getCalls());
+        assertEquals(Instant.ofEpochMilli(START), summaries.get(0).getWindowStart());
+        assertEquals(Instant.ofEpochMilli(START + 30_000), summaries.get(0).getWindowEnd());
+        assertEquals(3 / 30.0, summaries.stream().filter(s -> s.getTarget().equals("payments"))
+                .findFirst().orElseThrow().getRatePerSecond(), 1e-9);
+
+        clock.set(START + 40_000);
+        aggregator.record("orders", "payments", "apm-dependency", 10, false, START + 5_000);
+        assertEquals(1, aggregator.getLateSamples());
+        summaries = aggregator.summarize();
+        assertEquals(1, summaries.size());
+        assertEquals(1, summaries.get(0).getCalls());
+        assertEquals(1, aggregator.getEdgeCount());
+
+        clock.set(START + 70_000);
+        assertTrue(aggregator.summarize().isEmpty());
+        assertEquals(0, aggregator.getEdgeCount());
+    }
+
+    @Test
+    void publishShouldReportEachCompletedBucketExactlyOnce() {
+        ManualClock clock = new ManualClock(START);
+        TelemetryEdgeAggregator aggregator = new TelemetryEdgeAggregator(Duration.ofSeconds(10), 6, clock);
+        aggregator.record("orders", "payments", "apm-dependency", 10, false);
+        assertTrue(aggregator.publish().isEmpty());
+
+        // Recorded after a publish in the same bucket: neither lost nor counted twice
+        clock.set(START + 5_000);
+        aggregator.record("orders", "payments", "apm-dependency", 10, false);
+        clock.set(START + 10_000);
+        List<TelemetryEdgeAggregator.EdgeSummary> published = aggregator.publish();
+        assertEquals(1, published.size());
+        assertEquals(2, published.get(0).getCalls());
+        assertEquals(Instant.ofEpochMilli(START), published.get(0).getWindowStart());
+        assertEquals(Instant.ofEpochMilli(START + 10_000), published.get(0).getWindowEnd());
+        assertEquals(0.2, published.get(0).getRatePerSecond(), 1e-9);
+        assertTrue(aggregator.publish().isEmpty());
+
+        // A sample for a published bucket is late; the next bucket is published once
+        aggregator.record("orders", "payments", "apm-dependency", 10, false, START + 5_000);
+        assertEquals(1, aggregator.getLateSamples());
+        aggregator.record("orders", "payments", "apm-dependency", 10, false);
+        clock.set(START + 30_000);
+        published = aggregator.publish();
+        assertEquals(1, published.get(0).getCalls());
+        assertEquals(Instant.ofEpochMilli(START + 10_000), published.get(0).getWindowStart());
+        assertEquals(Instant.ofEpochMilli(START + 30_000), published.get(0).getWindowEnd());
+        // summarize still shows the whole window and publishes nothing
+        assertEquals(3, aggregator.summarize().get(0).getCalls());
+        assertTrue(aggregator.publish().isEmpty());
+    }
+
+    @Test
+    void publishShouldAccountForEverySampleWhileRecordersRace() throws Exception {
+        ManualClock clock = new ManualClock(START);
+        // A long window, so that only the race with publish is exercised, not roll-over
+        TelemetryEdgeAggregator aggregator = new TelemetryEdgeAggregator(Duration.ofSeconds(10), 60, clock);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        long published = 0;
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        aggregator.record("orders", "payments", "apm-dependency", 10, false);
+                    }
+                }));
+            }
+            while (!tasks.stream().allMatch(Future::isDone)) {
+                clock.set(clock.millis() + 10_000);
+                published += calls(aggregator.publish());
+                Thread.sleep(5);
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        clock.set(clock.millis() + 10_000);
+        published += calls(aggregator.publish());
+
+        assertEquals(80_000, published + aggregator.getLateSamples());
+    }
+
+    private static long calls(List<TelemetryEdgeAggregator.EdgeSummary> summaries) {
+        return summaries.stream().mapToLong(TelemetryEdgeAggregator.EdgeSummary::getCalls).sum();
+    }
+
+    @Test
+    void telemetryAdapterShouldPublishOneClaimPerEdge() {
+        ManualClock clock = new ManualClock(START);
+        TelemetryAdapter adapter = new TelemetryAdapter(new TelemetryEdgeAggregator(Duration.ofSeconds(10), 6, clock));
+
+        long recorded = adapter.aggregateTelemetryData(Stream.of(
+                "dependency{source=\"orders\",target=\"payments\",type=\"http\",response_time=40ms,success_rate=0.99}",
+                "dependency{source=\"orders\",target=\"payments\",type=\"http\",response_time=60ms,success_rate=0.99}",
+                "TELEMETRY 2024-01-15T10:30:00Z orders -> inventory latency=120ms",
+                "not telemetry",
+                "").parallel());
+
+        assertEquals(3, recorded);
+        assertTrue(adapter.publishTelemetryWindow().isEmpty());
+        clock.set(START + 10_000);
+        List<Claim> claims = adapter.publishTelemetryWindow();
+        assertEquals(2, claims.size());
+        Claim payments = claims.stream()
+                .filter(c -> c.getProcessedData().equals("orders -> payments (apm-dependency)"))
+                .findFirst().orElseThrow();
+        assertEquals(2, payments.getObservationCount());
+        assertEquals(0.85, payments.getConfidenceScore().getValue(), 1e-9);
+        assertTrue(payments.getRawData().contains("[WINDOW] orders -> payments (apm-dependency) calls=2"));
+        assertTrue(claims.stream().anyMatch(c -> c.getProcessedData().equals("orders -> inventory (custom-telemetry)")));
+        assertEquals(Instant.ofEpochMilli(START + 10_000), payments.getTimestamp());
+        assertTrue(adapter.publishTelemetryWindow().isEmpty());
+    }
+
+    private static final class ManualClock extends Clock {
+        private volatile long millis;
+
+        ManualClock(long millis) {
+            this.millis = millis;
+        }
+
+        void set(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
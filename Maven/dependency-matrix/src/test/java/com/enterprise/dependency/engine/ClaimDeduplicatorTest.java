@@ -0,0 +1,81 @@
+package com.enterprise.dependency.engine;
+
+import com.enterprise.dependency.adapter.RouterLogAdapter;
+import com.enterprise.dependency.model.core.Claim;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ClaimDeduplicator}.
+ */
+class ClaimDeduplicatorTest {
+
+    @Test
+    void overlappingReingestionShouldOnlyKeepNewLines() {
+        RouterLogAdapter adapter = new RouterLogAdapter();
+        List<String> firstWindow = new ArrayList<>();
+        List<String> secondWindow = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            String line = String.format("2024-07-04T10:%02d:%02dZ [INFO] user-service -> order-service:8080 HTTP GET /api/orders 200 12ms",
+                    i / 60, i % 60);
+            if (i < 60) {
+                firstWindow.add(line);
+            }
+            if (i >= 40) {
+                secondWindow.add(line);
+            }
+        }
+
+        ClaimDeduplicator deduplicator = new ClaimDeduplicator();
+        assertEquals(60, deduplicator.deduplicate(adapter.parseLogData(firstWindow)).size());
+        List<Claim> fresh = deduplicator.deduplicate(adapter.parseLogData(secondWindow));
+
+        assertEquals(40, fresh.size());
+        assertTrue(fresh.get(0).getRawData().startsWith("2024-07-04T10:01:00Z"));
+        assertEquals(20, deduplicator.getDuplicateCount());
+        assertEquals(100, deduplicator.getDistinctCount());
+    }
+
+    @Test
+    void filterShouldGrowBeyondInitialCapacityWithoutFalseDrops() {
+        ClaimDeduplicator deduplicator = new ClaimDeduplicator(1_000, 1e-6);
+        int dropped = 0;
+        for (int i = 0; i < 50_000; i++) {
+            if (!deduplicator.firstSeen(claim("claim-" + i))) {
+                dropped++;
+            }
+        }
+        // Expected false drops are far below one at this rate
+        assertEquals(0, dropped);
+        for (int i = 0; i < 50_000; i += 1_000) {
+            assertFalse(deduplicator.firstSeen(claim("claim-" + i)));
+        }
+        assertEquals(50_000, deduplicator.getDistinctCount());
+        assertTrue(deduplicator.getFilterBytes() < 50_000 * 8, "filter should need well under 8 bytes per claim");
+    }
+
+    @Test
+    void bloomFilterShouldAddStagesAsItFills() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        for (long i = 0; i < 1_000; i++) {
+            filter.add(i * 0x9e3779b97f4a7c15L, (i * 0xc2b2ae3d27d4eb4fL) | 1);
+        }
+        assertTrue(filter.stageCount() >= 4);
+        assertTrue(filter.size() > 980);
+    }
+
+    private static Claim claim(String id) {
+        return Claim.builder()
+                .id(id)
+                .sourceType("ROUTER_LOG")
+                .rawData("raw")
+                .processedData("a -> b")
+                .timestamp(Instant.now())
+                .build();
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -51,6 +53,29 @@ class ClaimProcessingEngineTest {
         });
     }
 
+    @Test
+    void processClaimStreamShouldDropInvalidClaims() {
+        Claim valid = Claim.builder()
+                .id("claim-001")
+                .sourceType("ROUTER_LOG")
+                .rawData("2024-07-04 10:30:45 ...")
+                .processedData("app-001 -> app-002")
+                .timestamp(Instant.now())
+                .build();
+        Claim future = Claim.builder()
+                .id("claim-002")
+                .sourceType("ROUTER_LOG")
+                .rawData("2024-07-04 10:30:45 ...")
+                .processedData("app-001 -> app-003")
+                .timestamp(Instant.now().plusSeconds(3600))
+                .build();
+        List<Claim> result = engine.processClaimStream(Stream.of(valid, future))
+                .collect(Collectors.toList());
+        assertEquals(1, result.size());
+        assertEquals("claim-001", result.get(0).getId());
+        assertNotNull(result.get(0).getConfidenceScore());
+    }
+
     @Test
     void normalizeShouldReturnSameClaimForNow() {
         Claim claim = Claim.builder()
@@ -166,4 +166,30 @@ class ConflictResolutionEngineTest {
         assertEquals(1, result.size());
         assertNotNull(result.get(0).getConfidenceScore());
     }
+
+    @Test
+    void resolvedClaimShouldCarryTotalObservationCount() {
+        Instant now = Instant.now();
+        Claim aggregated = Claim.builder()
+                .id("claim-aggregated")
+                .sourceType("ROUTER_LOG")
+                .rawData("aggregate of 1200 lines")
+                .processedData("app-a -> app-b")
+                .timestamp(now)
+                .confidenceScore(ConfidenceScore.of(0.7))
+                .observationCount(1200)
+                .build();
+        Claim single = Claim.builder()
+                .id("claim-single")
+                .sourceType("CODEBASE")
+                .rawData("dependency info")
+                .processedData("app-a -> app-b")
+                .timestamp(now)
+                .confidenceScore(ConfidenceScore.of(0.9))
+                .build();
+
+        List<Claim> result = engine.resolveClaims(Arrays.asList(aggregated, single));
+        assertEquals(1, result.size());
+        assertEquals(1201, result.get(0).getObservationCount());
+    }
 }
@@ -31,4 +31,17 @@ class ClaimTest {
         );
         assertTrue(ex.getMessage().contains("id"));
     }
+
+    @Test
+    void observationCountShouldDefaultToOneAndRejectZero() {
+        Claim.Builder builder = Claim.builder()
+                .id("claim-001")
+                .sourceType("ROUTER_LOG")
+                .rawData("2024-07-04 10:30:45 ...")
+                .processedData("app-001 -> app-002")
+                .timestamp(Instant.now());
+        assertEquals(1, builder.build().getObservationCount());
+        assertEquals(500, builder.observationCount(500).build().getObservationCount());
+        assertThrows(IllegalArgumentException.class, () -> builder.observationCount(0).build());
+    }
 }
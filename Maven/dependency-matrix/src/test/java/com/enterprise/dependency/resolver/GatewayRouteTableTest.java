@@ -0,0 +1,68 @@
+package com.enterprise.dependency.resolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link GatewayRouteTable}.
+ */
+class GatewayRouteTableTest {
+
+    @Test
+    void resolveShouldPreferMostSpecificRoute() {
+        GatewayRouteTable table = GatewayRouteTable.parse(Arrays.asList(
+            "# path pattern                  service",
+            "/api/v1/users/**                user-service",
+            "/api/v1/users/{id}/orders       order-service",
+            "/api/v1/users/me/orders         profile-service   # literal wins",
+            "/api/*/health                   health-check",
+            "/api/v1/**/broken               broken-service",
+            "not-a-path                      broken-service",
+            "/api/v1/too many fields"
+        ), 100);
+
+        assertEquals(4, table.size());
+        assertEquals("profile-service", table.resolve("/api/v1/users/me/orders"));
+        assertEquals("order-service", table.resolve("/api/v1/users/42/orders?page=2"));
+        assertEquals("user-service", table.resolve("/api/v1/users/42/payments"));
+        assertEquals("user-service", table.resolve("/api/v1/users"));
+        assertEquals("health-check", table.resolve("//api/v2/health/"));
+        assertNull(table.resolve("/api/v1/broken"));
+        assertNull(table.resolve("/metrics"));
+    }
+
+    @Test
+    void resolveShouldBacktrackFromLiteralBranchWithoutRoute() {
+        GatewayRouteTable table = GatewayRouteTable.parse(Arrays.asList(
+            "/shop/cart/items      cart-service",
+            "/shop/{section}/list  catalog-service"
+        ), 100);
+
+        assertEquals("catalog-service", table.resolve("/shop/cart/list"));
+        assertEquals("cart-service", table.resolve("/shop/cart/items"));
+    }
+
+    @Test
+    void resolveShouldCacheHitsAndMisses() {
+        GatewayRouteTable table = GatewayRouteTable.parse(Arrays.asList("/api/orders/** order-service"), 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("order-service", table.resolve("/api/orders/7"));
+            assertNull(table.resolve("/api/unknown"));
+        }
+        assertEquals(2, table.getCacheMissCount());
+        assertEquals(4, table.getCacheHitCount());
+    }
+
+    @Test
+    void emptyTableShouldNeverMatch() {
+        GatewayRouteTable table = GatewayRouteTable.empty();
+
+        assertEquals(0, table.size());
+        assertNull(table.resolve("/api/v1/users"));
+        assertNull(table.resolve(null));
+    }
+}
@@ -0,0 +1,29 @@
+package com.enterprise.dependency.resolver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link HeuristicApplicationResolver}.
+ */
+class HeuristicApplicationResolverTest {
+    private final HeuristicApplicationResolver resolver = new HeuristicApplicationResolver();
+
+    @Test
+    void resolveShouldApplyNameRules() {
+        assertEquals("auth-service", resolver.resolve("auth-host-3"));
+        assertEquals("api-gateway", resolver.resolve("edge.gateway.internal"));
+        assertEquals("billing-service", resolver.resolve("billing-service"));
+        assertEquals("app-database", resolver.resolve("database"));
+        assertEquals("app-db-prod", resolver.resolve("db.prod"));
+    }
+
+    @Test
+    void resolveShouldKeepIpLiteralsUnresolved() {
+        assertEquals("192.168.1.100", resolver.resolve("192.168.1.100"));
+        assertEquals("2001:db8::1", resolver.resolve("2001:db8::1"));
+        // Not a valid address, so still a name
+        assertEquals("app-10-300-0-1", resolver.resolve("10.300.0.1"));
+    }
+}
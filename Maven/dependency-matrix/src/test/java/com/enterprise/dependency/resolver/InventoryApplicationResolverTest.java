@@ -0,0 +1,81 @@
+package com.enterprise.dependency.resolver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link InventoryApplicationResolver}.
+ */
+class InventoryApplicationResolverTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void resolveShouldPreferMostSpecificEntry() throws Exception {
+        Path inventory = write(
+            "# address, CIDR block or host name     application",
+            "10.0.0.0/8          platform",
+            "10.20.0.0/16        order-service",
+            "10.20.5.17          payment-service   # pinned host",
+            "2001:db8:40::/48    inventory-service",
+            "Orders-DB.prod      order-database",
+            "not a valid line with four fields",
+            "10.300.0.0/16       broken"
+        );
+        try (InventoryApplicationResolver resolver = new InventoryApplicationResolver(
+                inventory, new HeuristicApplicationResolver(), 1000)) {
+            assertEquals("payment-service", resolver.resolve("10.20.5.17"));
+            assertEquals("order-service", resolver.resolve("10.20.5.18"));
+            assertEquals("platform", resolver.resolve("10.99.0.1"));
+            assertEquals("inventory-service", resolver.resolve("2001:db8:40:1::5"));
+            assertEquals("inventory-service", resolver.resolve("[2001:0db8:0040:0000::1]"));
+            assertEquals("order-database", resolver.resolve("orders-db.prod"));
+
+            // Not in the inventory: name heuristics
+            assertEquals("192.168.1.1", resolver.resolve("192.168.1.1"));
+            assertEquals("auth-service", resolver.resolve("auth-host"));
+            assertEquals("app-database", resolver.resolve("database"));
+        }
+    }
+
+    @Test
+    void resolveShouldServeRepeatedLookupsFromCache() throws Exception {
+        Path inventory = write("10.20.0.0/16 order-service");
+        try (InventoryApplicationResolver resolver = new InventoryApplicationResolver(
+                inventory, new HeuristicApplicationResolver(), 1000)) {
+            for (int i = 0; i < 10; i++) {
+                assertEquals("order-service", resolver.resolve("10.20.1.1"));
+            }
+            assertEquals(1, resolver.getCacheMissCount());
+            assertEquals(9, resolver.getCacheHitCount());
+        }
+    }
+
+    @Test
+    void reloadIfModifiedShouldSwapInventory() throws Exception {
+        Path inventory = write("10.20.0.0/16 order-service");
+        try (InventoryApplicationResolver resolver = new InventoryApplicationResolver(
+                inventory, new HeuristicApplicationResolver(), 1000)) {
+            assertEquals("order-service", resolver.resolve("10.20.1.1"));
+            assertFalse(resolver.reloadIfModified());
+
+            Files.write(inventory, Arrays.asList("10.20.0.0/16 billing-service"));
+            Files.setLastModifiedTime(inventory, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+            assertTrue(resolver.reloadIfModified());
+            assertEquals("billing-service", resolver.resolve("10.20.1.1"));
+        }
+    }
+
+    private Path write(String... lines) throws Exception {
+        Path inventory = dir.resolve("inventory.txt");
+        Files.write(inventory, Arrays.asList(lines));
+        return inventory;
+    }
+}
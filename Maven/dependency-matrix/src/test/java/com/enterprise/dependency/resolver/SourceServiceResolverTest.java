@@ -0,0 +1,45 @@
+package com.enterprise.dependency.resolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SourceServiceResolver}.
+ */
+class SourceServiceResolverTest {
+
+    @Test
+    void resolveShouldClassifyUserAgentsAndFallBackToClientAddress() {
+        SourceServiceResolver resolver = SourceServiceResolver.defaults();
+
+        assertEquals("mobile-client", resolver.resolve("mobile-client/1.0", "10.0.0.1"));
+        assertEquals("order-service-proxy", resolver.resolve("order-service-proxy/2.0 (linux)", "10.0.0.1"));
+        assertEquals("service", resolver.resolve("Mozilla/5.0 service", "10.0.0.1"));
+        assertEquals("client-10-0-0-1", resolver.resolve("curl/8.4.0", "10.0.0.1"));
+        assertEquals("client-10-0-0-2", resolver.resolve("-", "10.0.0.2"));
+        assertEquals("client-unknown", resolver.resolve(null, null));
+    }
+
+    @Test
+    void resolveShouldAskClassifiersInOrderOnlyOnCacheMiss() {
+        AtomicInteger lookups = new AtomicInteger();
+        SourceClassifier byAddress = (userAgent, clientIp) -> {
+            lookups.incrementAndGet();
+            return "10.9.9.9".equals(clientIp) ? "billing-batch" : null;
+        };
+        SourceServiceResolver resolver = new SourceServiceResolver(
+            Arrays.asList(byAddress, new UserAgentSourceClassifier()), 100);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("billing-batch", resolver.resolve("order-service/1.0", "10.9.9.9"));
+            assertEquals("order-service", resolver.resolve("order-service/1.0", "10.0.0.1"));
+        }
+        assertEquals(2, lookups.get());
+        assertEquals(2, resolver.getCacheMissCount());
+        assertEquals(8, resolver.getCacheHitCount());
+    }
+}
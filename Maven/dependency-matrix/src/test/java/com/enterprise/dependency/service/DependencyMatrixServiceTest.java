@@ -0,0 +1,49 @@
+package com.enterprise.dependency.service;
+
+import com.enterprise.dependency.model.core.Claim;
+import com.enterprise.dependency.model.core.DependencyMatrix;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the incremental path of {@link DependencyMatrixService}.
+ */
+@SpringBootTest
+class DependencyMatrixServiceTest {
+    @Autowired
+    private DependencyMatrixService service;
+
+    @Test
+    void incrementalIngestionShouldKeepOneDependencyPerEdge() {
+        int batches = DependencyMatrixService.MAX_INCREMENTAL_CLAIMS_PER_DEPENDENCY * 3;
+        DependencyMatrix matrix = null;
+        for (int i = 0; i < batches; i++) {
+            matrix = service.ingestIncrementalClaims(List.of(
+                    claim("incremental-" + i, "checkout-service -> ledger-service"),
+                    claim("incremental-other-" + i, "checkout-service -> fraud-service")));
+        }
+
+        assertNotNull(matrix);
+        assertEquals(2, matrix.getDependencies().stream()
+                .filter(d -> d.getSourceAppId().equals("checkout-service"))
+                .count());
+        // A replayed batch is dropped and leaves the matrix as it was
+        assertSame(matrix, service.ingestIncrementalClaims(List.of(claim("incremental-0", "checkout-service -> ledger-service"))));
+    }
+
+    private static Claim claim(String id, String processedData) {
+        return Claim.builder()
+                .id(id)
+                .sourceType("ROUTER_LOG")
+                .rawData("2024-07-04T10:30:45Z [INFO] " + processedData + ":8080 HTTP GET /api 200 12ms")
+                .processedData(processedData)
+                .timestamp(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.enterprise.dependency.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link JavaSourceAnalyzer}.
+ */
+class JavaSourceAnalyzerTest {
+    @TempDir
+    Path codebase;
+
+    @Test
+    void shouldFindImportedAndConstructedClasses() {
+        String source = "package com.enterprise.orders;\n"
+                + "import java.util.concurrent.ConcurrentHashMap;\n"
+                + "import com.enterprise.payments.PaymentClient;\n"
+                + "import static com.enterprise.audit.AuditLog.record;\n"
+                + "import com.enterprise.shared.*;\n"
+                + "public class OrderService {\n"
+                + "    private final InventoryClient inventory = new InventoryClient ();\n"
+                + "    private final Object cache = new ConcurrentHashMap<>();\n"
+                + "    private final StringBuilder text = new StringBuilder();\n"
+                + "}\n";
+
+        assertEquals(new HashSet<>(Arrays.asList("PaymentClient", "AuditLog", "InventoryClient")),
+                JavaSourceAnalyzer.findDependencies(source));
+    }
+
+    @Test
+    void shouldOnlyParseChangedFilesOnReanalysis() throws Exception {
+        Path orders = write("orders/OrderService.java", "class OrderService { Object c = new PaymentClient(); }");
+        write("users/UserService.java", "class UserService { Object c = new AuditClient(); }");
+        Path removed = write("legacy/LegacyJob.java", "class LegacyJob { }");
+        JavaSourceAnalyzer analyzer = new JavaSourceAnalyzer();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            JavaSourceAnalyzer.Analysis first = analyzer.analyze(codebase, pool);
+            assertEquals(3, first.parsedFileCount());
+            assertEquals(new HashSet<>(Arrays.asList("PaymentClient")), first.dependencies().get("OrderService"));
+
+            // Touched without a content change, then changed, then deleted
+            Path users = codebase.resolve("users/UserService.java");
+            Files.setLastModifiedTime(users, FileTime.fromMillis(Files.getLastModifiedTime(users).toMillis() + 5_000));
+            Files.write(orders, "class OrderService { Object c = new ShippingClient(); }".getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(orders, FileTime.fromMillis(Files.getLastModifiedTime(orders).toMillis() + 5_000));
+            Files.delete(removed);
+
+            JavaSourceAnalyzer.Analysis second = analyzer.analyze(codebase, pool);
+            assertEquals(2, second.fileCount());
+            assertEquals(1, second.parsedFileCount());
+            assertEquals(new HashSet<>(Arrays.asList("ShippingClient")), second.dependencies().get("OrderService"));
+            assertEquals(new HashSet<>(Arrays.asList("AuditClient")), second.dependencies().get("UserService"));
+            assertFalse(second.dependencies().containsKey("LegacyJob"));
+            assertTrue(second.errors().isEmpty());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Path write(String relativePath, String content) throws Exception {
+        Path file = codebase.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
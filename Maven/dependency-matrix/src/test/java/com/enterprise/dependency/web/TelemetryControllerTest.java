@@ -0,0 +1,56 @@
+package com.enterprise.dependency.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for {@link TelemetryController}, posting the recorded OTLP export also used by
+ * the reader tests.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TelemetryControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void ingestOtlpTracesShouldReturnJoinedEdges() throws Exception {
+        byte[] export = Files.readAllBytes(Paths.get(TelemetryControllerTest.class.getResource("/otlp/traces.json").toURI()));
+
+        mockMvc.perform(post("/api/telemetry/otlp/traces").contentType(MediaType.APPLICATION_JSON).content(export))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.spans").value(8))
+                .andExpect(jsonPath("$.unmatchedSpans").value(1))
+                .andExpect(jsonPath("$.edges", hasSize(3)))
+                .andExpect(jsonPath("$.edges[0].caller").value("orders"))
+                .andExpect(jsonPath("$.edges[0].callee").value("payments"))
+                .andExpect(jsonPath("$.edges[0].calls").value(1))
+                .andExpect(jsonPath("$.edges[0].errors").value(0))
+                .andExpect(jsonPath("$.edges[0].meanLatencyMs").value(100.0))
+                // Instants are ISO-8601 strings, not epoch numbers
+                .andExpect(jsonPath("$.edges[0].firstSeen").value("2024-01-15T10:30:00.020Z"))
+                .andExpect(jsonPath("$.edges[0].lastSeen").value("2024-01-15T10:30:00.020Z"))
+                .andExpect(jsonPath("$.edges[2].callee").value("postgres.db"))
+                .andExpect(jsonPath("$.edges[2].errors").value(1));
+    }
+
+    @Test
+    void ingestOtlpTracesShouldRejectMalformedJson() throws Exception {
+        mockMvc.perform(post("/api/telemetry/otlp/traces").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"resourceSpans\":["))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").isString());
+    }
+}